@@ -1,13 +1,16 @@
 package io.jenkins.plugins.coverage;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.nio.file.Files;
@@ -48,6 +51,7 @@ import io.jenkins.plugins.coverage.detector.Detectable;
 import io.jenkins.plugins.coverage.detector.ReportDetector;
 import io.jenkins.plugins.coverage.exception.CoverageException;
 import io.jenkins.plugins.coverage.model.CoverageReporter;
+import io.jenkins.plugins.coverage.model.CoverageResultWriter;
 import io.jenkins.plugins.coverage.source.SourceFileResolver;
 import io.jenkins.plugins.coverage.source.SourceFileResolver.SourceFileResolverLevel;
 import io.jenkins.plugins.coverage.targets.CoverageElement;
@@ -76,6 +80,8 @@ public class CoverageProcessor {
 
     private boolean failBuildIfCoverageDecreasedInChangeRequest;
 
+    private boolean storeDeltaToReference;
+
     @CheckForNull
     private SourceFileResolver sourceFileResolver;
 
@@ -133,6 +139,7 @@ public class CoverageProcessor {
 
         // Transform the old model to the new model
         CoverageReporter coverageReporter = new CoverageReporter();
+        coverageReporter.setStoreDeltaToReference(storeDeltaToReference);
         coverageReporter.run(coverageReport.getRoot(), run, workspace, listener, healthReport, scm,
                 sourceDirectories, sourceCodeEncoding, mapSourceCodeRetention());
 
@@ -680,6 +687,14 @@ public class CoverageProcessor {
         this.failBuildIfCoverageDecreasedInChangeRequest = failBuildIfCoverageDecreasedInChangeRequest;
     }
 
+    public boolean isStoreDeltaToReference() {
+        return storeDeltaToReference;
+    }
+
+    public void setStoreDeltaToReference(final boolean storeDeltaToReference) {
+        this.storeDeltaToReference = storeDeltaToReference;
+    }
+
     private static class FindReportCallable extends MasterToSlaveFileCallable<FilePath[]> {
 
         private final String reportFilePath;
@@ -703,7 +718,8 @@ public class CoverageProcessor {
     }
 
     /**
-     * Save {@link CoverageResult} in build directory.
+     * Save {@link CoverageResult} in build directory. The report is serialized immediately, the serialized report is
+     * written to disk in the background by the {@link CoverageResultWriter}.
      *
      * @param run
      *         build
@@ -713,9 +729,39 @@ public class CoverageProcessor {
     public static void saveCoverageResult(final Run<?, ?> run, final CoverageResult report) throws IOException {
         File reportFile = new File(run.getRootDir(), DEFAULT_REPORT_SAVE_NAME);
 
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(reportFile))) {
+        ByteArrayOutputStream serializedReport = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(serializedReport)) {
             oos.writeObject(report);
         }
+        CoverageResultWriter.getInstance().submit(run, new ReportWrite(reportFile, serializedReport, report));
+    }
+
+    /**
+     * Writes a serialized {@link CoverageResult} to disk. Until the write has been completed, the report is kept in
+     * memory, so that the weakly referenced report of the {@link CoverageAction} will not be read from the
+     * incomplete file.
+     */
+    private static class ReportWrite implements Runnable {
+        private final File reportFile;
+        private final ByteArrayOutputStream serializedReport;
+        @SuppressWarnings({"unused", "FieldCanBeLocal"})
+        private final CoverageResult report;
+
+        ReportWrite(final File reportFile, final ByteArrayOutputStream serializedReport, final CoverageResult report) {
+            this.reportFile = reportFile;
+            this.serializedReport = serializedReport;
+            this.report = report;
+        }
+
+        @Override
+        public void run() {
+            try (OutputStream output = new FileOutputStream(reportFile)) {
+                serializedReport.writeTo(output);
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
     }
 
     /**
@@ -76,6 +76,8 @@ public class CoveragePublisher extends Recorder implements SimpleBuildStep {
 
     private boolean skipPublishingChecks = false;
 
+    private boolean storeDeltaToReference = false; // @since 4.100.0
+
     private String checksName = CHECKS_DEFAULT_NAME;
 
     @DataBoundConstructor
@@ -113,6 +115,7 @@ public class CoveragePublisher extends Recorder implements SimpleBuildStep {
         processor.setFailUnstable(failUnstable);
         processor.setFailNoReports(failNoReports);
         processor.setApplyThresholdRecursively(applyThresholdRecursively);
+        processor.setStoreDeltaToReference(storeDeltaToReference);
 
         try {
             processor.performCoverageReport(reportAdapters, reportDetectors, globalThresholds,
@@ -251,6 +254,22 @@ public class CoveragePublisher extends Recorder implements SimpleBuildStep {
         return skipPublishingChecks;
     }
 
+    /**
+     * Determines whether the coverage tree of a build should be stored as delta to the coverage tree of the reference
+     * build. Unchanged files will then be read from the reference build.
+     *
+     * @param storeDeltaToReference
+     *         {@code true} if the coverage tree should be stored as delta, {@code false} to store the full tree
+     */
+    @DataBoundSetter
+    public void setStoreDeltaToReference(final boolean storeDeltaToReference) {
+        this.storeDeltaToReference = storeDeltaToReference;
+    }
+
+    public boolean isStoreDeltaToReference() {
+        return storeDeltaToReference;
+    }
+
     public String getChecksName() {
         return checksName;
     }
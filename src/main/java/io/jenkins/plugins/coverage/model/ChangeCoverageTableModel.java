@@ -1,8 +1,11 @@
 package io.jenkins.plugins.coverage.model;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.math.Fraction;
@@ -11,6 +14,9 @@ import hudson.Functions;
 
 import io.jenkins.plugins.coverage.model.visualization.colorization.ColorProvider;
 import io.jenkins.plugins.datatables.DetailedCell;
+import io.jenkins.plugins.datatables.TableColumn;
+import io.jenkins.plugins.datatables.TableColumn.ColumnBuilder;
+import io.jenkins.plugins.datatables.TableColumn.ColumnType;
 import io.jenkins.plugins.datatables.TableConfiguration;
 import io.jenkins.plugins.datatables.TableConfiguration.SelectStyle;
 
@@ -20,6 +26,9 @@ import io.jenkins.plugins.datatables.TableConfiguration.SelectStyle;
  * @since 3.0.0
  */
 class ChangeCoverageTableModel extends CoverageTableModel {
+    private static final Map<String, Function<Object, Object>> COLUMN_ACCESSORS
+            = Collections.unmodifiableMap(createChangeColumnAccessors());
+
     private final CoverageNode changeRoot;
 
     /**
@@ -48,23 +57,52 @@ class ChangeCoverageTableModel extends CoverageTableModel {
         return super.getTableConfiguration().select(SelectStyle.SINGLE);
     }
 
+    @Override
+    public List<TableColumn> getColumns() {
+        List<TableColumn> columns = super.getColumns();
+
+        int position = columns.size() - 1; // before the lines of code
+        TableColumn methodCoverage = new ColumnBuilder().withHeaderLabel(Messages.Column_MethodCoverage())
+                .withDataPropertyKey("methodCoverage")
+                .withDetailedCell()
+                .withType(ColumnType.NUMBER)
+                .withResponsivePriority(3)
+                .build();
+        columns.add(position++, methodCoverage);
+        TableColumn uncoveredMethods = new ColumnBuilder().withHeaderLabel(Messages.Column_UncoveredMethods())
+                .withDataPropertyKey("uncoveredMethods")
+                .withDetailedCell()
+                .withType(ColumnType.NUMBER)
+                .withResponsivePriority(3)
+                .build();
+        columns.add(position, uncoveredMethods);
+
+        return columns;
+    }
+
+    @Override
+    Map<String, Function<Object, Object>> getColumnAccessors() {
+        return COLUMN_ACCESSORS;
+    }
+
+    private static Map<String, Function<Object, Object>> createChangeColumnAccessors() {
+        Map<String, Function<Object, Object>> accessors = createColumnAccessors();
+        addColumnAccessor(accessors, "methodCoverage", ChangeCoverageRow.class, ChangeCoverageRow::getMethodCoverage);
+        addColumnAccessor(accessors, "uncoveredMethods", ChangeCoverageRow.class,
+                ChangeCoverageRow::getUncoveredMethods);
+        return accessors;
+    }
+
     @Override
     public List<Object> getRows() {
         Locale browserLocale = Functions.getCurrentLocale();
+        UnaryOperator<FileCoverageNode> originalNodes = createOriginalNodeResolver();
         return changeRoot.getAllFileCoverageNodes().stream()
                 .map(file -> new ChangeCoverageRow(
-                        getOriginalNode(file), file, browserLocale, getRenderer(), getColorProvider()))
+                        originalNodes.apply(file), file, browserLocale, getRenderer(), getColorProvider()))
                 .collect(Collectors.toList());
     }
 
-    private FileCoverageNode getOriginalNode(final FileCoverageNode fileNode) {
-        Optional<FileCoverageNode> reference = getRoot().getAllFileCoverageNodes().stream()
-                .filter(node -> node.getPath().equals(fileNode.getPath())
-                        && node.getName().equals(fileNode.getName()))
-                .findFirst();
-        return reference.orElse(fileNode); // return this as fallback to prevent exceptions
-    }
-
     /**
      * UI row model for the change coverage details table.
      *
@@ -102,6 +140,27 @@ class ChangeCoverageTableModel extends CoverageTableModel {
             return createColoredChangeCoverageDeltaColumn(CoverageMetric.BRANCH);
         }
 
+        /**
+         * Returns the method change coverage of the file. A changed method counts as covered if at least one of its
+         * changed code lines is covered.
+         *
+         * @return the method change coverage
+         */
+        public DetailedCell<?> getMethodCoverage() {
+            Coverage coverage = changedFileNode.getMethodChangeCoverage();
+            return createColoredCoverageColumn(coverage, "The method change coverage");
+        }
+
+        /**
+         * Returns the number of changed methods whose changed code lines are not covered at all. The names of these
+         * methods are shown as tooltip.
+         *
+         * @return the number of changed but uncovered methods
+         */
+        public DetailedCell<Integer> getUncoveredMethods() {
+            return createMethodsColumn(changedFileNode.getUncoveredChangedMethods());
+        }
+
         @Override
         public int getLoc() {
             return (int) changedFileNode.getChangedCodeLines().stream()
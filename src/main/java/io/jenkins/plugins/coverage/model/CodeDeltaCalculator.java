@@ -1,7 +1,6 @@
 package io.jenkins.plugins.coverage.model;
 
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -127,7 +126,8 @@ public class CodeDeltaCalculator {
                 .map(FileChanges::getFileName)
                 .collect(Collectors.toSet());
 
-        Map<String, String> pathMapping = getScmToReportPathMapping(scmPaths, reportPaths);
+        Map<String, String> pathMapping = getScmToReportPathMapping(scmPaths,
+                new PathSuffixIndex(reportPaths)::findLongestSuffix);
         verifyScmToReportPathMapping(pathMapping, log);
 
         return changes.stream()
@@ -160,16 +160,39 @@ public class CodeDeltaCalculator {
     public Map<String, String> createOldPathMapping(final CoverageNode root, final CoverageNode referenceRoot,
             final Map<String, FileChanges> changes, final FilteredLog log)
             throws CodeDeltaException {
-        Set<String> oldReportPaths = referenceRoot.getAllFileCoverageNodes().stream()
-                .map(FileCoverageNode::getPath)
-                .collect(Collectors.toSet());
+        return createOldPathMapping(root, new ReferenceIndex(referenceRoot), changes, log);
+    }
+
+    /**
+     * Creates a mapping between the currently used coverage report paths and the corresponding paths that has been used
+     * for the same coverage nodes before the modifications. The paths of the reference are obtained from the passed
+     * {@link ReferenceIndex index} of the reference coverage tree.
+     *
+     * @param root
+     *         The root of the coverage tree
+     * @param referenceIndex
+     *         The index of the coverage tree from the reference build
+     * @param changes
+     *         The {@link FileChanges changes}, mapped by the currently used coverage report path to which they
+     *         correspond to
+     * @param log
+     *         The log
+     *
+     * @return the created mapping whose keys are the currently used paths and whose values are the paths before the
+     *         modifications
+     * @throws CodeDeltaException
+     *         if the SCM path mapping is ambiguous
+     */
+    Map<String, String> createOldPathMapping(final CoverageNode root, final ReferenceIndex referenceIndex,
+            final Map<String, FileChanges> changes, final FilteredLog log)
+            throws CodeDeltaException {
         // mapping between reference and current file paths which initially contains the SCM paths with renamings
         Map<String, String> oldPathMapping = changes.entrySet().stream()
                 .filter(entry -> FileEditType.RENAME.equals(entry.getValue().getFileEditType()))
                 .collect(Collectors.toMap(Entry::getKey, entry -> entry.getValue().getOldFileName()));
         // the SCM paths and the coverage report paths from the reference
         Map<String, String> oldScmToOldReportPathMapping =
-                getScmToReportPathMapping(oldPathMapping.values(), oldReportPaths);
+                getScmToReportPathMapping(oldPathMapping.values(), referenceIndex::findLongestSuffix);
 
         // replacing the old SCM paths with the old report paths
         Set<String> newReportPathsWithRename = oldPathMapping.keySet();
@@ -183,7 +206,7 @@ public class CodeDeltaCalculator {
 
         // adding the paths, which exist in both trees and contain no changes, to the mapping
         root.getAllFileCoverageNodes().stream()
-                .filter(node -> !oldPathMapping.containsKey(node.getPath()) && oldReportPaths.contains(
+                .filter(node -> !oldPathMapping.containsKey(node.getPath()) && referenceIndex.contains(
                         node.getPath()))
                 .forEach(node -> oldPathMapping.put(node.getPath(), node.getPath()));
 
@@ -194,27 +217,21 @@ public class CodeDeltaCalculator {
     }
 
     /**
-     * Creates a mapping between SCM paths and the corresponding coverage report paths.
+     * Creates a mapping between SCM paths and the corresponding coverage report paths. Each SCM path is mapped to the
+     * longest coverage report path that is a suffix of the SCM path, or to an empty string if there is no such path.
      *
      * @param scmPaths
      *         The SCM paths
-     * @param reportPaths
-     *         The coverage report paths
+     * @param reportPathFinder
+     *         Finds the longest coverage report path that is a suffix of an SCM path
      *
      * @return the created mapping with the SCM path as key
      */
     private Map<String, String> getScmToReportPathMapping(
-            final Collection<String> scmPaths, final Collection<String> reportPaths) {
+            final Collection<String> scmPaths, final Function<String, Optional<String>> reportPathFinder) {
         Map<String, String> pathMapping = new HashMap<>();
         for (String scmPath : scmPaths) {
-            reportPaths.stream()
-                    .filter(scmPath::endsWith)
-                    .max(Comparator.comparingInt(String::length))
-                    .map(match -> {
-                        pathMapping.put(scmPath, match);
-                        return match;
-                    })
-                    .orElseGet(() -> pathMapping.put(scmPath, ""));
+            pathMapping.put(scmPath, reportPathFinder.apply(scmPath).orElse(""));
         }
         return pathMapping;
     }
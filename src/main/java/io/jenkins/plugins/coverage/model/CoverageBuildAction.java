@@ -1,11 +1,16 @@
 package io.jenkins.plugins.coverage.model;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import edu.hm.hafner.util.VisibleForTesting;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
@@ -19,6 +24,7 @@ import hudson.model.HealthReport;
 import hudson.model.HealthReportingAction;
 import hudson.model.Run;
 
+import io.jenkins.plugins.coverage.model.Coverage.CoverageBuilder;
 import io.jenkins.plugins.forensics.reference.ReferenceBuild;
 import io.jenkins.plugins.util.AbstractXmlStream;
 import io.jenkins.plugins.util.BuildAction;
@@ -41,6 +47,7 @@ public class CoverageBuildAction extends BuildAction<CoverageNode> implements He
     private static final long serialVersionUID = -6023811049340671399L;
 
     private static final String NO_REFERENCE_BUILD = "-";
+    private static final Logger LOGGER = Logger.getLogger(CoverageBuildAction.class.getName());
 
     private final HealthReport healthReport;
 
@@ -60,6 +67,23 @@ public class CoverageBuildAction extends BuildAction<CoverageNode> implements He
     /** The indirect coverage changes of the associated change request with respect to the reference build. */
     private SortedMap<CoverageMetric, CoveragePercentage> indirectCoverageChanges;
 
+    /**
+     * The number of delta encoded builds that need to be resolved in order to reconstruct the coverage tree, 0 if the
+     * full tree has been stored.
+     */
+    private int deltaDepth; // since 4.100.0
+    /**
+     * Determines whether code changes have been detected, {@code null} for builds that did not store this value. The
+     * filtered trees of the change coverage and the indirect coverage changes are empty if there are no values in
+     * {@link #changeCoverage} and {@link #indirectCoverageChanges}, so they do not need to be computed in this case.
+     */
+    @CheckForNull
+    private Boolean codeChanges; // since 4.100.0
+
+    /** The result that is served from memory until it has been written by the {@link CoverageResultWriter}. */
+    @CheckForNull
+    private transient volatile CoverageNode pendingResult;
+
     @SuppressWarnings("unused")
     private final transient SortedMap<CoverageMetric, Double> delta = new TreeMap<>(); // not used anymore
 
@@ -106,7 +130,70 @@ public class CoverageBuildAction extends BuildAction<CoverageNode> implements He
             final SortedMap<CoverageMetric, CoveragePercentage> changeCoverageDifference,
             final SortedMap<CoverageMetric, CoveragePercentage> indirectCoverageChanges) {
         this(owner, result, healthReport, referenceBuildId, delta, changeCoverage,
-                changeCoverageDifference, indirectCoverageChanges, true);
+                changeCoverageDifference, indirectCoverageChanges, false);
+
+        writeInBackground(result, () -> createXmlStream().write(getTreeXmlPath(), result));
+    }
+
+    /**
+     * Creates a new instance of {@link CoverageBuildAction} that stores the coverage tree as delta to the tree of the
+     * reference build.
+     *
+     * @param owner
+     *         the associated build that created the statistics
+     * @param result
+     *         the coverage results to persist with this action
+     * @param healthReport
+     *         health report
+     * @param referenceBuildId
+     *         the ID of the reference build
+     * @param delta
+     *         delta of this build's coverages with respect to the reference build
+     * @param changeCoverage
+     *         the coverages filtered by changed lines of the associated change request
+     * @param changeCoverageDifference
+     *         the delta of the coverages of the associated change request with respect to the reference build
+     * @param indirectCoverageChanges
+     *         the indirect coverage changes of the associated change request with respect to the reference build
+     * @param treeDelta
+     *         the coverage tree of this build, stored as delta to the tree of the reference build
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    CoverageBuildAction(final Run<?, ?> owner, final CoverageNode result,
+            final HealthReport healthReport, final String referenceBuildId,
+            final SortedMap<CoverageMetric, CoveragePercentage> delta,
+            final SortedMap<CoverageMetric, CoveragePercentage> changeCoverage,
+            final SortedMap<CoverageMetric, CoveragePercentage> changeCoverageDifference,
+            final SortedMap<CoverageMetric, CoveragePercentage> indirectCoverageChanges,
+            final CoverageTreeDelta treeDelta) {
+        this(owner, result, healthReport, referenceBuildId, delta, changeCoverage,
+                changeCoverageDifference, indirectCoverageChanges, false);
+
+        deltaDepth = treeDelta.getDepth();
+        writeInBackground(result, () -> new CoverageTreeDeltaXmlStream().write(getDeltaXmlPath(), treeDelta));
+    }
+
+    private void writeInBackground(final CoverageNode result, final Runnable write) {
+        pendingResult = result;
+        CoverageResultWriter.getInstance().submit(getOwner(), () -> {
+            write.run();
+            pendingResult = null;
+        });
+    }
+
+    /**
+     * Returns the coverage tree of this build. If the tree is still being written in the background, then the tree will
+     * be served from memory.
+     *
+     * @return the coverage tree
+     */
+    @Override
+    public CoverageNode getResult() {
+        CoverageNode result = pendingResult;
+        if (result != null) {
+            return result;
+        }
+        return super.getResult();
     }
 
     @VisibleForTesting
@@ -129,6 +216,7 @@ public class CoverageBuildAction extends BuildAction<CoverageNode> implements He
         this.indirectCoverageChanges = indirectCoverageChanges;
         this.referenceBuildId = referenceBuildId;
         this.healthReport = healthReport;
+        codeChanges = !NO_REFERENCE_BUILD.equals(referenceBuildId) && result.hasCodeChanges();
     }
 
     @Override
@@ -149,6 +237,55 @@ public class CoverageBuildAction extends BuildAction<CoverageNode> implements He
         return super.readResolve();
     }
 
+    /**
+     * Returns the ID of the reference build that has been used to compute the deltas of this build.
+     *
+     * @return the ID of the reference build, or {@code "-"} if there is no reference build
+     */
+    String getReferenceBuildId() {
+        return referenceBuildId;
+    }
+
+    /**
+     * Returns the number of delta encoded builds that need to be resolved in order to reconstruct the coverage tree of
+     * this build.
+     *
+     * @return the delta depth, 0 if this build stores the full coverage tree
+     * @see CoverageTreeDelta
+     */
+    public int getDeltaDepth() {
+        return deltaDepth;
+    }
+
+    /**
+     * Converts a coverage tree that has been stored as delta to the reference build into a full coverage tree. Called
+     * before the reference build will be deleted.
+     */
+    void storeFullTree() {
+        if (deltaDepth == 0) {
+            return;
+        }
+
+        CoverageNode result = getResult();
+        new CoverageXmlStream().write(getTreeXmlPath(), result);
+        try {
+            Files.deleteIfExists(getDeltaXmlPath());
+            deltaDepth = 0;
+            getOwner().save();
+        }
+        catch (IOException exception) {
+            LOGGER.log(Level.WARNING, "Failed to store the full coverage tree of " + getOwner(), exception);
+        }
+    }
+
+    private Path getTreeXmlPath() {
+        return getOwner().getRootDir().toPath().resolve(getBuildResultBaseName());
+    }
+
+    private Path getDeltaXmlPath() {
+        return getOwner().getRootDir().toPath().resolve(CoverageTreeDelta.FILE_NAME);
+    }
+
     public Coverage getLineCoverage() {
         return lineCoverage;
     }
@@ -224,10 +361,27 @@ public class CoverageBuildAction extends BuildAction<CoverageNode> implements He
      * @return the change coverage
      */
     public Coverage getChangeCoverage(final CoverageMetric coverageMetric) {
+        if (changeCoverage.isEmpty()) {
+            return CoverageBuilder.NO_COVERAGE; // the change coverage tree is empty
+        }
         // FIXME: is percentage sufficient?
         return getResult().getChangeCoverageTree().getCoverage(coverageMetric);
     }
 
+    /**
+     * Returns the change coverage percentage for the passed metric. In contrast to
+     * {@link #getChangeCoverage(CoverageMetric)}, the percentage is stored in this action, so the coverage tree of the
+     * build will not be loaded.
+     *
+     * @param coverageMetric
+     *         The coverage metric
+     *
+     * @return the change coverage percentage
+     */
+    public CoveragePercentage getChangeCoveragePercentage(final CoverageMetric coverageMetric) {
+        return changeCoverage.get(coverageMetric);
+    }
+
     /**
      * Returns whether indirect coverage changes exist at all.
      *
@@ -258,10 +412,27 @@ public class CoverageBuildAction extends BuildAction<CoverageNode> implements He
      * @return the indirect coverage changes
      */
     public Coverage getIndirectCoverageChanges(final CoverageMetric coverageMetric) {
+        if (indirectCoverageChanges.isEmpty()) {
+            return CoverageBuilder.NO_COVERAGE; // the indirect coverage changes tree is empty
+        }
         // FIXME: is percentage sufficient?
         return getResult().getIndirectCoverageChangesTree().getCoverage(coverageMetric);
     }
 
+    /**
+     * Returns the indirect coverage changes percentage for the passed metric. In contrast to
+     * {@link #getIndirectCoverageChanges(CoverageMetric)}, the percentage is stored in this action, so the coverage
+     * tree of the build will not be loaded.
+     *
+     * @param coverageMetric
+     *         The coverage metric
+     *
+     * @return the indirect coverage changes percentage
+     */
+    public CoveragePercentage getIndirectCoverageChangesPercentage(final CoverageMetric coverageMetric) {
+        return indirectCoverageChanges.get(coverageMetric);
+    }
+
     /**
      * Returns the possible reference build that has been used to compute the coverage delta.
      *
@@ -404,6 +575,9 @@ public class CoverageBuildAction extends BuildAction<CoverageNode> implements He
      */
     @SuppressWarnings("unused") // Called by jelly view
     public boolean hasCodeChanges() {
+        if (codeChanges != null) {
+            return codeChanges;
+        }
         return getResult().hasCodeChanges();
     }
 
@@ -497,7 +671,7 @@ public class CoverageBuildAction extends BuildAction<CoverageNode> implements He
 
     @Override
     protected AbstractXmlStream<CoverageNode> createXmlStream() {
-        return new CoverageXmlStream();
+        return new DeltaAwareCoverageXmlStream();
     }
 
     @Override
@@ -515,9 +689,20 @@ public class CoverageBuildAction extends BuildAction<CoverageNode> implements He
         return healthReport;
     }
 
+    /**
+     * Returns the view model of the details view. The view model is shared by all requests and is cached in the
+     * {@link CoverageViewModelCache}.
+     *
+     * @return the view model
+     */
     @Override
     public CoverageViewModel getTarget() {
-        return new CoverageViewModel(getOwner(), getResult());
+        return CoverageViewModelCache.getInstance().getViewModel(this);
+    }
+
+    CoverageViewModel createViewModel() {
+        return new CoverageViewModel(getOwner(), getResult(),
+                !changeCoverage.isEmpty(), !indirectCoverageChanges.isEmpty());
     }
 
     @CheckForNull
@@ -0,0 +1,458 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.Fraction;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import hudson.Util;
+
+import io.jenkins.plugins.coverage.model.Coverage.CoverageBuilder;
+import io.jenkins.plugins.forensics.delta.Change;
+import io.jenkins.plugins.forensics.delta.ChangeEditType;
+import io.jenkins.plugins.forensics.delta.FileChanges;
+
+/**
+ * Computes all code and coverage changes of a coverage tree with respect to a reference tree in a single pass over
+ * the files of the tree. For each file, the engine attaches the changed code lines, the indirect coverage changes, and
+ * the file coverage delta. Moreover, it computes the coverage of the file, its change coverage, and its indirect
+ * coverage changes. These values are then aggregated bottom-up to obtain the values of the whole tree. The results
+ * are the same as the results of the filtered trees of {@link CoverageTreeCreator} and the deltas of
+ * {@link CoverageNode#computeDeltaAsPercentage(CoverageNode)}, but the engine neither copies the tree nor visits the
+ * tree once for each metric.
+ *
+ * <p>
+ * If the results of a previous build that used the same reference build are available, then the engine reuses the
+ * attached changes of all files whose code changes and coverage did not change since this previous build. Whether the
+ * code changes of a file are the same is determined by a {@link FileCoverageNode#getChangesFingerprint() fingerprint}
+ * that is stored with the file.
+ * </p>
+ */
+class CoverageDeltaEngine {
+    private static final Coverage COVERED_NODE = new CoverageBuilder().setCovered(1).setMissed(0).build();
+    private static final Coverage MISSED_NODE = new CoverageBuilder().setCovered(0).setMissed(1).build();
+    private static final ChangeEditType[] CHANGE_TYPES = {
+            ChangeEditType.INSERT, ChangeEditType.REPLACE, ChangeEditType.DELETE};
+
+    private final FileChangesProcessor fileChangesProcessor;
+    private final CoverageTreeCreator coverageTreeCreator = new CoverageTreeCreator();
+
+    /**
+     * Creates a new engine.
+     *
+     * @param fileChangesProcessor
+     *         the processor that attaches the changes to the file nodes
+     */
+    CoverageDeltaEngine(final FileChangesProcessor fileChangesProcessor) {
+        this.fileChangesProcessor = fileChangesProcessor;
+    }
+
+    /**
+     * Attaches the code and coverage changes to the file nodes of the specified tree and computes the coverage deltas.
+     *
+     * @param root
+     *         the root of the coverage tree
+     * @param referenceIndex
+     *         the index of the coverage tree of the reference build
+     * @param codeChanges
+     *         the code changes, mapped by the report path of the changed file
+     * @param oldPathMapping
+     *         a mapping between the report paths of the current and the reference coverage tree
+     *
+     * @return the computed coverage deltas
+     */
+    CoverageDeltaResult compute(final CoverageNode root, final ReferenceIndex referenceIndex,
+            final Map<String, FileChanges> codeChanges, final Map<String, String> oldPathMapping) {
+        return compute(root, referenceIndex, null, codeChanges, oldPathMapping);
+    }
+
+    /**
+     * Attaches the code and coverage changes to the file nodes of the specified tree and computes the coverage deltas.
+     * The attached changes of files that did not change since the specified previous build are reused.
+     *
+     * @param root
+     *         the root of the coverage tree
+     * @param referenceIndex
+     *         the index of the coverage tree of the reference build
+     * @param previousIndex
+     *         the index of the coverage tree of a previous build that used the same reference build, or {@code null}
+     *         if there is no such build
+     * @param codeChanges
+     *         the code changes, mapped by the report path of the changed file
+     * @param oldPathMapping
+     *         a mapping between the report paths of the current and the reference coverage tree
+     *
+     * @return the computed coverage deltas
+     */
+    CoverageDeltaResult compute(final CoverageNode root, final ReferenceIndex referenceIndex,
+            @CheckForNull final ReferenceIndex previousIndex,
+            final Map<String, FileChanges> codeChanges, final Map<String, String> oldPathMapping) {
+        if (codeChanges.isEmpty() && oldPathMapping.isEmpty()) {
+            return computeWithoutCodeDelta(root, referenceIndex);
+        }
+
+        List<FileCoverageNode> files = root.getAllFileCoverageNodes();
+        Map<FileCoverageNode, FileResult> fileResults = Collections.synchronizedMap(new IdentityHashMap<>());
+        AtomicInteger reusedFiles = new AtomicInteger();
+        fileChangesProcessor.processFiles(files, file -> fileResults.put(file,
+                processFile(file, referenceIndex, previousIndex, codeChanges, oldPathMapping, reusedFiles)));
+
+        NodeResult rootResult = aggregate(root, fileResults);
+
+        SortedMap<CoverageMetric, Fraction> coverage = toFractions(root, rootResult.coverage);
+        SortedMap<CoverageMetric, Fraction> changeCoverage = toFractions(rootResult.changeCoverage);
+        SortedMap<CoverageMetric, Fraction> indirectCoverageChanges = toFractions(rootResult.indirectCoverageChanges);
+
+        boolean hasChangeCoverage = hasCoverage(rootResult.changeCoverage);
+        return new CoverageDeltaResult(
+                computeDelta(coverage, referenceIndex.getRootFractions()),
+                toPercentages(changeCoverage),
+                hasChangeCoverage ? computeDelta(changeCoverage, coverage) : new TreeMap<>(),
+                toPercentages(indirectCoverageChanges),
+                hasChangeCoverage,
+                rootResult.changedFiles, rootResult.changedLines, rootResult.indirectCoverageChangesFiles,
+                reusedFiles.get());
+    }
+
+    /**
+     * Computes the coverage delta of a tree without a code delta. Then there are neither changed lines nor files that
+     * can be compared with the reference build, so the change coverage and the indirect coverage changes are empty.
+     *
+     * @param root
+     *         the root of the coverage tree
+     * @param referenceIndex
+     *         the index of the coverage tree of the reference build
+     *
+     * @return the computed coverage delta
+     */
+    CoverageDeltaResult computeWithoutCodeDelta(final CoverageNode root, final ReferenceIndex referenceIndex) {
+        SortedMap<CoverageMetric, Fraction> coverage = toFractions(root, aggregate(root));
+        return new CoverageDeltaResult(computeDelta(coverage, referenceIndex.getRootFractions()),
+                new TreeMap<>(), new TreeMap<>(), new TreeMap<>(), false, 0, 0, 0, 0);
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private FileResult processFile(final FileCoverageNode fileNode, final ReferenceIndex referenceIndex,
+            @CheckForNull final ReferenceIndex previousIndex, final Map<String, FileChanges> codeChanges,
+            final Map<String, String> oldPathMapping, final AtomicInteger reusedFiles) {
+        String path = fileNode.getPath();
+        FileChanges fileChanges = codeChanges.get(path);
+        String referencePath = oldPathMapping.get(path);
+        String fingerprint = fileChanges == null ? null : createFingerprint(fileChanges, referencePath);
+        SortedMap<CoverageMetric, Coverage> coverage = aggregate(fileNode);
+
+        Optional<FileCoverageNode> previousNode = previousIndex == null ? Optional.empty()
+                : previousIndex.getFileNode(path).filter(previous ->
+                        isReusable(previous, fileNode, coverage, fingerprint, referencePath));
+        if (previousNode.isPresent()) {
+            reuseChanges(fileNode, previousNode.get());
+            reusedFiles.incrementAndGet();
+        }
+        else {
+            attachChanges(fileNode, coverage, referenceIndex, fileChanges, referencePath);
+            fileNode.setChangesFingerprint(fingerprint);
+        }
+
+        return new FileResult(coverage, getChangeCoverage(fileNode), getIndirectCoverageChanges(fileNode));
+    }
+
+    /**
+     * Determines whether the changes that have been attached to a file in a previous build can be reused. The results
+     * of the previous build are the same if the code changes of the file, the path of the file in the reference
+     * build, and the coverage of the file did not change.
+     *
+     * @param previous
+     *         the file in the previous build
+     * @param fileNode
+     *         the file in the current build
+     * @param coverage
+     *         the coverage of the file in the current build
+     * @param fingerprint
+     *         the fingerprint of the code changes of the file in the current build
+     * @param referencePath
+     *         the path of the file in the reference build
+     *
+     * @return {@code true} if the results of the previous build can be reused, {@code false} otherwise
+     */
+    private boolean isReusable(final FileCoverageNode previous, final FileCoverageNode fileNode,
+            final SortedMap<CoverageMetric, Coverage> coverage, @CheckForNull final String fingerprint,
+            @CheckForNull final String referencePath) {
+        if (!StringUtils.equals(fingerprint, previous.getChangesFingerprint())) {
+            return false;
+        }
+        if (fingerprint == null && referencePath != null && !referencePath.equals(fileNode.getPath())) {
+            return false; // the reference path is part of the fingerprint only
+        }
+        // the previous build might have skipped the file coverage deltas due to errors in the code delta
+        boolean hasFileCoverageDelta = previous.getMetrics().stream().anyMatch(previous::hasFileCoverageDelta);
+        if (hasFileCoverageDelta != (referencePath != null)) {
+            return false;
+        }
+        return previous.getCoveragePerLine().equals(fileNode.getCoveragePerLine())
+                && aggregate(previous).equals(coverage);
+    }
+
+    private void reuseChanges(final FileCoverageNode fileNode, final FileCoverageNode previous) {
+        fileNode.setChangedCodeLines(new TreeSet<>(previous.getChangedCodeLines()));
+        fileNode.setIndirectCoverageChanges(new TreeMap<>(previous.getIndirectCoverageChanges()));
+        SortedMap<CoverageMetric, CoveragePercentage> fileCoverageDelta = new TreeMap<>();
+        previous.getMetrics().stream().filter(previous::hasFileCoverageDelta).forEach(metric ->
+                fileCoverageDelta.put(metric, previous.getFileCoverageDeltaForMetric(metric)));
+        fileNode.setFileCoverageDelta(fileCoverageDelta);
+        fileNode.setChangesFingerprint(previous.getChangesFingerprint());
+    }
+
+    private void attachChanges(final FileCoverageNode fileNode, final SortedMap<CoverageMetric, Coverage> coverage,
+            final ReferenceIndex referenceIndex, @CheckForNull final FileChanges fileChanges,
+            @CheckForNull final String referencePath) {
+        if (fileChanges != null) {
+            fileChangesProcessor.attachChangedCodeLines(fileNode, fileChanges);
+        }
+
+        if (referencePath != null) {
+            referenceIndex.getCoveragePerLine(referencePath).ifPresent(referenceCoveragePerLine ->
+                    fileChangesProcessor.attachIndirectCoverageChangeForFile(fileNode, fileChanges == null
+                            ? referenceCoveragePerLine
+                            : LineMapping.fromChanges(fileChanges).remap(referenceCoveragePerLine)));
+            referenceIndex.getFileNode(referencePath).ifPresent(referenceNode ->
+                    fileChangesProcessor.attachFileCoverageDelta(fileNode, toFractions(fileNode, coverage),
+                            toFractions(referenceNode, aggregate(referenceNode))));
+        }
+    }
+
+    /**
+     * Creates a fingerprint of the code changes of a file. Two files with the same fingerprint have the same changed
+     * code lines and the same mapping of lines to the reference build.
+     *
+     * @param fileChanges
+     *         the code changes of the file
+     * @param referencePath
+     *         the path of the file in the reference build
+     *
+     * @return the fingerprint
+     */
+    static String createFingerprint(final FileChanges fileChanges, @CheckForNull final String referencePath) {
+        StringBuilder changes = new StringBuilder(StringUtils.defaultString(referencePath));
+        for (ChangeEditType type : CHANGE_TYPES) {
+            fileChanges.getChangesByType(type).stream()
+                    .sorted(Comparator.comparingInt(Change::getChangedFromLine)
+                            .thenComparingInt(Change::getChangedToLine)
+                            .thenComparingInt(Change::getFromLine)
+                            .thenComparingInt(Change::getToLine))
+                    .forEach(change -> changes.append('\n').append(type)
+                            .append(' ').append(change.getChangedFromLine())
+                            .append(' ').append(change.getChangedToLine())
+                            .append(' ').append(change.getFromLine())
+                            .append(' ').append(change.getToLine()));
+        }
+        try {
+            return Util.toHexString(MessageDigest.getInstance("SHA-256")
+                    .digest(changes.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not supported", exception);
+        }
+    }
+
+    @CheckForNull
+    private SortedMap<CoverageMetric, Coverage> getChangeCoverage(final FileCoverageNode fileNode) {
+        // changes that do not affect the code coverage are ignored, see CoverageTreeCreator
+        boolean hasChangeCoverage = fileNode.getCoveragePerLine().keySet().stream()
+                .anyMatch(line -> fileNode.getChangedCodeLines().contains(line));
+        if (hasChangeCoverage) {
+            return combine(fileNode, Collections.emptyList(),
+                    coverageTreeCreator.createChangeCoverageLeaves(fileNode));
+        }
+        return null;
+    }
+
+    @CheckForNull
+    private SortedMap<CoverageMetric, Coverage> getIndirectCoverageChanges(final FileCoverageNode fileNode) {
+        if (fileNode.getIndirectCoverageChanges().isEmpty()) {
+            return null;
+        }
+        return combine(fileNode, Collections.emptyList(),
+                coverageTreeCreator.createIndirectCoverageChangesLeaves(fileNode));
+    }
+
+    private NodeResult aggregate(final CoverageNode node, final Map<FileCoverageNode, FileResult> fileResults) {
+        if (node instanceof FileCoverageNode) {
+            FileResult fileResult = fileResults.get(node);
+            if (fileResult != null) {
+                return new NodeResult(fileResult, ((FileCoverageNode) node).getChangedCodeLines().size());
+            }
+        }
+
+        List<SortedMap<CoverageMetric, Coverage>> coverages = new ArrayList<>();
+        List<SortedMap<CoverageMetric, Coverage>> changeCoverages = new ArrayList<>();
+        List<SortedMap<CoverageMetric, Coverage>> indirectCoverageChanges = new ArrayList<>();
+        NodeResult result = new NodeResult();
+        for (CoverageNode child : node.getChildren()) {
+            NodeResult childResult = aggregate(child, fileResults);
+            coverages.add(childResult.coverage);
+            if (childResult.changeCoverage != null) {
+                changeCoverages.add(childResult.changeCoverage);
+            }
+            if (childResult.indirectCoverageChanges != null) {
+                indirectCoverageChanges.add(childResult.indirectCoverageChanges);
+            }
+            result.changedFiles += childResult.changedFiles;
+            result.changedLines += childResult.changedLines;
+            result.indirectCoverageChangesFiles += childResult.indirectCoverageChangesFiles;
+        }
+        result.coverage = combine(node, coverages, node.getLeaves());
+        // nodes without filtered children are removed from the filtered trees, see CoverageTreeCreator
+        if (!changeCoverages.isEmpty()) {
+            result.changeCoverage = combine(node, changeCoverages, node.getLeaves());
+        }
+        if (!indirectCoverageChanges.isEmpty()) {
+            result.indirectCoverageChanges = combine(node, indirectCoverageChanges, node.getLeaves());
+        }
+        return result;
+    }
+
+    /**
+     * Computes the coverage of the specified node for all metrics in a single pass. The result is the same as calling
+     * {@link CoverageNode#getCoverage(CoverageMetric)} for each metric of {@link CoverageNode#getMetrics()}.
+     *
+     * @param node
+     *         the node to compute the coverage for
+     *
+     * @return the coverage of the node, mapped by metric
+     */
+    static SortedMap<CoverageMetric, Coverage> aggregate(final CoverageNode node) {
+        List<SortedMap<CoverageMetric, Coverage>> children = new ArrayList<>();
+        for (CoverageNode child : node.getChildren()) {
+            children.add(aggregate(child));
+        }
+        return combine(node, children, node.getLeaves());
+    }
+
+    private static SortedMap<CoverageMetric, Coverage> combine(final CoverageNode node,
+            final List<SortedMap<CoverageMetric, Coverage>> children, final List<CoverageLeaf> leaves) {
+        SortedMap<CoverageMetric, Coverage> coverage = new TreeMap<>();
+        for (SortedMap<CoverageMetric, Coverage> child : children) {
+            child.forEach((metric, value) -> coverage.merge(metric, value, Coverage::add));
+        }
+        for (CoverageLeaf leaf : leaves) {
+            coverage.merge(leaf.getMetric(), leaf.getCoverage(leaf.getMetric()), Coverage::add);
+        }
+        Coverage lineCoverage = coverage.getOrDefault(CoverageMetric.LINE, CoverageBuilder.NO_COVERAGE);
+        coverage.merge(node.getMetric(), lineCoverage.getCovered() > 0 ? COVERED_NODE : MISSED_NODE, Coverage::add);
+        return coverage;
+    }
+
+    /**
+     * Converts the coverage of the specified node to fractions. The result is the same as
+     * {@link CoverageNode#getMetricFractions()}.
+     *
+     * @param node
+     *         the node
+     * @param coverage
+     *         the coverage of the node, see {@link #aggregate(CoverageNode)}
+     *
+     * @return the coverage fractions mapped by their metric
+     */
+    static SortedMap<CoverageMetric, Fraction> toFractions(final CoverageNode node,
+            final SortedMap<CoverageMetric, Coverage> coverage) {
+        if (node.getChildren().isEmpty() && node.getLeaves().isEmpty()) {
+            return new TreeMap<>();
+        }
+        return toFractions(coverage);
+    }
+
+    private static SortedMap<CoverageMetric, Fraction> toFractions(
+            @CheckForNull final SortedMap<CoverageMetric, Coverage> coverage) {
+        SortedMap<CoverageMetric, Fraction> fractions = new TreeMap<>();
+        if (coverage != null) {
+            coverage.forEach((metric, value) -> fractions.put(metric, value.getCoveredFraction()));
+        }
+        return fractions;
+    }
+
+    private static boolean hasCoverage(@CheckForNull final SortedMap<CoverageMetric, Coverage> coverage) {
+        return coverage != null
+                && (coverage.getOrDefault(CoverageMetric.LINE, CoverageBuilder.NO_COVERAGE).getTotal() > 0
+                || coverage.getOrDefault(CoverageMetric.BRANCH, CoverageBuilder.NO_COVERAGE).getTotal() > 0);
+    }
+
+    private static SortedMap<CoverageMetric, CoveragePercentage> computeDelta(
+            final SortedMap<CoverageMetric, Fraction> coverage, final SortedMap<CoverageMetric, Fraction> reference) {
+        SortedMap<CoverageMetric, CoveragePercentage> delta = new TreeMap<>();
+        coverage.forEach((metric, value) -> delta.put(metric, CoveragePercentage.valueOf(
+                new SafeFraction(value).subtract(reference.getOrDefault(metric, Fraction.ZERO)))));
+        return delta;
+    }
+
+    private static SortedMap<CoverageMetric, CoveragePercentage> toPercentages(
+            final SortedMap<CoverageMetric, Fraction> fractions) {
+        SortedMap<CoverageMetric, CoveragePercentage> percentages = new TreeMap<>();
+        for (Entry<CoverageMetric, Fraction> entry : fractions.entrySet()) {
+            percentages.put(entry.getKey(), CoveragePercentage.valueOf(entry.getValue()));
+        }
+        return percentages;
+    }
+
+    /**
+     * The coverage values of a single file.
+     */
+    private static class FileResult {
+        private final SortedMap<CoverageMetric, Coverage> coverage;
+        @CheckForNull
+        private final SortedMap<CoverageMetric, Coverage> changeCoverage;
+        @CheckForNull
+        private final SortedMap<CoverageMetric, Coverage> indirectCoverageChanges;
+
+        FileResult(final SortedMap<CoverageMetric, Coverage> coverage,
+                @CheckForNull final SortedMap<CoverageMetric, Coverage> changeCoverage,
+                @CheckForNull final SortedMap<CoverageMetric, Coverage> indirectCoverageChanges) {
+            this.coverage = coverage;
+            this.changeCoverage = changeCoverage;
+            this.indirectCoverageChanges = indirectCoverageChanges;
+        }
+    }
+
+    /**
+     * The aggregated coverage values of a node. The change coverage and the indirect coverage changes are
+     * {@code null} if the node is not part of the corresponding filtered tree.
+     */
+    private static class NodeResult {
+        private SortedMap<CoverageMetric, Coverage> coverage = new TreeMap<>();
+        @CheckForNull
+        private SortedMap<CoverageMetric, Coverage> changeCoverage;
+        @CheckForNull
+        private SortedMap<CoverageMetric, Coverage> indirectCoverageChanges;
+        private int changedFiles;
+        private int changedLines;
+        private int indirectCoverageChangesFiles;
+
+        NodeResult() {
+            // values will be aggregated
+        }
+
+        NodeResult(final FileResult fileResult, final int changedLines) {
+            coverage = fileResult.coverage;
+            changeCoverage = fileResult.changeCoverage;
+            indirectCoverageChanges = fileResult.indirectCoverageChanges;
+            this.changedLines = changedLines;
+            changedFiles = changedLines > 0 ? 1 : 0;
+            indirectCoverageChangesFiles = indirectCoverageChanges == null ? 0 : 1;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.SortedMap;
+
+/**
+ * The results of the {@link CoverageDeltaEngine}: the coverage deltas with respect to the reference build, the change
+ * coverage, and the indirect coverage changes of a coverage tree.
+ */
+class CoverageDeltaResult {
+    private final SortedMap<CoverageMetric, CoveragePercentage> coverageDelta;
+    private final SortedMap<CoverageMetric, CoveragePercentage> changeCoverage;
+    private final SortedMap<CoverageMetric, CoveragePercentage> changeCoverageDelta;
+    private final SortedMap<CoverageMetric, CoveragePercentage> indirectCoverageChanges;
+    private final boolean hasChangeCoverage;
+    private final int changedFilesCount;
+    private final int changedLinesCount;
+    private final int indirectCoverageChangesFilesCount;
+    private final int reusedFilesCount;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    CoverageDeltaResult(final SortedMap<CoverageMetric, CoveragePercentage> coverageDelta,
+            final SortedMap<CoverageMetric, CoveragePercentage> changeCoverage,
+            final SortedMap<CoverageMetric, CoveragePercentage> changeCoverageDelta,
+            final SortedMap<CoverageMetric, CoveragePercentage> indirectCoverageChanges,
+            final boolean hasChangeCoverage,
+            final int changedFilesCount, final int changedLinesCount, final int indirectCoverageChangesFilesCount,
+            final int reusedFilesCount) {
+        this.coverageDelta = coverageDelta;
+        this.changeCoverage = changeCoverage;
+        this.changeCoverageDelta = changeCoverageDelta;
+        this.indirectCoverageChanges = indirectCoverageChanges;
+        this.hasChangeCoverage = hasChangeCoverage;
+        this.changedFilesCount = changedFilesCount;
+        this.changedLinesCount = changedLinesCount;
+        this.indirectCoverageChangesFilesCount = indirectCoverageChangesFilesCount;
+        this.reusedFilesCount = reusedFilesCount;
+    }
+
+    /**
+     * Returns the delta of the coverage of the whole tree with respect to the coverage of the reference tree.
+     *
+     * @return the delta for each metric
+     */
+    SortedMap<CoverageMetric, CoveragePercentage> getCoverageDelta() {
+        return coverageDelta;
+    }
+
+    /**
+     * Returns the coverage of the changed code lines.
+     *
+     * @return the change coverage for each metric
+     */
+    SortedMap<CoverageMetric, CoveragePercentage> getChangeCoverage() {
+        return changeCoverage;
+    }
+
+    /**
+     * Returns the delta of the change coverage with respect to the coverage of the whole tree.
+     *
+     * @return the delta for each metric, or an empty map if there is no change coverage
+     */
+    SortedMap<CoverageMetric, CoveragePercentage> getChangeCoverageDelta() {
+        return changeCoverageDelta;
+    }
+
+    /**
+     * Returns the coverage of the lines with indirect coverage changes.
+     *
+     * @return the indirect coverage changes for each metric
+     */
+    SortedMap<CoverageMetric, CoveragePercentage> getIndirectCoverageChanges() {
+        return indirectCoverageChanges;
+    }
+
+    boolean hasCodeChanges() {
+        return changedFilesCount > 0;
+    }
+
+    boolean hasChangeCoverage() {
+        return hasChangeCoverage;
+    }
+
+    int getChangedFilesCount() {
+        return changedFilesCount;
+    }
+
+    int getChangedLinesCount() {
+        return changedLinesCount;
+    }
+
+    int getIndirectCoverageChangesFilesCount() {
+        return indirectCoverageChangesFilesCount;
+    }
+
+    /**
+     * Returns the number of files whose changes have been reused from a previous build.
+     *
+     * @return the number of reused files
+     */
+    int getReusedFilesCount() {
+        return reusedFilesCount;
+    }
+}
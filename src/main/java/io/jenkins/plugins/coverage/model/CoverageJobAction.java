@@ -1,10 +1,23 @@
 package io.jenkins.plugins.coverage.model;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
 import edu.hm.hafner.echarts.BuildResult;
 import edu.hm.hafner.echarts.ChartModelConfiguration;
 import edu.hm.hafner.echarts.LinesChartModel;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import hudson.model.Job;
 
 import io.jenkins.plugins.coverage.Messages;
@@ -20,6 +33,10 @@ import io.jenkins.plugins.echarts.AsyncConfigurableTrendJobAction;
  * @author Ullrich Hafner
  */
 public class CoverageJobAction extends AsyncConfigurableTrendJobAction<CoverageBuildAction> {
+    private static final Logger LOGGER = Logger.getLogger(CoverageJobAction.class.getName());
+    /** The property of the chart configuration that selects the metrics of the trend chart. */
+    static final String METRICS_PROPERTY = "metrics";
+
     CoverageJobAction(final Job<?, ?> owner) {
         super(owner, CoverageBuildAction.class);
     }
@@ -47,9 +64,88 @@ public class CoverageJobAction extends AsyncConfigurableTrendJobAction<CoverageB
         return getUrlName();
     }
 
+    /**
+     * Creates the trend chart from the {@link CoverageTrendIndex} of the job, so that neither the builds nor their
+     * actions need to be loaded. If the index does not exist yet, it will be created once from the build history.
+     *
+     * @param configuration
+     *         the chart configuration
+     *
+     * @return the chart model
+     */
     @Override
     protected LinesChartModel createChartModel(final String configuration) {
-        return createChart(createBuildHistory(), configuration);
+        return createTrendChart(readTrend(), configuration);
+    }
+
+    private List<CoverageTrendRecord> readTrend() {
+        try {
+            return new CoverageTrendIndex(getOwner().getRootDir()).read(this::createTrendHistory);
+        }
+        catch (IOException exception) {
+            LOGGER.log(Level.WARNING, "Can't read coverage trend of " + getOwner(), exception);
+
+            return createRecords(createBuildHistory());
+        }
+    }
+
+    /**
+     * Creates the records of all completed builds with coverage results from the build history. The records are
+     * ordered by build number in ascending order, i.e. in the order they are appended to the
+     * {@link CoverageTrendIndex}.
+     *
+     * @return the records of the build history
+     */
+    List<CoverageTrendRecord> createTrendHistory() {
+        List<CoverageTrendRecord> records = createRecords(createBuildHistory());
+        Collections.reverse(records);
+        return records;
+    }
+
+    private List<CoverageTrendRecord> createRecords(
+            final Iterable<? extends BuildResult<CoverageBuildAction>> buildHistory) {
+        List<CoverageTrendRecord> records = new ArrayList<>();
+        for (BuildResult<CoverageBuildAction> result : buildHistory) {
+            records.add(CoverageTrendRecord.fromSummary(result.getResult()));
+        }
+        return records;
+    }
+
+    LinesChartModel createTrendChart(final List<CoverageTrendRecord> records, final String configuration) {
+        List<BuildResult<CoverageTrendRecord>> trend = records.stream()
+                .map(record -> new BuildResult<>(record.getBuild(), record))
+                .collect(Collectors.toList());
+        ChartModelConfiguration modelConfiguration = ChartModelConfiguration.fromJson(configuration);
+        return new CoverageTrendChart().createFromTrend(trend, modelConfiguration, parseMetrics(configuration));
+    }
+
+    /**
+     * Parses the metrics to show in the trend chart from the property {@value #METRICS_PROPERTY} of the passed chart
+     * configuration. The metrics are given as a comma separated list of metric names, unknown names are ignored.
+     *
+     * @param configuration
+     *         the chart configuration as JSON string
+     *
+     * @return the metrics to show, or the line and branch coverage if the configuration selects no valid metric
+     */
+    static List<CoverageMetric> parseMetrics(final String configuration) {
+        List<CoverageMetric> metrics = new ArrayList<>();
+        try {
+            JsonNode names = new ObjectMapper().readTree(configuration).path(METRICS_PROPERTY);
+            for (String name : names.asText().split(",", -1)) {
+                CoverageMetric metric = CoverageMetric.valueOf(name.trim());
+                if (CoverageMetric.getAvailableCoverageMetrics().contains(metric) && !metrics.contains(metric)) {
+                    metrics.add(metric);
+                }
+            }
+        }
+        catch (JsonProcessingException | IllegalArgumentException exception) {
+            // ignore and use the default metrics
+        }
+        if (metrics.isEmpty()) {
+            return Arrays.asList(CoverageMetric.LINE, CoverageMetric.BRANCH);
+        }
+        return metrics;
     }
 
     LinesChartModel createChart(final Iterable<? extends BuildResult<CoverageBuildAction>> buildHistory,
@@ -263,11 +263,30 @@ public class CoverageNode implements Serializable {
     void remove() {
         // TODO: remove this method when unique paths are handled correctly
         if (hasParent()) {
-            getParent().children.remove(this);
+            getParent().children.removeIf(child -> child == this);
             clearEmptyPaths(getParent());
         }
     }
 
+    /**
+     * Removes the specified nodes from the tree below this node. Nodes whose children are all removed this way are
+     * removed as well. In contrast to calling {@link #remove()} for each node, the tree is traversed only once, so
+     * the specified set should use identity semantics (see {@link java.util.IdentityHashMap}) to avoid the costs of
+     * {@link #equals(Object)} and {@link #hashCode()} on whole subtrees.
+     *
+     * @param nodes
+     *         the nodes to remove
+     *
+     * @return {@code true} if all children of this node have been removed, {@code false} otherwise
+     */
+    boolean removeAll(final Set<CoverageNode> nodes) {
+        if (children.isEmpty()) {
+            return false;
+        }
+        children.removeIf(child -> nodes.contains(child) || child.removeAll(nodes));
+        return children.isEmpty();
+    }
+
     /**
      * Clears an empty tree path from the bottom of the tree to the top, beginning with the passed node.
      *
@@ -554,21 +573,17 @@ public class CoverageNode implements Serializable {
     public CoverageNode filterPackageStructure() {
         CoverageNode copy = copyTree();
         if (CoverageMetric.MODULE.equals(metric)) {
-            Set<CoverageNode> packagesWithFiles = copy.getAll(CoverageMetric.PACKAGE).stream()
+            List<CoverageNode> packagesWithFiles = copy.getAll(CoverageMetric.PACKAGE).stream()
                     .filter(node -> node.getChildren().stream()
                             .anyMatch(child -> child.getMetric().equals(CoverageMetric.FILE)))
-                    .collect(Collectors.toSet());
+                    .collect(Collectors.toList());
             packagesWithFiles.forEach(node -> {
                 node.setParent(copy);
-                Set<CoverageNode> fileChildren = node.getChildren().stream()
-                        .filter(child -> !child.getMetric().equals(CoverageMetric.PACKAGE))
-                        .collect(Collectors.toSet());
-                node.children.clear();
-                node.children.addAll(fileChildren);
+                node.children.removeIf(child -> child.getMetric().equals(CoverageMetric.PACKAGE));
             });
-            Set<CoverageNode> nonePackageChildren = copy.children.stream()
+            List<CoverageNode> nonePackageChildren = copy.children.stream()
                     .filter(node -> !node.getMetric().equals(CoverageMetric.PACKAGE))
-                    .collect(Collectors.toSet());
+                    .collect(Collectors.toList());
             copy.children.clear();
             copy.children.addAll(nonePackageChildren);
             copy.children.addAll(packagesWithFiles);
@@ -625,12 +640,12 @@ public class CoverageNode implements Serializable {
                 .sum();
     }
 
-    private Set<FileCoverageNode> extractFileNodesWithChangeCoverage() {
+    private List<FileCoverageNode> extractFileNodesWithChangeCoverage() {
         return getChangeCoverageTree().getAllFileCoverageNodes().stream()
                 .filter(node -> node.getChangedCodeLines()
                         .stream() // only mention files with changes which affect coverage
                         .anyMatch(line -> node.getCoveragePerLine().containsKey(line)))
-                .collect(Collectors.toSet());
+                .collect(Collectors.toList());
     }
 
     public int getFileAmountWithIndirectCoverageChanges() {
@@ -644,10 +659,10 @@ public class CoverageNode implements Serializable {
                 .sum();
     }
 
-    private Set<FileCoverageNode> extractFileNodesWithIndirectCoverageChanges() {
+    private List<FileCoverageNode> extractFileNodesWithIndirectCoverageChanges() {
         return getIndirectCoverageChangesTree().getAllFileCoverageNodes().stream()
                 .filter(node -> !node.getIndirectCoverageChanges().isEmpty())
-                .collect(Collectors.toSet());
+                .collect(Collectors.toList());
     }
 
     /**
@@ -1,12 +1,14 @@
 package io.jenkins.plugins.coverage.model;
 
-import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import io.jenkins.plugins.coverage.targets.CoverageElement;
 import io.jenkins.plugins.coverage.targets.CoveragePaint;
@@ -20,7 +22,12 @@ import io.jenkins.plugins.coverage.targets.Ratio;
  */
 public class CoverageNodeConverter {
 
-    private final Map<CoverageNode, CoveragePaint> paintedFiles = new HashMap<>();
+    /**
+     * The paints of the converted files. The nodes are registered before their children are added, so they are
+     * mapped by identity: the value based {@link CoverageNode#hashCode()} would hash the whole subtree and change
+     * while the tree is being built.
+     */
+    private final Map<CoverageNode, CoveragePaint> paintedFiles = new IdentityHashMap<>();
 
     /**
      * Converts a {@link CoverageResult} instance to the corresponding {@link CoverageNode} instance.
@@ -55,6 +62,9 @@ public class CoverageNodeConverter {
                 CoverageResult childResult = result.getChild(childKey);
                 coverageNode.add(convert(childResult));
             }
+            if (coverageNode instanceof FileCoverageNode) {
+                attachMethodLineIndex((FileCoverageNode) coverageNode);
+            }
             return coverageNode;
         }
     }
@@ -88,6 +98,14 @@ public class CoverageNodeConverter {
         }
     }
 
+    private void attachMethodLineIndex(final FileCoverageNode node) {
+        List<MethodCoverageNode> methods = node.getAll(CoverageMetric.METHOD).stream()
+                .filter(MethodCoverageNode.class::isInstance)
+                .map(MethodCoverageNode.class::cast)
+                .collect(Collectors.toList());
+        node.setMethodLineIndex(MethodLineIndex.create(methods, node.getCoveragePerLine()));
+    }
+
     private void attachCoveragePerLine(final FileCoverageNode node, final CoveragePaint paint) {
         int[] lines = paint.getAllLines();
         SortedMap<Integer, Coverage> coverageDetails = new TreeMap<>();
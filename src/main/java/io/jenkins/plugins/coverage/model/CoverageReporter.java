@@ -1,19 +1,22 @@
 package io.jenkins.plugins.coverage.model;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
 import edu.hm.hafner.util.FilteredLog;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 
 import hudson.FilePath;
 import hudson.model.HealthReport;
+import hudson.model.Job;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 
+import jenkins.util.SystemProperties;
+
 import io.jenkins.plugins.coverage.model.exception.CodeDeltaException;
 import io.jenkins.plugins.coverage.model.visualization.code.SourceCodePainter;
 import io.jenkins.plugins.coverage.targets.CoverageResult;
@@ -32,6 +35,27 @@ import static io.jenkins.plugins.coverage.model.FilePathValidator.*;
  * @author Ullrich Hafner
  */
 public class CoverageReporter {
+    /**
+     * Determines whether the changes of files that did not change since the previous build should be reused, if both
+     * builds use the same reference build. Disabled by default: the coverage tree of the previous build needs to be
+     * loaded to compare the files, which costs about as much as computing the changes again.
+     */
+    static final boolean INCREMENTAL = SystemProperties.getBoolean(CoverageReporter.class.getName() + ".incremental",
+            false);
+
+    private boolean storeDeltaToReference;
+
+    /**
+     * Determines whether the coverage tree should be stored as delta to the coverage tree of the reference build.
+     *
+     * @param storeDeltaToReference
+     *         {@code true} if the coverage tree should be stored as delta, {@code false} to store the full tree
+     * @see CoverageTreeDelta
+     */
+    public void setStoreDeltaToReference(final boolean storeDeltaToReference) {
+        this.storeDeltaToReference = storeDeltaToReference;
+    }
+
     /**
      * Transforms the old model to the new model and invokes all steps that work on the new model. In the final step, a
      * new {@link CoverageBuildAction} will be attached to the build.
@@ -75,39 +99,26 @@ public class CoverageReporter {
         CoverageBuildAction action;
         if (possibleReferenceResult.isPresent()) {
             CoverageBuildAction referenceAction = possibleReferenceResult.get();
-            CoverageNode referenceRoot = referenceAction.getResult();
+
+            log.logInfo("Verify uniqueness of reference file paths...");
+            ReferenceIndex referenceIndex = ReferenceIndexCache.getInstance().getIndex(referenceAction, log);
 
             // calculate code delta
             log.logInfo("Calculating the code delta...");
             CodeDeltaCalculator codeDeltaCalculator = new CodeDeltaCalculator(build, workspace, listener, scm);
             Optional<Delta> delta = codeDeltaCalculator.calculateCodeDeltaToReference(referenceAction.getOwner(), log);
 
+            Map<String, FileChanges> mappedChanges = new HashMap<>();
+            Map<String, String> oldPathMapping = new HashMap<>();
             if (delta.isPresent()) {
-                FileChangesProcessor fileChangesProcessor = new FileChangesProcessor();
-
                 try {
-                    log.logInfo("Verify uniqueness of reference file paths...");
-                    verifyPathUniqueness(referenceRoot, log);
-
                     log.logInfo("Preprocessing code changes...");
                     Set<FileChanges> changes = codeDeltaCalculator.getCoverageRelevantChanges(delta.get());
-                    Map<String, FileChanges> mappedChanges =
+                    Map<String, FileChanges> scmChanges =
                             codeDeltaCalculator.mapScmChangesToReportPaths(changes, rootNode, log);
-                    Map<String, String> oldPathMapping = codeDeltaCalculator.createOldPathMapping(
-                            rootNode, referenceRoot, mappedChanges, log);
-
-                    // calculate code changes
-                    log.logInfo("Obtaining code changes for files...");
-                    fileChangesProcessor.attachChangedCodeLines(rootNode, mappedChanges);
-
-                    // indirect coverage changes
-                    log.logInfo("Obtaining indirect coverage changes...");
-                    fileChangesProcessor.attachIndirectCoveragesChanges(rootNode, referenceRoot,
-                            mappedChanges, oldPathMapping);
-
-                    // file coverage deltas
-                    log.logInfo("Obtaining coverage delta for files...");
-                    fileChangesProcessor.attachFileCoverageDeltas(rootNode, referenceRoot, oldPathMapping);
+                    oldPathMapping.putAll(codeDeltaCalculator.createOldPathMapping(
+                            rootNode, referenceIndex, scmChanges, log));
+                    mappedChanges.putAll(scmChanges);
                 }
                 catch (CodeDeltaException e) {
                     log.logError("An error occurred while processing code and coverage changes:");
@@ -116,29 +127,50 @@ public class CoverageReporter {
                 }
             }
 
-            log.logInfo("Calculating coverage deltas...");
-
-            // filtered coverage trees
-            CoverageTreeCreator coverageTreeCreator = new CoverageTreeCreator();
-            CoverageNode changeCoverageRoot = coverageTreeCreator.createChangeCoverageTree(rootNode);
-            CoverageNode indirectCoverageChangesTree = coverageTreeCreator.createIndirectCoverageChangesTree(rootNode);
+            String referenceBuildId = referenceAction.getOwner().getExternalizableId();
 
-            // coverage delta
-            SortedMap<CoverageMetric, CoveragePercentage> coverageDelta =
-                    rootNode.computeDeltaAsPercentage(referenceRoot);
-            SortedMap<CoverageMetric, CoveragePercentage> changeCoverageDelta =
-                    computeChangeCoverageDelta(rootNode, changeCoverageRoot);
+            // code changes, indirect coverage changes, file coverage deltas, and coverage deltas
+            log.logInfo("Calculating coverage deltas...");
+            CoverageDeltaEngine deltaEngine = new CoverageDeltaEngine(new FileChangesProcessor());
+            CoverageDeltaResult deltaResult;
+            if (mappedChanges.isEmpty() && oldPathMapping.isEmpty()) {
+                log.logInfo("-> No code delta available, skipping change coverage and indirect coverage changes");
+                deltaResult = deltaEngine.computeWithoutCodeDelta(rootNode, referenceIndex);
+            }
+            else {
+                ReferenceIndex previousIndex = getPreviousIndex(build, referenceBuildId, log).orElse(null);
+                deltaResult = deltaEngine.compute(rootNode, referenceIndex, previousIndex,
+                        mappedChanges, oldPathMapping);
+                log.logInfo("-> %d changed files with %d changed lines, %d files with indirect coverage changes",
+                        deltaResult.getChangedFilesCount(), deltaResult.getChangedLinesCount(),
+                        deltaResult.getIndirectCoverageChangesFilesCount());
+                if (previousIndex != null) {
+                    log.logInfo("-> Reused the changes of %d unchanged files from the previous build",
+                            deltaResult.getReusedFilesCount());
+                }
+            }
 
-            if (rootNode.hasCodeChanges() && !rootNode.hasChangeCoverage()) {
+            if (deltaResult.hasCodeChanges() && !deltaResult.hasChangeCoverage()) {
                 log.logInfo("No detected code changes affect the code coverage");
             }
 
-            action = new CoverageBuildAction(build, rootNode, healthReport,
-                    referenceAction.getOwner().getExternalizableId(),
-                    coverageDelta,
-                    changeCoverageRoot.getMetricPercentages(),
-                    changeCoverageDelta,
-                    indirectCoverageChangesTree.getMetricPercentages());
+            Optional<CoverageTreeDelta> treeDelta = createTreeDelta(build, rootNode, referenceAction, log);
+            if (treeDelta.isPresent()) {
+                action = new CoverageBuildAction(build, rootNode, healthReport, referenceBuildId,
+                        deltaResult.getCoverageDelta(),
+                        deltaResult.getChangeCoverage(),
+                        deltaResult.getChangeCoverageDelta(),
+                        deltaResult.getIndirectCoverageChanges(),
+                        treeDelta.get());
+                CoverageTreeDeltaListener.registerDependent(referenceAction.getOwner(), build);
+            }
+            else {
+                action = new CoverageBuildAction(build, rootNode, healthReport, referenceBuildId,
+                        deltaResult.getCoverageDelta(),
+                        deltaResult.getChangeCoverage(),
+                        deltaResult.getChangeCoverageDelta(),
+                        deltaResult.getIndirectCoverageChanges());
+            }
         }
         else {
             action = new CoverageBuildAction(build, rootNode, healthReport);
@@ -149,6 +181,8 @@ public class CoverageReporter {
         sourceCodePainter.processSourceCodePainting(converter.getPaintedFiles(), sourceDirectories,
                 sourceCodeEncoding, sourceCodeRetention, log);
 
+        appendTrend(build, action, log);
+
         log.logInfo("Finished coverage processing - adding the action to the build...");
 
         logHandler.log(log);
@@ -181,22 +215,102 @@ public class CoverageReporter {
     }
 
     /**
-     * Computes the change coverage delta which represents the difference between the change coverage and the overall
-     * coverage per coverage metric.
+     * Creates the delta of the coverage tree with respect to the coverage tree of the reference build. A delta will be
+     * created only if enabled, if both builds belong to the same job, and if the maximum number of consecutive delta
+     * encoded builds has not been reached yet.
      *
+     * @param build
+     *         the current build
      * @param rootNode
-     *         The root of the overall coverage tree
-     * @param changeCoverageRoot
-     *         The root of the change coverage tree
+     *         the root of the coverage tree of the current build
+     * @param referenceAction
+     *         the action of the reference build
+     * @param log
+     *         the log
      *
-     * @return the delta per metric
+     * @return the delta, or an empty Optional if the full coverage tree should be stored
      */
-    private SortedMap<CoverageMetric, CoveragePercentage> computeChangeCoverageDelta(
-            final CoverageNode rootNode, final CoverageNode changeCoverageRoot) {
-        if (rootNode.hasChangeCoverage()) {
-            return changeCoverageRoot.computeDeltaAsPercentage(rootNode);
+    private Optional<CoverageTreeDelta> createTreeDelta(final Run<?, ?> build, final CoverageNode rootNode,
+            final CoverageBuildAction referenceAction, final FilteredLog log) {
+        if (!storeDeltaToReference) {
+            return Optional.empty();
+        }
+
+        Run<?, ?> referenceBuild = referenceAction.getOwner();
+        if (!referenceBuild.getParent().equals(build.getParent())) {
+            log.logInfo("-> Reference build belongs to a different job, storing full coverage tree");
+            return Optional.empty();
+        }
+        if (!CoverageTreeDelta.isDeltaRequired(referenceAction.getDeltaDepth())) {
+            log.logInfo("-> Reached %d consecutive delta encoded builds, storing full coverage tree",
+                    CoverageTreeDelta.KEYFRAME_INTERVAL);
+            return Optional.empty();
+        }
+
+        CoverageTreeDelta treeDelta = CoverageTreeDelta.create(referenceBuild.getExternalizableId(),
+                referenceAction.getDeltaDepth() + 1, rootNode, referenceAction.getResult());
+        if (treeDelta.getReferencedFilesCount() == 0) {
+            log.logInfo("-> All files have been changed, storing full coverage tree");
+            return Optional.empty();
+        }
+        log.logInfo("-> Storing coverage tree as delta to reference build (%d unchanged files)",
+                treeDelta.getReferencedFilesCount());
+        return Optional.of(treeDelta);
+    }
+
+    /**
+     * Returns the index of the coverage tree of the previous build, if this build uses the same reference build. The
+     * changes that have been attached to the files of this previous build can be reused for all files that did not
+     * change since then. This is typically the case for successive builds of the same change request.
+     *
+     * @param build
+     *         the current build
+     * @param referenceBuildId
+     *         the ID of the reference build of the current build
+     * @param log
+     *         the log
+     *
+     * @return the index of the coverage tree of the previous build, or an empty Optional if the results of the
+     *         previous build cannot be reused
+     */
+    private Optional<ReferenceIndex> getPreviousIndex(final Run<?, ?> build, final String referenceBuildId,
+            final FilteredLog log) {
+        if (!INCREMENTAL) {
+            return Optional.empty();
+        }
+        Run<?, ?> previousBuild = build.getPreviousCompletedBuild();
+        if (previousBuild == null) {
+            return Optional.empty();
+        }
+        CoverageBuildAction previousAction = previousBuild.getAction(CoverageBuildAction.class);
+        if (previousAction == null || !referenceBuildId.equals(previousAction.getReferenceBuildId())) {
+            return Optional.empty();
+        }
+        log.logInfo("-> Previous build '%s' uses the same reference build", previousBuild.getDisplayName());
+        return Optional.of(new ReferenceIndex(previousAction.getResult()));
+    }
+
+    /**
+     * Appends the coverage of the current build to the {@link CoverageTrendIndex} of the job. The record is created
+     * now, since the coverage tree of the build is still in memory. If the job has no index yet, then it will be
+     * created from the build history.
+     *
+     * @param build
+     *         the current build
+     * @param action
+     *         the action with the coverage of the build
+     * @param log
+     *         the log
+     */
+    private void appendTrend(final Run<?, ?> build, final CoverageBuildAction action, final FilteredLog log) {
+        try {
+            Job<?, ?> job = build.getParent();
+            new CoverageTrendIndex(job.getRootDir()).append(CoverageTrendRecord.fromAction(action),
+                    new CoverageJobAction(job)::createTrendHistory);
+        }
+        catch (IOException exception) {
+            log.logException(exception, "Can't append the coverage to the trend of the job");
         }
-        return new TreeMap<>();
     }
 
     private Optional<CoverageBuildAction> getReferenceBuildAction(final Run<?, ?> build, final FilteredLog log) {
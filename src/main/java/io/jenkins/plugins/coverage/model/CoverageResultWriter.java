@@ -0,0 +1,202 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hudson.model.Run;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.SystemProperties;
+
+/**
+ * Writes the serialized coverage results of builds in the background, so that the build thread does not need to wait
+ * for slow writes to {@code JENKINS_HOME}. The writer uses a bounded queue: if the queue is full, then the write will
+ * be executed in the calling thread. Writes of the same build are executed in the order of submission: a write is
+ * queued only after the previous write of the same build has been completed, so no thread of the writer waits for
+ * another write. Before a build completes, {@link CoverageResultWriterListener} waits for all pending writes of the
+ * build.
+ *
+ * <p>
+ * The writer provides the number of queued writes and the latency of the writes as metrics, see
+ * {@link #getQueueDepth()} and {@link #getAverageWriteLatency()}. Each write is logged with level {@link Level#FINE}.
+ * </p>
+ */
+public final class CoverageResultWriter {
+    private static final Logger LOGGER = Logger.getLogger(CoverageResultWriter.class.getName());
+
+    /** The number of threads that write the results. */
+    static final int THREADS = SystemProperties.getInteger(CoverageResultWriter.class.getName() + ".threads", 2);
+    /** The maximum number of writes that are queued before a write will be executed in the calling thread. */
+    static final int QUEUE_CAPACITY = SystemProperties.getInteger(
+            CoverageResultWriter.class.getName() + ".queueCapacity", 32);
+
+    private static final CoverageResultWriter INSTANCE = new CoverageResultWriter(THREADS, QUEUE_CAPACITY);
+
+    private final ThreadPoolExecutor executor;
+    /** The last submitted write of each build with pending writes. */
+    private final Map<Run<?, ?>, CompletableFuture<Void>> pendingWrites = new HashMap<>();
+
+    private final AtomicLong writeCount = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * Returns the singleton instance of the writer.
+     *
+     * @return the writer
+     */
+    public static CoverageResultWriter getInstance() {
+        return INSTANCE;
+    }
+
+    CoverageResultWriter(final int threads, final int queueCapacity) {
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new NamingThreadFactory(new DaemonThreadFactory(), CoverageResultWriter.class.getSimpleName()),
+                new CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submits a write of a result of the specified build.
+     *
+     * @param build
+     *         the build that owns the result
+     * @param write
+     *         the write operation
+     *
+     * @return the future of the write operation
+     */
+    public Future<?> submit(final Run<?, ?> build, final Runnable write) {
+        CompletableFuture<Void> task;
+        synchronized (pendingWrites) {
+            CompletableFuture<Void> previous = pendingWrites.get(build);
+            if (previous == null) {
+                task = CompletableFuture.runAsync(() -> write(build, write), executor);
+            }
+            else {
+                task = previous.exceptionally(exception -> null).thenRunAsync(() -> write(build, write), executor);
+            }
+            pendingWrites.put(build, task);
+        }
+        task.whenComplete((result, exception) -> remove(build, task));
+
+        return task;
+    }
+
+    private void write(final Run<?, ?> build, final Runnable write) {
+        long start = System.nanoTime();
+        try {
+            write.run();
+        }
+        catch (RuntimeException exception) {
+            LOGGER.log(Level.SEVERE, "Failed to write coverage result of " + build, exception);
+        }
+        recordLatency(build, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void remove(final Run<?, ?> build, final CompletableFuture<Void> write) {
+        synchronized (pendingWrites) {
+            pendingWrites.remove(build, write); // a subsequent write of the build is still pending
+        }
+    }
+
+    private void recordLatency(final Run<?, ?> build, final long latency) {
+        writeCount.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("Wrote coverage result of %s in %d ms (queue depth: %d)",
+                    build, latency, getQueueDepth()));
+        }
+    }
+
+    /**
+     * Waits until all pending writes of the specified build have been completed.
+     *
+     * @param build
+     *         the build to wait for
+     */
+    void awaitPendingWrites(final Run<?, ?> build) {
+        CompletableFuture<Void> lastWrite;
+        synchronized (pendingWrites) {
+            lastWrite = pendingWrites.get(build);
+        }
+        if (lastWrite != null) {
+            waitFor(build, lastWrite); // the last write completes after all previous writes of the build
+        }
+    }
+
+    private void waitFor(final Run<?, ?> build, final Future<?> write) {
+        try {
+            write.get();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException exception) {
+            LOGGER.log(Level.SEVERE, "Failed to write coverage result of " + build, exception);
+        }
+    }
+
+    /**
+     * Returns the number of builds that have pending writes.
+     *
+     * @return the number of builds
+     */
+    public int getPendingBuildsCount() {
+        synchronized (pendingWrites) {
+            return pendingWrites.size();
+        }
+    }
+
+    /**
+     * Returns the number of writes that are waiting in the queue.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of writes that have been completed so far.
+     *
+     * @return the number of writes
+     */
+    public long getWriteCount() {
+        return writeCount.get();
+    }
+
+    /**
+     * Returns the average latency of all writes so far.
+     *
+     * @return the average latency in milliseconds
+     */
+    public long getAverageWriteLatency() {
+        long count = writeCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        return totalLatency.get() / count;
+    }
+
+    /**
+     * Returns the maximum latency of all writes so far.
+     *
+     * @return the maximum latency in milliseconds
+     */
+    public long getMaxWriteLatency() {
+        return maxLatency.get();
+    }
+}
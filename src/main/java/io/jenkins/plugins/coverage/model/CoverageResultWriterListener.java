@@ -0,0 +1,20 @@
+package io.jenkins.plugins.coverage.model;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+
+/**
+ * Guarantees that the coverage results of a build have been written to disk before the build is marked as completed.
+ * The results are written in the background by the {@link CoverageResultWriter}.
+ */
+@Extension
+public class CoverageResultWriterListener extends RunListener<Run<?, ?>> {
+    @Override
+    public void onCompleted(final Run<?, ?> run, @NonNull final TaskListener listener) {
+        CoverageResultWriter.getInstance().awaitPendingWrites(run);
+    }
+}
@@ -1,13 +1,21 @@
 package io.jenkins.plugins.coverage.model;
 
-import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.tuple.Pair;
+
 import hudson.Functions;
 
+import io.jenkins.plugins.coverage.model.visualization.code.SourceCodeFacade;
 import io.jenkins.plugins.coverage.model.visualization.colorization.ColorProvider;
 import io.jenkins.plugins.coverage.model.visualization.colorization.ColorProvider.DisplayColors;
 import io.jenkins.plugins.coverage.model.visualization.colorization.CoverageChangeTendency;
@@ -37,6 +45,9 @@ class CoverageTableModel extends TableModel {
     static final DetailedCell<Integer> NO_COVERAGE = new DetailedCell<>(Messages.Coverage_Not_Available(),
             NO_COVERAGE_SORT);
 
+    private static final Map<String, Function<Object, Object>> COLUMN_ACCESSORS
+            = Collections.unmodifiableMap(createColumnAccessors());
+
     private final ColorProvider colorProvider;
     private final CoverageNode root;
     private final RowRenderer renderer;
@@ -137,6 +148,39 @@ class CoverageTableModel extends TableModel {
         return columns;
     }
 
+    /**
+     * Returns the accessors of the values of a row, mapped by the data property keys of the {@link #getColumns()
+     * columns}.
+     *
+     * @return the accessors of the columns
+     */
+    Map<String, Function<Object, Object>> getColumnAccessors() {
+        return COLUMN_ACCESSORS;
+    }
+
+    /**
+     * Creates the accessors of the columns of a {@link CoverageRow}, see {@link #getColumnAccessors()}.
+     *
+     * @return the accessors of the columns
+     */
+    static Map<String, Function<Object, Object>> createColumnAccessors() {
+        Map<String, Function<Object, Object>> accessors = new HashMap<>();
+        addColumnAccessor(accessors, "fileHash", CoverageRow.class, CoverageRow::getFileHash);
+        addColumnAccessor(accessors, "fileName", CoverageRow.class, CoverageRow::getFileName);
+        addColumnAccessor(accessors, "packageName", CoverageRow.class, CoverageRow::getPackageName);
+        addColumnAccessor(accessors, "lineCoverage", CoverageRow.class, CoverageRow::getLineCoverage);
+        addColumnAccessor(accessors, "lineCoverageDelta", CoverageRow.class, CoverageRow::getLineCoverageDelta);
+        addColumnAccessor(accessors, "branchCoverage", CoverageRow.class, CoverageRow::getBranchCoverage);
+        addColumnAccessor(accessors, "branchCoverageDelta", CoverageRow.class, CoverageRow::getBranchCoverageDelta);
+        addColumnAccessor(accessors, "loc", CoverageRow.class, CoverageRow::getLoc);
+        return accessors;
+    }
+
+    static <R> void addColumnAccessor(final Map<String, Function<Object, Object>> accessors, final String property,
+            final Class<R> rowType, final Function<R, Object> accessor) {
+        accessors.put(property, row -> accessor.apply(rowType.cast(row)));
+    }
+
     @Override
     public List<Object> getRows() {
         Locale browserLocale = Functions.getCurrentLocale();
@@ -149,6 +193,21 @@ class CoverageTableModel extends TableModel {
         return root;
     }
 
+    /**
+     * Creates a function that resolves the file nodes of a filtered coverage tree to the file nodes of the origin
+     * coverage tree with the same path and name. The file nodes of the origin tree are indexed only once for all rows.
+     * If there is no such file node, then the filtered file node is returned as fallback.
+     *
+     * @return the function that resolves the origin file nodes
+     */
+    protected UnaryOperator<FileCoverageNode> createOriginalNodeResolver() {
+        Map<Pair<String, String>, FileCoverageNode> originalNodes = new HashMap<>();
+        for (FileCoverageNode node : root.getAllFileCoverageNodes()) {
+            originalNodes.putIfAbsent(Pair.of(node.getPath(), node.getName()), node);
+        }
+        return fileNode -> originalNodes.getOrDefault(Pair.of(fileNode.getPath(), fileNode.getName()), fileNode);
+    }
+
     protected ColorProvider getColorProvider() {
         return colorProvider;
     }
@@ -264,6 +323,27 @@ class CoverageTableModel extends TableModel {
             return root;
         }
 
+        /**
+         * Creates a table cell which shows the number of the specified methods. The names of these methods are shown
+         * as tooltip.
+         *
+         * @param firstLines
+         *         the first lines of the methods
+         *
+         * @return the created {@link DetailedCell}
+         */
+        protected DetailedCell<Integer> createMethodsColumn(final Set<Integer> firstLines) {
+            String names = root.getAll(CoverageMetric.METHOD).stream()
+                    .filter(MethodCoverageNode.class::isInstance)
+                    .map(MethodCoverageNode.class::cast)
+                    .filter(method -> firstLines.contains(method.getLineNumber()))
+                    .map(CoverageNode::getName)
+                    .distinct()
+                    .collect(Collectors.joining(", "));
+            String cell = span().withTitle(names).withText(String.valueOf(firstLines.size())).render();
+            return new DetailedCell<>(cell, firstLines.size());
+        }
+
         /**
          * Creates a colored column for visualizing the file coverage delta against a reference for the passed
          * {@link CoverageMetric}.
@@ -292,12 +372,23 @@ class CoverageTableModel extends TableModel {
      * Renders filenames with links. Selection will be handled by opening a new page using the provided link.
      */
     static class LinkedRowRenderer implements RowRenderer {
-        private final File buildFolder;
-        private final String resultsId;
+        private static final SourceCodeFacade SOURCE_CODE_FACADE = new SourceCodeFacade();
+
+        private final Set<String> storedSourceFiles;
+        private final Set<String> oldFormatSourceFiles;
 
-        LinkedRowRenderer(final File buildFolder, final String resultsId) {
-            this.buildFolder = buildFolder;
-            this.resultsId = resultsId;
+        /**
+         * Creates a new renderer. The names of the available source files have been read once for all rows of the
+         * table, so that rendering a row requires no access to the build folder.
+         *
+         * @param storedSourceFiles
+         *         the sanitized names of the stored source files
+         * @param oldFormatSourceFiles
+         *         the sanitized names of the source files in the format of the plugin versions less than 2.1.0
+         */
+        LinkedRowRenderer(final Set<String> storedSourceFiles, final Set<String> oldFormatSourceFiles) {
+            this.storedSourceFiles = storedSourceFiles;
+            this.oldFormatSourceFiles = oldFormatSourceFiles;
         }
 
         @Override
@@ -307,8 +398,8 @@ class CoverageTableModel extends TableModel {
 
         @Override
         public String renderFileName(final String fileName, final String path) {
-            if (CoverageViewModel.isSourceFileInNewFormatAvailable(buildFolder, resultsId, path)
-                    || CoverageViewModel.isSourceFileInOldFormatAvailable(buildFolder, fileName)) {
+            if (storedSourceFiles.contains(SOURCE_CODE_FACADE.getStoredFileName(path))
+                    || oldFormatSourceFiles.contains(CoverageViewModel.sanitizeFilename(fileName))) {
                 return a().withHref(String.valueOf(path.hashCode())).withText(fileName).render();
             }
             return fileName;
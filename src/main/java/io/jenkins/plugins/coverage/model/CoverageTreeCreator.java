@@ -1,5 +1,6 @@
 package io.jenkins.plugins.coverage.model;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -122,14 +123,7 @@ public class CoverageTreeCreator {
      */
     private void attachChangeCoverageLeaves(final CoverageNode node) {
         node.getAllFileCoverageNodes()
-                .forEach(fileNode -> {
-                    List<Coverage> changes = fileNode.getCoveragePerLine()
-                            .entrySet().stream()
-                            .filter(entry -> fileNode.getChangedCodeLines().contains(entry.getKey()))
-                            .map(Entry::getValue)
-                            .collect(Collectors.toList());
-                    createChangeCoverageLeaves(fileNode, changes);
-                });
+                .forEach(fileNode -> createChangeCoverageLeaves(fileNode).forEach(fileNode::add));
     }
 
     /**
@@ -142,18 +136,24 @@ public class CoverageTreeCreator {
     private void attachIndirectCoverageChangesLeaves(final CoverageNode node) {
         node.getAllFileCoverageNodes().stream()
                 .filter(fileNode -> !fileNode.getIndirectCoverageChanges().isEmpty())
-                .forEach(this::createIndirectCoverageChangesLeaves);
+                .forEach(fileNode -> createIndirectCoverageChangesLeaves(fileNode).forEach(fileNode::add));
     }
 
     /**
-     * Creates both a line and a branch change coverage leaf for the passed {@link FileCoverageNode node}.
+     * Creates both a line and a branch change coverage leaf for the passed {@link FileCoverageNode node}. The leaves
+     * are not attached to the node.
      *
      * @param fileNode
-     *         The node the leaves are attached to
-     * @param changes
-     *         The {@link Coverage} to be represented by the leaves
+     *         The node which contains the changed code lines
+     *
+     * @return the created leaves, the leaves are omitted if there is no corresponding coverage
      */
-    private void createChangeCoverageLeaves(final FileCoverageNode fileNode, final List<Coverage> changes) {
+    List<CoverageLeaf> createChangeCoverageLeaves(final FileCoverageNode fileNode) {
+        List<Coverage> changes = fileNode.getCoveragePerLine()
+                .entrySet().stream()
+                .filter(entry -> fileNode.getChangedCodeLines().contains(entry.getKey()))
+                .map(Entry::getValue)
+                .collect(Collectors.toList());
         Coverage lineCoverage = CoverageBuilder.NO_COVERAGE;
         Coverage branchCoverage = CoverageBuilder.NO_COVERAGE;
         for (Coverage change : changes) {
@@ -171,26 +171,22 @@ public class CoverageTreeCreator {
                         new Coverage.CoverageBuilder().setCovered(covered).setMissed(missed).build());
             }
         }
-        if (lineCoverage.isSet()) {
-            CoverageLeaf lineCoverageLeaf = new CoverageLeaf(CoverageMetric.LINE, lineCoverage);
-            fileNode.add(lineCoverageLeaf);
-        }
-        if (branchCoverage.isSet()) {
-            CoverageLeaf branchCoverageLeaf = new CoverageLeaf(CoverageMetric.BRANCH, branchCoverage);
-            fileNode.add(branchCoverageLeaf);
-        }
+        return createLeaves(lineCoverage, branchCoverage);
     }
 
     /**
      * Creates both a line and a branch indirect coverage changes leaf for the passed {@link FileCoverageNode node}. The
-     * leaves represent the delta for a file regarding the amount of lines / branches that got hit by tests.
+     * leaves represent the delta for a file regarding the amount of lines / branches that got hit by tests. The leaves
+     * are not attached to the node.
      *
      * @param fileNode
-     *         The node the leaves are attached to
+     *         The node which contains the indirect coverage changes
+     *
+     * @return the created leaves, the leaves are omitted if there is no corresponding coverage
      */
     @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.CognitiveComplexity"})
     // there is no useful possibility for outsourcing code
-    private void createIndirectCoverageChangesLeaves(final FileCoverageNode fileNode) {
+    List<CoverageLeaf> createIndirectCoverageChangesLeaves(final FileCoverageNode fileNode) {
         Coverage lineCoverage = CoverageBuilder.NO_COVERAGE;
         Coverage branchCoverage = CoverageBuilder.NO_COVERAGE;
         for (Map.Entry<Integer, Integer> change : fileNode.getIndirectCoverageChanges().entrySet()) {
@@ -219,14 +215,18 @@ public class CoverageTreeCreator {
                 }
             }
         }
+        return createLeaves(lineCoverage, branchCoverage);
+    }
+
+    private List<CoverageLeaf> createLeaves(final Coverage lineCoverage, final Coverage branchCoverage) {
+        List<CoverageLeaf> leaves = new ArrayList<>();
         if (lineCoverage.isSet()) {
-            CoverageLeaf lineCoverageLeaf = new CoverageLeaf(CoverageMetric.LINE, lineCoverage);
-            fileNode.add(lineCoverageLeaf);
+            leaves.add(new CoverageLeaf(CoverageMetric.LINE, lineCoverage));
         }
         if (branchCoverage.isSet()) {
-            CoverageLeaf branchCoverageLeaf = new CoverageLeaf(CoverageMetric.BRANCH, branchCoverage);
-            fileNode.add(branchCoverageLeaf);
+            leaves.add(new CoverageLeaf(CoverageMetric.BRANCH, branchCoverage));
         }
+        return leaves;
     }
 
     /**
@@ -0,0 +1,206 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import jenkins.util.SystemProperties;
+
+/**
+ * A coverage tree that is stored as difference to the coverage tree of a reference build. All files whose coverage
+ * did not change with respect to the reference build are stored as empty placeholders only. All other nodes (changed
+ * files along with all packages and modules) are stored completely. The original tree will be reconstructed by
+ * replacing the placeholders with the corresponding file nodes of the reference tree.
+ *
+ * <p>
+ * In order to limit the length of reconstruction chains, a full coverage tree (i.e. a keyframe) is stored every
+ * {@link #KEYFRAME_INTERVAL} builds.
+ * </p>
+ */
+class CoverageTreeDelta implements Serializable {
+    private static final long serialVersionUID = 6129582216540871290L;
+
+    /** The file name of the serialized delta in the build folder. */
+    static final String FILE_NAME = "coverage-delta.xml";
+
+    /** The maximum number of consecutive delta encoded builds before a full tree will be stored again. */
+    static final int KEYFRAME_INTERVAL = SystemProperties.getInteger(
+            CoverageTreeDelta.class.getName() + ".keyframeInterval", 10);
+
+    private final String referenceBuildId;
+    private final int depth;
+    private final boolean fileDeltasAttached;
+    private final CoverageNode skeleton;
+    private final SortedSet<String> referencedFiles;
+
+    /**
+     * Creates a new delta of the specified coverage tree with respect to the specified reference tree.
+     *
+     * @param referenceBuildId
+     *         the ID of the reference build
+     * @param depth
+     *         the number of delta encoded builds that need to be resolved in order to reconstruct the tree
+     * @param root
+     *         the root of the coverage tree of the current build
+     * @param referenceRoot
+     *         the root of the coverage tree of the reference build
+     *
+     * @return the created delta
+     */
+    static CoverageTreeDelta create(final String referenceBuildId, final int depth,
+            final CoverageNode root, final CoverageNode referenceRoot) {
+        Map<String, FileCoverageNode> referenceFiles = mapFilesByPath(referenceRoot);
+        boolean fileDeltasAttached = root.getAllFileCoverageNodes().stream()
+                .anyMatch(file -> file.getMetrics().stream().anyMatch(file::hasFileCoverageDelta));
+
+        SortedSet<String> referencedFiles = new TreeSet<>();
+        CoverageNode skeleton = copySkeleton(root, referenceFiles, fileDeltasAttached, referencedFiles);
+
+        return new CoverageTreeDelta(referenceBuildId, depth, fileDeltasAttached, skeleton, referencedFiles);
+    }
+
+    /**
+     * Returns whether the tree of a build should be stored as delta to its reference build.
+     *
+     * @param referenceDepth
+     *         the delta depth of the reference build, 0 if the reference build stores a full tree
+     *
+     * @return {@code true} if a delta should be stored, {@code false} if the full tree should be stored
+     */
+    static boolean isDeltaRequired(final int referenceDepth) {
+        return referenceDepth + 1 < KEYFRAME_INTERVAL;
+    }
+
+    CoverageTreeDelta(final String referenceBuildId, final int depth, final boolean fileDeltasAttached,
+            final CoverageNode skeleton, final SortedSet<String> referencedFiles) {
+        this.referenceBuildId = referenceBuildId;
+        this.depth = depth;
+        this.fileDeltasAttached = fileDeltasAttached;
+        this.skeleton = skeleton;
+        this.referencedFiles = referencedFiles;
+    }
+
+    public String getReferenceBuildId() {
+        return referenceBuildId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the number of files that are not stored in this delta but referenced from the reference build.
+     *
+     * @return the number of referenced files
+     */
+    public int getReferencedFilesCount() {
+        return referencedFiles.size();
+    }
+
+    /**
+     * Reconstructs the complete coverage tree using the file nodes of the specified reference tree.
+     *
+     * @param referenceRoot
+     *         the root of the coverage tree of the reference build
+     *
+     * @return the reconstructed coverage tree
+     * @throws IllegalStateException
+     *         if the reference tree does not contain one of the referenced files
+     */
+    CoverageNode reconstruct(final CoverageNode referenceRoot) {
+        CoverageNode root = skeleton.copyTree();
+        if (!referencedFiles.isEmpty()) {
+            restoreReferencedFiles(root, mapFilesByPath(referenceRoot));
+        }
+        return root;
+    }
+
+    private void restoreReferencedFiles(final CoverageNode node, final Map<String, FileCoverageNode> referenceFiles) {
+        List<CoverageNode> children = node.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            CoverageNode child = children.get(i);
+            if (child instanceof FileCoverageNode && referencedFiles.contains(child.getPath())) {
+                FileCoverageNode referenceFile = referenceFiles.get(child.getPath());
+                if (referenceFile == null) {
+                    throw new IllegalStateException(String.format(
+                            "Reference build '%s' does not contain the file '%s'",
+                            referenceBuildId, child.getPath()));
+                }
+                FileCoverageNode restored = copyUnchangedFile(referenceFile, fileDeltasAttached);
+                restored.setParent(node);
+                children.set(i, restored);
+            }
+            else {
+                restoreReferencedFiles(child, referenceFiles);
+            }
+        }
+    }
+
+    private static CoverageNode copySkeleton(final CoverageNode node,
+            final Map<String, FileCoverageNode> referenceFiles, final boolean fileDeltasAttached,
+            final Set<String> referencedFiles) {
+        if (node instanceof FileCoverageNode) {
+            FileCoverageNode file = (FileCoverageNode) node;
+            String path = file.getPath();
+            FileCoverageNode referenceFile = referenceFiles.get(path);
+            if (referenceFile != null && file.equals(copyUnchangedFile(referenceFile, fileDeltasAttached))) {
+                referencedFiles.add(path);
+
+                return file.copyEmpty();
+            }
+            return file.copyTree();
+        }
+
+        CoverageNode copy = node.copyEmpty();
+        node.getChildren().forEach(child ->
+                copy.add(copySkeleton(child, referenceFiles, fileDeltasAttached, referencedFiles)));
+        node.getLeaves().forEach(copy::add);
+        return copy;
+    }
+
+    /**
+     * Copies the specified file of the reference build so that it represents the same file in a build that did not
+     * change the file at all: there are no code changes, no indirect coverage changes, no fingerprint of code changes,
+     * and all file coverage deltas are zero.
+     *
+     * @param referenceFile
+     *         the file of the reference build
+     * @param fileDeltasAttached
+     *         determines whether the file coverage deltas have been computed in the current build
+     *
+     * @return the copied file
+     */
+    private static FileCoverageNode copyUnchangedFile(final FileCoverageNode referenceFile,
+            final boolean fileDeltasAttached) {
+        FileCoverageNode copy = (FileCoverageNode) referenceFile.copyTree();
+        copy.setChangedCodeLines(new TreeSet<>());
+        copy.setIndirectCoverageChanges(new TreeMap<>());
+        copy.setChangesFingerprint(null);
+        SortedMap<CoverageMetric, CoveragePercentage> fileCoverageDelta = new TreeMap<>();
+        if (fileDeltasAttached) {
+            copy.getMetricFractions().forEach((metric, value) ->
+                    fileCoverageDelta.put(metric, CoveragePercentage.valueOf(value.subtract(value))));
+        }
+        copy.setFileCoverageDelta(fileCoverageDelta);
+        return copy;
+    }
+
+    private static Map<String, FileCoverageNode> mapFilesByPath(final CoverageNode root) {
+        Map<String, FileCoverageNode> files = new HashMap<>();
+        Set<String> duplicates = new HashSet<>();
+        for (FileCoverageNode file : root.getAllFileCoverageNodes()) {
+            if (files.putIfAbsent(file.getPath(), file) != null) {
+                duplicates.add(file.getPath());
+            }
+        }
+        duplicates.forEach(files::remove);
+        return files;
+    }
+}
@@ -0,0 +1,82 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+
+import io.jenkins.plugins.util.JenkinsFacade;
+
+/**
+ * Keeps the coverage trees that are stored as {@link CoverageTreeDelta} readable. Each reference build tracks the
+ * builds that store their coverage tree as delta to its own tree. Before a reference build is deleted, all of these
+ * dependent builds will be converted to store a full coverage tree again.
+ */
+@Extension
+public class CoverageTreeDeltaListener extends RunListener<Run<?, ?>> {
+    private static final Logger LOGGER = Logger.getLogger(CoverageTreeDeltaListener.class.getName());
+
+    static final String DEPENDENTS_FILE_NAME = "coverage-delta-dependents.txt";
+
+    /**
+     * Registers the specified build as dependent of the specified reference build.
+     *
+     * @param reference
+     *         the reference build that is used to reconstruct the coverage tree of the dependent build
+     * @param dependent
+     *         the build that stores its coverage tree as delta
+     */
+    static void registerDependent(final Run<?, ?> reference, final Run<?, ?> dependent) {
+        synchronized (CoverageTreeDeltaListener.class) {
+            try {
+                Files.write(getDependentsFile(reference),
+                        Collections.singletonList(dependent.getExternalizableId()), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            catch (IOException exception) {
+                LOGGER.log(Level.WARNING, "Failed to register delta encoded coverage of " + dependent, exception);
+            }
+        }
+    }
+
+    private static Path getDependentsFile(final Run<?, ?> reference) {
+        return reference.getRootDir().toPath().resolve(DEPENDENTS_FILE_NAME);
+    }
+
+    @Override
+    public void onDeleted(@NonNull final Run<?, ?> run) {
+        Path dependentsFile = getDependentsFile(run);
+        if (!Files.exists(dependentsFile)) {
+            return;
+        }
+
+        List<String> dependents;
+        synchronized (CoverageTreeDeltaListener.class) {
+            try {
+                dependents = Files.readAllLines(dependentsFile, StandardCharsets.UTF_8);
+            }
+            catch (IOException exception) {
+                LOGGER.log(Level.SEVERE, "Failed to read delta encoded coverage dependents of " + run, exception);
+                return;
+            }
+        }
+
+        JenkinsFacade jenkins = new JenkinsFacade();
+        for (String dependent : dependents) {
+            jenkins.getBuild(dependent)
+                    .map(build -> build.getAction(CoverageBuildAction.class))
+                    .ifPresent(CoverageBuildAction::storeFullTree);
+        }
+    }
+}
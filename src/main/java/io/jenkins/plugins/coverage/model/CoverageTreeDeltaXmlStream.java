@@ -0,0 +1,32 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.TreeSet;
+
+import hudson.util.XStream2;
+
+import io.jenkins.plugins.util.AbstractXmlStream;
+
+/**
+ * Configures the XML stream for a {@link CoverageTreeDelta}.
+ */
+class CoverageTreeDeltaXmlStream extends AbstractXmlStream<CoverageTreeDelta> {
+    /**
+     * Creates an XML stream for {@link CoverageTreeDelta}.
+     */
+    CoverageTreeDeltaXmlStream() {
+        super(CoverageTreeDelta.class);
+    }
+
+    @Override
+    protected void configureXStream(final XStream2 xStream) {
+        CoverageXmlStream.registerCoverageTreeConverters(xStream);
+
+        xStream.alias("delta", CoverageTreeDelta.class);
+    }
+
+    @Override
+    protected CoverageTreeDelta createDefaultValue() {
+        return new CoverageTreeDelta("-", 0, false,
+                new CoverageNode(CoverageMetric.MODULE, "Empty"), new TreeSet<>());
+    }
+}
@@ -0,0 +1,170 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes the nodes of a coverage tree as JSON. The nodes are written in pre-order directly from the tree using a
+ * Jackson {@link JsonGenerator}, so no intermediate objects are created, and the size of the response does not
+ * influence the memory consumption of the controller. The nodes to write are selected by a {@link TreeQuery}.
+ *
+ * <p>
+ * The JSON object contains the array 'nodes' with the selected nodes of the requested page and the total number of
+ * selected nodes. Each node contains its name, metric, path, depth, and the coverage of the requested metrics.
+ * </p>
+ */
+class CoverageTreeJsonWriter {
+    /**
+     * Writes the selected nodes of the specified tree.
+     *
+     * @param root
+     *         the root of the coverage tree
+     * @param query
+     *         the query that selects the nodes and the metrics
+     * @param generator
+     *         the generator to write the JSON object to
+     *
+     * @throws IOException
+     *         if the JSON object could not be written
+     */
+    void write(final CoverageNode root, final TreeQuery query, final JsonGenerator generator) throws IOException {
+        Collection<CoverageMetric> metrics = query.getMetrics().isEmpty() ? root.getMetrics() : query.getMetrics();
+
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("nodes");
+        int total = writeNodes(root, StringUtils.EMPTY, 0, 0, metrics, query, generator);
+        generator.writeEndArray();
+        generator.writeNumberField("start", query.getStart());
+        generator.writeNumberField("total", total);
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    /**
+     * Writes the selected nodes of the subtree of the specified node.
+     *
+     * @return the number of selected nodes so far
+     */
+    private int writeNodes(final CoverageNode node, final String parentPath, final int depth, final int count,
+            final Collection<CoverageMetric> metrics, final TreeQuery query, final JsonGenerator generator)
+            throws IOException {
+        // classes and methods have no path of their own, they are part of the path of their file
+        String path = StringUtils.defaultIfEmpty(node.getPath(), parentPath);
+        int selected = count;
+        if (path.startsWith(query.getPathPrefix())) {
+            if (query.isInPage(selected)) {
+                writeNode(node, path, depth, metrics, generator);
+            }
+            selected++;
+        }
+        else if (!query.getPathPrefix().startsWith(path)) {
+            return selected; // no node of this subtree matches the prefix
+        }
+        if (depth < query.getMaxDepth()) {
+            for (CoverageNode child : node.getChildren()) {
+                selected = writeNodes(child, path, depth + 1, selected, metrics, query, generator);
+            }
+        }
+        return selected;
+    }
+
+    private void writeNode(final CoverageNode node, final String path, final int depth,
+            final Collection<CoverageMetric> metrics, final JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("name", node.getName());
+        generator.writeStringField("metric", node.getMetric().getName());
+        generator.writeStringField("path", path);
+        generator.writeNumberField("depth", depth);
+        generator.writeObjectFieldStart("coverage");
+        for (CoverageMetric metric : metrics) {
+            Coverage coverage = node.getCoverage(metric);
+            if (coverage.isSet()) {
+                generator.writeObjectFieldStart(metric.getName());
+                generator.writeNumberField("covered", coverage.getCovered());
+                generator.writeNumberField("missed", coverage.getMissed());
+                generator.writeNumberField("percentage", coverage.getCoveredPercentage().getDoubleValue());
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Selects the nodes and metrics of a coverage tree: the nodes up to a maximum depth below the root whose path
+     * starts with a prefix, and of those only the nodes of the requested page.
+     */
+    static class TreeQuery {
+        private final int maxDepth;
+        private final List<CoverageMetric> metrics;
+        private final String pathPrefix;
+        private final int start;
+        private final int limit;
+
+        /**
+         * Parses the request parameters 'depth', 'metric' (repeatable), 'path', 'start', and 'limit'. A negative
+         * depth or limit means no limit.
+         *
+         * @param parameters
+         *         the request parameters
+         *
+         * @return the query
+         */
+        static TreeQuery fromParameters(final Map<String, String[]> parameters) {
+            List<CoverageMetric> metrics = new ArrayList<>();
+            for (String metric : parameters.getOrDefault("metric", new String[0])) {
+                metrics.add(CoverageMetric.valueOf(metric));
+            }
+            return new TreeQuery(NumberUtils.toInt(getValue(parameters, "depth"), -1), metrics,
+                    getValue(parameters, "path"),
+                    NumberUtils.toInt(getValue(parameters, "start")),
+                    NumberUtils.toInt(getValue(parameters, "limit"), -1));
+        }
+
+        private static String getValue(final Map<String, String[]> parameters, final String name) {
+            String[] values = parameters.get(name);
+            if (values == null || values.length == 0) {
+                return StringUtils.EMPTY;
+            }
+            return StringUtils.defaultString(values[0]);
+        }
+
+        TreeQuery(final int maxDepth, final List<CoverageMetric> metrics, final String pathPrefix,
+                final int start, final int limit) {
+            this.maxDepth = maxDepth < 0 ? Integer.MAX_VALUE : maxDepth;
+            this.metrics = Collections.unmodifiableList(new ArrayList<>(metrics));
+            this.pathPrefix = StringUtils.removeStart(pathPrefix, "/");
+            this.start = Math.max(start, 0);
+            this.limit = limit;
+        }
+
+        int getMaxDepth() {
+            return maxDepth;
+        }
+
+        List<CoverageMetric> getMetrics() {
+            return metrics;
+        }
+
+        String getPathPrefix() {
+            return pathPrefix;
+        }
+
+        int getStart() {
+            return start;
+        }
+
+        boolean isInPage(final int position) {
+            return position >= start && (limit < 0 || position < start + limit);
+        }
+    }
+}
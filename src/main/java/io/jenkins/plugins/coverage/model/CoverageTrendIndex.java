@@ -0,0 +1,210 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * An append-only file in the folder of a job that contains a {@link CoverageTrendRecord} for each build with coverage
+ * results. Since all records have the same size, the trend of a job is obtained by reading this single file: neither
+ * the builds nor their actions need to be loaded.
+ *
+ * <p>
+ * The file starts with a header that contains the version of the format and the size of a record. A file with an
+ * unknown header will be ignored, i.e. it will be recreated from the build history. If a build contains more than one
+ * record (e.g., if the coverage step has been called several times), then the last record wins.
+ * </p>
+ */
+class CoverageTrendIndex {
+    /** The file name of the trend index in the folder of a job. */
+    static final String FILE_NAME = "coverage-trend.idx";
+
+    private static final int VERSION = 2; // version 1 stored missing metrics as 0% coverage
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path index;
+
+    /**
+     * Creates a new trend index for the specified job.
+     *
+     * @param jobRootDir
+     *         the root directory of the job
+     */
+    CoverageTrendIndex(final File jobRootDir) {
+        index = jobRootDir.toPath().resolve(FILE_NAME);
+    }
+
+    /**
+     * Returns whether the index has been created and is readable with this version of the plugin.
+     *
+     * @return {@code true} if the index exists, {@code false} otherwise
+     */
+    boolean exists() {
+        synchronized (getLock()) {
+            try {
+                return Files.exists(index) && hasValidHeader();
+            }
+            catch (IOException exception) {
+                return false;
+            }
+        }
+    }
+
+    private boolean hasValidHeader() throws IOException {
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            header.flip();
+            return header.remaining() == HEADER_SIZE
+                    && header.getInt() == VERSION && header.getInt() == CoverageTrendRecord.SIZE;
+        }
+    }
+
+    /**
+     * Appends the specified record to the index. If the index has not been created yet, then it will be created from
+     * the specified build history and the record.
+     *
+     * @param record
+     *         the record to append
+     * @param history
+     *         provides the records of the previous builds in the order of their builds
+     *
+     * @throws IOException
+     *         if the record could not be written
+     */
+    void append(final CoverageTrendRecord record, final Supplier<List<CoverageTrendRecord>> history)
+            throws IOException {
+        synchronized (getLock()) {
+            if (!exists()) {
+                List<CoverageTrendRecord> records = new ArrayList<>(history.get());
+                records.add(record);
+                create(records);
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(index, StandardOpenOption.WRITE)) {
+                long records = (channel.size() - HEADER_SIZE) / CoverageTrendRecord.SIZE;
+                long end = HEADER_SIZE + records * CoverageTrendRecord.SIZE;
+                channel.truncate(end); // drop a partially written last record
+                channel.position(end);
+                write(channel, Collections.singletonList(record));
+            }
+        }
+    }
+
+    /**
+     * Creates the index with the specified records. An existing index will be replaced.
+     *
+     * @param records
+     *         the records of the index
+     *
+     * @throws IOException
+     *         if the index could not be written
+     */
+    void create(final List<CoverageTrendRecord> records) throws IOException {
+        synchronized (getLock()) {
+            Path temp = index.resolveSibling(FILE_NAME + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(VERSION).putInt(CoverageTrendRecord.SIZE).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                write(channel, records);
+            }
+            Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private void write(final FileChannel channel, final List<CoverageTrendRecord> records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(records.size() * CoverageTrendRecord.SIZE);
+        records.forEach(record -> record.write(buffer));
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads all records of the index. If the index has not been created yet, then it will be created from the
+     * specified build history first. The records are sorted by build number in descending order.
+     *
+     * @param history
+     *         provides the records of all builds in the order of their builds
+     *
+     * @return the records of the index
+     * @throws IOException
+     *         if the index could not be read or created
+     */
+    List<CoverageTrendRecord> read(final Supplier<List<CoverageTrendRecord>> history) throws IOException {
+        synchronized (getLock()) {
+            if (!exists()) {
+                create(history.get());
+            }
+            return read();
+        }
+    }
+
+    /**
+     * Reads all records of the index. The records are sorted by build number in descending order, i.e. the latest
+     * build is the first element.
+     *
+     * @return the records of the index, or an empty list if the index does not exist
+     * @throws IOException
+     *         if the index could not be read
+     */
+    List<CoverageTrendRecord> read() throws IOException {
+        synchronized (getLock()) {
+            if (!exists()) {
+                return Collections.emptyList();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(index));
+            buffer.position(HEADER_SIZE);
+            Map<Integer, CoverageTrendRecord> records = new TreeMap<>(Comparator.reverseOrder());
+            while (buffer.remaining() >= CoverageTrendRecord.SIZE) {
+                CoverageTrendRecord record = CoverageTrendRecord.read(buffer);
+                records.put(record.getBuildNumber(), record);
+            }
+            return new ArrayList<>(records.values());
+        }
+    }
+
+    /**
+     * Removes the records of the specified build from the index.
+     *
+     * @param buildNumber
+     *         the number of the build to remove
+     *
+     * @throws IOException
+     *         if the index could not be written
+     */
+    void remove(final int buildNumber) throws IOException {
+        synchronized (getLock()) {
+            List<CoverageTrendRecord> records = read();
+            if (records.removeIf(record -> record.getBuildNumber() == buildNumber)) {
+                Collections.reverse(records);
+                create(records);
+            }
+        }
+    }
+
+    private Object getLock() {
+        return LOCKS.computeIfAbsent(index.toAbsolutePath().toString(), key -> new Object());
+    }
+}
@@ -0,0 +1,30 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+
+/**
+ * Removes the record of a deleted build from the {@link CoverageTrendIndex} of its job, so that the trend chart will
+ * not show the results of the build any longer.
+ */
+@Extension
+public class CoverageTrendIndexListener extends RunListener<Run<?, ?>> {
+    private static final Logger LOGGER = Logger.getLogger(CoverageTrendIndexListener.class.getName());
+
+    @Override
+    public void onDeleted(@NonNull final Run<?, ?> run) {
+        try {
+            new CoverageTrendIndex(run.getParent().getRootDir()).remove(run.getNumber());
+        }
+        catch (IOException exception) {
+            LOGGER.log(Level.WARNING, "Failed to remove " + run + " from the coverage trend", exception);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.hm.hafner.echarts.Build;
+
+import hudson.model.Run;
+
+/**
+ * The coverage summary of a build as stored in the {@link CoverageTrendIndex} of a job: the coverage and the delta to
+ * the reference build for all {@link CoverageMetric#getAvailableCoverageMetrics() available metrics}. Each record has
+ * a fixed size so that the trend of a job can be read without loading any of its builds. Metrics without coverage
+ * (e.g., the metrics that are not part of the summary of a build, see {@link #fromSummary(CoverageBuildAction)}) are
+ * stored with the marker {@link #NO_VALUE}, so that they are not mistaken for a coverage of 0%.
+ */
+public final class CoverageTrendRecord {
+    /** The metrics of a record, the position of a metric in this list is the position of its values in a record. */
+    static final List<CoverageMetric> METRICS = CoverageMetric.getAvailableCoverageMetrics();
+    /** The size of a record in bytes: build number, build time, and covered, missed, and delta of each metric. */
+    static final int SIZE = Integer.BYTES + Long.BYTES
+            + METRICS.size() * (Integer.BYTES + Integer.BYTES + Double.BYTES);
+    /** Marks a metric without coverage in the covered and missed values of a record. */
+    static final int NO_VALUE = -1;
+
+    private final int buildNumber;
+    private final long buildTime;
+    private final int[] covered;
+    private final int[] missed;
+    private final double[] delta;
+
+    /**
+     * Creates a record with all metrics of the specified action. Note that this requires the coverage tree of the
+     * action, so a record should be created while the tree is still in memory.
+     *
+     * @param action
+     *         the action with the coverage of a build
+     *
+     * @return the record
+     */
+    static CoverageTrendRecord fromAction(final CoverageBuildAction action) {
+        return create(action, METRICS);
+    }
+
+    /**
+     * Creates a record with the line and branch coverage of the specified action. These values are part of the
+     * action, so the coverage tree of the build will not be loaded. All other metrics have no value.
+     *
+     * @param action
+     *         the action with the coverage of a build
+     *
+     * @return the record
+     */
+    static CoverageTrendRecord fromSummary(final CoverageBuildAction action) {
+        return create(action, Arrays.asList(CoverageMetric.LINE, CoverageMetric.BRANCH));
+    }
+
+    private static CoverageTrendRecord create(final CoverageBuildAction action, final List<CoverageMetric> metrics) {
+        Run<?, ?> owner = action.getOwner();
+        CoverageTrendRecord record = new CoverageTrendRecord(owner.getNumber(), owner.getTimeInMillis());
+        for (CoverageMetric metric : metrics) {
+            int position = METRICS.indexOf(metric);
+            Coverage coverage = action.getCoverage(metric);
+            if (coverage.isSet()) {
+                record.covered[position] = coverage.getCovered();
+                record.missed[position] = coverage.getMissed();
+            }
+            if (action.hasDelta(metric)) {
+                record.delta[position] = action.getDifference().get(metric).getDoubleValue();
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Reads a record from the current position of the specified buffer.
+     *
+     * @param buffer
+     *         the buffer to read the record from
+     *
+     * @return the record
+     */
+    static CoverageTrendRecord read(final ByteBuffer buffer) {
+        CoverageTrendRecord record = new CoverageTrendRecord(buffer.getInt(), buffer.getLong());
+        for (int position = 0; position < METRICS.size(); position++) {
+            record.covered[position] = buffer.getInt();
+            record.missed[position] = buffer.getInt();
+            record.delta[position] = buffer.getDouble();
+        }
+        return record;
+    }
+
+    CoverageTrendRecord(final int buildNumber, final long buildTime) {
+        this.buildNumber = buildNumber;
+        this.buildTime = buildTime;
+
+        covered = new int[METRICS.size()];
+        missed = new int[METRICS.size()];
+        delta = new double[METRICS.size()];
+        Arrays.fill(covered, NO_VALUE);
+        Arrays.fill(missed, NO_VALUE);
+        Arrays.fill(delta, Double.NaN);
+    }
+
+    /**
+     * Writes this record to the current position of the specified buffer.
+     *
+     * @param buffer
+     *         the buffer to write the record to
+     */
+    void write(final ByteBuffer buffer) {
+        buffer.putInt(buildNumber);
+        buffer.putLong(buildTime);
+        for (int position = 0; position < METRICS.size(); position++) {
+            buffer.putInt(covered[position]);
+            buffer.putInt(missed[position]);
+            buffer.putDouble(delta[position]);
+        }
+    }
+
+    public int getBuildNumber() {
+        return buildNumber;
+    }
+
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    /**
+     * Returns the build of this record, as required by the trend charts.
+     *
+     * @return the build
+     */
+    public Build getBuild() {
+        return new Build(buildNumber, "#" + buildNumber, (int) (buildTime / 1000));
+    }
+
+    /**
+     * Returns the {@link Coverage} for the specified metric.
+     *
+     * @param metric
+     *         the coverage metric
+     *
+     * @return the coverage, or {@link Coverage#NO_COVERAGE} if the record contains no coverage for this metric
+     */
+    public Coverage getCoverage(final CoverageMetric metric) {
+        if (!hasCoverage(metric)) {
+            return Coverage.NO_COVERAGE;
+        }
+        int position = METRICS.indexOf(metric);
+        return new Coverage.CoverageBuilder().setCovered(covered[position]).setMissed(missed[position]).build();
+    }
+
+    /**
+     * Returns whether the record contains the coverage of the specified metric.
+     *
+     * @param metric
+     *         the metric to check
+     *
+     * @return {@code true} if the coverage of the specified metric is available
+     */
+    public boolean hasCoverage(final CoverageMetric metric) {
+        int position = METRICS.indexOf(metric);
+        return position >= 0 && covered[position] != NO_VALUE;
+    }
+
+    /**
+     * Returns whether a delta for the specified metric exists.
+     *
+     * @param metric
+     *         the metric to check
+     *
+     * @return {@code true} if a delta is available for the specified metric
+     */
+    public boolean hasDelta(final CoverageMetric metric) {
+        int position = METRICS.indexOf(metric);
+        return position >= 0 && !Double.isNaN(delta[position]);
+    }
+
+    /**
+     * Returns the delta of the specified metric with respect to the reference build.
+     *
+     * @param metric
+     *         the metric to get the delta for
+     *
+     * @return the delta in percent, or {@link Double#NaN} if there is no delta for this metric
+     */
+    public double getDelta(final CoverageMetric metric) {
+        int position = METRICS.indexOf(metric);
+        return position < 0 ? Double.NaN : delta[position];
+    }
+}
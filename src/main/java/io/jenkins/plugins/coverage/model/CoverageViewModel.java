@@ -2,20 +2,35 @@ package io.jenkins.plugins.coverage.model;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.servlet.http.HttpSession;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.math.Fraction;
+import org.apache.commons.lang3.math.NumberUtils;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -25,19 +40,29 @@ import edu.hm.hafner.echarts.LinesChartModel;
 import edu.hm.hafner.echarts.TreeMapNode;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 
+import org.kohsuke.stapler.Stapler;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.StaplerResponse;
 import org.kohsuke.stapler.bind.JavaScriptMethod;
+import org.kohsuke.stapler.verb.GET;
+import hudson.Functions;
+import hudson.Util;
 import hudson.model.ModelObject;
 import hudson.model.Run;
 import hudson.util.TextFile;
 
+import jenkins.util.SystemProperties;
+
 import io.jenkins.plugins.coverage.model.CoverageTableModel.InlineRowRenderer;
 import io.jenkins.plugins.coverage.model.CoverageTableModel.LinkedRowRenderer;
+import io.jenkins.plugins.coverage.model.ServerSideTable.PageRequest;
 import io.jenkins.plugins.coverage.model.visualization.code.SourceCodeFacade;
+import io.jenkins.plugins.coverage.model.visualization.code.SourceCodeManifest;
+import io.jenkins.plugins.coverage.model.visualization.code.SourceCodeWindow;
 import io.jenkins.plugins.coverage.model.visualization.colorization.ColorProvider;
 import io.jenkins.plugins.coverage.model.visualization.colorization.ColorProviderFactory;
 import io.jenkins.plugins.coverage.model.visualization.colorization.CoverageColorJenkinsId;
+import io.jenkins.plugins.coverage.model.visualization.tree.PartialTreeMap;
 import io.jenkins.plugins.coverage.model.visualization.tree.TreeMapNodeConverter;
 import io.jenkins.plugins.datatables.DefaultAsyncTableContentProvider;
 import io.jenkins.plugins.datatables.TableModel;
@@ -56,20 +81,62 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
     private static final TreeMapNodeConverter TREE_MAP_NODE_CONVERTER = new TreeMapNodeConverter();
     private static final BuildResultNavigator NAVIGATOR = new BuildResultNavigator();
     private static final SourceCodeFacade SOURCE_CODE_FACADE = new SourceCodeFacade();
+    private static final CoverageTreeJsonWriter TREE_JSON_WRITER = new CoverageTreeJsonWriter();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ColorProvider DEFAULT_COLOR_PROVIDER = ColorProviderFactory.createDefaultColorProvider();
+    /** The color providers of the Jenkins color configurations that have been selected by the users. */
+    private static final LruCache<Map<String, String>, ColorProvider> COLOR_PROVIDERS
+            = new LruCache<>(16, colorProvider -> 1);
+    private static final String COLORS_ATTRIBUTE = CoverageViewModel.class.getName() + ".colors";
+    private static final String COLORS_PARAMETER = "colors";
 
     static final String ABSOLUTE_COVERAGE_TABLE_ID = "absolute-coverage-table";
     static final String CHANGE_COVERAGE_TABLE_ID = "change-coverage-table";
     static final String INDIRECT_COVERAGE_TABLE_ID = "indirect-coverage-table";
     private static final String INLINE_SUFFIX = "-inline";
 
+    static final String COVERAGE_TREE = "coverage";
+    static final String CHANGE_COVERAGE_TREE = "change";
+    static final String INDIRECT_COVERAGE_TREE = "indirect";
+
+    /** Tables with more rows than this threshold are paged, sorted, and filtered on the controller. */
+    static final int SERVER_SIDE_THRESHOLD = SystemProperties.getInteger(
+            CoverageViewModel.class.getName() + ".serverSideThreshold", 5_000);
+    /** The maximum size of the serialized tree maps of a view model in MB. */
+    static final int TREE_MAP_CACHE_SIZE = SystemProperties.getInteger(
+            CoverageViewModel.class.getName() + ".treeMapCacheSize", 8);
+    /** The maximum number of table rows that are cached by a view model. */
+    static final int TABLE_ROWS_CACHE_SIZE = SystemProperties.getInteger(
+            CoverageViewModel.class.getName() + ".tableRowsCacheSize", 100_000);
+    /** The maximum number of source code lines that are rendered at once. */
+    static final int SOURCE_WINDOW_SIZE = SystemProperties.getInteger(
+            CoverageViewModel.class.getName() + ".sourceWindowSize", 1_000);
+    /** The maximum number of levels of a partial tree map. */
+    static final int TREE_MAP_MAX_DEPTH = 5;
+
     private final Run<?, ?> owner;
     private final CoverageNode node;
     private final String id;
 
     private final CoverageNode changeCoverageTreeRoot;
     private final CoverageNode indirectCoverageChangesTreeRoot;
-
-    private ColorProvider colorProvider = ColorProviderFactory.createDefaultColorProvider();
+    private final boolean hasChangeCoverage;
+    private final boolean hasIndirectCoverageChanges;
+    private final Map<String, ServerSideTable> serverSideTables = new ConcurrentHashMap<>();
+    /** The number of rows of the tables, mapped by table. */
+    private final Map<String, Integer> tableSizes = new ConcurrentHashMap<>();
+    /** The rows of the server-side tables, mapped by table, locale, and the colors of the user. */
+    private final LruCache<String, List<Object>> tableRows = new LruCache<>(TABLE_ROWS_CACHE_SIZE, List::size);
+    /** The serialized tree maps, mapped by tree, metric, and the colors of the user. */
+    private final LruCache<String, SerializedTreeMap> treeMaps = new LruCache<>(TREE_MAP_CACHE_SIZE * 1024L * 1024L,
+            SerializedTreeMap::getEstimatedSize);
+    /** The names of the stored source files, read once from the index of the build. */
+    private volatile Set<String> storedSourceFiles;
+    /** The names of the source files that have been stored in the format of the plugin versions less than 2.1.0. */
+    private volatile Set<String> oldFormatSourceFiles;
+    /** The manifest with the line coverage of the stored source files, read once from the build folder. */
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private volatile Optional<SourceCodeManifest> sourceCodeManifest;
 
     /**
      * Creates a new view model instance.
@@ -80,6 +147,24 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      *         the coverage node to be shown
      */
     public CoverageViewModel(final Run<?, ?> owner, final CoverageNode node) {
+        this(owner, node, true, true);
+    }
+
+    /**
+     * Creates a new view model instance. The filtered coverage trees will be computed only if they are not known to be
+     * empty.
+     *
+     * @param owner
+     *         the owner of this view
+     * @param node
+     *         the coverage node to be shown
+     * @param hasChangeCoverage
+     *         {@code false} if the change coverage tree is known to be empty, {@code true} otherwise
+     * @param hasIndirectCoverageChanges
+     *         {@code false} if the indirect coverage changes tree is known to be empty, {@code true} otherwise
+     */
+    CoverageViewModel(final Run<?, ?> owner, final CoverageNode node,
+            final boolean hasChangeCoverage, final boolean hasIndirectCoverageChanges) {
         super();
 
         this.owner = owner;
@@ -87,8 +172,37 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
         this.id = "coverage"; // TODO: this needs to be a parameter
 
         // initialize filtered coverage trees so that they will not be calculated multiple times
-        this.changeCoverageTreeRoot = node.getChangeCoverageTree();
-        this.indirectCoverageChangesTreeRoot = node.getIndirectCoverageChangesTree();
+        this.changeCoverageTreeRoot = hasChangeCoverage ? node.getChangeCoverageTree() : node.copyEmpty();
+        this.indirectCoverageChangesTreeRoot = hasIndirectCoverageChanges
+                ? node.getIndirectCoverageChangesTree() : node.copyEmpty();
+        // the flags are derived from the filtered trees, node.hasChangeCoverage() would filter the tree again
+        this.hasChangeCoverage = hasChangeCoverage && hasCoverage(changeCoverageTreeRoot);
+        this.hasIndirectCoverageChanges = hasIndirectCoverageChanges && hasCoverage(indirectCoverageChangesTreeRoot);
+    }
+
+    private static boolean hasCoverage(final CoverageNode root) {
+        return root.getCoverage(CoverageMetric.LINE).getTotal() > 0
+                || root.getCoverage(CoverageMetric.BRANCH).getTotal() > 0;
+    }
+
+    /**
+     * Returns the estimated memory size of the coverage trees of this view model.
+     *
+     * @return the estimated size in bytes
+     */
+    long getEstimatedSize() {
+        return estimateSize(node) + estimateSize(changeCoverageTreeRoot)
+                + estimateSize(indirectCoverageChangesTreeRoot);
+    }
+
+    private static long estimateSize(final CoverageNode root) {
+        List<FileCoverageNode> files = root.getAllFileCoverageNodes();
+        long lines = files.stream()
+                .map(FileCoverageNode::getCoveragePerLine)
+                .filter(Objects::nonNull)
+                .mapToLong(Map::size)
+                .sum();
+        return ReferenceIndex.estimateSize(files.size(), lines);
     }
 
     public String getId() {
@@ -120,7 +234,9 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
     }
 
     /**
-     * Creates a new {@link ColorProvider} based on the passed color json string which contains the set Jenkins colors.
+     * Selects the passed Jenkins colors for the subsequent requests of the current user. Since the view model is shared
+     * by all users, the colors are stored in the HTTP session of the user. No session is created for this purpose: users
+     * without a session (e.g. anonymous users) send their colors with the parameter 'colors' of each request instead.
      *
      * @param colors
      *         The dynamically loaded Jenkins colors to be used for highlighting the coverage tree as json string
@@ -128,28 +244,78 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
     @JavaScriptMethod
     @SuppressWarnings("unused")
     public void setJenkinsColors(final String colors) {
-        colorProvider = createColorProvider(colors);
+        StaplerRequest request = Stapler.getCurrentRequest();
+        if (request != null) {
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                session.setAttribute(COLORS_ATTRIBUTE, parseColors(colors));
+            }
+        }
     }
 
     /**
-     * Parses the passed color json string to a {@link ColorProvider}.
+     * Parses the passed color json string to a color mapping.
      *
      * @param json
      *         The color json
      *
-     * @return the created color provider
+     * @return the color mapping, or an empty mapping if the json string is invalid
      */
-    private ColorProvider createColorProvider(final String json) {
+    static TreeMap<String, String> parseColors(final String json) {
         try {
             ObjectMapper mapper = new ObjectMapper();
-            Map<String, String> colorMapping = mapper.readValue(json, new ColorMappingType());
-            return ColorProviderFactory.createColorProvider(colorMapping);
+            return new TreeMap<>(mapper.readValue(json, new ColorMappingType()));
         }
         catch (JsonProcessingException e) {
-            return ColorProviderFactory.createDefaultColorProvider();
+            return new TreeMap<>();
         }
     }
 
+    /**
+     * Returns the {@link ColorProvider} for the Jenkins colors that have been selected by the current user.
+     *
+     * @return the color provider
+     */
+    ColorProvider getColorProvider() {
+        return getColorProvider(getColorMapping());
+    }
+
+    private Map<String, String> getColorMapping() {
+        StaplerRequest request = Stapler.getCurrentRequest();
+        if (request != null) {
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                Object colors = session.getAttribute(COLORS_ATTRIBUTE);
+                if (colors instanceof TreeMap) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, String> colorMapping = (Map<String, String>) colors;
+                    return colorMapping;
+                }
+            }
+            String colors = request.getParameter(COLORS_PARAMETER);
+            if (StringUtils.isNotBlank(colors)) {
+                return parseColors(colors);
+            }
+        }
+        return new TreeMap<>();
+    }
+
+    /**
+     * Returns the {@link ColorProvider} for the passed Jenkins colors. Users that selected the same colors share the
+     * same provider.
+     *
+     * @param colorMapping
+     *         the Jenkins colors
+     *
+     * @return the color provider
+     */
+    static ColorProvider getColorProvider(final Map<String, String> colorMapping) {
+        if (colorMapping.isEmpty()) {
+            return DEFAULT_COLOR_PROVIDER;
+        }
+        return COLOR_PROVIDERS.get(colorMapping, ColorProviderFactory::createColorProvider);
+    }
+
     @JavaScriptMethod
     public CoverageOverview getOverview() {
         return new CoverageOverview(getNode().filterPackageStructure());
@@ -199,13 +365,13 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
     @JavaScriptMethod
     @SuppressWarnings("unused")
     public TreeMapNode getCoverageTree(final String coverageMetric) {
-        CoverageMetric metric = getCoverageMetricFromText(coverageMetric);
-        return TREE_MAP_NODE_CONVERTER.toTeeChartModel(getNode(), metric, colorProvider);
+        return createTreeMap(COVERAGE_TREE, coverageMetric, getColorProvider());
     }
 
     /**
      * Returns the root of the filtered tree of change coverage nodes for the ECharts treemap. This tree is used as
-     * model for the chart on the client side. The tree is available for line and branch coverage.
+     * model for the chart on the client side. The tree is available for line, branch, and method coverage. The method
+     * coverage shows how many of the changed methods are covered by at least one changed line.
      *
      * @param coverageMetric
      *         The used coverage metric - the default is the line coverage
@@ -215,8 +381,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
     @JavaScriptMethod
     @SuppressWarnings("unused")
     public TreeMapNode getChangeCoverageTree(final String coverageMetric) {
-        CoverageMetric metric = getCoverageMetricFromText(coverageMetric);
-        return TREE_MAP_NODE_CONVERTER.toTeeChartModel(changeCoverageTreeRoot, metric, colorProvider);
+        return createTreeMap(CHANGE_COVERAGE_TREE, coverageMetric, getColorProvider());
     }
 
     /**
@@ -231,8 +396,195 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
     @JavaScriptMethod
     @SuppressWarnings("unused")
     public TreeMapNode getCoverageChangesTree(final String coverageMetric) {
-        CoverageMetric metric = getCoverageMetricFromText(coverageMetric);
-        return TREE_MAP_NODE_CONVERTER.toTeeChartModel(indirectCoverageChangesTreeRoot, metric, colorProvider);
+        return createTreeMap(INDIRECT_COVERAGE_TREE, coverageMetric, getColorProvider());
+    }
+
+    private TreeMapNode createTreeMap(final String tree, final String coverageMetric,
+            final ColorProvider colorProvider) {
+        switch (tree) {
+            case COVERAGE_TREE:
+                return TREE_MAP_NODE_CONVERTER.toTeeChartModel(getNode(),
+                        getCoverageMetricFromText(coverageMetric), colorProvider);
+            case CHANGE_COVERAGE_TREE:
+                if ("Method".equals(coverageMetric)) {
+                    return TREE_MAP_NODE_CONVERTER.toChangedMethodsTreeChartModel(changeCoverageTreeRoot,
+                            colorProvider);
+                }
+                return TREE_MAP_NODE_CONVERTER.toTeeChartModel(changeCoverageTreeRoot,
+                        getCoverageMetricFromText(coverageMetric), colorProvider);
+            case INDIRECT_COVERAGE_TREE:
+                return TREE_MAP_NODE_CONVERTER.toTeeChartModel(indirectCoverageChangesTreeRoot,
+                        getCoverageMetricFromText(coverageMetric), colorProvider);
+            default:
+                throw new NoSuchElementException("No such tree with id " + tree);
+        }
+    }
+
+    /**
+     * Returns the ECharts treemap of a coverage tree as JSON. The tree is specified by the request parameter 'tree'
+     * ('coverage', 'change', or 'indirect'), the coverage metric by the request parameter 'metric' (see
+     * {@link #getCoverageTree(String)}). The colors are the Jenkins colors that have been selected by the current
+     * user.
+     *
+     * <p>
+     * If the request parameter 'depth' is set, then only the specified number of levels below the node with the
+     * request parameters 'path' is returned as a {@link PartialTreeMap}. The tree maps of large projects are loaded
+     * level by level in this way.
+     * </p>
+     *
+     * <p>
+     * Since the coverage results of a completed build do not change anymore, the serialized tree maps are cached
+     * for each tree, metric, and color configuration. The response contains an entity tag so that browsers can
+     * revalidate their cached copy: if the tree map did not change, then only the status 304 (not modified) is sent.
+     * </p>
+     *
+     * @param request
+     *         Stapler request
+     * @param response
+     *         Stapler response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    @GET
+    public void doTreeMap(final StaplerRequest request, final StaplerResponse response) throws IOException {
+        String tree = StringUtils.defaultIfEmpty(request.getParameter("tree"), COVERAGE_TREE);
+        String metric = StringUtils.defaultString(request.getParameter("metric"));
+        String depth = request.getParameter("depth");
+        Map<String, String> colorMapping = getColorMapping();
+
+        SerializedTreeMap treeMap;
+        try {
+            if (depth == null) {
+                treeMap = getTreeMap(tree, metric, colorMapping);
+            }
+            else {
+                String[] path = request.getParameterValues("path");
+                treeMap = getPartialTreeMap(tree, metric, path == null ? Collections.emptyList() : Arrays.asList(path),
+                        NumberUtils.toInt(depth, 1), colorMapping);
+            }
+        }
+        catch (NoSuchElementException exception) {
+            response.sendError(StaplerResponse.SC_NOT_FOUND, exception.getMessage());
+            return;
+        }
+
+        response.setHeader("ETag", treeMap.getEntityTag());
+        response.setHeader("Cache-Control", "private, no-cache");
+        if (treeMap.getEntityTag().equals(request.getHeader("If-None-Match"))) {
+            response.setStatus(StaplerResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write(treeMap.getJson());
+    }
+
+    /**
+     * Returns the nodes of a coverage tree as JSON. The tree is specified by the request parameter 'tree'
+     * ('coverage', 'change', or 'indirect'). The selected nodes and metrics are specified by the request parameters
+     * 'depth', 'metric' (repeatable), 'path' (a prefix of the node paths), 'start', and 'limit', see
+     * {@link CoverageTreeJsonWriter.TreeQuery}.
+     *
+     * <p>
+     * The nodes are streamed directly from the coverage tree to the response, so even the complete tree of a large
+     * project can be requested without creating a copy of the tree in memory.
+     * </p>
+     *
+     * @param request
+     *         Stapler request
+     * @param response
+     *         Stapler response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    @GET
+    public void doNodes(final StaplerRequest request, final StaplerResponse response) throws IOException {
+        String tree = StringUtils.defaultIfEmpty(request.getParameter("tree"), COVERAGE_TREE);
+        CoverageNode root;
+        try {
+            root = getCoverageTreeRoot(tree);
+        }
+        catch (NoSuchElementException exception) {
+            response.sendError(StaplerResponse.SC_NOT_FOUND, exception.getMessage());
+            return;
+        }
+
+        response.setContentType("application/json;charset=UTF-8");
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(response.getWriter())) {
+            TREE_JSON_WRITER.write(root, CoverageTreeJsonWriter.TreeQuery.fromParameters(request.getParameterMap()),
+                    generator);
+        }
+    }
+
+    private CoverageNode getCoverageTreeRoot(final String tree) {
+        switch (tree) {
+            case COVERAGE_TREE:
+                return getNode();
+            case CHANGE_COVERAGE_TREE:
+                return changeCoverageTreeRoot;
+            case INDIRECT_COVERAGE_TREE:
+                return indirectCoverageChangesTreeRoot;
+            default:
+                throw new NoSuchElementException("No such tree with id " + tree);
+        }
+    }
+
+    SerializedTreeMap getTreeMap(final String tree, final String metric, final Map<String, String> colorMapping) {
+        return getSerializedTreeMap(tree + ':' + metric + ':' + colorMapping,
+                () -> createTreeMap(tree, metric, getColorProvider(colorMapping)));
+    }
+
+    /**
+     * Returns the first levels below a node of a coverage tree as a {@link PartialTreeMap}. The depth is limited to
+     * {@link #TREE_MAP_MAX_DEPTH} levels.
+     *
+     * @param tree
+     *         the ID of the coverage tree ('coverage', 'change', or 'indirect')
+     * @param metric
+     *         the coverage metric
+     * @param path
+     *         the path of the start node, see {@link PartialTreeMap#getExpandable()}
+     * @param depth
+     *         the number of levels below the start node
+     * @param colorMapping
+     *         the Jenkins colors of the user
+     *
+     * @return the serialized partial tree map
+     */
+    SerializedTreeMap getPartialTreeMap(final String tree, final String metric, final List<String> path,
+            final int depth, final Map<String, String> colorMapping) {
+        int actualDepth = Math.min(Math.max(depth, 1), TREE_MAP_MAX_DEPTH);
+        return getSerializedTreeMap(tree + ':' + metric + ':' + actualDepth + ':' + path + ':' + colorMapping,
+                () -> createPartialTreeMap(tree, metric, path, actualDepth, getColorProvider(colorMapping)));
+    }
+
+    private SerializedTreeMap getSerializedTreeMap(final String key, final Supplier<Object> treeMap) {
+        if (getOwner().isBuilding()) {
+            return new SerializedTreeMap(JACKSON_FACADE.toJson(treeMap.get()));
+        }
+        return treeMaps.get(key, k -> new SerializedTreeMap(JACKSON_FACADE.toJson(treeMap.get())));
+    }
+
+    private PartialTreeMap createPartialTreeMap(final String tree, final String coverageMetric,
+            final List<String> path, final int depth, final ColorProvider colorProvider) {
+        switch (tree) {
+            case COVERAGE_TREE:
+                return TREE_MAP_NODE_CONVERTER.toPartialTreeChartModel(getNode(), path,
+                        getCoverageMetricFromText(coverageMetric), colorProvider, depth);
+            case CHANGE_COVERAGE_TREE:
+                if ("Method".equals(coverageMetric)) {
+                    return TREE_MAP_NODE_CONVERTER.toPartialChangedMethodsTreeChartModel(changeCoverageTreeRoot,
+                            path, colorProvider, depth);
+                }
+                return TREE_MAP_NODE_CONVERTER.toPartialTreeChartModel(changeCoverageTreeRoot, path,
+                        getCoverageMetricFromText(coverageMetric), colorProvider, depth);
+            case INDIRECT_COVERAGE_TREE:
+                return TREE_MAP_NODE_CONVERTER.toPartialTreeChartModel(indirectCoverageChangesTreeRoot, path,
+                        getCoverageMetricFromText(coverageMetric), colorProvider, depth);
+            default:
+                throw new NoSuchElementException("No such tree with id " + tree);
+        }
     }
 
     /**
@@ -262,30 +614,115 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      */
     @Override
     public TableModel getTableModel(final String tableId) {
+        return createTableModel(tableId);
+    }
+
+    private CoverageTableModel createTableModel(final String tableId) {
         CoverageTableModel.RowRenderer renderer;
         String actualId;
         if (tableId.endsWith(INLINE_SUFFIX) && hasSourceCode()) {
             renderer = new InlineRowRenderer();
         }
         else {
-            renderer = new LinkedRowRenderer(getOwner().getRootDir(), getId());
+            renderer = new LinkedRowRenderer(getStoredSourceFiles(), getOldFormatSourceFiles());
         }
         actualId = tableId.replace(INLINE_SUFFIX, StringUtils.EMPTY);
 
         switch (actualId) {
             case ABSOLUTE_COVERAGE_TABLE_ID:
-                return new CoverageTableModel(tableId, getNode(), renderer, colorProvider);
+                return new CoverageTableModel(tableId, getNode(), renderer, getColorProvider());
             case CHANGE_COVERAGE_TABLE_ID:
                 return new ChangeCoverageTableModel(tableId, getNode(), changeCoverageTreeRoot, renderer,
-                        colorProvider);
+                        getColorProvider());
             case INDIRECT_COVERAGE_TABLE_ID:
                 return new IndirectCoverageChangesTable(tableId, getNode(), indirectCoverageChangesTreeRoot, renderer,
-                        colorProvider);
+                        getColorProvider());
             default:
                 throw new NoSuchElementException("No such table with id " + actualId);
         }
     }
 
+    /**
+     * Returns whether the table with the specified ID has so many rows that it should use the server-side processing
+     * mode of DataTables. Then only the visible page of the table is sent to the browser.
+     *
+     * @param tableId
+     *         ID of the table model
+     *
+     * @return {@code true} if the table should be paged on the controller, {@code false} if all rows should be sent
+     */
+    @SuppressWarnings("unused") // Called by jelly view
+    public boolean isServerSideTable(final String tableId) {
+        return tableSizes.computeIfAbsent(tableId.replace(INLINE_SUFFIX, StringUtils.EMPTY), this::countTableRows)
+                > SERVER_SIDE_THRESHOLD;
+    }
+
+    /**
+     * Counts the rows of the specified table: each table contains a row for each file of its coverage tree.
+     */
+    private int countTableRows(final String actualId) {
+        switch (actualId) {
+            case ABSOLUTE_COVERAGE_TABLE_ID:
+                return getNode().getAll(CoverageMetric.FILE).size();
+            case CHANGE_COVERAGE_TABLE_ID:
+                return changeCoverageTreeRoot.getAllFileCoverageNodes().size();
+            case INDIRECT_COVERAGE_TABLE_ID:
+                return indirectCoverageChangesTreeRoot.getAllFileCoverageNodes().size();
+            default:
+                throw new NoSuchElementException("No such table with id " + actualId);
+        }
+    }
+
+    /**
+     * Returns the requested page of a table in the server-side processing mode of DataTables. The table is specified
+     * by the request parameter 'id', the page, the ordering, and the search term are specified by the parameters of
+     * the DataTables server-side protocol. A request that orders the rows by an unknown column is rejected.
+     *
+     * @param request
+     *         Stapler request
+     * @param response
+     *         Stapler response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    @GET
+    public void doTableRows(final StaplerRequest request, final StaplerResponse response) throws IOException {
+        String tableId = StringUtils.defaultString(request.getParameter("id"));
+        CoverageTableModel tableModel;
+        try {
+            tableModel = createTableModel(tableId);
+        }
+        catch (NoSuchElementException exception) {
+            response.sendError(StaplerResponse.SC_NOT_FOUND, exception.getMessage());
+            return;
+        }
+
+        PageRequest pageRequest = PageRequest.fromParameters(request.getParameterMap());
+        ServerSideTable table = serverSideTables.computeIfAbsent(StringUtils.removeEnd(tableId, INLINE_SUFFIX),
+                key -> new ServerSideTable(tableModel.getColumnAccessors()));
+        String orderProperty = pageRequest.getOrderProperty();
+        if (StringUtils.isNotEmpty(orderProperty) && !table.hasColumn(orderProperty)) {
+            response.sendError(StaplerResponse.SC_BAD_REQUEST, "No such column: " + orderProperty);
+            return;
+        }
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write(JACKSON_FACADE.toJson(table.getPage(getTableRows(tableId, tableModel),
+                pageRequest)));
+    }
+
+    /**
+     * Returns the rows of the specified table. The rows are created only once for all pages of the table, they depend
+     * on the locale and the colors of the user.
+     */
+    private List<Object> getTableRows(final String tableId, final CoverageTableModel tableModel) {
+        if (getOwner().isBuilding()) {
+            return tableModel.getRows();
+        }
+        return tableRows.get(tableId + ':' + Functions.getCurrentLocale() + ':' + getColorMapping(),
+                key -> Collections.unmodifiableList(tableModel.getRows()));
+    }
+
     /**
      * Returns the URL for coverage results of the selected build. Based on the current URL, the new URL will be
      * composed by replacing the current build number with the selected build number.
@@ -324,13 +761,75 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
                 CoverageNode fileNode = targetResult.get();
                 return readSourceCode(fileNode, tableId);
             }
-            catch (IOException | InterruptedException exception) {
+            catch (IOException exception) {
                 return ExceptionUtils.getStackTrace(exception);
             }
         }
         return Messages.Coverage_Not_Available();
     }
 
+    /**
+     * Gets a window of the source code of the file which is represented by the passed hash code. The window starts
+     * with the specified line and contains at most {@link #SOURCE_WINDOW_SIZE} lines. The coverage of the lines is
+     * highlighted by using HTML. Source files in the format of previous plugin versions are returned completely.
+     *
+     * @param fileHash
+     *         The hash code of the requested file
+     * @param firstLine
+     *         The first line of the window
+     *
+     * @return the highlighted window of the source code
+     */
+    @JavaScriptMethod
+    public SourceCodeWindow getSourceCodeWindow(final String fileHash, final int firstLine) {
+        Optional<FileCoverageNode> fileNode = findFileNode(fileHash);
+        if (fileNode.isPresent()) {
+            try {
+                if (isSourceFileInNewFormatAvailable(fileNode.get())) {
+                    return SOURCE_CODE_FACADE.readWindow(getOwner(), getSourceCodeManifest(), getId(),
+                            fileNode.get().getPath(), firstLine, SOURCE_WINDOW_SIZE);
+                }
+                return new SourceCodeWindow(readSourceCode(fileNode.get(), ABSOLUTE_COVERAGE_TABLE_ID), 1, 0, 0);
+            }
+            catch (IOException exception) {
+                return new SourceCodeWindow(ExceptionUtils.getStackTrace(exception), 1, 0, 0);
+            }
+        }
+        return new SourceCodeWindow(Messages.Coverage_Not_Available(), 1, 0, 0);
+    }
+
+    /**
+     * Finds the next line of the file which is represented by the passed hash code that is not covered or only
+     * partially covered.
+     *
+     * @param fileHash
+     *         The hash code of the requested file
+     * @param line
+     *         The line to start the search after
+     *
+     * @return the next uncovered line, or -1 if there is no such line
+     */
+    @JavaScriptMethod
+    public int getNextUncoveredLine(final String fileHash, final int line) {
+        Optional<FileCoverageNode> fileNode = findFileNode(fileHash);
+        if (fileNode.isPresent() && isSourceFileInNewFormatAvailable(fileNode.get())) {
+            try {
+                return SOURCE_CODE_FACADE.findNextUncoveredLine(getOwner(), getSourceCodeManifest(), getId(),
+                        fileNode.get().getPath(), line);
+            }
+            catch (IOException exception) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private Optional<FileCoverageNode> findFileNode(final String fileHash) {
+        return getNode().findByHashCode(CoverageMetric.FILE, NumberUtils.toInt(fileHash))
+                .filter(FileCoverageNode.class::isInstance)
+                .map(FileCoverageNode.class::cast);
+    }
+
     /**
      * Reads the sourcecode corresponding to the passed {@link CoverageNode node} and filters the code dependent on the
      * table ID.
@@ -343,31 +842,34 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      * @return the sourcecode with highlighted coverage
      * @throws IOException
      *         if reading failed
-     * @throws InterruptedException
-     *         if reading failed
      */
-    private String readSourceCode(final CoverageNode sourceNode, final String tableId)
-            throws IOException, InterruptedException {
-        String content = "";
-        File rootDir = getOwner().getRootDir();
-        if (isSourceFileInNewFormatAvailable(sourceNode)) {
-            content = SOURCE_CODE_FACADE.read(rootDir, getId(), sourceNode.getPath());
-        }
-        if (isSourceFileInOldFormatAvailable(sourceNode)) {
-            content = new TextFile(getFileForBuildsWithOldVersion(rootDir,
-                    sourceNode.getName())).read(); // fallback with sources persisted using the < 2.1.0 serialization
-        }
-        if (!content.isEmpty() && sourceNode instanceof FileCoverageNode) {
+    private String readSourceCode(final CoverageNode sourceNode, final String tableId) throws IOException {
+        if (sourceNode instanceof FileCoverageNode) {
             String cleanTableId = StringUtils.removeEnd(tableId, INLINE_SUFFIX);
             FileCoverageNode fileNode = (FileCoverageNode) sourceNode;
-            if (CHANGE_COVERAGE_TABLE_ID.equals(cleanTableId)) {
-                return SOURCE_CODE_FACADE.calculateChangeCoverageSourceCode(content, fileNode);
-            }
-            else if (INDIRECT_COVERAGE_TABLE_ID.equals(cleanTableId)) {
-                return SOURCE_CODE_FACADE.calculateIndirectCoverageChangesSourceCode(content, fileNode);
+            if (isSourceFileInNewFormatAvailable(fileNode)) {
+                if (CHANGE_COVERAGE_TABLE_ID.equals(cleanTableId)) {
+                    return SOURCE_CODE_FACADE.readChangeCoverage(getOwner(), getId(), fileNode);
+                }
+                else if (INDIRECT_COVERAGE_TABLE_ID.equals(cleanTableId)) {
+                    return SOURCE_CODE_FACADE.readIndirectCoverageChanges(getOwner(), getId(), fileNode);
+                }
+                else {
+                    return SOURCE_CODE_FACADE.read(getOwner(), getId(), fileNode.getPath());
+                }
             }
-            else {
-                return content;
+            if (isSourceFileInOldFormatAvailable(fileNode)) {
+                String content = new TextFile(getFileForBuildsWithOldVersion(getOwner().getRootDir(),
+                        fileNode.getName())).read(); // fallback with sources persisted using the < 2.1.0 serialization
+                if (CHANGE_COVERAGE_TABLE_ID.equals(cleanTableId)) {
+                    return SOURCE_CODE_FACADE.calculateChangeCoverageSourceCode(content, fileNode);
+                }
+                else if (INDIRECT_COVERAGE_TABLE_ID.equals(cleanTableId)) {
+                    return SOURCE_CODE_FACADE.calculateIndirectCoverageChangesSourceCode(content, fileNode);
+                }
+                else {
+                    return content;
+                }
             }
         }
         return Messages.Coverage_Not_Available();
@@ -381,7 +883,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      */
     @JavaScriptMethod
     public boolean hasSourceCode() {
-        return SOURCE_CODE_FACADE.hasStoredSourceCode(getOwner().getRootDir(), id);
+        return !getStoredSourceFiles().isEmpty();
     }
 
     /**
@@ -390,7 +892,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      * @return {@code true} whether change coverage exists, else {@code false}
      */
     public boolean hasChangeCoverage() {
-        return getNode().hasChangeCoverage();
+        return hasChangeCoverage;
     }
 
     /**
@@ -399,7 +901,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      * @return {@code true} whether indirect coverage changes exist, else {@code false}
      */
     public boolean hasIndirectCoverageChanges() {
-        return getNode().hasIndirectCoverageChanges();
+        return hasIndirectCoverageChanges;
     }
 
     /**
@@ -424,11 +926,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      * @return {@code true} if the source file is available, {@code false} otherwise
      */
     public boolean isSourceFileInOldFormatAvailable(final CoverageNode coverageNode) {
-        return isSourceFileInOldFormatAvailable(getOwner().getRootDir(), coverageNode.getName());
-    }
-
-    static boolean isSourceFileInOldFormatAvailable(final File rootDir, final String nodeName) {
-        return getFileForBuildsWithOldVersion(rootDir, nodeName).canRead();
+        return getOldFormatSourceFiles().contains(sanitizeFilename(coverageNode.getName()));
     }
 
     /**
@@ -445,7 +943,7 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
         return new File(new File(buildFolder, "coverage-sources"), sanitizeFilename(fileName));
     }
 
-    private static String sanitizeFilename(final String inputName) {
+    static String sanitizeFilename(final String inputName) {
         return inputName.replaceAll("[^a-zA-Z0-9-_.]", "_");
     }
 
@@ -459,11 +957,73 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
      * @return {@code true} if the source file is available, {@code false} otherwise
      */
     public boolean isSourceFileInNewFormatAvailable(final CoverageNode coverageNode) {
-        return isSourceFileInNewFormatAvailable(getOwner().getRootDir(), id, coverageNode.getPath());
+        return getStoredSourceFiles().contains(SOURCE_CODE_FACADE.getStoredFileName(coverageNode.getPath()));
+    }
+
+    /**
+     * Returns the names of the source files that have been stored in the build folder. The names are read only once
+     * from the index of the stored source files, all subsequent availability checks are in-memory lookups. Since the
+     * source files are stored at the end of a build, the names are not cached while the build is still running.
+     *
+     * @return the sanitized names of the stored source files
+     */
+    Set<String> getStoredSourceFiles() {
+        if (getOwner().isBuilding()) {
+            return SOURCE_CODE_FACADE.getStoredSourceFiles(getOwner().getRootDir(), id);
+        }
+        Set<String> files = storedSourceFiles;
+        if (files == null) {
+            files = Collections.unmodifiableSet(SOURCE_CODE_FACADE.getStoredSourceFiles(getOwner().getRootDir(), id));
+            storedSourceFiles = files;
+        }
+        return files;
+    }
+
+    /**
+     * Returns the manifest with the line coverage of the stored source files. The manifest is read only once, so
+     * scrolling through the windows of a source file does not parse the manifest of the build again. Since the
+     * source files are stored at the end of a build, the manifest is not cached while the build is still running.
+     *
+     * @return the manifest, or an empty optional if the build has no manifest
+     * @throws IOException
+     *         if the manifest could not be read
+     */
+    private Optional<SourceCodeManifest> getSourceCodeManifest() throws IOException {
+        if (getOwner().isBuilding()) {
+            return SOURCE_CODE_FACADE.readManifest(getOwner(), id);
+        }
+        Optional<SourceCodeManifest> manifest = sourceCodeManifest;
+        if (manifest == null) {
+            manifest = SOURCE_CODE_FACADE.readManifest(getOwner(), id);
+            sourceCodeManifest = manifest;
+        }
+        return manifest;
     }
 
-    static boolean isSourceFileInNewFormatAvailable(final File rootDir, final String id, final String nodePath) {
-        return SOURCE_CODE_FACADE.createFileInBuildFolder(rootDir, id, nodePath).canRead();
+    /**
+     * Returns the names of the source files that have been stored in the format of the plugin versions less than
+     * 2.1.0. The folder with these files is listed only once.
+     *
+     * @return the sanitized names of the stored source files in the old format
+     */
+    Set<String> getOldFormatSourceFiles() {
+        if (getOwner().isBuilding()) {
+            return listOldFormatSourceFiles();
+        }
+        Set<String> files = oldFormatSourceFiles;
+        if (files == null) {
+            files = listOldFormatSourceFiles();
+            oldFormatSourceFiles = files;
+        }
+        return files;
+    }
+
+    private Set<String> listOldFormatSourceFiles() {
+        String[] names = new File(getOwner().getRootDir(), "coverage-sources").list();
+        if (names == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(names)));
     }
 
     /**
@@ -542,6 +1102,41 @@ public class CoverageViewModel extends DefaultAsyncTableContentProvider implemen
         }
     }
 
+    /**
+     * A tree map that has been serialized to JSON, along with the entity tag of the JSON content.
+     */
+    static final class SerializedTreeMap {
+        private final String json;
+        private final String entityTag;
+
+        SerializedTreeMap(final String json) {
+            this.json = json;
+            this.entityTag = '"' + computeHash(json) + '"';
+        }
+
+        private static String computeHash(final String json) {
+            try {
+                return Util.toHexString(MessageDigest.getInstance("SHA-256")
+                        .digest(json.getBytes(StandardCharsets.UTF_8)));
+            }
+            catch (NoSuchAlgorithmException exception) {
+                throw new IllegalStateException("SHA-256 is not supported", exception);
+            }
+        }
+
+        String getJson() {
+            return json;
+        }
+
+        String getEntityTag() {
+            return entityTag;
+        }
+
+        long getEstimatedSize() {
+            return 2L * json.length();
+        }
+    }
+
     /**
      * Used for parsing a Jenkins color mapping JSON string to a color map.
      */
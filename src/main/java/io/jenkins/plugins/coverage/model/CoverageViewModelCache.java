@@ -0,0 +1,76 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jenkins.util.SystemProperties;
+
+/**
+ * Caches the {@link CoverageViewModel view models} of the coverage results of builds. Each request of the details view
+ * (tables, tree maps, source code) is served by the view model of the build. Without this cache, a new view model
+ * would be created for each of these requests, including the filtered change coverage and indirect coverage changes
+ * trees. The view models are mapped by the externalizable ID of the build. The cache is bounded by the estimated
+ * memory size of the coverage trees of the view models, the least recently used view models will be evicted first.
+ */
+public final class CoverageViewModelCache {
+    private static final Logger LOGGER = Logger.getLogger(CoverageViewModelCache.class.getName());
+
+    /** The maximum estimated memory size of all cached view models in MB. */
+    static final int MAX_SIZE = SystemProperties.getInteger(CoverageViewModelCache.class.getName() + ".maxSize", 64);
+
+    private static final CoverageViewModelCache INSTANCE = new CoverageViewModelCache(MAX_SIZE * 1024L * 1024L);
+
+    private final LruCache<String, CoverageViewModel> cache;
+
+    /**
+     * Returns the singleton instance of the cache.
+     *
+     * @return the cache
+     */
+    public static CoverageViewModelCache getInstance() {
+        return INSTANCE;
+    }
+
+    CoverageViewModelCache(final long maxSize) {
+        cache = new LruCache<>(maxSize, CoverageViewModel::getEstimatedSize);
+    }
+
+    /**
+     * Returns the view model of the specified coverage action. If the view model is not cached yet, or if it has been
+     * created for another instance of the build (e.g., after the builds have been reloaded from disk), then a new view
+     * model will be created.
+     *
+     * @param action
+     *         the coverage action of the build
+     *
+     * @return the view model
+     */
+    CoverageViewModel getViewModel(final CoverageBuildAction action) {
+        String id = action.getOwner().getExternalizableId();
+        CoverageViewModel viewModel = cache.get(id, key -> action.createViewModel());
+        if (viewModel.getOwner() != action.getOwner()) {
+            cache.invalidate(id);
+            viewModel = cache.get(id, key -> action.createViewModel());
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("View model cache: %d view models, %d KB, %d hits, %d misses, %d evictions",
+                    cache.size(), cache.getWeight() / 1024, cache.getHits(), cache.getMisses(),
+                    cache.getEvictions()));
+        }
+        return viewModel;
+    }
+
+    /**
+     * Removes the view model of the specified build from the cache.
+     *
+     * @param id
+     *         the externalizable ID of the build
+     */
+    public void invalidate(final String id) {
+        cache.invalidate(id);
+    }
+
+    int getSize() {
+        return cache.size();
+    }
+}
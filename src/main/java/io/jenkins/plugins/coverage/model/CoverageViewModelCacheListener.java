@@ -0,0 +1,19 @@
+package io.jenkins.plugins.coverage.model;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+
+/**
+ * Removes the view model of a deleted build from the {@link CoverageViewModelCache}, so that the coverage trees of the
+ * build will not be kept in memory any longer.
+ */
+@Extension
+public class CoverageViewModelCacheListener extends RunListener<Run<?, ?>> {
+    @Override
+    public void onDeleted(@NonNull final Run<?, ?> run) {
+        CoverageViewModelCache.getInstance().invalidate(run.getExternalizableId());
+    }
+}
@@ -47,6 +47,16 @@ class CoverageXmlStream extends AbstractXmlStream<CoverageNode> {
 
     @Override
     protected void configureXStream(final XStream2 xStream) {
+        registerCoverageTreeConverters(xStream);
+    }
+
+    /**
+     * Registers the aliases and converters that are required to (de)serialize a tree of {@link CoverageNode}s.
+     *
+     * @param xStream
+     *         the stream to configure
+     */
+    static void registerCoverageTreeConverters(final XStream2 xStream) {
         xStream.alias("node", CoverageNode.class);
         xStream.alias("package", PackageCoverageNode.class);
         xStream.alias("file", FileCoverageNode.class);
@@ -64,6 +74,7 @@ class CoverageXmlStream extends AbstractXmlStream<CoverageNode> {
         xStream.registerLocalConverter(FileCoverageNode.class, "fileCoverageDelta", new MetricPercentageMapConverter());
         xStream.registerLocalConverter(FileCoverageNode.class, "indirectCoverageChanges", new HitsMapConverter());
         xStream.registerLocalConverter(FileCoverageNode.class, "changedCodeLines", new IntegerSetConverter());
+        xStream.registerLocalConverter(FileCoverageNode.class, "methodLineIndex", new MethodLineIndexConverter());
     }
 
     @Override
@@ -297,4 +308,43 @@ class CoverageXmlStream extends AbstractXmlStream<CoverageNode> {
             return entry(Integer.valueOf(key), Integer.valueOf(value));
         }
     }
+
+    /**
+     * {@link Converter} for a {@link MethodLineIndex}. Stores the line ranges of the methods in the condensed format
+     * {@code first1-last1, first2-last2, ...}.
+     */
+    static final class MethodLineIndexConverter implements Converter {
+        @SuppressWarnings("PMD.NullAssignment")
+        @Override
+        public void marshal(final Object source, final HierarchicalStreamWriter writer,
+                final MarshallingContext context) {
+            writer.setValue(source instanceof MethodLineIndex ? source.toString() : null);
+        }
+
+        @Override
+        public MethodLineIndex unmarshal(final HierarchicalStreamReader reader, final UnmarshallingContext context) {
+            return unmarshal(reader.getValue());
+        }
+
+        MethodLineIndex unmarshal(final String value) {
+            String[] ranges = toArray(value);
+            int[] firstLines = new int[ranges.length];
+            int[] lastLines = new int[ranges.length];
+            try {
+                for (int i = 0; i < ranges.length; i++) {
+                    firstLines[i] = Integer.parseInt(StringUtils.substringBefore(ranges[i], "-"));
+                    lastLines[i] = Integer.parseInt(StringUtils.substringAfter(ranges[i], "-"));
+                }
+            }
+            catch (NumberFormatException exception) {
+                return MethodLineIndex.EMPTY;
+            }
+            return ranges.length == 0 ? MethodLineIndex.EMPTY : new MethodLineIndex(firstLines, lastLines);
+        }
+
+        @Override
+        public boolean canConvert(final Class type) {
+            return type == MethodLineIndex.class;
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hudson.model.Run;
+
+import io.jenkins.plugins.util.JenkinsFacade;
+
+/**
+ * Reads the coverage tree of a build. If the build stores the full tree, then the tree is read as is. If the build
+ * stores the tree as {@link CoverageTreeDelta} to its reference build, then the full tree is reconstructed using the
+ * (possibly reconstructed as well) tree of the reference build.
+ */
+class DeltaAwareCoverageXmlStream extends CoverageXmlStream {
+    private static final Logger LOGGER = Logger.getLogger(DeltaAwareCoverageXmlStream.class.getName());
+
+    private final JenkinsFacade jenkins;
+
+    DeltaAwareCoverageXmlStream() {
+        this(new JenkinsFacade());
+    }
+
+    DeltaAwareCoverageXmlStream(final JenkinsFacade jenkins) {
+        super();
+
+        this.jenkins = jenkins;
+    }
+
+    @Override
+    public CoverageNode read(final Path file) {
+        Path deltaFile = file.resolveSibling(CoverageTreeDelta.FILE_NAME);
+        if (Files.exists(file) || !Files.exists(deltaFile)) {
+            return super.read(file);
+        }
+
+        CoverageTreeDelta delta = new CoverageTreeDeltaXmlStream().read(deltaFile);
+        Optional<CoverageNode> referenceRoot = jenkins.getBuild(delta.getReferenceBuildId())
+                .map(this::getResult);
+        if (referenceRoot.isPresent()) {
+            try {
+                return delta.reconstruct(referenceRoot.get());
+            }
+            catch (IllegalStateException exception) {
+                LOGGER.log(Level.SEVERE, "Failed to reconstruct coverage tree of " + deltaFile, exception);
+            }
+        }
+        else {
+            LOGGER.log(Level.SEVERE, "Failed to reconstruct coverage tree of {0}: reference build ''{1}'' not found",
+                    new Object[] {deltaFile, delta.getReferenceBuildId()});
+        }
+        return createDefaultValue();
+    }
+
+    private CoverageNode getResult(final Run<?, ?> reference) {
+        CoverageBuildAction action = reference.getAction(CoverageBuildAction.class);
+        if (action == null) {
+            return createDefaultValue();
+        }
+        return action.getResult();
+    }
+}
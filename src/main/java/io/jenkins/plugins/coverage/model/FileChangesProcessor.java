@@ -1,21 +1,22 @@
 package io.jenkins.plugins.coverage.model;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.math.Fraction;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import jenkins.util.SystemProperties;
+
 import io.jenkins.plugins.forensics.delta.Change;
 import io.jenkins.plugins.forensics.delta.ChangeEditType;
 import io.jenkins.plugins.forensics.delta.FileChanges;
@@ -24,9 +25,47 @@ import io.jenkins.plugins.forensics.delta.FileChanges;
  * Calculates and attaches values to the {@link FileCoverageNode nodes} of the coverage tree which represent the changes
  * concerning code and coverage.
  *
+ * <p>
+ * The values of each file depend only on the file node itself, its reference node and its code changes. So the files
+ * are processed in parallel using a fork-join pool with a limited parallelism. Each task modifies only the file node
+ * it processes, so the results are the same as if the files were processed sequentially.
+ * </p>
+ *
  * @author Florian Orendi
  */
 public class FileChangesProcessor {
+    /** The maximum number of threads that process files in parallel. A value of 1 disables parallel processing. */
+    static final int PARALLELISM = SystemProperties.getInteger(FileChangesProcessor.class.getName() + ".parallelism",
+            Math.min(4, Runtime.getRuntime().availableProcessors()));
+    /** The minimum number of files that are required to process the files in parallel. */
+    static final int PARALLEL_THRESHOLD = 100;
+
+    @CheckForNull
+    private static final ForkJoinPool SHARED_POOL = PARALLELISM > 1 ? new ForkJoinPool(PARALLELISM) : null;
+
+    @CheckForNull
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Creates a new instance of {@link FileChangesProcessor} that uses the shared fork-join pool.
+     */
+    public FileChangesProcessor() {
+        this(SHARED_POOL, PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Creates a new instance of {@link FileChangesProcessor}.
+     *
+     * @param pool
+     *         the pool to process the files in parallel, or {@code null} to process the files sequentially
+     * @param threshold
+     *         the minimum number of files that are required to process the files in parallel
+     */
+    FileChangesProcessor(@CheckForNull final ForkJoinPool pool, final int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
 
     /**
      * Attaches the changed code lines to the file nodes of the coverage tree.
@@ -37,20 +76,30 @@ public class FileChangesProcessor {
      *         The code changes to be attached
      */
     public void attachChangedCodeLines(final CoverageNode coverageNode, final Map<String, FileChanges> codeChanges) {
-        Map<String, CoverageNode> nodePathMapping = coverageNode.getAllFileCoverageNodes().stream()
+        Map<String, FileCoverageNode> nodePathMapping = coverageNode.getAllFileCoverageNodes().stream()
                 .collect(Collectors.toMap(FileCoverageNode::getPath, Function.identity()));
 
-        codeChanges.forEach((path, fileChange) -> {
-            if (nodePathMapping.containsKey(path)) {
-                CoverageNode changedNode = nodePathMapping.get(path);
-                if (changedNode instanceof FileCoverageNode) {
-                    attachChanges((FileCoverageNode) changedNode, fileChange.getChangesByType(ChangeEditType.INSERT));
-                    attachChanges((FileCoverageNode) changedNode, fileChange.getChangesByType(ChangeEditType.REPLACE));
-                }
+        processFiles(codeChanges.entrySet(), entry -> {
+            FileCoverageNode changedNode = nodePathMapping.get(entry.getKey());
+            if (changedNode != null) {
+                attachChangedCodeLines(changedNode, entry.getValue());
             }
         });
     }
 
+    /**
+     * Attaches the changed code lines of a file to the corresponding {@link FileCoverageNode node}.
+     *
+     * @param changedNode
+     *         The node which represents the changed file
+     * @param fileChange
+     *         The code changes of the file
+     */
+    void attachChangedCodeLines(final FileCoverageNode changedNode, final FileChanges fileChange) {
+        attachChanges(changedNode, fileChange.getChangesByType(ChangeEditType.INSERT));
+        attachChanges(changedNode, fileChange.getChangesByType(ChangeEditType.REPLACE));
+    }
+
     /**
      * Attaches a set of changes to a specific {@link FileCoverageNode node}.
      *
@@ -80,11 +129,25 @@ public class FileChangesProcessor {
      */
     public void attachFileCoverageDeltas(final CoverageNode root, final CoverageNode referenceNode,
             final Map<String, String> oldPathMapping) {
+        attachFileCoverageDeltas(root, new ReferenceIndex(referenceNode), oldPathMapping);
+    }
+
+    /**
+     * Attaches the delta between the total file coverage of all currently built files against the passed reference. The
+     * algorithm also covers renamed files.
+     *
+     * @param root
+     *         The root of the coverage tree
+     * @param referenceIndex
+     *         The index of the reference coverage tree
+     * @param oldPathMapping
+     *         A mapping between the report paths of the current and the reference coverage tree
+     */
+    void attachFileCoverageDeltas(final CoverageNode root, final ReferenceIndex referenceIndex,
+            final Map<String, String> oldPathMapping) {
         Map<String, FileCoverageNode> fileNodes = getFileNodeMappingWithReferencePaths(root, oldPathMapping);
-        Map<String, FileCoverageNode> referenceFileNodes = getReferenceFileNodeMapping(fileNodes, referenceNode);
-        fileNodes.entrySet().stream()
-                .filter(entry -> referenceFileNodes.containsKey(entry.getKey()))
-                .forEach(entry -> attachFileCoverageDelta(entry.getValue(), referenceFileNodes.get(entry.getKey())));
+        processFiles(fileNodes.entrySet(), entry -> referenceIndex.getFileNode(entry.getKey())
+                .ifPresent(referenceFileNode -> attachFileCoverageDelta(entry.getValue(), referenceFileNode)));
     }
 
     /**
@@ -96,8 +159,23 @@ public class FileChangesProcessor {
      *         The {@link FileCoverageNode reference node} which represents the coverage of the reference file
      */
     private void attachFileCoverageDelta(final FileCoverageNode fileNode, final FileCoverageNode referenceNode) {
-        SortedMap<CoverageMetric, Fraction> referenceCoverage = referenceNode.getMetricFractions();
-        fileNode.getMetricFractions().forEach((metric, value) -> {
+        attachFileCoverageDelta(fileNode, fileNode.getMetricFractions(), referenceNode.getMetricFractions());
+    }
+
+    /**
+     * Attaches the delta between the total coverage of a file against the same file from the reference build.
+     *
+     * @param fileNode
+     *         The {@link FileCoverageNode node} which represents the total coverage of a file
+     * @param fileCoverage
+     *         The coverage fractions of the file
+     * @param referenceCoverage
+     *         The coverage fractions of the reference file
+     */
+    void attachFileCoverageDelta(final FileCoverageNode fileNode,
+            final SortedMap<CoverageMetric, Fraction> fileCoverage,
+            final SortedMap<CoverageMetric, Fraction> referenceCoverage) {
+        fileCoverage.forEach((metric, value) -> {
             if (referenceCoverage.containsKey(metric)) {
                 Fraction delta = value.subtract(referenceCoverage.get(metric));
                 fileNode.putFileCoverageDelta(metric, CoveragePercentage.valueOf(delta));
@@ -119,23 +197,59 @@ public class FileChangesProcessor {
      */
     public void attachIndirectCoveragesChanges(final CoverageNode root, final CoverageNode referenceNode,
             final Map<String, FileChanges> codeChanges, final Map<String, String> oldPathMapping) {
+        attachIndirectCoveragesChanges(root, new ReferenceIndex(referenceNode), codeChanges, oldPathMapping);
+    }
+
+    /**
+     * Attaches all found indirect coverage changes within the coverage tree, compared to a reference tree.
+     *
+     * @param root
+     *         The root of the tree in which indirect coverage changes are searched
+     * @param referenceIndex
+     *         The index of the reference tree
+     * @param codeChanges
+     *         The code changes that has been applied between the two commits underlying the node and its reference
+     * @param oldPathMapping
+     *         A mapping between the report paths of the current and the reference coverage tree
+     */
+    void attachIndirectCoveragesChanges(final CoverageNode root, final ReferenceIndex referenceIndex,
+            final Map<String, FileChanges> codeChanges, final Map<String, String> oldPathMapping) {
         Map<String, FileCoverageNode> fileNodes = getFileNodeMappingWithReferencePaths(root, oldPathMapping);
-        Map<String, FileCoverageNode> referenceFileNodes = getReferenceFileNodeMapping(fileNodes, referenceNode);
 
-        for (Map.Entry<String, FileCoverageNode> entry : fileNodes.entrySet()) {
+        processFiles(fileNodes.entrySet(), entry -> {
             String referencePath = entry.getKey();
             FileCoverageNode fileNode = entry.getValue();
             Optional<SortedMap<Integer, Coverage>> referenceCoveragePerLine =
-                    getReferenceCoveragePerLine(referenceFileNodes, referencePath);
+                    referenceIndex.getCoveragePerLine(referencePath);
             if (referenceCoveragePerLine.isPresent()) {
-                SortedMap<Integer, Coverage> referenceCoverageMapping = new TreeMap<>(referenceCoveragePerLine.get());
+                SortedMap<Integer, Coverage> referenceCoverageMapping = referenceCoveragePerLine.get();
                 String currentPath = fileNode.getPath();
                 if (codeChanges.containsKey(currentPath)) {
-                    adjustedCoveragePerLine(referenceCoverageMapping,
-                            codeChanges.get(currentPath));
+                    referenceCoverageMapping = LineMapping.fromChanges(codeChanges.get(currentPath))
+                            .remap(referenceCoverageMapping);
                 }
                 attachIndirectCoverageChangeForFile(fileNode, referenceCoverageMapping);
             }
+        });
+    }
+
+    /**
+     * Processes the specified files. If there are enough files and a pool is available, then the files are processed
+     * in parallel, otherwise sequentially. The action must modify only the file node of the processed element.
+     *
+     * @param files
+     *         the files to process
+     * @param action
+     *         the action to perform for each file
+     * @param <T>
+     *         the type of the elements that represent the files
+     */
+    <T> void processFiles(final Collection<T> files, final Consumer<T> action) {
+        if (pool == null || files.size() < threshold) {
+            files.forEach(action);
+        }
+        else {
+            pool.invoke(ForkJoinTask.adapt(() -> files.parallelStream().forEach(action)));
         }
     }
 
@@ -147,7 +261,7 @@ public class FileChangesProcessor {
      * @param referenceCoverageMapping
      *         A mapping which contains the coverage per line of the reference file
      */
-    private void attachIndirectCoverageChangeForFile(final FileCoverageNode fileNode,
+    void attachIndirectCoverageChangeForFile(final FileCoverageNode fileNode,
             final SortedMap<Integer, Coverage> referenceCoverageMapping) {
         fileNode.getCoveragePerLine().forEach((line, coverage) -> {
             if (!fileNode.getChangedCodeLines().contains(line) && referenceCoverageMapping.containsKey(line)) {
@@ -161,117 +275,6 @@ public class FileChangesProcessor {
         });
     }
 
-    /**
-     * Gets the coverage, mapped by the line within a file, for a reference file, represented by its fully qualified
-     * name.
-     *
-     * @param references
-     *         All possible reference
-     * @param fullyQualifiedName
-     *         The fully qualified name of the file for which the coverage per line is required
-     *
-     * @return an Optional of the coverage mapping if existent, else an empty Optional
-     */
-    private Optional<SortedMap<Integer, Coverage>> getReferenceCoveragePerLine(
-            final Map<String, FileCoverageNode> references, final String fullyQualifiedName) {
-        if (references.containsKey(fullyQualifiedName)) {
-            SortedMap<Integer, Coverage> coveragePerLine = references.get(fullyQualifiedName).getCoveragePerLine();
-            if (coveragePerLine != null && !coveragePerLine.isEmpty()) {
-                return Optional.of(coveragePerLine);
-            }
-        }
-        return Optional.empty();
-    }
-
-    /**
-     * Adjusts a coverage-per-line mapping of a file before changes has been applied so that the coverage values can be
-     * compared to the coverage-per-line mapping after code changes within the file.
-     *
-     * @param coveragePerLine
-     *         The coverage-per-line mapping of the file before the changes which should be adjusted
-     * @param fileChanges
-     *         The applied code changes of the file
-     */
-    private void adjustedCoveragePerLine(final SortedMap<Integer, Coverage> coveragePerLine,
-            final FileChanges fileChanges) {
-        List<List<Coverage>> coverages = transformCoveragePerLine(coveragePerLine, fileChanges);
-
-        fileChanges.getChangesByType(ChangeEditType.DELETE).forEach(change -> {
-            for (int i = change.getChangedFromLine(); i <= change.getChangedToLine(); i++) {
-                coverages.get(i).clear();
-            }
-        });
-
-        fileChanges.getChangesByType(ChangeEditType.INSERT).forEach(change -> {
-            List<Coverage> inserted = coverages.get(change.getChangedFromLine());
-            int changedLinesNumber = change.getToLine() - change.getFromLine() + 1;
-            fillCoverageListWithNull(inserted, changedLinesNumber);
-        });
-
-        fileChanges.getChangesByType(ChangeEditType.REPLACE).forEach(change -> {
-            List<Coverage> replaced = coverages.get(change.getChangedFromLine());
-            replaced.clear(); // coverage of replaced code is irrelevant
-            int changedLinesNumber = change.getToLine() - change.getFromLine() + 1;
-            fillCoverageListWithNull(replaced, changedLinesNumber);
-            for (int i = change.getChangedFromLine() + 1; i <= change.getChangedToLine(); i++) {
-                coverages.get(i).clear();
-            }
-        });
-
-        List<Coverage> adjustedCoveragesList = coverages.stream()
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
-
-        coveragePerLine.clear();
-        for (int line = 1; line < adjustedCoveragesList.size(); line++) {
-            Coverage coverage = adjustedCoveragesList.get(line);
-            if (coverage != null) {
-                coveragePerLine.put(line, coverage);
-            }
-        }
-    }
-
-    /**
-     * Transforms a coverage-per-line mapping to a list representation which can be expanded without influencing the
-     * original line numbers.
-     *
-     * @param coveragePerLine
-     *         The coverage-per-line mapping of the file before the changes which should be adjusted
-     * @param fileChanges
-     *         The applied code changes of the file
-     *
-     * @return the list expandable list representation of the coverage-per-line mapping
-     */
-    private List<List<Coverage>> transformCoveragePerLine(
-            final SortedMap<Integer, Coverage> coveragePerLine, final FileChanges fileChanges) {
-        List<List<Coverage>> coverages = coveragePerLine.values().stream()
-                .map(coverage -> new ArrayList<>(Collections.singletonList(coverage)))
-                .collect(Collectors.toList());
-
-        // the highest covered line might not be the highest line which contains changes
-        int maxLineNumber = coveragePerLine.lastKey();
-        Optional<Integer> highestLineNumber = fileChanges.getChanges().values().stream()
-                .flatMap(Set::stream)
-                .map(Change::getChangedToLine)
-                .max(Comparator.naturalOrder());
-        if (highestLineNumber.isPresent() && highestLineNumber.get() > maxLineNumber) {
-            maxLineNumber = highestLineNumber.get();
-        }
-
-        IntStream.range(0, maxLineNumber + 1)
-                .filter(line -> !coveragePerLine.containsKey(line))
-                .forEach(line -> {
-                    if (line < coverages.size()) {
-                        coverages.add(line, new ArrayList<>(Collections.singletonList(null)));
-                    }
-                    else {
-                        coverages.add(new ArrayList<>(Collections.singletonList(null)));
-                    }
-                });
-
-        return coverages;
-    }
-
     /**
      * Gets all {@link FileCoverageNode file nodes} from the actual build which also exist within the reference build
      * and maps them by their fully qualified name from the reference.
@@ -290,36 +293,4 @@ public class FileChangesProcessor {
                 .filter(node -> oldPathMapping.containsKey(node.getPath()))
                 .collect(Collectors.toMap(node -> oldPathMapping.get(node.getPath()), Function.identity()));
     }
-
-    /**
-     * Gets all {@link FileCoverageNode file nodes} from a reference coverage tree which also exist in the current
-     * coverage tree. The found nodes are mapped by their path.
-     *
-     * @param nodeMapping
-     *         The file nodes of the current coverage tree, mapped by their paths
-     * @param referenceNode
-     *         The root of the reference coverage tree
-     *
-     * @return the created node mapping
-     */
-    private Map<String, FileCoverageNode> getReferenceFileNodeMapping(
-            final Map<String, FileCoverageNode> nodeMapping, final CoverageNode referenceNode) {
-        return referenceNode.getAllFileCoverageNodes().stream()
-                .filter(reference -> nodeMapping.containsKey(reference.getPath()))
-                .collect(Collectors.toMap(FileCoverageNode::getPath, Function.identity()));
-    }
-
-    /**
-     * Adds {@code null} values to the passed list.
-     *
-     * @param coverageList
-     *         The list which should be filled with {@code null}
-     * @param number
-     *         The number of values to be inserted
-     */
-    private void fillCoverageListWithNull(final List<Coverage> coverageList, final int number) {
-        for (int i = 0; i < number; i++) {
-            coverageList.add(null);
-        }
-    }
 }
@@ -11,6 +11,8 @@ import org.apache.commons.lang3.StringUtils;
 
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 
+import io.jenkins.plugins.coverage.model.Coverage.CoverageBuilder;
+
 /**
  * A {@link CoverageNode} for a specific file. It stores the actual file name along the coverage information.
  *
@@ -29,6 +31,9 @@ public class FileCoverageNode extends CoverageNode {
     private SortedMap<CoverageMetric, CoveragePercentage> fileCoverageDelta = new TreeMap<>(); // since 3.0.0
     private SortedMap<Integer, Integer> indirectCoverageChanges = new TreeMap<>(); // since 3.0.0
     private SortedSet<Integer> changedCodeLines = new TreeSet<>(); // since 3.0.0
+    @CheckForNull
+    private String changesFingerprint; // since 4.100.0
+    private MethodLineIndex methodLineIndex = MethodLineIndex.EMPTY; // since 4.100.0
 
     /**
      * Creates a new {@link FileCoverageNode} with the given name.
@@ -70,6 +75,9 @@ public class FileCoverageNode extends CoverageNode {
         if (coveragePerLine == null) {
             coveragePerLine = new TreeMap<>();
         }
+        if (methodLineIndex == null) {
+            methodLineIndex = MethodLineIndex.EMPTY;
+        }
         return this;
     }
 
@@ -156,6 +164,110 @@ public class FileCoverageNode extends CoverageNode {
         return changedCodeLines;
     }
 
+    /**
+     * Returns the fingerprint of the code changes that have been used to compute the changed code lines, the indirect
+     * coverage changes, and the file coverage delta of this file.
+     *
+     * @return the fingerprint, or {@code null} if the file has not been changed
+     */
+    @CheckForNull
+    public String getChangesFingerprint() {
+        return changesFingerprint;
+    }
+
+    public void setChangesFingerprint(@CheckForNull final String changesFingerprint) {
+        this.changesFingerprint = changesFingerprint;
+    }
+
+    public MethodLineIndex getMethodLineIndex() {
+        return methodLineIndex;
+    }
+
+    public void setMethodLineIndex(final MethodLineIndex methodLineIndex) {
+        this.methodLineIndex = methodLineIndex;
+    }
+
+    /**
+     * Returns the first lines of all methods that contain changed code lines with coverage information.
+     *
+     * @return the first lines of the changed methods
+     */
+    public SortedSet<Integer> getChangedMethods() {
+        SortedSet<Integer> changed = new TreeSet<>();
+        collectChangedMethods(changed, new TreeSet<>());
+        return changed;
+    }
+
+    /**
+     * Returns the first lines of all methods that contain changed code lines with coverage information, but none of
+     * these changed code lines is covered.
+     *
+     * @return the first lines of the changed but uncovered methods
+     */
+    public SortedSet<Integer> getUncoveredChangedMethods() {
+        SortedSet<Integer> changed = new TreeSet<>();
+        SortedSet<Integer> covered = new TreeSet<>();
+        collectChangedMethods(changed, covered);
+        changed.removeAll(covered);
+        return changed;
+    }
+
+    /**
+     * Returns the method change coverage of this file. A changed method counts as covered if at least one of its
+     * changed code lines is covered.
+     *
+     * @return the method change coverage
+     */
+    public Coverage getMethodChangeCoverage() {
+        SortedSet<Integer> changed = new TreeSet<>();
+        SortedSet<Integer> covered = new TreeSet<>();
+        collectChangedMethods(changed, covered);
+        return new CoverageBuilder().setCovered(covered.size()).setMissed(changed.size() - covered.size()).build();
+    }
+
+    /**
+     * Returns the indirect coverage changes of this file per method. Each line with an indirect coverage change is
+     * mapped to its method using the {@link MethodLineIndex}, lines outside of methods are skipped.
+     *
+     * @return the first lines of the methods mapped to the sum of the indirect coverage changes of their lines
+     */
+    public SortedMap<Integer, Integer> getMethodIndirectCoverageChanges() {
+        SortedMap<Integer, Integer> changes = new TreeMap<>();
+        if (methodLineIndex.isEmpty()) {
+            return changes;
+        }
+        indirectCoverageChanges.forEach((line, change) -> methodLineIndex.findMethod(line).ifPresent(
+                position -> changes.merge(methodLineIndex.getFirstLine(position), change, Integer::sum)));
+        return changes;
+    }
+
+    /**
+     * Collects the methods that contain changed code lines with coverage information. Each changed code line is
+     * mapped to its method using the {@link MethodLineIndex}.
+     *
+     * @param changed
+     *         the first lines of the changed methods
+     * @param covered
+     *         the first lines of the changed methods with at least one covered changed code line
+     */
+    private void collectChangedMethods(final SortedSet<Integer> changed, final SortedSet<Integer> covered) {
+        if (methodLineIndex.isEmpty()) {
+            return;
+        }
+        for (int line : changedCodeLines) {
+            Coverage coverage = coveragePerLine.get(line);
+            if (coverage != null) {
+                methodLineIndex.findMethod(line).ifPresent(position -> {
+                    int firstLine = methodLineIndex.getFirstLine(position);
+                    changed.add(firstLine);
+                    if (coverage.getCovered() > 0) {
+                        covered.add(firstLine);
+                    }
+                });
+            }
+        }
+    }
+
     public void setCoveragePerLine(final SortedMap<Integer, Coverage> coverage) {
         coveragePerLine = coverage;
     }
@@ -181,6 +293,8 @@ public class FileCoverageNode extends CoverageNode {
         fileCoverageNode.setChangedCodeLines(new TreeSet<>(changedCodeLines));
         fileCoverageNode.setIndirectCoverageChanges(new TreeMap<>(indirectCoverageChanges));
         fileCoverageNode.setFileCoverageDelta(new TreeMap<>(fileCoverageDelta));
+        fileCoverageNode.setChangesFingerprint(changesFingerprint);
+        fileCoverageNode.setMethodLineIndex(methodLineIndex);
 
         return fileCoverageNode;
     }
@@ -206,12 +320,15 @@ public class FileCoverageNode extends CoverageNode {
                 && Objects.equals(fileCoverageDelta, that.fileCoverageDelta)
                 && Objects.equals(coveragePerLine, that.coveragePerLine)
                 && Objects.equals(changedCodeLines, that.changedCodeLines)
-                && Objects.equals(indirectCoverageChanges, that.indirectCoverageChanges);
+                && Objects.equals(indirectCoverageChanges, that.indirectCoverageChanges)
+                && Objects.equals(changesFingerprint, that.changesFingerprint)
+                && Objects.equals(methodLineIndex, that.methodLineIndex);
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), sourcePath, fileCoverageDelta,
-                coveragePerLine, changedCodeLines, indirectCoverageChanges);
+                coveragePerLine, changedCodeLines, indirectCoverageChanges, changesFingerprint,
+                methodLineIndex);
     }
 }
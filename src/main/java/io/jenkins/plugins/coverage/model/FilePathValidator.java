@@ -1,12 +1,14 @@
 package io.jenkins.plugins.coverage.model;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 import edu.hm.hafner.util.FilteredLog;
 
-import one.util.streamex.StreamEx;
-
 /**
  * Validates the file paths of the processed project files.
  *
@@ -30,7 +32,8 @@ class FilePathValidator {
 
     /**
      * Verifies that the passed coverage tree only contains files with unique paths. Duplicate paths are logged and
-     * removed from the coverage tree.
+     * removed from the coverage tree. The duplicates are detected in a single pass over the file nodes and removed in
+     * a single pass over the tree.
      *
      * @param root
      *         The {@link CoverageNode root} of the coverage tree
@@ -38,14 +41,19 @@ class FilePathValidator {
      *         The log
      */
     static void verifyPathUniqueness(final CoverageNode root, final FilteredLog log) {
-        List<String> duplicates = StreamEx.of(root.getAllFileCoverageNodes())
-                .map(FileCoverageNode::getPath)
-                .distinct(2)
-                .collect(Collectors.toList());
+        Map<String, FileCoverageNode> filesByPath = new HashMap<>();
+        Set<String> duplicates = new LinkedHashSet<>();
+        Set<CoverageNode> ambiguousFiles = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (FileCoverageNode file : root.getAllFileCoverageNodes()) {
+            FileCoverageNode first = filesByPath.putIfAbsent(file.getPath(), file);
+            if (first != null) {
+                duplicates.add(file.getPath());
+                ambiguousFiles.add(first);
+                ambiguousFiles.add(file);
+            }
+        }
         if (!duplicates.isEmpty()) {
-            root.getAllFileCoverageNodes().stream()
-                    .filter(node -> duplicates.contains(node.getPath()))
-                    .forEach(CoverageNode::remove);
+            root.removeAll(ambiguousFiles);
 
             String message = AMBIGUOUS_FILES_MESSAGE + System.lineSeparator()
                     + String.join("," + System.lineSeparator(), duplicates);
@@ -1,8 +1,11 @@
 package io.jenkins.plugins.coverage.model;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.math.Fraction;
@@ -11,6 +14,9 @@ import hudson.Functions;
 
 import io.jenkins.plugins.coverage.model.visualization.colorization.ColorProvider;
 import io.jenkins.plugins.datatables.DetailedCell;
+import io.jenkins.plugins.datatables.TableColumn;
+import io.jenkins.plugins.datatables.TableColumn.ColumnBuilder;
+import io.jenkins.plugins.datatables.TableColumn.ColumnType;
 
 /**
  * {@link CoverageTableModel} implementation for visualizing the indirect coverage changes.
@@ -18,6 +24,9 @@ import io.jenkins.plugins.datatables.DetailedCell;
  * @since 3.0.0
  */
 class IndirectCoverageChangesTable extends CoverageTableModel {
+    private static final Map<String, Function<Object, Object>> COLUMN_ACCESSORS
+            = Collections.unmodifiableMap(createIndirectChangesColumnAccessors());
+
     private final CoverageNode changeRoot;
 
     /**
@@ -41,23 +50,43 @@ class IndirectCoverageChangesTable extends CoverageTableModel {
         this.changeRoot = changeRoot;
     }
 
+    @Override
+    public List<TableColumn> getColumns() {
+        List<TableColumn> columns = super.getColumns();
+
+        TableColumn changedMethods = new ColumnBuilder().withHeaderLabel(Messages.Column_IndirectlyChangedMethods())
+                .withDataPropertyKey("changedMethods")
+                .withDetailedCell()
+                .withType(ColumnType.NUMBER)
+                .withResponsivePriority(3)
+                .build();
+        columns.add(columns.size() - 1, changedMethods); // before the lines of code
+
+        return columns;
+    }
+
+    @Override
+    Map<String, Function<Object, Object>> getColumnAccessors() {
+        return COLUMN_ACCESSORS;
+    }
+
+    private static Map<String, Function<Object, Object>> createIndirectChangesColumnAccessors() {
+        Map<String, Function<Object, Object>> accessors = createColumnAccessors();
+        addColumnAccessor(accessors, "changedMethods", IndirectCoverageChangesRow.class,
+                IndirectCoverageChangesRow::getChangedMethods);
+        return accessors;
+    }
+
     @Override
     public List<Object> getRows() {
         Locale browserLocale = Functions.getCurrentLocale();
+        UnaryOperator<FileCoverageNode> originalNodes = createOriginalNodeResolver();
         return changeRoot.getAllFileCoverageNodes().stream()
                 .map(file -> new IndirectCoverageChangesRow(
-                        getOriginalNode(file), file, browserLocale, getRenderer(), getColorProvider()))
+                        originalNodes.apply(file), file, browserLocale, getRenderer(), getColorProvider()))
                 .collect(Collectors.toList());
     }
 
-    private FileCoverageNode getOriginalNode(final FileCoverageNode fileNode) {
-        Optional<FileCoverageNode> reference = getRoot().getAllFileCoverageNodes().stream()
-                .filter(node -> node.getPath().equals(fileNode.getPath())
-                        && node.getName().equals(fileNode.getName()))
-                .findFirst();
-        return reference.orElse(fileNode); // return this as fallback to prevent exceptions
-    }
-
     /**
      * UI row model for the indirect coverage changes details table.
      *
@@ -95,6 +124,16 @@ class IndirectCoverageChangesTable extends CoverageTableModel {
             return createColoredChangeCoverageDeltaColumn(CoverageMetric.BRANCH);
         }
 
+        /**
+         * Returns the number of methods that contain lines with indirect coverage changes. The names of these methods
+         * are shown as tooltip.
+         *
+         * @return the number of methods with indirect coverage changes
+         */
+        public DetailedCell<Integer> getChangedMethods() {
+            return createMethodsColumn(changedFileNode.getMethodIndirectCoverageChanges().keySet());
+        }
+
         @Override
         public int getLoc() {
             return changedFileNode.getIndirectCoverageChanges().size();
@@ -0,0 +1,161 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import io.jenkins.plugins.forensics.delta.Change;
+import io.jenkins.plugins.forensics.delta.ChangeEditType;
+import io.jenkins.plugins.forensics.delta.FileChanges;
+
+/**
+ * Maps the line numbers of a file before code changes have been applied to the line numbers after the changes. The
+ * mapping is based on the sorted intervals of the changes: each change removes an interval of old lines (deletes and
+ * replacements) and adds a number of new lines after its last old line (insertions and replacements). The new line of
+ * an old line is the old line shifted by the number of added and removed lines of all changes before that line. Old
+ * lines that have been deleted or replaced have no new line.
+ */
+class LineMapping {
+    /** Marks an old line that has been deleted or replaced. */
+    static final int REMOVED = -1;
+
+    private final List<LineInterval> intervals;
+
+    /**
+     * Creates the line mapping for the specified code changes of a file.
+     *
+     * @param fileChanges
+     *         the code changes of the file
+     *
+     * @return the line mapping
+     */
+    static LineMapping fromChanges(final FileChanges fileChanges) {
+        List<LineInterval> intervals = new ArrayList<>();
+        fileChanges.getChangesByType(ChangeEditType.DELETE).forEach(change -> intervals.add(
+                new LineInterval(change.getChangedFromLine(), change.getChangedToLine(), 0)));
+        fileChanges.getChangesByType(ChangeEditType.INSERT).forEach(change -> intervals.add(
+                new LineInterval(change.getChangedFromLine() + 1, change.getChangedFromLine(), getAddedLines(change))));
+        fileChanges.getChangesByType(ChangeEditType.REPLACE).forEach(change -> intervals.add(
+                new LineInterval(change.getChangedFromLine(), change.getChangedToLine(), getAddedLines(change))));
+        return new LineMapping(intervals);
+    }
+
+    private static int getAddedLines(final Change change) {
+        return change.getToLine() - change.getFromLine() + 1;
+    }
+
+    LineMapping(final List<LineInterval> intervals) {
+        this.intervals = new ArrayList<>(intervals);
+        this.intervals.sort(Comparator.comparingInt(LineInterval::getLastOldLine)
+                .thenComparingInt(LineInterval::getFirstOldLine));
+    }
+
+    /**
+     * Returns the new line of the specified old line.
+     *
+     * @param oldLine
+     *         the line before the changes
+     *
+     * @return the line after the changes, or {@link #REMOVED} if the line has been deleted or replaced
+     */
+    int getNewLine(final int oldLine) {
+        int shift = 0;
+        for (LineInterval interval : intervals) {
+            if (interval.getLastOldLine() >= oldLine) {
+                if (interval.contains(oldLine)) {
+                    return REMOVED;
+                }
+                if (!interval.isInsertion()) {
+                    break;
+                }
+            }
+            else {
+                shift += interval.getShift();
+            }
+        }
+        return oldLine + shift;
+    }
+
+    /**
+     * Remaps the keys of the specified line based mapping from the old lines to the new lines. Entries of deleted or
+     * replaced lines are dropped. The lines and the intervals are visited in a single sorted sweep.
+     *
+     * @param valuesPerOldLine
+     *         the values mapped by the lines before the changes
+     * @param <T>
+     *         the type of the values
+     *
+     * @return the values mapped by the lines after the changes
+     */
+    <T> SortedMap<Integer, T> remap(final SortedMap<Integer, T> valuesPerOldLine) {
+        SortedMap<Integer, T> valuesPerNewLine = new TreeMap<>();
+        int position = 0;
+        int shift = 0;
+        for (Entry<Integer, T> entry : valuesPerOldLine.entrySet()) {
+            int oldLine = entry.getKey();
+            while (position < intervals.size() && intervals.get(position).getLastOldLine() < oldLine) {
+                shift += intervals.get(position).getShift();
+                position++;
+            }
+            if (!isRemoved(oldLine, position)) {
+                int newLine = oldLine + shift;
+                if (newLine > 0) {
+                    valuesPerNewLine.put(newLine, entry.getValue());
+                }
+            }
+        }
+        return valuesPerNewLine;
+    }
+
+    private boolean isRemoved(final int oldLine, final int position) {
+        for (int i = position; i < intervals.size(); i++) {
+            LineInterval interval = intervals.get(i);
+            if (interval.contains(oldLine)) {
+                return true;
+            }
+            if (!interval.isInsertion()) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * An interval of old lines that has been removed, followed by a number of added lines. Insertions do not remove any
+     * old lines: their interval is empty and ends with the line after which the new lines have been inserted.
+     */
+    static class LineInterval {
+        private final int firstOldLine;
+        private final int lastOldLine;
+        private final int addedLines;
+
+        LineInterval(final int firstOldLine, final int lastOldLine, final int addedLines) {
+            this.firstOldLine = firstOldLine;
+            this.lastOldLine = lastOldLine;
+            this.addedLines = addedLines;
+        }
+
+        int getFirstOldLine() {
+            return firstOldLine;
+        }
+
+        int getLastOldLine() {
+            return lastOldLine;
+        }
+
+        boolean isInsertion() {
+            return firstOldLine > lastOldLine;
+        }
+
+        boolean contains(final int oldLine) {
+            return oldLine >= firstOldLine && oldLine <= lastOldLine;
+        }
+
+        int getShift() {
+            return addedLines - (lastOldLine - firstOldLine + 1);
+        }
+    }
+}
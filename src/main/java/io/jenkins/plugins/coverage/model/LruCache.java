@@ -0,0 +1,166 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe cache that is bounded by the total weight of its values. If the total weight exceeds the maximum
+ * weight, then the least recently used values are evicted. Concurrent requests of a missing value are merged: the
+ * value is loaded only once, all other requests wait for the result of the loading request.
+ *
+ * @param <K>
+ *         the type of the keys
+ * @param <V>
+ *         the type of the values
+ */
+class LruCache<K, V> {
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, Long> weights = new HashMap<>();
+    private final Map<K, CompletableFuture<V>> loading = new HashMap<>();
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxWeight
+     *         the maximum total weight of all values
+     * @param weigher
+     *         computes the weight of a value
+     */
+    LruCache(final long maxWeight, final ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the value of the specified key. If the value is not cached yet, then it will be loaded using the
+     * specified loader.
+     *
+     * @param key
+     *         the key of the value
+     * @param loader
+     *         loads the value if it is not cached yet
+     *
+     * @return the value
+     */
+    V get(final K key, final Function<K, V> loader) {
+        CompletableFuture<V> future;
+        boolean isLoading = false;
+        synchronized (this) {
+            V value = entries.get(key);
+            if (value != null) {
+                hits++;
+                return value;
+            }
+            future = loading.get(key);
+            if (future == null) {
+                misses++;
+                future = new CompletableFuture<>();
+                loading.put(key, future);
+                isLoading = true;
+            }
+            else {
+                hits++;
+            }
+        }
+        if (isLoading) {
+            return load(key, loader, future);
+        }
+        return await(future);
+    }
+
+    private V load(final K key, final Function<K, V> loader, final CompletableFuture<V> future) {
+        try {
+            V value = loader.apply(key);
+            put(key, value);
+            future.complete(value);
+            return value;
+        }
+        catch (RuntimeException exception) {
+            future.completeExceptionally(exception);
+            throw exception;
+        }
+        finally {
+            synchronized (this) {
+                loading.remove(key);
+            }
+        }
+    }
+
+    private V await(final CompletableFuture<V> future) {
+        try {
+            return future.join();
+        }
+        catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
+    private synchronized void put(final K key, final V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            return; // would evict all other values
+        }
+        invalidate(key);
+        entries.put(key, value);
+        weights.put(key, valueWeight);
+        weight += valueWeight;
+
+        Iterator<Entry<K, V>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            K eldestKey = eldest.next().getKey();
+            eldest.remove();
+            weight -= weights.remove(eldestKey);
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes the value of the specified key from the cache.
+     *
+     * @param key
+     *         the key of the value
+     */
+    synchronized void invalidate(final K key) {
+        if (entries.remove(key) != null) {
+            weight -= weights.remove(key);
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getWeight() {
+        return weight;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+}
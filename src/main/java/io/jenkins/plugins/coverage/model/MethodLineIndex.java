@@ -0,0 +1,150 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NavigableSet;
+import java.util.OptionalInt;
+import java.util.SortedMap;
+import java.util.TreeSet;
+
+/**
+ * An index of the line ranges of the methods of a file. Since the coverage reports provide only the first line of a
+ * method, the range of a method ends with the last line that has coverage information before the next method
+ * starts. The ranges are sorted and do not overlap, so the method that contains a specific line can be found with a
+ * binary search.
+ */
+public final class MethodLineIndex implements Serializable {
+    private static final long serialVersionUID = 5498167498135426385L;
+
+    /** An index without any methods. */
+    public static final MethodLineIndex EMPTY = new MethodLineIndex(new int[0], new int[0]);
+
+    private final int[] firstLines;
+    private final int[] lastLines;
+
+    /**
+     * Creates the index of the specified methods.
+     *
+     * @param methods
+     *         the methods of the file
+     * @param coveragePerLine
+     *         the coverage per line of the file
+     *
+     * @return the created index
+     */
+    public static MethodLineIndex create(final Collection<MethodCoverageNode> methods,
+            final SortedMap<Integer, Coverage> coveragePerLine) {
+        NavigableSet<Integer> starts = new TreeSet<>();
+        methods.stream()
+                .filter(MethodCoverageNode::hasValidLineNumber)
+                .map(MethodCoverageNode::getLineNumber)
+                .forEach(starts::add);
+        if (starts.isEmpty()) {
+            return EMPTY;
+        }
+
+        int[] firstLines = new int[starts.size()];
+        int[] lastLines = new int[starts.size()];
+        int position = 0;
+        for (int start : starts) {
+            Integer next = starts.higher(start);
+            SortedMap<Integer, Coverage> methodLines = next == null
+                    ? coveragePerLine.tailMap(start) : coveragePerLine.subMap(start, next);
+            firstLines[position] = start;
+            lastLines[position] = methodLines.isEmpty() ? start : methodLines.lastKey();
+            position++;
+        }
+        return new MethodLineIndex(firstLines, lastLines);
+    }
+
+    MethodLineIndex(final int[] firstLines, final int[] lastLines) {
+        this.firstLines = firstLines;
+        this.lastLines = lastLines;
+    }
+
+    /**
+     * Returns the number of indexed methods.
+     *
+     * @return the number of methods
+     */
+    public int size() {
+        return firstLines.length;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the first line of the method at the specified position.
+     *
+     * @param position
+     *         the position of the method in the index
+     *
+     * @return the first line
+     */
+    public int getFirstLine(final int position) {
+        return firstLines[position];
+    }
+
+    /**
+     * Returns the last line of the method at the specified position.
+     *
+     * @param position
+     *         the position of the method in the index
+     *
+     * @return the last line
+     */
+    public int getLastLine(final int position) {
+        return lastLines[position];
+    }
+
+    /**
+     * Finds the method that contains the specified line.
+     *
+     * @param line
+     *         the line to find the method for
+     *
+     * @return the position of the method in the index, or an empty optional if the line is not part of a method
+     */
+    public OptionalInt findMethod(final int line) {
+        int position = Arrays.binarySearch(firstLines, line);
+        if (position < 0) {
+            position = -position - 2; // the method with the largest first line before the specified line
+        }
+        if (position >= 0 && line <= lastLines[position]) {
+            return OptionalInt.of(position);
+        }
+        return OptionalInt.empty();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MethodLineIndex that = (MethodLineIndex) o;
+        return Arrays.equals(firstLines, that.firstLines) && Arrays.equals(lastLines, that.lastLines);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(firstLines) + Arrays.hashCode(lastLines);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder ranges = new StringBuilder("[");
+        for (int i = 0; i < size(); i++) {
+            if (i > 0) {
+                ranges.append(", ");
+            }
+            ranges.append(firstLines[i]).append('-').append(lastLines[i]);
+        }
+        return ranges.append(']').toString();
+    }
+}
@@ -0,0 +1,132 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+/**
+ * An index of file paths that finds the longest indexed path that is a suffix of a given path. The paths are stored in
+ * a trie of reversed path segments, so a lookup requires only a single walk over the segments of the given path
+ * instead of comparing the given path with every indexed path.
+ *
+ * <p>
+ * The index uses the same semantics as {@link String#endsWith(String)}: an indexed path matches if it is a character
+ * suffix of the given path. Therefore, the first segment of an indexed path may match a part of a segment of the given
+ * path, e.g. {@code a/Test.java} is a suffix of {@code ba/Test.java}.
+ * </p>
+ */
+class PathSuffixIndex {
+    private final Node root = new Node();
+
+    /**
+     * Creates an index for the specified paths.
+     *
+     * @param paths
+     *         the paths to index
+     */
+    PathSuffixIndex(final Collection<String> paths) {
+        paths.forEach(this::add);
+    }
+
+    private void add(final String path) {
+        List<String> segments = split(path);
+        Node node = root;
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            node = node.children.computeIfAbsent(segments.get(i), key -> new Node());
+        }
+        node.path = path;
+    }
+
+    /**
+     * Finds the longest indexed path that is a suffix of the specified path.
+     *
+     * @param path
+     *         the path to find a suffix for
+     *
+     * @return the longest matching indexed path, or an empty Optional if no indexed path matches
+     */
+    Optional<String> findLongestSuffix(final String path) {
+        List<String> segments = split(path);
+        String match = null;
+        Node node = root;
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            String segment = segments.get(i);
+            String partialMatch = findPartialMatch(node, segment);
+            if (partialMatch != null) {
+                match = partialMatch;
+            }
+            Node child = node.children.get(segment);
+            if (child == null) {
+                break;
+            }
+            node = child;
+            if (node.path != null) {
+                match = node.path;
+            }
+        }
+        return Optional.ofNullable(match);
+    }
+
+    /**
+     * Finds an indexed path that ends at a child of the specified node whose segment is a proper suffix of the
+     * specified segment. The longest of these segments is the best match.
+     *
+     * @param node
+     *         the node to inspect
+     * @param segment
+     *         the segment of the path to find a suffix for
+     *
+     * @return the matching indexed path, or {@code null} if there is no such path
+     */
+    @CheckForNull
+    private String findPartialMatch(final Node node, final String segment) {
+        if (node.children.isEmpty()) {
+            return null;
+        }
+        for (int start = 1; start <= segment.length(); start++) {
+            Node child = node.children.get(segment.substring(start));
+            if (child != null && child.path != null) {
+                return child.path;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Splits the specified path into segments. Each segment contains its trailing separator so that the segments can
+     * be matched character by character.
+     *
+     * @param path
+     *         the path to split
+     *
+     * @return the segments of the path
+     */
+    private static List<String> split(final String path) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < path.length(); i++) {
+            char character = path.charAt(i);
+            if (character == '/' || character == '\\') {
+                segments.add(path.substring(start, i + 1));
+                start = i + 1;
+            }
+        }
+        segments.add(path.substring(start));
+        return segments;
+    }
+
+    /**
+     * A node of the trie: contains the children mapped by their path segment and the indexed path that ends at this
+     * node.
+     */
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        @CheckForNull
+        private String path;
+    }
+}
@@ -0,0 +1,159 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+
+import org.apache.commons.lang3.math.Fraction;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+/**
+ * An index of the coverage tree of a reference build. The index provides the file nodes of the tree mapped by their
+ * path, a {@link PathSuffixIndex suffix index} of these paths, and the coverage per line of each file. Since the
+ * coverage tree of a reference build does not change anymore, an index can be shared by all builds that use the same
+ * reference build.
+ */
+class ReferenceIndex {
+    private static final long FILE_WEIGHT = 1024;
+    private static final long LINE_WEIGHT = 64;
+
+    private final CoverageNode root;
+    private final Map<String, FileCoverageNode> fileNodes = new HashMap<>();
+    private final Map<String, SortedMap<Integer, Coverage>> coveragePerLine = new HashMap<>();
+    private final PathSuffixIndex pathIndex;
+    private final long estimatedSize;
+    private final List<String> validationErrors;
+    @CheckForNull
+    private volatile SortedMap<CoverageMetric, Fraction> rootFractions;
+
+    /**
+     * Creates an index of the specified coverage tree.
+     *
+     * @param root
+     *         the root of the coverage tree of the reference build
+     */
+    ReferenceIndex(final CoverageNode root) {
+        this(root, Collections.emptyList());
+    }
+
+    /**
+     * Creates an index of the specified coverage tree.
+     *
+     * @param root
+     *         the root of the coverage tree of the reference build
+     * @param validationErrors
+     *         the errors that have been reported while the coverage tree has been verified
+     */
+    ReferenceIndex(final CoverageNode root, final List<String> validationErrors) {
+        this.root = root;
+        this.validationErrors = Collections.unmodifiableList(new ArrayList<>(validationErrors));
+
+        long lines = 0;
+        for (FileCoverageNode fileNode : root.getAllFileCoverageNodes()) {
+            String path = fileNode.getPath();
+            fileNodes.put(path, fileNode);
+            SortedMap<Integer, Coverage> coverage = fileNode.getCoveragePerLine();
+            if (coverage != null && !coverage.isEmpty()) {
+                coveragePerLine.put(path, coverage);
+                lines += coverage.size();
+            }
+        }
+        pathIndex = new PathSuffixIndex(fileNodes.keySet());
+        estimatedSize = estimateSize(fileNodes.size(), lines);
+    }
+
+    /**
+     * Estimates the memory size of a coverage tree based on the number of its files and lines.
+     *
+     * @param files
+     *         the number of files
+     * @param lines
+     *         the number of lines with coverage information
+     *
+     * @return the estimated size in bytes
+     */
+    static long estimateSize(final long files, final long lines) {
+        return files * FILE_WEIGHT + lines * LINE_WEIGHT;
+    }
+
+    CoverageNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the coverage fractions of the root of the reference tree. The fractions are computed only once.
+     *
+     * @return the coverage fractions mapped by their metric
+     * @see CoverageNode#getMetricFractions()
+     */
+    SortedMap<CoverageMetric, Fraction> getRootFractions() {
+        SortedMap<CoverageMetric, Fraction> fractions = rootFractions;
+        if (fractions == null) {
+            fractions = Collections.unmodifiableSortedMap(
+                    CoverageDeltaEngine.toFractions(root, CoverageDeltaEngine.aggregate(root)));
+            rootFractions = fractions;
+        }
+        return fractions;
+    }
+
+    Set<String> getPaths() {
+        return Collections.unmodifiableSet(fileNodes.keySet());
+    }
+
+    boolean contains(final String path) {
+        return fileNodes.containsKey(path);
+    }
+
+    Optional<FileCoverageNode> getFileNode(final String path) {
+        return Optional.ofNullable(fileNodes.get(path));
+    }
+
+    /**
+     * Returns the coverage per line of the specified file.
+     *
+     * @param path
+     *         the path of the file
+     *
+     * @return the coverage per line, or an empty Optional if the file does not exist or has no line coverage
+     */
+    Optional<SortedMap<Integer, Coverage>> getCoveragePerLine(final String path) {
+        return Optional.ofNullable(coveragePerLine.get(path));
+    }
+
+    /**
+     * Finds the longest path of the reference tree that is a suffix of the specified SCM path.
+     *
+     * @param scmPath
+     *         the SCM path
+     *
+     * @return the matching path, or an empty Optional if no path matches
+     */
+    Optional<String> findLongestSuffix(final String scmPath) {
+        return pathIndex.findLongestSuffix(scmPath);
+    }
+
+    /**
+     * Returns the estimated memory size of the indexed coverage tree in bytes.
+     *
+     * @return the estimated size
+     */
+    long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    /**
+     * Returns the errors that have been reported while the coverage tree of the reference build has been verified.
+     * Since the index is shared by several builds, these errors need to be reported in the log of each build.
+     *
+     * @return the validation errors
+     */
+    List<String> getValidationErrors() {
+        return validationErrors;
+    }
+}
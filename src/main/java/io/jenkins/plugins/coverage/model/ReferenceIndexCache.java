@@ -0,0 +1,135 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import jenkins.util.SystemProperties;
+
+import static io.jenkins.plugins.coverage.model.FilePathValidator.*;
+
+/**
+ * Caches the {@link ReferenceIndex indexes} of the coverage trees of reference builds. In multibranch projects, many
+ * builds of pull requests use the same reference build of the target branch. With this cache, the coverage tree of
+ * such a reference build is loaded, verified, and indexed only once. The indexes are mapped by the externalizable ID of
+ * the reference build. The cache is bounded by the estimated memory size of the indexed coverage trees, the least
+ * recently used indexes will be evicted first.
+ */
+public final class ReferenceIndexCache {
+    private static final Logger LOGGER = Logger.getLogger(ReferenceIndexCache.class.getName());
+
+    /** The maximum estimated memory size of all cached indexes in MB. */
+    static final int MAX_SIZE = SystemProperties.getInteger(ReferenceIndexCache.class.getName() + ".maxSize", 128);
+
+    private static final ReferenceIndexCache INSTANCE = new ReferenceIndexCache(MAX_SIZE * 1024L * 1024L);
+
+    private final LruCache<String, ReferenceIndex> cache;
+
+    /**
+     * Returns the singleton instance of the cache.
+     *
+     * @return the cache
+     */
+    public static ReferenceIndexCache getInstance() {
+        return INSTANCE;
+    }
+
+    ReferenceIndexCache(final long maxSize) {
+        cache = new LruCache<>(maxSize, ReferenceIndex::getEstimatedSize);
+    }
+
+    /**
+     * Returns the index of the coverage tree of the specified reference build. If the index is not cached yet, then
+     * the coverage tree will be loaded, its file paths will be verified, and the index will be created. The errors of
+     * the verification are stored with the index, so they are reported in the log of each build that uses the index.
+     *
+     * @param referenceAction
+     *         the coverage action of the reference build
+     * @param log
+     *         the log
+     *
+     * @return the index
+     */
+    ReferenceIndex getIndex(final CoverageBuildAction referenceAction, final FilteredLog log) {
+        return getIndex(referenceAction.getOwner().getExternalizableId(), referenceAction::getResult, log);
+    }
+
+    ReferenceIndex getIndex(final String id, final Supplier<CoverageNode> referenceTree, final FilteredLog log) {
+        AtomicBoolean isCreated = new AtomicBoolean(false);
+        ReferenceIndex index = cache.get(id, key -> {
+            isCreated.set(true);
+            CoverageNode referenceRoot = referenceTree.get();
+            FilteredLog validationLog = new FilteredLog("Errors while verifying the reference build:");
+            verifyPathUniqueness(referenceRoot, validationLog);
+            return new ReferenceIndex(referenceRoot, validationLog.getErrorMessages());
+        });
+        if (!isCreated.get()) {
+            log.logInfo("-> Using cached index of reference build '%s'", id);
+        }
+        index.getValidationErrors().forEach(error -> log.logError("%s", error));
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("Reference index cache: %d indexes, %d KB, %d hits, %d misses, %d evictions",
+                    cache.size(), cache.getWeight() / 1024, cache.getHits(), cache.getMisses(),
+                    cache.getEvictions()));
+        }
+        return index;
+    }
+
+    /**
+     * Removes the index of the specified reference build from the cache.
+     *
+     * @param id
+     *         the externalizable ID of the reference build
+     */
+    public void invalidate(final String id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Returns the number of cached indexes.
+     *
+     * @return the number of indexes
+     */
+    public int getSize() {
+        return cache.size();
+    }
+
+    /**
+     * Returns the estimated memory size of all cached indexes.
+     *
+     * @return the size in bytes
+     */
+    public long getEstimatedSize() {
+        return cache.getWeight();
+    }
+
+    /**
+     * Returns the number of requests that have been served by a cached index.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return cache.getHits();
+    }
+
+    /**
+     * Returns the number of requests that required the creation of a new index.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return cache.getMisses();
+    }
+
+    /**
+     * Returns the number of indexes that have been evicted in order to stay within the memory bounds.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+        return cache.getEvictions();
+    }
+}
@@ -0,0 +1,19 @@
+package io.jenkins.plugins.coverage.model;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+
+/**
+ * Removes the index of a deleted build from the {@link ReferenceIndexCache}, so that the coverage tree of the build
+ * will not be kept in memory any longer.
+ */
+@Extension
+public class ReferenceIndexCacheListener extends RunListener<Run<?, ?>> {
+    @Override
+    public void onDeleted(@NonNull final Run<?, ?> run) {
+        ReferenceIndexCache.getInstance().invalidate(run.getExternalizableId());
+    }
+}
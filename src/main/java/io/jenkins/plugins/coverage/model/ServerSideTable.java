@@ -0,0 +1,263 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import io.jenkins.plugins.datatables.DetailedCell;
+
+/**
+ * Provides the rows of a {@link CoverageTableModel} for a DataTables table that uses server-side processing. Rather
+ * than sending all rows to the browser, the table is paged, sorted, and filtered on the controller and only the rows of
+ * the visible page are returned (see <a href="https://datatables.net/manual/server-side">DataTables server-side
+ * processing</a>).
+ *
+ * <p>
+ * The sort keys of a column and the search texts of the rows are computed on the first request that requires them
+ * and are reused by all subsequent requests. Since the sort keys do not depend on the colors or the locale of a user,
+ * an instance can be shared by all users as long as the rows of the table do not change.
+ * </p>
+ *
+ * <p>
+ * The values of a row are obtained from the accessors of the columns: only the columns of the table can be used to
+ * sort the rows.
+ * </p>
+ */
+class ServerSideTable {
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+    private static final Comparator<Object> SORT_KEY_COMPARATOR = ServerSideTable::compareSortKeys;
+
+    static final String FILE_NAME_COLUMN = "fileName";
+    static final String PACKAGE_NAME_COLUMN = "packageName";
+
+    private final Map<String, Function<Object, Object>> columns;
+    private final Map<String, Object[]> sortKeys = new ConcurrentHashMap<>();
+    private volatile String[] searchTexts;
+
+    /**
+     * Creates a new table with the specified columns. The search term of a page request is matched against the
+     * columns {@link #FILE_NAME_COLUMN} and {@link #PACKAGE_NAME_COLUMN}.
+     *
+     * @param columns
+     *         the accessors of the column values of a row, mapped by the data property key of each column
+     */
+    ServerSideTable(final Map<String, Function<Object, Object>> columns) {
+        this.columns = new HashMap<>(columns);
+    }
+
+    /**
+     * Returns whether the table contains a column with the specified data property key.
+     *
+     * @param property
+     *         the data property key of the column
+     *
+     * @return {@code true} if the table contains such a column, {@code false} otherwise
+     */
+    boolean hasColumn(final String property) {
+        return columns.containsKey(property);
+    }
+
+    /**
+     * Returns the rows of the requested page.
+     *
+     * @param rows
+     *         all rows of the table, the order of the rows must not change between subsequent calls
+     * @param request
+     *         the page request of the DataTables table
+     *
+     * @return the page in the format of the DataTables server-side protocol
+     * @throws IllegalArgumentException
+     *         if the rows should be sorted by a property that is not a column of this table
+     */
+    Map<String, Object> getPage(final List<Object> rows, final PageRequest request) {
+        if (StringUtils.isNotEmpty(request.getOrderProperty()) && !hasColumn(request.getOrderProperty())) {
+            throw new IllegalArgumentException("No such column: " + request.getOrderProperty());
+        }
+
+        int[] filtered = filter(rows, request.getSearch());
+        if (StringUtils.isNotEmpty(request.getOrderProperty())) {
+            Object[] keys = getSortKeys(rows, request.getOrderProperty());
+            Comparator<Integer> order = Comparator.comparing(row -> keys[row], SORT_KEY_COMPARATOR);
+            filtered = IntStream.of(filtered).boxed()
+                    .sorted(request.isAscending() ? order : order.reversed())
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        int start = Math.min(Math.max(request.getStart(), 0), filtered.length);
+        int end = request.getLength() < 0 ? filtered.length : Math.min(start + request.getLength(), filtered.length);
+        List<Object> page = new ArrayList<>(end - start);
+        for (int position = start; position < end; position++) {
+            page.add(rows.get(filtered[position]));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("draw", request.getDraw());
+        response.put("recordsTotal", rows.size());
+        response.put("recordsFiltered", filtered.length);
+        response.put("data", page);
+        return response;
+    }
+
+    private int[] filter(final List<Object> rows, final String search) {
+        if (StringUtils.isBlank(search)) {
+            return IntStream.range(0, rows.size()).toArray();
+        }
+        String[] texts = getSearchTexts(rows);
+        String term = search.trim().toLowerCase(Locale.ENGLISH);
+        return IntStream.range(0, rows.size()).filter(row -> texts[row].contains(term)).toArray();
+    }
+
+    private String[] getSearchTexts(final List<Object> rows) {
+        String[] texts = searchTexts;
+        if (texts == null || texts.length != rows.size()) {
+            texts = rows.stream()
+                    .map(row -> toText(getValue(row, FILE_NAME_COLUMN)) + '\n'
+                            + toText(getValue(row, PACKAGE_NAME_COLUMN)))
+                    .map(text -> text.toLowerCase(Locale.ENGLISH))
+                    .toArray(String[]::new);
+            searchTexts = texts;
+        }
+        return texts;
+    }
+
+    private Object[] getSortKeys(final List<Object> rows, final String property) {
+        Object[] keys = sortKeys.get(property);
+        if (keys == null || keys.length != rows.size()) {
+            keys = rows.stream().map(row -> toSortKey(getValue(row, property))).toArray();
+            sortKeys.put(property, keys);
+        }
+        return keys;
+    }
+
+    private static Object toSortKey(final Object value) {
+        if (value instanceof DetailedCell) {
+            return toSortKey(((DetailedCell<?>) value).getSort());
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return toText(value).toLowerCase(Locale.ENGLISH);
+    }
+
+    private static String toText(final Object value) {
+        if (value == null) {
+            return StringUtils.EMPTY;
+        }
+        return HTML_TAG.matcher(value.toString()).replaceAll(StringUtils.EMPTY);
+    }
+
+    private static int compareSortKeys(final Object left, final Object right) {
+        if (left instanceof Double && right instanceof Double) {
+            return Double.compare((Double) left, (Double) right);
+        }
+        if (left instanceof Double) {
+            return -1; // numbers before texts
+        }
+        if (right instanceof Double) {
+            return 1;
+        }
+        return ((String) left).compareTo((String) right);
+    }
+
+    private Object getValue(final Object row, final String property) {
+        Function<Object, Object> accessor = columns.get(property);
+        if (accessor == null) {
+            return null;
+        }
+        return accessor.apply(row);
+    }
+
+    /**
+     * A request of a DataTables table in server-side processing mode. Only the first ordering column is used.
+     */
+    static class PageRequest {
+        private static final String ORDER_COLUMN = "order[0][column]";
+        private static final String ORDER_DIRECTION = "order[0][dir]";
+        private static final String SEARCH = "search[value]";
+
+        private final int draw;
+        private final int start;
+        private final int length;
+        private final String search;
+        private final String orderProperty;
+        private final boolean isAscending;
+
+        /**
+         * Parses the request parameters that have been sent by the DataTables table.
+         *
+         * @param parameters
+         *         the request parameters
+         *
+         * @return the page request
+         */
+        static PageRequest fromParameters(final Map<String, String[]> parameters) {
+            Map<String, String> values = parameters.entrySet().stream()
+                    .filter(entry -> entry.getValue() != null && entry.getValue().length > 0)
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue()[0]));
+
+            String orderProperty = StringUtils.EMPTY;
+            String orderColumn = values.get(ORDER_COLUMN);
+            if (StringUtils.isNotBlank(orderColumn)) {
+                // columns with a detailed cell send the sort property as data, e.g. 'lineCoverage.sort'
+                String data = values.getOrDefault(String.format("columns[%s][data]", orderColumn),
+                        values.getOrDefault(String.format("columns[%s][data][sort]", orderColumn),
+                                StringUtils.EMPTY));
+                orderProperty = StringUtils.substringBefore(data, ".");
+            }
+
+            return new PageRequest(NumberUtils.toInt(values.get("draw")),
+                    NumberUtils.toInt(values.get("start")),
+                    NumberUtils.toInt(values.get("length"), -1),
+                    values.getOrDefault(SEARCH, StringUtils.EMPTY),
+                    orderProperty,
+                    !"desc".equals(values.get(ORDER_DIRECTION)));
+        }
+
+        PageRequest(final int draw, final int start, final int length, final String search,
+                final String orderProperty, final boolean isAscending) {
+            this.draw = draw;
+            this.start = start;
+            this.length = length;
+            this.search = search;
+            this.orderProperty = orderProperty;
+            this.isAscending = isAscending;
+        }
+
+        int getDraw() {
+            return draw;
+        }
+
+        int getStart() {
+            return start;
+        }
+
+        int getLength() {
+            return length;
+        }
+
+        String getSearch() {
+            return search;
+        }
+
+        String getOrderProperty() {
+            return orderProperty;
+        }
+
+        boolean isAscending() {
+            return isAscending;
+        }
+    }
+}
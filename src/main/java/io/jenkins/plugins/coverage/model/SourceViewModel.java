@@ -9,6 +9,7 @@ import hudson.model.Run;
 import hudson.util.TextFile;
 
 import io.jenkins.plugins.coverage.model.visualization.code.SourceCodeFacade;
+import io.jenkins.plugins.coverage.model.visualization.code.SourceCodeWindow;
 
 /**
  * Server side model that provides the data for the source code view of the coverage results. The layout of the
@@ -38,15 +39,34 @@ public class SourceViewModel extends CoverageViewModel {
         try {
             File rootDir = getOwner().getRootDir();
             if (isSourceFileInNewFormatAvailable(getNode())) {
-                return new SourceCodeFacade().read(rootDir, getId(), getNode().getPath());
+                return new SourceCodeFacade().read(getOwner(), getId(), getNode().getPath());
             }
             if (isSourceFileInOldFormatAvailable(getNode())) {
                 return new TextFile(getFileForBuildsWithOldVersion(rootDir, getNode().getName())).read(); // fallback with sources persisted using the < 2.1.0 serialization
             }
             return Messages.Coverage_Not_Available();
         }
-        catch (IOException | InterruptedException exception) {
+        catch (IOException exception) {
             return ExceptionUtils.getStackTrace(exception);
         }
     }
+
+    /**
+     * Returns the first window of the source file rendered in HTML. The subsequent windows are loaded on demand, see
+     * {@link #getSourceCodeWindow(String, int)}.
+     *
+     * @return the first window of the source file
+     */
+    public SourceCodeWindow getSourceFileWindow() {
+        return getSourceCodeWindow(getFileHash(), 1);
+    }
+
+    /**
+     * Returns the hash code of the source file that is used to request the windows of the source file.
+     *
+     * @return the hash code of the path of the file
+     */
+    public String getFileHash() {
+        return String.valueOf(getNode().getPath().hashCode());
+    }
 }
@@ -1,5 +1,8 @@
 package io.jenkins.plugins.coverage.model.visualization.charts;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import edu.hm.hafner.echarts.BuildResult;
 import edu.hm.hafner.echarts.ChartModelConfiguration;
 import edu.hm.hafner.echarts.JacksonFacade;
@@ -11,9 +14,13 @@ import edu.hm.hafner.echarts.LinesDataSet;
 import edu.hm.hafner.echarts.Palette;
 
 import io.jenkins.plugins.coverage.model.CoverageBuildAction;
+import io.jenkins.plugins.coverage.model.CoverageMetric;
+import io.jenkins.plugins.coverage.model.CoverageTrendRecord;
 
 /**
- * Builds the Java side model for a trend chart showing the line and branch coverage of a project.
+ * Builds the Java side model for a trend chart showing the line and branch coverage of a project. A chart that is created
+ * from the coverage trend of a job can show other metrics as well, see
+ * {@link #createFromTrend(Iterable, ChartModelConfiguration, List)}.
  * The number of builds to consider is controlled by a {@link ChartModelConfiguration} instance. The created model object
  * can be serialized to JSON (e.g., using the {@link JacksonFacade}) and can be used 1:1 as ECharts configuration object in the corresponding JS file.
  *
@@ -35,8 +42,37 @@ public class CoverageTrendChart {
     public LinesChartModel create(final Iterable<? extends BuildResult<CoverageBuildAction>> results,
             final ChartModelConfiguration configuration) {
         CoverageSeriesBuilder builder = new CoverageSeriesBuilder();
-        LinesDataSet dataSet = builder.createDataSet(configuration, results);
+        return createModel(builder.createDataSet(configuration, results));
+    }
 
+    /**
+     * Creates the chart for the specified records of the coverage trend of a job. The chart shows a series for each of
+     * the specified metrics. Records that contain no coverage for one of these metrics (e.g., the records of builds
+     * that have been recorded by previous versions of the plugin) are skipped.
+     *
+     * @param records
+     *         the records to render - these records must be provided in descending order, i.e. the current build is
+     *         the head of the list, then the previous builds, and so on
+     * @param configuration
+     *         the chart configuration to be used
+     * @param metrics
+     *         the metrics to show
+     *
+     * @return the chart model, ready to be serialized to JSON
+     */
+    public LinesChartModel createFromTrend(final Iterable<? extends BuildResult<CoverageTrendRecord>> records,
+            final ChartModelConfiguration configuration, final List<CoverageMetric> metrics) {
+        List<BuildResult<CoverageTrendRecord>> available = new ArrayList<>();
+        for (BuildResult<CoverageTrendRecord> record : records) {
+            if (metrics.stream().allMatch(record.getResult()::hasCoverage)) {
+                available.add(record);
+            }
+        }
+        CoverageTrendSeriesBuilder builder = new CoverageTrendSeriesBuilder(metrics);
+        return createModel(builder.createDataSet(configuration, available), metrics);
+    }
+
+    private LinesChartModel createModel(final LinesDataSet dataSet) {
         LinesChartModel model = new LinesChartModel(dataSet);
         if (!dataSet.isEmpty()) {
             model.useContinuousRangeAxis();
@@ -59,6 +95,38 @@ public class CoverageTrendChart {
         return model;
     }
 
+    private LinesChartModel createModel(final LinesDataSet dataSet, final List<CoverageMetric> metrics) {
+        LinesChartModel model = new LinesChartModel(dataSet);
+        if (!dataSet.isEmpty()) {
+            model.useContinuousRangeAxis();
+            model.setRangeMax(100);
+            model.setRangeMin(Math.max(0, metrics.stream()
+                    .mapToInt(metric -> createRangeMinFor(dataSet, CoverageTrendSeriesBuilder.getSeriesId(metric)))
+                    .min()
+                    .orElse(0)));
+
+            Palette[] palette = Palette.values();
+            for (int i = 0; i < metrics.size(); i++) {
+                CoverageMetric metric = metrics.get(i);
+                LineSeries series = new LineSeries(metric.getName(), getColor(metric, palette[i % palette.length]),
+                        StackedMode.SEPARATE_LINES, FilledMode.FILLED);
+                series.addAll(dataSet.getSeries(CoverageTrendSeriesBuilder.getSeriesId(metric)));
+                model.addSeries(series);
+            }
+        }
+        return model;
+    }
+
+    private String getColor(final CoverageMetric metric, final Palette fallback) {
+        if (metric.equals(CoverageMetric.LINE)) {
+            return Palette.GREEN.getNormal();
+        }
+        if (metric.equals(CoverageMetric.BRANCH)) {
+            return Palette.GREEN.getHover();
+        }
+        return fallback.getNormal();
+    }
+
     private int createRangeMinFor(final LinesDataSet dataSet, final String coverage) {
         return min(dataSet, coverage) - 10;
     }
@@ -0,0 +1,66 @@
+package io.jenkins.plugins.coverage.model.visualization.charts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import edu.hm.hafner.echarts.SeriesBuilder;
+
+import io.jenkins.plugins.coverage.model.CoverageMetric;
+import io.jenkins.plugins.coverage.model.CoverageTrendRecord;
+
+/**
+ * Builds one x-axis point for the series of a line chart showing the coverage of a project. The values are obtained
+ * from the records of the coverage trend of a job, so a series is available for each of the selected metrics. The
+ * records must contain the coverage of all selected metrics, see
+ * {@link CoverageTrendRecord#hasCoverage(CoverageMetric)}. The ID of a series is the lower case name of the metric,
+ * see {@link #getSeriesId(CoverageMetric)}.
+ */
+public class CoverageTrendSeriesBuilder extends SeriesBuilder<CoverageTrendRecord> {
+    private final List<CoverageMetric> metrics;
+
+    /**
+     * Creates a new series builder for the line and branch coverage.
+     */
+    public CoverageTrendSeriesBuilder() {
+        this(Arrays.asList(CoverageMetric.LINE, CoverageMetric.BRANCH));
+    }
+
+    /**
+     * Creates a new series builder for the specified metrics.
+     *
+     * @param metrics
+     *         the metrics to create a series for
+     */
+    public CoverageTrendSeriesBuilder(final List<CoverageMetric> metrics) {
+        super();
+
+        this.metrics = new ArrayList<>(metrics);
+    }
+
+    @Override
+    protected Map<String, Integer> computeSeries(final CoverageTrendRecord record) {
+        Map<String, Integer> series = new HashMap<>();
+
+        for (CoverageMetric metric : metrics) {
+            series.put(getSeriesId(metric), record.getCoverage(metric).getRoundedPercentage());
+        }
+
+        return series;
+    }
+
+    /**
+     * Returns the ID of the series that contains the values of the specified metric.
+     *
+     * @param metric
+     *         the metric
+     *
+     * @return the ID of the series
+     */
+    public static String getSeriesId(final CoverageMetric metric) {
+        return metric.getName().toLowerCase(Locale.ENGLISH);
+    }
+}
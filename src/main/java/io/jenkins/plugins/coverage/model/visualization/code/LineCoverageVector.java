@@ -0,0 +1,180 @@
+package io.jenkins.plugins.coverage.model.visualization.code;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.jenkins.plugins.coverage.targets.CoveragePaint;
+
+/**
+ * The line coverage of a single source file: for each painted line the number of hits along with the number of covered
+ * and total branches is stored. The vector is immutable and can be stored in a compact text representation, see
+ * {@link #encode()}.
+ */
+public final class LineCoverageVector implements Serializable {
+    private static final long serialVersionUID = -3178342620851436011L;
+
+    private static final char LINE_SEPARATOR = ';';
+    private static final char VALUE_SEPARATOR = ',';
+
+    private final int[] lines;
+    private final int[] hits;
+    private final int[] branchCoverage;
+    private final int[] branchTotal;
+
+    /**
+     * Creates a new vector from the specified coverage paint.
+     *
+     * @param paint
+     *         the coverage paint of a source file
+     *
+     * @return the line coverage vector
+     */
+    public static LineCoverageVector fromPaint(final CoveragePaint paint) {
+        int[] lines = paint.getAllLines();
+        Arrays.sort(lines);
+        int[] hits = new int[lines.length];
+        int[] branchCoverage = new int[lines.length];
+        int[] branchTotal = new int[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            hits[i] = paint.getHits(lines[i]);
+            branchCoverage[i] = paint.getBranchCoverage(lines[i]);
+            branchTotal[i] = paint.getBranchTotal(lines[i]);
+        }
+        return new LineCoverageVector(lines, hits, branchCoverage, branchTotal);
+    }
+
+    /**
+     * Parses the text representation of a vector that has been created by {@link #encode()}.
+     *
+     * @param encoded
+     *         the text representation
+     *
+     * @return the line coverage vector
+     * @throws IllegalArgumentException
+     *         if the text representation is invalid
+     */
+    public static LineCoverageVector decode(final String encoded) {
+        String[] entries = StringUtils.split(encoded, LINE_SEPARATOR);
+        int[] lines = new int[entries.length];
+        int[] hits = new int[entries.length];
+        int[] branchCoverage = new int[entries.length];
+        int[] branchTotal = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            String[] values = StringUtils.split(entries[i], VALUE_SEPARATOR);
+            if (values.length != 2 && values.length != 4) {
+                throw new IllegalArgumentException("Invalid line coverage entry: " + entries[i]);
+            }
+            lines[i] = Integer.parseInt(values[0]);
+            hits[i] = Integer.parseInt(values[1]);
+            if (values.length == 4) {
+                branchCoverage[i] = Integer.parseInt(values[2]);
+                branchTotal[i] = Integer.parseInt(values[3]);
+            }
+        }
+        return new LineCoverageVector(lines, hits, branchCoverage, branchTotal);
+    }
+
+    private LineCoverageVector(final int[] lines, final int[] hits, final int[] branchCoverage,
+            final int[] branchTotal) {
+        this.lines = lines;
+        this.hits = hits;
+        this.branchCoverage = branchCoverage;
+        this.branchTotal = branchTotal;
+    }
+
+    /**
+     * Returns whether coverage information has been recorded for the specified line.
+     *
+     * @param line
+     *         the line number
+     *
+     * @return {@code true} if the line is painted, {@code false} otherwise
+     */
+    public boolean isPainted(final int line) {
+        return Arrays.binarySearch(lines, line) >= 0;
+    }
+
+    public int getHits(final int line) {
+        return valueOf(hits, line);
+    }
+
+    public int getBranchCoverage(final int line) {
+        return valueOf(branchCoverage, line);
+    }
+
+    public int getBranchTotal(final int line) {
+        return valueOf(branchTotal, line);
+    }
+
+    /**
+     * Returns the first line after the specified line that is not covered or only partially covered.
+     *
+     * @param line
+     *         the line to start the search after
+     *
+     * @return the next uncovered line, or -1 if there is no such line
+     */
+    public int findNextUncoveredLine(final int line) {
+        int index = Arrays.binarySearch(lines, line);
+        for (int i = index < 0 ? -index - 1 : index + 1; i < lines.length; i++) {
+            if (hits[i] == 0 || branchCoverage[i] < branchTotal[i]) {
+                return lines[i];
+            }
+        }
+        return -1;
+    }
+
+    private int valueOf(final int[] values, final int line) {
+        int index = Arrays.binarySearch(lines, line);
+        if (index < 0) {
+            return 0;
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns a compact text representation of this vector. Each painted line is stored as comma separated tuple of
+     * line number, hits, and (if the line contains branches) covered and total branches. The tuples are separated by a
+     * semicolon.
+     *
+     * @return the text representation
+     */
+    public String encode() {
+        StringBuilder encoded = new StringBuilder(lines.length * 8);
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0) {
+                encoded.append(LINE_SEPARATOR);
+            }
+            encoded.append(lines[i]).append(VALUE_SEPARATOR).append(hits[i]);
+            if (branchTotal[i] > 0) {
+                encoded.append(VALUE_SEPARATOR).append(branchCoverage[i])
+                        .append(VALUE_SEPARATOR).append(branchTotal[i]);
+            }
+        }
+        return encoded.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LineCoverageVector that = (LineCoverageVector) o;
+        return Arrays.equals(lines, that.lines) && Arrays.equals(hits, that.hits)
+                && Arrays.equals(branchCoverage, that.branchCoverage) && Arrays.equals(branchTotal, that.branchTotal);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(lines);
+        result = 31 * result + Arrays.hashCode(hits);
+        result = 31 * result + Arrays.hashCode(branchCoverage);
+        result = 31 * result + Arrays.hashCode(branchTotal);
+        return result;
+    }
+}
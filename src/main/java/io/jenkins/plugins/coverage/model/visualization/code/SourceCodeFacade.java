@@ -1,14 +1,23 @@
 package io.jenkins.plugins.coverage.model.visualization.code;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
-import java.nio.file.Path;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -20,8 +29,11 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -29,16 +41,18 @@ import org.jsoup.nodes.Element;
 import org.jsoup.parser.Parser;
 import org.jsoup.select.Elements;
 
+import one.util.streamex.StreamEx;
+
 import edu.hm.hafner.util.FilteredLog;
 
 import hudson.FilePath;
 import hudson.model.Run;
 import hudson.remoting.VirtualChannel;
-import hudson.util.TextFile;
 import jenkins.MasterToSlaveFileCallable;
 
 import io.jenkins.plugins.coverage.model.CoverageNode;
 import io.jenkins.plugins.coverage.model.FileCoverageNode;
+import io.jenkins.plugins.coverage.model.visualization.code.SourceCodeManifest.StoredSourceFile;
 import io.jenkins.plugins.coverage.targets.CoveragePaint;
 import io.jenkins.plugins.prism.FilePermissionEnforcer;
 import io.jenkins.plugins.prism.SourceDirectoryFilter;
@@ -54,7 +68,10 @@ import io.jenkins.plugins.util.ValidationUtilities;
 public class SourceCodeFacade {
     /** Toplevel directory in the build folder of the controller that contains the zipped source files. */
     static final String COVERAGE_SOURCES_DIRECTORY = "coverage-sources";
+    /** Archive that contains all painted source files of a build, one entry per source file. */
     static final String COVERAGE_SOURCES_ZIP = "coverage-sources.zip";
+    /** Index with the names of all source files that have been stored for a build, one name per line. */
+    static final String COVERAGE_SOURCES_INDEX = "coverage-sources-index.txt";
     static final int MAX_FILENAME_LENGTH = 245; // Windows has limitations on long file names
     static final String ZIP_FILE_EXTENSION = ".zip";
 
@@ -63,65 +80,603 @@ public class SourceCodeFacade {
     }
 
     /**
-     * Copies the zipped source files from the agent to the controller and unpacks them in the coverage-sources folder
-     * of the current build.
+     * Copies the archive with the plain source files from the agent to the coverage-sources folder of the current
+     * build and stores these files in a {@link SourceCodeStore} within this folder. So the source files are stored in
+     * the same chunked format as in the job-level store: a window of lines can be read without decompressing the whole
+     * file. The line coverage of the source files is stored in a {@link SourceCodeManifest} next to the store.
      *
      * @param build
      *         the build with the coverage result
      * @param workspace
      *         the workspace on the agent that created the ZIP file
+     * @param id
+     *         id of the coverage results
+     * @param paintedFiles
+     *         the files that have been painted together with their line coverage
      * @param log
      *         the log
      *
      * @throws InterruptedException
      *         in case the user terminated the job
      */
-    void copySourcesToBuildFolder(final Run<?, ?> build, final FilePath workspace, final FilteredLog log)
+    void copySourcesToBuildFolder(final Run<?, ?> build, final FilePath workspace, final String id,
+            final Set<Entry<CoverageNode, CoveragePaint>> paintedFiles, final FilteredLog log)
             throws InterruptedException {
+        File archive = createArchiveInBuildFolder(build.getRootDir(), id);
         try {
-            FilePath buildFolder = new FilePath(build.getRootDir()).child(COVERAGE_SOURCES_DIRECTORY);
-            FilePath buildZip = buildFolder.child(COVERAGE_SOURCES_ZIP);
-            workspace.child(COVERAGE_SOURCES_ZIP).copyTo(buildZip);
-            log.logInfo("-> extracting...");
-            buildZip.unzip(buildFolder);
-            buildZip.delete();
+            FilePath agentArchive = workspace.child(COVERAGE_SOURCES_ZIP);
+            agentArchive.copyTo(new FilePath(archive));
+            agentArchive.delete();
+
+            Map<String, String> hashes;
+            try (ZipFile zipFile = new ZipFile(archive)) {
+                hashes = new SourceCodeStore(archive.getParentFile()).storeAll(zipFile);
+            }
+            createManifest(hashes, paintedFiles).write(createManifestInBuildFolder(build.getRootDir(), id).toPath());
             log.logInfo("-> done");
         }
         catch (IOException exception) {
             log.logException(exception, "Can't copy zipped sources from agent to controller");
         }
+        finally {
+            deleteQuietly(archive);
+        }
+    }
+
+    private SourceCodeManifest createManifest(final Map<String, String> hashes,
+            final Set<Entry<CoverageNode, CoveragePaint>> paintedFiles) {
+        Map<String, CoveragePaint> paints = new HashMap<>();
+        paintedFiles.forEach(entry -> paints.put(getStoredFileName(entry.getKey().getPath()), entry.getValue()));
+
+        SourceCodeManifest manifest = new SourceCodeManifest();
+        hashes.forEach((fileName, hash) -> manifest.add(fileName, hash,
+                LineCoverageVector.fromPaint(paints.get(fileName))));
+        return manifest;
     }
 
     /**
-     * Reads the contents of the source file of the given coverage node into a String.
+     * Copies the archive with the plain source files from the agent to the controller and stores these files in the
+     * job-level {@link SourceCodeStore}. Each source file will be stored only once for all builds of the job, the build
+     * folder contains a {@link SourceCodeManifest} that references the stored source files together with the line
+     * coverage of the build.
+     *
+     * @param build
+     *         the build with the coverage result
+     * @param workspace
+     *         the workspace on the agent that created the ZIP file
+     * @param id
+     *         id of the coverage results
+     * @param paintedFiles
+     *         the files that have been painted together with their line coverage
+     * @param log
+     *         the log
+     *
+     * @throws InterruptedException
+     *         in case the user terminated the job
+     */
+    void storeSourcesInJobStore(final Run<?, ?> build, final FilePath workspace, final String id,
+            final Set<Entry<CoverageNode, CoveragePaint>> paintedFiles, final FilteredLog log)
+            throws InterruptedException {
+        File archive = createArchiveInBuildFolder(build.getRootDir(), id);
+        try {
+            FilePath agentArchive = workspace.child(COVERAGE_SOURCES_ZIP);
+            agentArchive.copyTo(new FilePath(archive));
+            agentArchive.delete();
+
+            Map<String, String> hashes;
+            try (ZipFile zipFile = new ZipFile(archive)) {
+                hashes = createStore(build.getParent().getRootDir()).storeAll(zipFile);
+            }
+            createManifest(hashes, paintedFiles).write(createManifestInBuildFolder(build.getRootDir(), id).toPath());
+            log.logInfo("-> stored %d source files in job store", hashes.size());
+        }
+        catch (IOException exception) {
+            log.logException(exception, "Can't store sources from agent in job store of controller");
+        }
+        finally {
+            deleteQuietly(archive);
+        }
+    }
+
+    /**
+     * Releases all source files of the specified build in the job-level {@link SourceCodeStore}. Source files that are
+     * not referenced by another build anymore will be deleted.
      *
      * @param buildResults
      *         Jenkins directory for build results
+     * @param jobResults
+     *         Jenkins directory for job results
+     *
+     * @throws IOException
+     *         if the references could not be released
+     */
+    void releaseSourcesInJobStore(final File buildResults, final File jobResults) throws IOException {
+        File[] folders = new File(buildResults, COVERAGE_SOURCES_DIRECTORY).listFiles(File::isDirectory);
+        if (folders == null) {
+            return;
+        }
+        for (File folder : folders) {
+            File manifestFile = new File(folder, SourceCodeManifest.FILE_NAME);
+            if (manifestFile.exists() && !hasStoreInBuildFolder(folder)) {
+                Collection<String> hashes = SourceCodeManifest.read(manifestFile.toPath()).getHashes();
+                if (!hashes.isEmpty()) {
+                    createStore(jobResults).release(hashes);
+                    Files.delete(manifestFile.toPath());
+                    Files.deleteIfExists(new File(folder, COVERAGE_SOURCES_INDEX).toPath());
+                }
+            }
+        }
+    }
+
+    SourceCodeStore createStore(final File jobResults) {
+        return new SourceCodeStore(jobResults);
+    }
+
+    /**
+     * Returns the store that contains the source files of the specified build: either the store in the
+     * coverage-sources folder of the build or the job-level store.
+     */
+    private SourceCodeStore createStore(final File buildResults, final File jobResults, final String id) {
+        File elementFolder = createManifestInBuildFolder(buildResults, id).getParentFile();
+        if (hasStoreInBuildFolder(elementFolder)) {
+            return new SourceCodeStore(elementFolder);
+        }
+        return createStore(jobResults);
+    }
+
+    private boolean hasStoreInBuildFolder(final File elementFolder) {
+        return new File(elementFolder, SourceCodeStore.STORE_DIRECTORY).isDirectory();
+    }
+
+    private void deleteQuietly(final File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        }
+        catch (IOException ignore) {
+            // ignore and continue
+        }
+    }
+
+    /**
+     * Reads the source file of the given coverage node and renders the line coverage as HTML.
+     *
+     * @param build
+     *         the build with the coverage result
      * @param id
      *         if of the coverage results
      * @param path
      *         relative path to the coverage node base filename of the coverage node
      *
      * @return the file content as String
+     * @throws IOException
+     *         if the source file is not available or could not be read
      */
-    public String read(final File buildResults, final String id, final String path)
-            throws IOException, InterruptedException {
-        Path tempDir = Files.createTempDirectory(COVERAGE_SOURCES_DIRECTORY);
-        FilePath unzippedSourcesDir = new FilePath(tempDir.toFile());
-        try {
-            FilePath inputZipFile = new FilePath(
-                    new SourceCodeFacade().createFileInBuildFolder(buildResults, id, path));
-            inputZipFile.unzip(unzippedSourcesDir);
-            String actualPaintedSourceFileName = StringUtils.removeEnd(AgentCoveragePainter.sanitizeFilename(path),
-                    ZIP_FILE_EXTENSION);
-            File sourceFile = tempDir.resolve(actualPaintedSourceFileName).toFile();
-            return new TextFile(sourceFile).read();
+    public String read(final Run<?, ?> build, final String id, final String path) throws IOException {
+        return read(build.getRootDir(), build.getParent().getRootDir(), id, path);
+    }
+
+    String read(final File buildResults, final File jobResults, final String id, final String path)
+            throws IOException {
+        Optional<SourceFile> sourceFile = readSourceFile(buildResults, jobResults, id, path);
+        if (sourceFile.isPresent()) {
+            return new SourceCodeRenderer().render(sourceFile.get().getLines(), sourceFile.get().getCoverage());
         }
-        finally {
-            unzippedSourcesDir.deleteRecursive();
+        return readPaintedFile(buildResults, id, path);
+    }
+
+    /**
+     * Reads the source file of the given coverage node and renders the line coverage of the lines with code changes
+     * as HTML.
+     *
+     * @param build
+     *         the build with the coverage result
+     * @param id
+     *         if of the coverage results
+     * @param fileNode
+     *         the {@link FileCoverageNode node} which represents the coverage of the file
+     *
+     * @return the file content as String
+     * @throws IOException
+     *         if the source file is not available or could not be read
+     */
+    public String readChangeCoverage(final Run<?, ?> build, final String id, final FileCoverageNode fileNode)
+            throws IOException {
+        return readChangeCoverage(build.getRootDir(), build.getParent().getRootDir(), id, fileNode);
+    }
+
+    String readChangeCoverage(final File buildResults, final File jobResults, final String id,
+            final FileCoverageNode fileNode) throws IOException {
+        Optional<SourceFile> sourceFile = readSourceFile(buildResults, jobResults, id, fileNode.getPath());
+        if (sourceFile.isPresent()) {
+            return new SourceCodeRenderer().renderChangeCoverage(sourceFile.get().getLines(),
+                    sourceFile.get().getCoverage(), fileNode);
+        }
+        return calculateChangeCoverageSourceCode(readPaintedFile(buildResults, id, fileNode.getPath()), fileNode);
+    }
+
+    /**
+     * Reads the source file of the given coverage node and renders the indirect coverage changes as HTML.
+     *
+     * @param build
+     *         the build with the coverage result
+     * @param id
+     *         if of the coverage results
+     * @param fileNode
+     *         the {@link FileCoverageNode node} which represents the coverage of the file
+     *
+     * @return the file content as String
+     * @throws IOException
+     *         if the source file is not available or could not be read
+     */
+    public String readIndirectCoverageChanges(final Run<?, ?> build, final String id,
+            final FileCoverageNode fileNode) throws IOException {
+        return readIndirectCoverageChanges(build.getRootDir(), build.getParent().getRootDir(), id, fileNode);
+    }
+
+    String readIndirectCoverageChanges(final File buildResults, final File jobResults, final String id,
+            final FileCoverageNode fileNode) throws IOException {
+        Optional<SourceFile> sourceFile = readSourceFile(buildResults, jobResults, id, fileNode.getPath());
+        if (sourceFile.isPresent()) {
+            return new SourceCodeRenderer().renderIndirectCoverageChanges(sourceFile.get().getLines(), fileNode);
+        }
+        return calculateIndirectCoverageChangesSourceCode(readPaintedFile(buildResults, id, fileNode.getPath()),
+                fileNode);
+    }
+
+    /**
+     * Reads the manifest of the source files of the specified build. The manifest contains the line coverage of all
+     * stored source files, so callers that access the source files of a build several times should read the manifest
+     * only once and pass it to {@link #readWindow(Run, Optional, String, String, int, int)} and
+     * {@link #findNextUncoveredLine(Run, Optional, String, String, int)}.
+     *
+     * @param build
+     *         the build with the coverage result
+     * @param id
+     *         id of the coverage results
+     *
+     * @return the manifest, or an empty optional if the build contains only painted source files of previous plugin
+     *         versions
+     * @throws IOException
+     *         if the manifest could not be read
+     */
+    public Optional<SourceCodeManifest> readManifest(final Run<?, ?> build, final String id) throws IOException {
+        return readManifest(build.getRootDir(), id);
+    }
+
+    Optional<SourceCodeManifest> readManifest(final File buildResults, final String id) throws IOException {
+        File manifestFile = createManifestInBuildFolder(buildResults, id);
+        if (!manifestFile.exists()) {
+            return Optional.empty();
+        }
+        return Optional.of(SourceCodeManifest.read(manifestFile.toPath()));
+    }
+
+    /**
+     * Reads a window of lines of the source file of the given coverage node and renders the line coverage of these
+     * lines as HTML. Source files that are stored in a {@link SourceCodeStore} are not decompressed completely, only
+     * the chunks that contain the lines of the window are read.
+     *
+     * @param build
+     *         the build with the coverage result
+     * @param manifest
+     *         the manifest of the build, see {@link #readManifest(Run, String)}
+     * @param id
+     *         id of the coverage results
+     * @param path
+     *         relative path to the coverage node base filename of the coverage node
+     * @param firstLine
+     *         the first line of the window (1-based)
+     * @param maxLines
+     *         the maximum number of lines of the window
+     *
+     * @return the window of the source file
+     * @throws IOException
+     *         if the source file is not available or could not be read
+     */
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    public SourceCodeWindow readWindow(final Run<?, ?> build, final Optional<SourceCodeManifest> manifest,
+            final String id, final String path, final int firstLine, final int maxLines) throws IOException {
+        return readWindow(build.getRootDir(), build.getParent().getRootDir(), manifest, id, path, firstLine,
+                maxLines);
+    }
+
+    SourceCodeWindow readWindow(final File buildResults, final File jobResults, final String id, final String path,
+            final int firstLine, final int maxLines) throws IOException {
+        return readWindow(buildResults, jobResults, readManifest(buildResults, id), id, path, firstLine, maxLines);
+    }
+
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    SourceCodeWindow readWindow(final File buildResults, final File jobResults,
+            final Optional<SourceCodeManifest> manifest, final String id, final String path,
+            final int firstLine, final int maxLines) throws IOException {
+        Optional<StoredSourceFile> storedFile = findStoredFile(manifest, buildResults, id, path);
+        if (!storedFile.isPresent()) {
+            return new SourceCodeWindow(readPaintedFile(buildResults, id, path), 1, 0, 0);
+        }
+
+        StoredSourceFile file = storedFile.get();
+        int lineCount;
+        List<String> lines;
+        int first = Math.max(firstLine, 1);
+        int last = first + Math.max(maxLines, 1) - 1;
+        if (file.isInStore()) {
+            SourceCodeStore store = createStore(buildResults, jobResults, id);
+            lineCount = store.getLineCount(file.getHash());
+            lines = store.readLines(file.getHash(), first, last);
+        }
+        else { // archive of previous plugin versions
+            List<String> allLines = SourceCodeStore.splitLines(readEntry(createArchiveInBuildFolder(buildResults, id),
+                    AgentCoveragePainter.sanitizeFilename(path)));
+            lineCount = allLines.size();
+            lines = first > lineCount ? Collections.emptyList()
+                    : allLines.subList(first - 1, Math.min(last, lineCount));
+        }
+        return new SourceCodeWindow(new SourceCodeRenderer().render(lines, first, file.getCoverage()),
+                first, first + lines.size() - 1, lineCount);
+    }
+
+    /**
+     * Finds the next line of the source file of the given coverage node that is not covered or only partially
+     * covered. Only the line coverage of the build is required, the source file itself is not read.
+     *
+     * @param build
+     *         the build with the coverage result
+     * @param manifest
+     *         the manifest of the build, see {@link #readManifest(Run, String)}
+     * @param id
+     *         id of the coverage results
+     * @param path
+     *         relative path to the coverage node base filename of the coverage node
+     * @param line
+     *         the line to start the search after
+     *
+     * @return the next uncovered line, or -1 if there is no such line
+     * @throws IOException
+     *         if the source file is not contained in the manifest
+     */
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    public int findNextUncoveredLine(final Run<?, ?> build, final Optional<SourceCodeManifest> manifest,
+            final String id, final String path, final int line) throws IOException {
+        return findNextUncoveredLine(build.getRootDir(), manifest, id, path, line);
+    }
+
+    int findNextUncoveredLine(final File buildResults, final String id, final String path, final int line)
+            throws IOException {
+        return findNextUncoveredLine(buildResults, readManifest(buildResults, id), id, path, line);
+    }
+
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    int findNextUncoveredLine(final File buildResults, final Optional<SourceCodeManifest> manifest,
+            final String id, final String path, final int line) throws IOException {
+        return findStoredFile(manifest, buildResults, id, path)
+                .map(file -> file.getCoverage().findNextUncoveredLine(line))
+                .orElse(-1);
+    }
+
+    /**
+     * Reads the plain text and the line coverage of a source file. These properties are available if the build
+     * contains a {@link SourceCodeManifest}, otherwise the build contains already painted source files that have
+     * been created by previous versions of the plugin.
+     */
+    private Optional<SourceFile> readSourceFile(final File buildResults, final File jobResults, final String id,
+            final String path) throws IOException {
+        Optional<StoredSourceFile> storedFile = findStoredFile(readManifest(buildResults, id), buildResults, id,
+                path);
+        if (!storedFile.isPresent()) {
+            return Optional.empty();
+        }
+
+        String content;
+        if (storedFile.get().isInStore()) {
+            content = createStore(buildResults, jobResults, id).read(storedFile.get().getHash());
+        }
+        else {
+            content = readEntry(createArchiveInBuildFolder(buildResults, id),
+                    AgentCoveragePainter.sanitizeFilename(path));
+        }
+        return Optional.of(new SourceFile(SourceCodeStore.splitLines(content), storedFile.get().getCoverage()));
+    }
+
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private Optional<StoredSourceFile> findStoredFile(final Optional<SourceCodeManifest> manifest,
+            final File buildResults, final String id, final String path) throws IOException {
+        if (!manifest.isPresent()) {
+            return Optional.empty();
+        }
+
+        String entryName = AgentCoveragePainter.sanitizeFilename(path);
+        return Optional.of(manifest.get().get(entryName)
+                .orElseThrow(() -> new NoSuchFileException(
+                        createManifestInBuildFolder(buildResults, id).getAbsolutePath(), entryName,
+                        "No such entry in manifest")));
+    }
+
+    private String readPaintedFile(final File buildResults, final String id, final String path) throws IOException {
+        String entryName = AgentCoveragePainter.sanitizeFilename(path);
+        File archive = createArchiveInBuildFolder(buildResults, id);
+        if (archive.exists()) {
+            return readEntry(archive, entryName);
+        }
+        return readEntry(createFileInBuildFolder(buildResults, id, path), entryName); // zip per file (< 4.100.0)
+    }
+
+    private String readEntry(final File archive, final String entryName) throws IOException {
+        try (ZipFile zipFile = new ZipFile(archive)) {
+            ZipEntry entry = zipFile.getEntry(entryName);
+            if (entry == null) {
+                throw new NoSuchFileException(archive.getAbsolutePath(), entryName, "No such entry in archive");
+            }
+            try (InputStream input = zipFile.getInputStream(entry)) {
+                return IOUtils.toString(input, StandardCharsets.UTF_8);
+            }
         }
     }
 
+    /**
+     * Returns whether the source file of the given coverage node has been stored in the build folder.
+     *
+     * @param buildResults
+     *         Jenkins directory for build results
+     * @param id
+     *         id of the coverage results
+     * @param path
+     *         relative path to the coverage node base filename of the coverage node
+     *
+     * @return {@code true} if the source file is available, {@code false} otherwise
+     */
+    public boolean canRead(final File buildResults, final String id, final String path) {
+        if (createIndexInBuildFolder(buildResults, id).exists()
+                || createArchiveInBuildFolder(buildResults, id).exists()
+                || createManifestInBuildFolder(buildResults, id).exists()) {
+            return getStoredSourceFiles(buildResults, id).contains(AgentCoveragePainter.sanitizeFilename(path));
+        }
+        return createFileInBuildFolder(buildResults, id, path).canRead();
+    }
+
+    /**
+     * Returns the names of all source files that have been stored in the build folder. The names are sanitized, see
+     * {@link #getStoredFileName(String)}. If the build contains an index of the stored source files (see
+     * {@link #writeSourceIndex(File, String)}), then only this small index will be read. Otherwise, the names are
+     * obtained from the manifest, the archive, or the folder of the source files.
+     *
+     * @param buildResults
+     *         Jenkins directory for build results
+     * @param id
+     *         id of the coverage results
+     *
+     * @return the names of the stored source files
+     */
+    public Set<String> getStoredSourceFiles(final File buildResults, final String id) {
+        File index = createIndexInBuildFolder(buildResults, id);
+        if (index.exists()) {
+            try {
+                return new HashSet<>(Files.readAllLines(index.toPath(), StandardCharsets.UTF_8));
+            }
+            catch (IOException exception) {
+                return Collections.emptySet();
+            }
+        }
+        return findStoredSourceFiles(buildResults, id);
+    }
+
+    /**
+     * Writes an index with the names of all source files that have been stored in the build folder. Afterwards,
+     * checking the availability of the source files of a build requires to read this index only.
+     *
+     * @param buildResults
+     *         Jenkins directory for build results
+     * @param id
+     *         id of the coverage results
+     *
+     * @throws IOException
+     *         if the index could not be written
+     */
+    void writeSourceIndex(final File buildResults, final String id) throws IOException {
+        File index = createIndexInBuildFolder(buildResults, id);
+        if (index.getParentFile().isDirectory()) {
+            Files.write(index.toPath(), new TreeSet<>(findStoredSourceFiles(buildResults, id)),
+                    StandardCharsets.UTF_8);
+        }
+    }
+
+    private Set<String> findStoredSourceFiles(final File buildResults, final String id) {
+        File manifestFile = createManifestInBuildFolder(buildResults, id);
+        if (manifestFile.exists()) {
+            try {
+                return SourceCodeManifest.read(manifestFile.toPath()).getFileNames();
+            }
+            catch (IOException exception) {
+                return Collections.emptySet();
+            }
+        }
+        File archive = createArchiveInBuildFolder(buildResults, id);
+        if (archive.exists()) {
+            try (ZipFile zipFile = new ZipFile(archive)) {
+                Set<String> entries = new HashSet<>();
+                Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+                while (zipEntries.hasMoreElements()) {
+                    entries.add(zipEntries.nextElement().getName());
+                }
+                return entries;
+            }
+            catch (IOException exception) {
+                return Collections.emptySet();
+            }
+        }
+        String[] files = new File(new File(buildResults, COVERAGE_SOURCES_DIRECTORY), id).list();
+        if (files == null) {
+            return Collections.emptySet();
+        }
+        return StreamEx.of(files)
+                .remove(COVERAGE_SOURCES_INDEX::equals)
+                .map(file -> StringUtils.removeEnd(file, ZIP_FILE_EXTENSION))
+                .toSet();
+    }
+
+    /**
+     * Returns the name of the specified source file in the storage of the build folder.
+     *
+     * @param path
+     *         relative path to the coverage node base filename of the coverage node
+     *
+     * @return the sanitized name
+     */
+    public String getStoredFileName(final String path) {
+        return AgentCoveragePainter.sanitizeFilename(path);
+    }
+
+    /**
+     * Returns the archive that contains all painted source files. Note that the file might not exist.
+     *
+     * @param buildResults
+     *         Jenkins directory for build results
+     * @param id
+     *         if of the coverage results
+     *
+     * @return the file
+     */
+    File createArchiveInBuildFolder(final File buildResults, final String id) {
+        File sourceFolder = new File(buildResults, COVERAGE_SOURCES_DIRECTORY);
+        File elementFolder = new File(sourceFolder, id);
+
+        return new File(elementFolder, COVERAGE_SOURCES_ZIP);
+    }
+
+    /**
+     * Returns the manifest of the source files that are stored in the job-level {@link SourceCodeStore}. Note that the
+     * file might not exist.
+     *
+     * @param buildResults
+     *         Jenkins directory for build results
+     * @param id
+     *         if of the coverage results
+     *
+     * @return the file
+     */
+    File createManifestInBuildFolder(final File buildResults, final String id) {
+        File sourceFolder = new File(buildResults, COVERAGE_SOURCES_DIRECTORY);
+        File elementFolder = new File(sourceFolder, id);
+
+        return new File(elementFolder, SourceCodeManifest.FILE_NAME);
+    }
+
+    /**
+     * Returns the index of the source files that have been stored for a build. Note that the file might not exist.
+     *
+     * @param buildResults
+     *         Jenkins directory for build results
+     * @param id
+     *         if of the coverage results
+     *
+     * @return the file
+     */
+    File createIndexInBuildFolder(final File buildResults, final String id) {
+        File sourceFolder = new File(buildResults, COVERAGE_SOURCES_DIRECTORY);
+        File elementFolder = new File(sourceFolder, id);
+
+        return new File(elementFolder, COVERAGE_SOURCES_INDEX);
+    }
+
     /**
      * Returns a file to the sources in release 2.1.0 and newer. Note that the file might not exist.
      *
@@ -320,9 +875,10 @@ public class SourceCodeFacade {
     }
 
     /**
-     * Paints source code files on the agent using the recorded coverage information. All files are stored as zipped
-     * HTML files that contain the painted source code. In the last step all zipped source files are aggregated into a
-     * single archive to simplify copying to the controller.
+     * Collects the source code files of the recorded coverage information on the agent. The plain text of all files is
+     * written (using UTF-8) as individual entries into a single archive that will be copied to the controller and that
+     * provides random access to the source files. The source code will be painted with the line coverage on the
+     * controller when a file is shown in the UI.
      */
     static class AgentCoveragePainter extends MasterToSlaveFileCallable<FilteredLog> {
         private static final long serialVersionUID = 3966282357309568323L;
@@ -337,8 +893,6 @@ public class SourceCodeFacade {
         private final Set<String> requestedSourceDirectories;
         private final String sourceCodeEncoding;
 
-        private final String directory;
-
         /**
          * Creates a new instance of {@link AgentCoveragePainter}.
          *
@@ -350,12 +904,10 @@ public class SourceCodeFacade {
          *         the requested relative and absolute source directories (in the step configuration)
          * @param sourceCodeEncoding
          *         the encoding of the source code files
-         * @param directory
-         *         the subdirectory where the source files will be stored in
          */
         AgentCoveragePainter(final Set<Entry<CoverageNode, CoveragePaint>> paintedFiles,
                 final Set<String> permittedSourceDirectories, final Set<String> requestedSourceDirectories,
-                final String sourceCodeEncoding, final String directory) {
+                final String sourceCodeEncoding) {
             super();
 
             this.paintedFiles = paintedFiles.stream()
@@ -364,7 +916,6 @@ public class SourceCodeFacade {
             this.permittedSourceDirectories = permittedSourceDirectories;
             this.requestedSourceDirectories = requestedSourceDirectories;
             this.sourceCodeEncoding = sourceCodeEncoding;
-            this.directory = directory;
         }
 
         @Override
@@ -383,15 +934,11 @@ public class SourceCodeFacade {
             }
             FilePath workspace = new FilePath(workspaceFile);
 
-            try {
-                FilePath outputFolder = workspace.child(directory);
-                outputFolder.mkdirs();
-                Path temporaryFolder = Files.createTempDirectory(directory);
-
+            File zipFile = new File(workspaceFile, COVERAGE_SOURCES_ZIP);
+            try (ZipOutputStream archive = new ZipOutputStream(Files.newOutputStream(zipFile.toPath()))) {
                 Charset charset = getCharset();
                 int count = paintedFiles.parallelStream()
-                        .mapToInt(
-                                file -> paintSource(file, workspace, temporaryFolder, sourceDirectories, charset, log))
+                        .mapToInt(file -> paintSource(file, workspace, sourceDirectories, charset, archive, log))
                         .sum();
 
                 if (count == paintedFiles.size()) {
@@ -401,20 +948,11 @@ public class SourceCodeFacade {
                     log.logInfo("-> finished painting (%d files have been painted, %d files failed)",
                             count, paintedFiles.size() - count);
                 }
-
-                FilePath zipFile = workspace.child(COVERAGE_SOURCES_ZIP);
-                outputFolder.zip(zipFile);
-                log.logInfo("-> zipping sources from folder '%s' as '%s'", outputFolder, zipFile);
-
-                deleteFolder(temporaryFolder.toFile(), log);
+                log.logInfo("-> zipping sources as '%s'", zipFile);
             }
             catch (IOException exception) {
                 log.logException(exception,
-                        "Cannot create temporary directory in folder '%s' for the painted source files", workspace);
-            }
-            catch (InterruptedException exception) {
-                log.logException(exception,
-                        "Processing has been interrupted: skipping zipping of source files", workspace);
+                        "Cannot create archive '%s' for the painted source files", zipFile);
             }
 
             return log;
@@ -430,83 +968,44 @@ public class SourceCodeFacade {
                     permittedSourceDirectories, requestedSourceDirectories, log);
         }
 
-        private int paintSource(final PaintedNode fileNode, final FilePath workspace, final Path temporaryFolder,
-                final Set<String> sourceSearchDirectories, final Charset sourceEncoding, final FilteredLog log) {
+        private int paintSource(final PaintedNode fileNode, final FilePath workspace,
+                final Set<String> sourceSearchDirectories, final Charset sourceEncoding,
+                final ZipOutputStream archive, final FilteredLog log) {
             String relativePathIdentifier = fileNode.getNode().getPath();
-            FilePath paintedFilesDirectory = workspace.child(directory);
             return findSourceFile(workspace, relativePathIdentifier, sourceSearchDirectories, log)
                     .map(resolvedPath -> paint(fileNode.getPaint(), relativePathIdentifier, resolvedPath,
-                            paintedFilesDirectory, temporaryFolder, sourceEncoding, log))
+                            sourceEncoding, archive, log))
                     .orElse(0);
         }
 
         private int paint(final CoveragePaint paint, final String relativePathIdentifier, final FilePath resolvedPath,
-                final FilePath paintedFilesDirectory, final Path temporaryFolder,
-                final Charset charset, final FilteredLog log) {
+                final Charset charset, final ZipOutputStream archive, final FilteredLog log) {
             String sanitizedFileName = sanitizeFilename(relativePathIdentifier);
-            FilePath zipOutputPath = paintedFilesDirectory.child(sanitizedFileName + ZIP_FILE_EXTENSION);
             try {
-                Path paintedFilesFolder = Files.createTempDirectory(temporaryFolder, directory);
-                Path fullSourcePath = paintedFilesFolder.resolve(sanitizedFileName);
-                try (BufferedWriter output = Files.newBufferedWriter(fullSourcePath)) {
+                ByteArrayOutputStream paintedFile = new ByteArrayOutputStream();
+                try (BufferedWriter output = new BufferedWriter(
+                        new OutputStreamWriter(paintedFile, StandardCharsets.UTF_8))) {
                     List<String> lines = Files.readAllLines(Paths.get(resolvedPath.getRemote()), charset);
-                    for (int line = 0; line < lines.size(); line++) {
-                        String content = lines.get(line);
-                        paintLine(line + 1, content, paint, output);
+                    for (String content : lines) {
+                        output.write(content);
+                        output.write('\n');
                     }
                     paint.setTotalLines(lines.size());
                 }
-                new FilePath(fullSourcePath.toFile()).zip(zipOutputPath);
-                FileUtils.deleteDirectory(paintedFilesFolder.toFile());
+                synchronized (archive) {
+                    archive.putNextEntry(new ZipEntry(sanitizedFileName));
+                    paintedFile.writeTo(archive);
+                    archive.closeEntry();
+                }
                 return 1;
             }
-            catch (IOException | InterruptedException exception) {
+            catch (IOException exception) {
                 log.logException(exception, "Can't write coverage paint of '%s' to zipped source file '%s'",
-                        relativePathIdentifier, zipOutputPath);
+                        relativePathIdentifier, sanitizedFileName);
                 return 0;
             }
         }
 
-        private void paintLine(final int line, final String content, final CoveragePaint paint,
-                final BufferedWriter output) throws IOException {
-            if (paint.isPainted(line)) {
-                final int hits = paint.getHits(line);
-                final int branchCoverage = paint.getBranchCoverage(line);
-                final int branchTotal = paint.getBranchTotal(line);
-                final int coveragePercent = (hits == 0) ? 0 : (int) (branchCoverage * 100.0 / branchTotal);
-                if (hits > 0) {
-                    if (branchTotal == branchCoverage) {
-                        output.write("<tr class=\"coverFull\">\n");
-                    }
-                    else {
-                        output.write("<tr class=\"coverPart\" title=\"Line " + line + ": Conditional coverage "
-                                + coveragePercent + "% ("
-                                + branchCoverage + "/" + branchTotal + ")\">\n");
-                    }
-                }
-                else {
-                    output.write("<tr class=\"coverNone\">\n");
-                }
-                output.write("<td class=\"line\"><a name='" + line + "'>" + line + "</a></td>\n");
-                output.write("<td class=\"hits\">" + hits + "</td>\n");
-            }
-            else {
-                output.write("<tr class=\"noCover\">\n");
-                output.write("<td class=\"line\"><a name='" + line + "'>" + line + "</a></td>\n");
-                output.write("<td class=\"hits\"></td>\n");
-            }
-            output.write("<td class=\"code\">"
-                    + content.replace("&", "&amp;")
-                    .replace("<", "&lt;")
-                    .replace(">", "&gt;")
-                    .replace("\n", "")
-                    .replace("\r", "")
-                    .replace(" ",
-                            "&nbsp;")
-                    .replace("\t", "&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;") + "</td>\n");
-            output.write("</tr>\n");
-        }
-
         private Optional<FilePath> findSourceFile(final FilePath workspace, final String fileName,
                 final Set<String> sourceDirectories, final FilteredLog log) {
             try {
@@ -546,24 +1045,6 @@ public class SourceCodeFacade {
             return Optional.empty();
         }
 
-        /**
-         * Deletes a folder.
-         *
-         * @param folder The directory to be deleted
-         * @param log The log
-         */
-        private void deleteFolder(final File folder, final FilteredLog log) {
-            if (folder.isDirectory()) {
-                try {
-                    FileUtils.deleteDirectory(folder);
-                }
-                catch (IOException e) {
-                    log.logError("The folder '%s' could not be deleted",
-                            folder.getAbsolutePath());
-                }
-            }
-        }
-
         private static class PaintedNode implements Serializable {
             private static final long serialVersionUID = -6044649044983631852L;
 
@@ -584,4 +1065,25 @@ public class SourceCodeFacade {
             }
         }
     }
+
+    /**
+     * The plain text of a source file along with its line coverage.
+     */
+    private static class SourceFile {
+        private final List<String> lines;
+        private final LineCoverageVector coverage;
+
+        SourceFile(final List<String> lines, final LineCoverageVector coverage) {
+            this.lines = lines;
+            this.coverage = coverage;
+        }
+
+        List<String> getLines() {
+            return lines;
+        }
+
+        LineCoverageVector getCoverage() {
+            return coverage;
+        }
+    }
 }
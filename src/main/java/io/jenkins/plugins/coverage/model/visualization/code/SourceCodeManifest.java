@@ -0,0 +1,129 @@
+package io.jenkins.plugins.coverage.model.visualization.code;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The source files of a build along with their line coverage. The plain text of a source file is stored in a
+ * {@link SourceCodeStore}, either in the build folder or in the job folder, the manifest contains the hash of the
+ * stored blob. Builds of previous plugin versions stored the plain text in an archive of the build folder, these
+ * files have no hash. The manifest of a build is obtained from the {@link SourceCodeFacade}, all other
+ * operations are internal to this package.
+ */
+public class SourceCodeManifest {
+    /** The file name of the manifest in the coverage-sources folder of a build. */
+    static final String FILE_NAME = "coverage-sources-manifest.txt";
+
+    private static final String SEPARATOR = "\t";
+
+    private final Map<String, StoredSourceFile> files = new TreeMap<>();
+
+    /**
+     * Reads the manifest from the specified file.
+     *
+     * @param manifest
+     *         the file to read
+     *
+     * @return the manifest
+     * @throws IOException
+     *         if the file could not be read
+     */
+    static SourceCodeManifest read(final Path manifest) throws IOException {
+        SourceCodeManifest sourceCodeManifest = new SourceCodeManifest();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            String[] values = StringUtils.splitPreserveAllTokens(line, SEPARATOR);
+            if (values.length == 3) {
+                sourceCodeManifest.add(values[0], values[1], LineCoverageVector.decode(values[2]));
+            }
+        }
+        return sourceCodeManifest;
+    }
+
+    /**
+     * Adds a source file to this manifest.
+     *
+     * @param fileName
+     *         the sanitized name of the source file
+     * @param hash
+     *         the hash of the blob in the store, or an empty string if the file is stored in the archive of the build
+     * @param coverage
+     *         the line coverage of the file
+     */
+    void add(final String fileName, final String hash, final LineCoverageVector coverage) {
+        files.put(fileName, new StoredSourceFile(hash, coverage));
+    }
+
+    Optional<StoredSourceFile> get(final String fileName) {
+        return Optional.ofNullable(files.get(fileName));
+    }
+
+    Set<String> getFileNames() {
+        return files.keySet();
+    }
+
+    /**
+     * Returns the hashes of all referenced blobs in the {@link SourceCodeStore}. If several files share the
+     * same content, then the hash is contained multiple times.
+     *
+     * @return the hashes
+     */
+    Collection<String> getHashes() {
+        List<String> hashes = new ArrayList<>(files.size());
+        files.values().stream()
+                .filter(StoredSourceFile::isInStore)
+                .forEach(file -> hashes.add(file.getHash()));
+        return hashes;
+    }
+
+    /**
+     * Writes this manifest to the specified file.
+     *
+     * @param manifest
+     *         the file to write
+     *
+     * @throws IOException
+     *         if the file could not be written
+     */
+    void write(final Path manifest) throws IOException {
+        List<String> lines = new ArrayList<>(files.size());
+        files.forEach((fileName, file) -> lines.add(
+                String.join(SEPARATOR, fileName, file.getHash(), file.getCoverage().encode())));
+        Files.write(manifest, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A stored source file: the hash of its content and its line coverage.
+     */
+    static class StoredSourceFile {
+        private final String hash;
+        private final LineCoverageVector coverage;
+
+        StoredSourceFile(final String hash, final LineCoverageVector coverage) {
+            this.hash = hash;
+            this.coverage = coverage;
+        }
+
+        String getHash() {
+            return hash;
+        }
+
+        boolean isInStore() {
+            return StringUtils.isNotEmpty(hash);
+        }
+
+        LineCoverageVector getCoverage() {
+            return coverage;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import hudson.FilePath;
 import hudson.model.Run;
 
 import io.jenkins.plugins.coverage.model.CoverageNode;
+import io.jenkins.plugins.coverage.model.CoverageViewModelCache;
 import io.jenkins.plugins.coverage.model.visualization.code.SourceCodeFacade.AgentCoveragePainter;
 import io.jenkins.plugins.coverage.targets.CoveragePaint;
 import io.jenkins.plugins.prism.PermittedSourceCodeDirectory;
@@ -22,6 +23,8 @@ import io.jenkins.plugins.prism.SourceCodeRetention;
  * Processes the source code painting for highlighting code coverage.
  */
 public class SourceCodePainter {
+    /** ID of the coverage results, used as subdirectory of the stored source code files. */
+    private static final String COVERAGE_ID = "coverage";
 
     private final Run<?, ?> build;
     private final FilePath workspace;
@@ -62,14 +65,69 @@ public class SourceCodePainter {
             throws InterruptedException {
         SourceCodeFacade sourceCodeFacade = new SourceCodeFacade();
         if (sourceCodeRetention != SourceCodeRetention.NEVER) {
-            log.logInfo("Painting %d source files on agent", paintedFiles.size());
+            log.logInfo("Collecting %d source files on agent", paintedFiles.size());
 
             paintFilesOnAgent(paintedFiles, sourceDirectories, sourceCodeEncoding, log);
-            log.logInfo("Copying painted sources from agent to build folder");
+            if (sourceCodeRetention == SourceCodeRetention.EVERY_BUILD) {
+                log.logInfo("Storing sources from agent in job store");
 
-            sourceCodeFacade.copySourcesToBuildFolder(build, workspace, log);
+                sourceCodeFacade.storeSourcesInJobStore(build, workspace, COVERAGE_ID, paintedFiles, log);
+            }
+            else {
+                log.logInfo("Copying sources from agent to build folder");
+
+                sourceCodeFacade.copySourcesToBuildFolder(build, workspace, COVERAGE_ID, paintedFiles, log);
+            }
+            writeSourceIndex(sourceCodeFacade, log);
+        }
+        if (sourceCodeRetention == SourceCodeRetention.LAST_BUILD) {
+            releaseSourcesOfPreviousBuild(sourceCodeFacade, log);
         }
         sourceCodeRetention.cleanup(build, sourceCodeFacade.getCoverageSourcesDirectory(), log);
+        if (sourceCodeRetention != SourceCodeRetention.EVERY_BUILD) {
+            invalidateViewModelOfPreviousBuild();
+        }
+    }
+
+    /**
+     * Writes the index of the stored source files, so that the views of the build can check the availability of a
+     * source file without accessing the stored files.
+     */
+    private void writeSourceIndex(final SourceCodeFacade sourceCodeFacade, final FilteredLog log) {
+        try {
+            sourceCodeFacade.writeSourceIndex(build.getRootDir(), COVERAGE_ID);
+        }
+        catch (IOException exception) {
+            log.logException(exception, "Can't write index of stored source files");
+        }
+    }
+
+    /**
+     * Removes the cached view model of the previous build: the view model caches the names of the available source
+     * files that have been removed by the retention strategy.
+     */
+    private void invalidateViewModelOfPreviousBuild() {
+        Run<?, ?> previousBuild = build.getPreviousCompletedBuild();
+        if (previousBuild != null) {
+            CoverageViewModelCache.getInstance().invalidate(previousBuild.getExternalizableId());
+        }
+    }
+
+    /**
+     * Releases the source files of the previous build in the job store: the retention strategy will remove these
+     * files from the previous build afterwards.
+     */
+    private void releaseSourcesOfPreviousBuild(final SourceCodeFacade sourceCodeFacade, final FilteredLog log) {
+        Run<?, ?> previousBuild = build.getPreviousCompletedBuild();
+        if (previousBuild != null) {
+            try {
+                sourceCodeFacade.releaseSourcesInJobStore(previousBuild.getRootDir(),
+                        previousBuild.getParent().getRootDir());
+            }
+            catch (IOException exception) {
+                log.logException(exception, "Can't release sources of build '%s' in job store", previousBuild);
+            }
+        }
     }
 
     private void paintFilesOnAgent(final Set<Entry<CoverageNode, CoveragePaint>> paintedFiles,
@@ -84,7 +142,7 @@ public class SourceCodePainter {
 
             FilteredLog agentLog = workspace.act(
                     new AgentCoveragePainter(paintedFiles, permittedSourceDirectories, requestedSourceDirectories,
-                            sourceCodeEncoding, "coverage"));
+                            sourceCodeEncoding));
             log.merge(agentLog);
         }
         catch (IOException exception) {
@@ -0,0 +1,218 @@
+package io.jenkins.plugins.coverage.model.visualization.code;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import io.jenkins.plugins.coverage.model.FileCoverageNode;
+
+/**
+ * Renders the source code of a file as HTML table rows that highlight the line coverage of each line. Besides the
+ * whole file, the renderer also provides views that show only the lines with code changes or indirect coverage
+ * changes.
+ */
+class SourceCodeRenderer {
+    private static final int SURROUNDING_LINES = 3;
+
+    /**
+     * Renders all lines of the specified source code.
+     *
+     * @param lines
+     *         the lines of the source code file
+     * @param coverage
+     *         the line coverage of the file
+     *
+     * @return the rendered HTML
+     */
+    String render(final List<String> lines, final LineCoverageVector coverage) {
+        return render(lines, 1, coverage);
+    }
+
+    /**
+     * Renders a window of lines of a source code file.
+     *
+     * @param lines
+     *         the lines of the window
+     * @param firstLine
+     *         the line number of the first line of the window
+     * @param coverage
+     *         the line coverage of the file
+     *
+     * @return the rendered HTML
+     */
+    String render(final List<String> lines, final int firstLine, final LineCoverageVector coverage) {
+        StringBuilder output = new StringBuilder(lines.size() * 128);
+        for (int i = 0; i < lines.size(); i++) {
+            appendLine(firstLine + i, lines.get(i), coverage, output);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Renders the lines of the specified source code that contain code changes. Each block of changed lines is
+     * surrounded by some unchanged lines, all other lines are collapsed into a skip line.
+     *
+     * @param lines
+     *         the lines of the source code file
+     * @param coverage
+     *         the line coverage of the file
+     * @param fileNode
+     *         the {@link FileCoverageNode node} which represents the coverage of the file
+     *
+     * @return the rendered HTML
+     */
+    String renderChangeCoverage(final List<String> lines, final LineCoverageVector coverage,
+            final FileCoverageNode fileNode) {
+        Set<Integer> changedLines = fileNode.getChangedCodeLines().stream()
+                .filter(line -> fileNode.getCoveragePerLine().containsKey(line))
+                .collect(Collectors.toSet());
+        StringBuilder output = new StringBuilder();
+        calculateLineMapping(changedLines, lines.size()).forEach((line, isSkipLine) -> {
+            if (isSkipLine) {
+                appendSkipLine(output);
+            }
+            else if (changedLines.contains(line)) {
+                appendLine(line, lines.get(line - 1), coverage, output);
+            }
+            else {
+                appendLine(line, lines.get(line - 1), "noCover", "", output);
+            }
+        });
+        return output.toString();
+    }
+
+    /**
+     * Renders the lines of the specified source code that contain indirect coverage changes. Each block of these lines
+     * is surrounded by some unchanged lines, all other lines are collapsed into a skip line.
+     *
+     * @param lines
+     *         the lines of the source code file
+     * @param fileNode
+     *         the {@link FileCoverageNode node} which represents the coverage of the file
+     *
+     * @return the rendered HTML
+     */
+    String renderIndirectCoverageChanges(final List<String> lines, final FileCoverageNode fileNode) {
+        Map<Integer, Integer> indirectCoverageChanges = fileNode.getIndirectCoverageChanges();
+        StringBuilder output = new StringBuilder();
+        calculateLineMapping(indirectCoverageChanges.keySet(), lines.size()).forEach((line, isSkipLine) -> {
+            if (isSkipLine) {
+                appendSkipLine(output);
+            }
+            else if (indirectCoverageChanges.containsKey(line)) {
+                int hits = indirectCoverageChanges.get(line);
+                appendLine(line, lines.get(line - 1), hits < 0 ? "coverNone" : "coverFull",
+                        String.valueOf(hits), output);
+            }
+            else {
+                appendLine(line, lines.get(line - 1), "noCover", "", output);
+            }
+        });
+        return output.toString();
+    }
+
+    /**
+     * Calculates a mapping of lines which should be shown. The mapping contains the passed line intervals surrounded by
+     * +-3 lines each.
+     *
+     * @param lines
+     *         The lines which build the line intervals to be shown
+     * @param maxLine
+     *         The maximum line number
+     *
+     * @return the line mapping as a map with the line number as key and {@code true} if the line should be marked as a
+     *         filling line, {@code false} if the line shows code
+     */
+    private NavigableMap<Integer, Boolean> calculateLineMapping(final Set<Integer> lines, final int maxLine) {
+        SortedSet<Integer> linesWithSurroundings = new TreeSet<>();
+        lines.forEach(line -> {
+            for (int i = line - SURROUNDING_LINES; i <= line + SURROUNDING_LINES; i++) {
+                if (i >= 1 && i <= maxLine) {
+                    linesWithSurroundings.add(i);
+                }
+            }
+        });
+        NavigableMap<Integer, Boolean> linesMapping = new TreeMap<>();
+        if (linesWithSurroundings.isEmpty()) {
+            return linesMapping;
+        }
+        Integer previous = null;
+        for (int line : linesWithSurroundings) {
+            if (previous != null && previous + 1 != line) {
+                linesMapping.put(previous + 1, true);
+            }
+            linesMapping.put(line, false);
+            previous = line;
+        }
+        if (linesWithSurroundings.first() > 1) {
+            linesMapping.put(1, true);
+        }
+        if (linesWithSurroundings.last() < maxLine) {
+            linesMapping.put(linesWithSurroundings.last() + 1, true);
+        }
+        return linesMapping;
+    }
+
+    private void appendLine(final int line, final String content, final LineCoverageVector coverage,
+            final StringBuilder output) {
+        if (coverage.isPainted(line)) {
+            final int hits = coverage.getHits(line);
+            final int branchCoverage = coverage.getBranchCoverage(line);
+            final int branchTotal = coverage.getBranchTotal(line);
+            final int coveragePercent = (hits == 0) ? 0 : (int) (branchCoverage * 100.0 / branchTotal);
+            if (hits > 0) {
+                if (branchTotal == branchCoverage) {
+                    output.append("<tr class=\"coverFull\">\n");
+                }
+                else {
+                    output.append("<tr class=\"coverPart\" title=\"Line ").append(line)
+                            .append(": Conditional coverage ").append(coveragePercent).append("% (")
+                            .append(branchCoverage).append('/').append(branchTotal).append(")\">\n");
+                }
+            }
+            else {
+                output.append("<tr class=\"coverNone\">\n");
+            }
+            appendCells(line, String.valueOf(hits), content, output);
+        }
+        else {
+            appendLine(line, content, "noCover", "", output);
+        }
+    }
+
+    private void appendLine(final int line, final String content, final String cssClass, final String hits,
+            final StringBuilder output) {
+        output.append("<tr class=\"").append(cssClass).append("\">\n");
+        appendCells(line, hits, content, output);
+    }
+
+    private void appendCells(final int line, final String hits, final String content, final StringBuilder output) {
+        output.append("<td class=\"line\"><a name='").append(line).append("'>").append(line).append("</a></td>\n");
+        output.append("<td class=\"hits\">").append(hits).append("</td>\n");
+        output.append("<td class=\"code\">").append(escape(content)).append("</td>\n");
+        output.append("</tr>\n");
+    }
+
+    private void appendSkipLine(final StringBuilder output) {
+        output.append("<tr class=\"coverSkip\">\n");
+        output.append("<td class=\"line\">..</td>\n");
+        output.append("<td class=\"hits\"></td>\n");
+        output.append("<td class=\"code\"></td>\n");
+        output.append("</tr>\n");
+    }
+
+    private String escape(final String content) {
+        return content.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\n", "")
+                .replace("\r", "")
+                .replace(" ", "&nbsp;")
+                .replace("\t", "&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;");
+    }
+}
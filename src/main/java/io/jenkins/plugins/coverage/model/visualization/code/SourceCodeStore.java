@@ -0,0 +1,353 @@
+package io.jenkins.plugins.coverage.model.visualization.code;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import hudson.Util;
+
+/**
+ * Stores the plain text of source files in a job-level directory. Each source file is stored only once, addressed by
+ * the SHA-256 hash of its content. Since most source files do not change between builds, the builds of a job share
+ * these blobs: each build references the blobs it uses in a {@link SourceCodeManifest}. If the sources are kept in the
+ * build folder only, then each build uses a store of its own in the coverage-sources folder of the build. The store counts these
+ * references and deletes a blob as soon as no build references it anymore.
+ *
+ * <p>
+ * A blob is compressed in chunks of {@link #LINES_PER_CHUNK} lines, each chunk is a separate GZIP member. The offsets
+ * of the chunks are stored in an index next to the blob. So a range of lines can be read by decompressing only the
+ * chunks that contain these lines, see {@link #readLines(String, int, int)}. Since a GZIP stream may consist of
+ * several members, the whole blob can still be read as a single stream.
+ * </p>
+ */
+class SourceCodeStore {
+    /** Directory in the job folder (or in the coverage-sources folder of a build) that contains the source files. */
+    static final String STORE_DIRECTORY = "coverage-sources-store";
+    private static final String REFERENCES_FILE = "references.txt";
+    private static final String BLOB_EXTENSION = ".gz";
+    private static final String INDEX_EXTENSION = ".idx";
+    /** The number of lines that are compressed together in a chunk of a blob. */
+    static final int LINES_PER_CHUNK = 1000;
+    /** The locks of the stores, since each build may have a store of its own these locks must not be kept forever. */
+    private static final Interner<String> LOCKS = Interners.newWeakInterner();
+
+    private final File storeDirectory;
+
+    /**
+     * Creates a new store in the specified folder.
+     *
+     * @param rootDir
+     *         the root directory of the job, or the coverage-sources folder of a build
+     */
+    SourceCodeStore(final File rootDir) {
+        storeDirectory = new File(rootDir, STORE_DIRECTORY);
+    }
+
+    /**
+     * Stores all source files of the specified archive in this store. If the same content has been stored already,
+     * then only the reference count of the existing blob will be incremented.
+     *
+     * @param archive
+     *         the archive with the plain source files
+     *
+     * @return a mapping of the names of the archive entries to the hashes that reference the stored blobs
+     * @throws IOException
+     *         if the archive could not be read or a blob could not be written
+     */
+    Map<String, String> storeAll(final ZipFile archive) throws IOException {
+        Map<String, String> hashes = new TreeMap<>();
+        synchronized (getLock()) {
+            Map<String, Integer> references = readReferences();
+            Enumeration<? extends ZipEntry> entries = archive.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                byte[] content;
+                try (InputStream input = archive.getInputStream(entry)) {
+                    content = IOUtils.toByteArray(input);
+                }
+                String hash = computeHash(content);
+                if (!Files.exists(getBlob(hash))) {
+                    writeBlob(hash, content);
+                }
+                references.merge(hash, 1, Integer::sum);
+                hashes.put(entry.getName(), hash);
+            }
+            writeReferences(references);
+        }
+        return hashes;
+    }
+
+    /**
+     * Reads the source code that is referenced by the specified hash.
+     *
+     * @param hash
+     *         the hash of the content
+     *
+     * @return the source code
+     * @throws IOException
+     *         if the blob does not exist or could not be read
+     */
+    String read(final String hash) throws IOException {
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(getBlob(hash)))) {
+            return IOUtils.toString(input, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads a range of lines of the source code that is referenced by the specified hash. Only the chunks of the blob
+     * that contain the lines are decompressed. Blobs that have been stored without an index are read completely.
+     *
+     * @param hash
+     *         the hash of the content
+     * @param firstLine
+     *         the first line to read (1-based)
+     * @param lastLine
+     *         the last line to read (inclusive)
+     *
+     * @return the lines of the range, the range is truncated at the end of the source code
+     * @throws IOException
+     *         if the blob does not exist or could not be read
+     */
+    List<String> readLines(final String hash, final int firstLine, final int lastLine) throws IOException {
+        long[] index = readIndex(hash);
+        if (index.length == 0) {
+            List<String> lines = splitLines(read(hash));
+            int from = Math.max(firstLine, 1) - 1;
+            int to = Math.min(lastLine, lines.size());
+            return from >= to ? new ArrayList<>() : new ArrayList<>(lines.subList(from, to));
+        }
+
+        int lineCount = (int) index[0];
+        int from = Math.max(firstLine, 1);
+        int to = Math.min(lastLine, lineCount);
+        if (from > to) {
+            return new ArrayList<>();
+        }
+        int firstChunk = (from - 1) / LINES_PER_CHUNK;
+        int lastChunk = (to - 1) / LINES_PER_CHUNK;
+        Path blob = getBlob(hash);
+        long start = index[firstChunk + 1];
+        long end = lastChunk + 2 < index.length ? index[lastChunk + 2] : Files.size(blob);
+
+        ByteBuffer compressed = ByteBuffer.allocate(Math.toIntExact(end - start));
+        try (FileChannel channel = FileChannel.open(blob, StandardOpenOption.READ)) {
+            channel.position(start);
+            IOUtils.readFully(channel, compressed);
+        }
+        List<String> lines;
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed.array()))) {
+            lines = splitLines(IOUtils.toString(input, StandardCharsets.UTF_8));
+        }
+        int offset = firstChunk * LINES_PER_CHUNK;
+        return new ArrayList<>(lines.subList(from - 1 - offset, Math.min(to - offset, lines.size())));
+    }
+
+    /**
+     * Returns the number of lines of the source code that is referenced by the specified hash.
+     *
+     * @param hash
+     *         the hash of the content
+     *
+     * @return the number of lines
+     * @throws IOException
+     *         if the blob does not exist or could not be read
+     */
+    int getLineCount(final String hash) throws IOException {
+        long[] index = readIndex(hash);
+        if (index.length == 0) {
+            return splitLines(read(hash)).size();
+        }
+        return (int) index[0];
+    }
+
+    /**
+     * Splits the specified source code into lines. A line break at the end of the source code does not start another
+     * line.
+     *
+     * @param content
+     *         the source code
+     *
+     * @return the lines
+     */
+    static List<String> splitLines(final String content) {
+        List<String> lines = new ArrayList<>(Arrays.asList(StringUtils.splitPreserveAllTokens(content, '\n')));
+        if (!lines.isEmpty() && lines.get(lines.size() - 1).isEmpty()) {
+            lines.remove(lines.size() - 1);
+        }
+        return lines;
+    }
+
+    /**
+     * Releases one reference of each of the specified blobs. Blobs that are not referenced anymore will be deleted.
+     *
+     * @param hashes
+     *         the hashes of the blobs to release
+     *
+     * @throws IOException
+     *         if the references could not be updated
+     */
+    void release(final Collection<String> hashes) throws IOException {
+        synchronized (getLock()) {
+            Map<String, Integer> references = readReferences();
+            for (String hash : hashes) {
+                Integer count = references.get(hash);
+                if (count == null || count <= 1) {
+                    references.remove(hash);
+                    Files.deleteIfExists(getBlob(hash));
+                    Files.deleteIfExists(getIndex(hash));
+                }
+                else {
+                    references.put(hash, count - 1);
+                }
+            }
+            writeReferences(references);
+        }
+    }
+
+    /**
+     * Returns the number of builds that reference the specified blob.
+     *
+     * @param hash
+     *         the hash of the content
+     *
+     * @return the number of references
+     * @throws IOException
+     *         if the references could not be read
+     */
+    int getReferenceCount(final String hash) throws IOException {
+        synchronized (getLock()) {
+            return readReferences().getOrDefault(hash, 0);
+        }
+    }
+
+    private Object getLock() {
+        return LOCKS.intern(storeDirectory.getAbsolutePath());
+    }
+
+    private Path getBlob(final String hash) {
+        return storeDirectory.toPath().resolve(hash + BLOB_EXTENSION);
+    }
+
+    private Path getIndex(final String hash) {
+        return storeDirectory.toPath().resolve(hash + INDEX_EXTENSION);
+    }
+
+    private void writeBlob(final String hash, final byte[] content) throws IOException {
+        Files.createDirectories(storeDirectory.toPath());
+        Path temporary = Files.createTempFile(storeDirectory.toPath(), "blob", ".tmp");
+        List<String> index = new ArrayList<>();
+        int lineCount = 0;
+        try (OutputStream output = Files.newOutputStream(temporary)) {
+            long offset = 0;
+            int start = 0;
+            do {
+                int end = start;
+                int lines = 0;
+                while (end < content.length && lines < LINES_PER_CHUNK) {
+                    if (content[end++] == '\n') {
+                        lines++;
+                    }
+                }
+                if (end > start && content[end - 1] != '\n') {
+                    lines++; // last line without line break
+                }
+                lineCount += lines;
+
+                ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+                try (OutputStream gzip = new GZIPOutputStream(chunk)) {
+                    gzip.write(content, start, end - start);
+                }
+                index.add(String.valueOf(offset));
+                chunk.writeTo(output);
+                offset += chunk.size();
+                start = end;
+            }
+            while (start < content.length);
+        }
+        index.add(0, String.valueOf(lineCount));
+
+        // the blob is moved first: a blob without an index is read completely, but an index without a blob fails
+        Path temporaryIndex = Files.createTempFile(storeDirectory.toPath(), "index", ".tmp");
+        Files.write(temporaryIndex, index, StandardCharsets.UTF_8);
+        Files.move(temporary, getBlob(hash), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(temporaryIndex, getIndex(hash), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reads the index of a blob: the number of lines followed by the offsets of the chunks.
+     *
+     * @return the index, or an empty array if the blob has been stored without an index
+     */
+    private long[] readIndex(final String hash) throws IOException {
+        Path index = getIndex(hash);
+        if (!Files.exists(index)) {
+            return new long[0];
+        }
+        return Files.readAllLines(index, StandardCharsets.UTF_8).stream()
+                .filter(StringUtils::isNotBlank)
+                .mapToLong(line -> Long.parseLong(line.trim()))
+                .toArray();
+    }
+
+    private Map<String, Integer> readReferences() throws IOException {
+        Map<String, Integer> references = new TreeMap<>();
+        Path file = storeDirectory.toPath().resolve(REFERENCES_FILE);
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String hash = StringUtils.substringBefore(line, " ");
+                String count = StringUtils.substringAfter(line, " ");
+                if (StringUtils.isNoneBlank(hash, count)) {
+                    references.put(hash, Integer.parseInt(count.trim()));
+                }
+            }
+        }
+        return references;
+    }
+
+    private void writeReferences(final Map<String, Integer> references) throws IOException {
+        Files.createDirectories(storeDirectory.toPath());
+        List<String> lines = new ArrayList<>(references.size());
+        references.forEach((hash, count) -> lines.add(hash + " " + count));
+        Path temporary = Files.createTempFile(storeDirectory.toPath(), "references", ".tmp");
+        Files.write(temporary, lines, StandardCharsets.UTF_8);
+        Files.move(temporary, storeDirectory.toPath().resolve(REFERENCES_FILE), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String computeHash(final byte[] content) {
+        try {
+            return Util.toHexString(MessageDigest.getInstance("SHA-256").digest(content));
+        }
+        catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not supported", exception);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.jenkins.plugins.coverage.model.visualization.code;
+
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+
+/**
+ * Releases the source files that are referenced by a build in the job-level {@link SourceCodeStore} before the build
+ * is deleted.
+ */
+@Extension
+public class SourceCodeStoreListener extends RunListener<Run<?, ?>> {
+    private static final Logger LOGGER = Logger.getLogger(SourceCodeStoreListener.class.getName());
+
+    @Override
+    public void onDeleted(@NonNull final Run<?, ?> run) {
+        try {
+            new SourceCodeFacade().releaseSourcesInJobStore(run.getRootDir(), run.getParent().getRootDir());
+        }
+        catch (IOException exception) {
+            LOGGER.log(Level.WARNING, "Failed to release stored source files of " + run, exception);
+        }
+    }
+}
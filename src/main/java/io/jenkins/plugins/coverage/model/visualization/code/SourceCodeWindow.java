@@ -0,0 +1,48 @@
+package io.jenkins.plugins.coverage.model.visualization.code;
+
+/**
+ * A window of consecutive lines of a source file that have been rendered as HTML table rows.
+ */
+public class SourceCodeWindow {
+    private final String html;
+    private final int firstLine;
+    private final int lastLine;
+    private final int lineCount;
+
+    /**
+     * Creates a new window.
+     *
+     * @param html
+     *         the rendered lines
+     * @param firstLine
+     *         the number of the first line of the window
+     * @param lastLine
+     *         the number of the last line of the window
+     * @param lineCount
+     *         the number of lines of the whole file, or 0 if the window contains the whole file but the number of
+     *         lines is unknown (source files that have been painted by previous versions of the plugin)
+     */
+    public SourceCodeWindow(final String html, final int firstLine, final int lastLine, final int lineCount) {
+        this.html = html;
+        this.firstLine = firstLine;
+        this.lastLine = lastLine;
+        this.lineCount = lineCount;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public int getFirstLine() {
+        return firstLine;
+    }
+
+    public int getLastLine() {
+        return lastLine;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+}
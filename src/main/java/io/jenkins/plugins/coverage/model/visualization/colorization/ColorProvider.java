@@ -1,6 +1,7 @@
 package io.jenkins.plugins.coverage.model.visualization.colorization;
 
 import java.awt.*;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -22,10 +23,20 @@ public class ColorProvider {
 
     static final String BLEND_COLOR_ERROR_MESSAGE = "Color weights have to be greater or equal to zero";
 
+    /** The coverage percentages are colorized with a precision of two decimals. */
+    static final int COVERAGE_LEVEL_SCALE = 100;
+    /** The number of entries of the coverage level lookup table: all percentages from 0.00 to 100.00. */
+    static final int COVERAGE_LEVEL_STEPS = 100 * COVERAGE_LEVEL_SCALE + 1;
+
     /**
      * The available {@link DisplayColors display colors} are mapped by the {@link ColorId id} of the fill color.
      */
     private final Map<ColorId, DisplayColors> availableColors;
+    /**
+     * The blended {@link DisplayColors display colors} of all coverage percentages, see {@link CoverageLevel}. The
+     * lookup table is created when the first percentage is colorized.
+     */
+    private volatile DisplayColors[] coverageLevelColors;
 
     /**
      * Creates a color provider which uses the passed colors. Each color entry contains a background and a fitting text
@@ -35,7 +46,7 @@ public class ColorProvider {
      *         The color mapping to be used
      */
     ColorProvider(final Map<ColorId, DisplayColors> colorMapping) {
-        availableColors = new HashMap<>(colorMapping);
+        availableColors = colorMapping.isEmpty() ? new EnumMap<>(ColorId.class) : new EnumMap<>(colorMapping);
     }
 
     /**
@@ -132,6 +143,36 @@ public class ColorProvider {
         return availableColors.containsKey(colorId);
     }
 
+    /**
+     * Returns the {@link DisplayColors display colors} of a coverage percentage from the lookup table of this provider.
+     * Since the same colors are requested for the cells of large tables and for all nodes of the tree maps, the colors
+     * are blended only once for each percentage with two decimals.
+     *
+     * @param step
+     *         the coverage percentage multiplied by {@link #COVERAGE_LEVEL_SCALE}, within the range [0;10000]
+     *
+     * @return the display colors
+     */
+    DisplayColors getDisplayColorsOfCoverageLevel(final int step) {
+        DisplayColors[] colors = coverageLevelColors;
+        if (colors == null) {
+            colors = createCoverageLevelColors();
+            coverageLevelColors = colors;
+        }
+        return colors[step];
+    }
+
+    private DisplayColors[] createCoverageLevelColors() {
+        // neighboring percentages often have the same blended colors, so these entries share a single instance
+        Map<DisplayColors, DisplayColors> distinctColors = new HashMap<>();
+        DisplayColors[] colors = new DisplayColors[COVERAGE_LEVEL_STEPS];
+        for (int step = 0; step < COVERAGE_LEVEL_STEPS; step++) {
+            colors[step] = distinctColors.computeIfAbsent(
+                    CoverageLevel.getBlendedColors((double) step / COVERAGE_LEVEL_SCALE, this), key -> key);
+        }
+        return colors;
+    }
+
     /**
      * Gets the blended {@link DisplayColors display colors} in dependence of the passed weights for each colors.
      *
@@ -175,6 +216,11 @@ public class ColorProvider {
         private final Color lineColor;
         private final Color fillColor;
 
+        // the hex strings are computed on demand since most display colors are rendered many times
+        private transient String lineColorHex;
+        private transient String fillColorHex;
+        private transient AlphaHex fillColorAlphaHex;
+
         /**
          * Creates a wrapper for the colors used for displaying values.
          *
@@ -206,15 +252,30 @@ public class ColorProvider {
          * @return the hex code which contains the alpha value
          */
         public String getFillColorAsRGBAHex(final int alpha) {
-            return colorAsRGBAHex(fillColor, alpha);
+            AlphaHex alphaHex = fillColorAlphaHex;
+            if (alphaHex == null || alphaHex.alpha != alpha) {
+                alphaHex = new AlphaHex(alpha, colorAsRGBAHex(fillColor, alpha));
+                fillColorAlphaHex = alphaHex;
+            }
+            return alphaHex.hex;
         }
 
         public String getLineColorAsRGBHex() {
-            return colorAsRGBHex(lineColor);
+            String hex = lineColorHex;
+            if (hex == null) {
+                hex = colorAsRGBHex(lineColor);
+                lineColorHex = hex;
+            }
+            return hex;
         }
 
         public String getFillColorAsRGBHex() {
-            return colorAsRGBHex(fillColor);
+            String hex = fillColorHex;
+            if (hex == null) {
+                hex = colorAsRGBHex(fillColor);
+                fillColorHex = hex;
+            }
+            return hex;
         }
 
         @Override
@@ -233,5 +294,18 @@ public class ColorProvider {
         public int hashCode() {
             return Objects.hash(lineColor, fillColor);
         }
+
+        /**
+         * The RGBA hex string of the fill color for the last requested alpha value.
+         */
+        private static class AlphaHex {
+            private final int alpha;
+            private final String hex;
+
+            AlphaHex(final int alpha, final String hex) {
+                this.alpha = alpha;
+                this.hex = hex;
+            }
+        }
     }
 }
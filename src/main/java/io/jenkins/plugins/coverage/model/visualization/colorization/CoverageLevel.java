@@ -31,7 +31,8 @@ public enum CoverageLevel {
 
     /**
      * Gets the {@link DisplayColors display colors} for representing the passed coverage amount. If the value is placed
-     * between two levels, the fill colors are blended.
+     * between two levels, the fill colors are blended. The blended colors are obtained from the lookup table of the
+     * color provider, so the percentage is rounded to two decimals.
      *
      * @param coveragePercentage
      *         The coverage percentage
@@ -43,7 +44,8 @@ public enum CoverageLevel {
     public static DisplayColors getDisplayColorsOfCoverageLevel(final double coveragePercentage,
             @NonNull final ColorProvider colorProvider) {
         if (coveragePercentage >= 0) {
-            return getBlendedColors(coveragePercentage, colorProvider);
+            return colorProvider.getDisplayColorsOfCoverageLevel(
+                    (int) Math.round(Math.min(coveragePercentage, 100.0) * ColorProvider.COVERAGE_LEVEL_SCALE));
         }
         return colorProvider.getDisplayColorsOf(NA.colorizationId);
     }
@@ -58,7 +60,7 @@ public enum CoverageLevel {
      *
      * @return the blended display colors
      */
-    private static DisplayColors getBlendedColors(final double coveragePercentage,
+    static DisplayColors getBlendedColors(final double coveragePercentage,
             @NonNull final ColorProvider colorProvider) {
         for (int i = 0; i < values().length - 1; i++) {
             CoverageLevel level = values()[i];
@@ -27,7 +27,7 @@ public class ChangeCoverage extends CoverageColumnType {
     @Override
     public Optional<CoveragePercentage> getCoverage(final CoverageBuildAction action, final CoverageMetric metric) {
         if (action.hasChangeCoverage(metric)) {
-            return Optional.of(action.getChangeCoverage(metric).getCoveredPercentage());
+            return Optional.of(action.getChangeCoveragePercentage(metric));
         }
         return Optional.empty();
     }
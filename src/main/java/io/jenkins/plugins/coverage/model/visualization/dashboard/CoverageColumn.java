@@ -11,13 +11,11 @@ import org.kohsuke.stapler.verb.POST;
 import hudson.Extension;
 import hudson.Functions;
 import hudson.model.Job;
-import hudson.model.Run;
 import hudson.util.ListBoxModel;
 import hudson.views.ListViewColumn;
 import hudson.views.ListViewColumnDescriptor;
 import jenkins.model.Jenkins;
 
-import io.jenkins.plugins.coverage.model.CoverageBuildAction;
 import io.jenkins.plugins.coverage.model.CoverageMetric;
 import io.jenkins.plugins.coverage.model.CoveragePercentage;
 import io.jenkins.plugins.coverage.model.Messages;
@@ -131,11 +129,7 @@ public class CoverageColumn extends ListViewColumn {
      * @return the coverage percentage
      */
     public Optional<CoveragePercentage> getCoverageValue(final Job<?, ?> job) {
-        if (hasCoverageAction(job)) {
-            CoverageBuildAction action = job.getLastCompletedBuild().getAction(CoverageBuildAction.class);
-            return selectedCoverageColumnType.getCoverage(action, CoverageMetric.valueOf(coverageMetric));
-        }
-        return Optional.empty();
+        return getSummary(job).getCoverage(selectedCoverageColumnType, CoverageMetric.valueOf(coverageMetric), job);
     }
 
     /**
@@ -150,7 +144,7 @@ public class CoverageColumn extends ListViewColumn {
      */
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     public DisplayColors getDisplayColors(final Job<?, ?> job, final Optional<CoveragePercentage> coverage) {
-        if (hasCoverageAction(job) && coverage.isPresent()) {
+        if (getSummary(job).hasCoverage() && coverage.isPresent()) {
             return selectedCoverageColumnType.getDisplayColors(coverage.get());
         }
         return ColorProvider.DEFAULT_COLOR;
@@ -165,9 +159,9 @@ public class CoverageColumn extends ListViewColumn {
      * @return the relative URL or an empty string when there is no matching URL
      */
     public String getRelativeCoverageUrl(final Job<?, ?> job) {
-        if (hasCoverageAction(job)) {
-            CoverageBuildAction action = job.getLastCompletedBuild().getAction(CoverageBuildAction.class);
-            return action.getUrlName() + "/" + selectedCoverageColumnType.getAnchor();
+        CoverageSummary summary = getSummary(job);
+        if (summary.hasCoverage()) {
+            return summary.getUrlName() + "/" + selectedCoverageColumnType.getAnchor();
         }
         return "";
     }
@@ -194,16 +188,16 @@ public class CoverageColumn extends ListViewColumn {
     }
 
     /**
-     * Checks whether a {@link CoverageBuildAction} exists within the completed build.
+     * Returns the summary of the coverage results of the last completed build. The summary is obtained from the
+     * {@link CoverageSummaryCache}, so rendering a column does not load the build.
      *
      * @param job
      *         The processed job
      *
-     * @return {@code true} whether the action exists, else {@code false}
+     * @return the summary of the last completed build
      */
-    private boolean hasCoverageAction(final Job<?, ?> job) {
-        final Run<?, ?> lastCompletedBuild = job.getLastCompletedBuild();
-        return lastCompletedBuild != null && !lastCompletedBuild.getActions(CoverageBuildAction.class).isEmpty();
+    private CoverageSummary getSummary(final Job<?, ?> job) {
+        return CoverageSummaryCache.getInstance().getSummary(job);
     }
 
     /**
@@ -58,6 +58,19 @@ public abstract class CoverageColumnType {
      */
     public abstract Optional<CoveragePercentage> getCoverage(CoverageBuildAction action, CoverageMetric metric);
 
+    /**
+     * Returns whether the coverage of the passed metric is stored in the {@link CoverageBuildAction action} itself. Then
+     * {@link #getCoverage(CoverageBuildAction, CoverageMetric)} does not need to load the coverage tree of the build.
+     *
+     * @param metric
+     *         The {@link CoverageMetric coverage metric}
+     *
+     * @return {@code true} if the coverage is stored in the action, {@code false} if the coverage tree is required
+     */
+    public boolean isStoredInAction(final CoverageMetric metric) {
+        return true;
+    }
+
     /**
      * Gets the {@link DisplayColors display colors} which are used for visualizing the passed coverage.
      *
@@ -0,0 +1,141 @@
+package io.jenkins.plugins.coverage.model.visualization.dashboard;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+import io.jenkins.plugins.coverage.model.CoverageBuildAction;
+import io.jenkins.plugins.coverage.model.CoverageMetric;
+import io.jenkins.plugins.coverage.model.CoveragePercentage;
+
+/**
+ * The values of the {@link CoverageColumnType coverage column types} and {@link CoverageMetric metrics} of a build.
+ * A summary is a small snapshot of the values that are stored in the {@link CoverageBuildAction} of a build, so the
+ * columns of a view can show the coverage of a job without loading its builds. Values that require the coverage tree
+ * of the build (see {@link CoverageColumnType#isStoredInAction(CoverageMetric)}) are computed only when a column
+ * requests them.
+ */
+final class CoverageSummary {
+    /** A summary for builds without coverage results. */
+    static final CoverageSummary EMPTY = new CoverageSummary(0, null, Collections.emptyMap());
+
+    private static final List<CoverageColumnType> COLUMN_TYPES = Arrays.asList(new ProjectCoverage(),
+            new ProjectCoverageDelta(), new ChangeCoverage(), new ChangeCoverageDelta(),
+            new IndirectCoverageChanges());
+
+    private final int buildNumber;
+    @CheckForNull
+    private final String urlName;
+    private final Map<String, Map<CoverageMetric, CoveragePercentage>> values;
+    /** The values that are not stored in the action, computed on demand. */
+    private final Map<String, Optional<CoveragePercentage>> computedValues = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a summary of the coverage results of the specified build.
+     *
+     * @param build
+     *         the build, might be {@code null} if the job has no completed build
+     *
+     * @return the summary of the build
+     */
+    static CoverageSummary of(@CheckForNull final Run<?, ?> build) {
+        if (build == null) {
+            return EMPTY;
+        }
+        if (build.getActions(CoverageBuildAction.class).isEmpty()) {
+            return new CoverageSummary(build.getNumber(), null, Collections.emptyMap());
+        }
+        CoverageBuildAction action = build.getAction(CoverageBuildAction.class);
+        Map<String, Map<CoverageMetric, CoveragePercentage>> values = new HashMap<>();
+        for (CoverageColumnType type : COLUMN_TYPES) {
+            Map<CoverageMetric, CoveragePercentage> percentages = new HashMap<>();
+            for (CoverageMetric metric : CoverageMetric.getAvailableCoverageMetrics()) {
+                if (type.isStoredInAction(metric)) {
+                    type.getCoverage(action, metric).ifPresent(percentage -> percentages.put(metric, percentage));
+                }
+            }
+            values.put(getKey(type), percentages);
+        }
+        return new CoverageSummary(build.getNumber(), action.getUrlName(), values);
+    }
+
+    private static String getKey(final CoverageColumnType type) {
+        return type.getClass().getName();
+    }
+
+    private CoverageSummary(final int buildNumber, @CheckForNull final String urlName,
+            final Map<String, Map<CoverageMetric, CoveragePercentage>> values) {
+        this.buildNumber = buildNumber;
+        this.urlName = urlName;
+        this.values = values;
+    }
+
+    int getBuildNumber() {
+        return buildNumber;
+    }
+
+    /**
+     * Returns whether the build contains coverage results.
+     *
+     * @return {@code true} if the build contains a {@link CoverageBuildAction}, {@code false} otherwise
+     */
+    boolean hasCoverage() {
+        return urlName != null;
+    }
+
+    /**
+     * Returns the URL name of the {@link CoverageBuildAction} of the build.
+     *
+     * @return the URL name, or an empty string if the build contains no coverage results
+     */
+    String getUrlName() {
+        return urlName == null ? "" : urlName;
+    }
+
+    /**
+     * Returns the coverage of the specified column type and metric. If the value is not stored in the action, then it
+     * is computed from the build of this summary once.
+     *
+     * @param type
+     *         the type of the column
+     * @param metric
+     *         the coverage metric
+     * @param job
+     *         the job of the build
+     *
+     * @return the coverage, or an empty optional if the build has no such coverage
+     */
+    Optional<CoveragePercentage> getCoverage(final CoverageColumnType type, final CoverageMetric metric,
+            final Job<?, ?> job) {
+        if (!hasCoverage()) {
+            return Optional.empty();
+        }
+        if (type.isStoredInAction(metric)) {
+            return Optional.ofNullable(values.getOrDefault(getKey(type), Collections.emptyMap()).get(metric));
+        }
+        return computedValues.computeIfAbsent(getKey(type) + ':' + metric.getName(),
+                key -> computeCoverage(type, metric, job));
+    }
+
+    private Optional<CoveragePercentage> computeCoverage(final CoverageColumnType type, final CoverageMetric metric,
+            final Job<?, ?> job) {
+        Run<?, ?> build = job.getBuildByNumber(buildNumber);
+        if (build == null) {
+            return Optional.empty();
+        }
+        CoverageBuildAction action = build.getAction(CoverageBuildAction.class);
+        if (action == null) {
+            return Optional.empty();
+        }
+        return type.getCoverage(action, metric);
+    }
+}
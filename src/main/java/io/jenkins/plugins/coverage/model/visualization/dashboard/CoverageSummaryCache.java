@@ -0,0 +1,81 @@
+package io.jenkins.plugins.coverage.model.visualization.dashboard;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+/**
+ * Caches the {@link CoverageSummary} of the last completed build of each job. The summary of a job is created when one
+ * of its builds has been completed (see {@link CoverageSummaryListener}) or when the summary is requested the first
+ * time, so the columns of a view do not need to load a build each time the view is rendered. The jobs are referenced
+ * weakly, so the summaries of deleted or reloaded jobs are removed automatically.
+ */
+public final class CoverageSummaryCache {
+    private static final CoverageSummaryCache INSTANCE = new CoverageSummaryCache();
+
+    private final Map<Job<?, ?>, CoverageSummary> summaries = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Returns the singleton instance of the cache.
+     *
+     * @return the cache
+     */
+    public static CoverageSummaryCache getInstance() {
+        return INSTANCE;
+    }
+
+    CoverageSummaryCache() {
+        // use singleton in production code
+    }
+
+    /**
+     * Returns the summary of the last completed build of the specified job.
+     *
+     * @param job
+     *         the job
+     *
+     * @return the summary
+     */
+    CoverageSummary getSummary(final Job<?, ?> job) {
+        CoverageSummary summary = summaries.get(job);
+        if (summary == null) {
+            // the build is loaded outside the lock, a concurrent update must not be overwritten by an older build
+            return summaries.merge(job, CoverageSummary.of(job.getLastCompletedBuild()),
+                    CoverageSummaryCache::selectNewer);
+        }
+        return summary;
+    }
+
+    /**
+     * Updates the summary of the job of the specified completed build. Since builds of the same job might complete in
+     * any order, the summary is replaced only if the build is newer than the build of the cached summary.
+     *
+     * @param build
+     *         the completed build
+     */
+    public void update(final Run<?, ?> build) {
+        CoverageSummary summary = CoverageSummary.of(build);
+        summaries.merge(build.getParent(), summary, CoverageSummaryCache::selectNewer);
+    }
+
+    private static CoverageSummary selectNewer(final CoverageSummary cached, final CoverageSummary updated) {
+        return updated.getBuildNumber() >= cached.getBuildNumber() ? updated : cached;
+    }
+
+    /**
+     * Removes the summary of the specified job, so that it will be created from the last completed build again.
+     *
+     * @param job
+     *         the job
+     */
+    public void invalidate(@CheckForNull final Job<?, ?> job) {
+        if (job != null) {
+            summaries.remove(job);
+        }
+    }
+}
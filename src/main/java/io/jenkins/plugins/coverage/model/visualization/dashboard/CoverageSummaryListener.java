@@ -0,0 +1,25 @@
+package io.jenkins.plugins.coverage.model.visualization.dashboard;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+
+/**
+ * Keeps the {@link CoverageSummaryCache} up to date: the summary of a job is replaced when a build has been completed
+ * and removed when a build has been deleted.
+ */
+@Extension
+public class CoverageSummaryListener extends RunListener<Run<?, ?>> {
+    @Override
+    public void onCompleted(final Run<?, ?> run, @NonNull final TaskListener listener) {
+        CoverageSummaryCache.getInstance().update(run);
+    }
+
+    @Override
+    public void onDeleted(@NonNull final Run<?, ?> run) {
+        CoverageSummaryCache.getInstance().invalidate(run.getParent());
+    }
+}
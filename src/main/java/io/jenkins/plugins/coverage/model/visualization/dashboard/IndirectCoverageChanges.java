@@ -27,7 +27,7 @@ public class IndirectCoverageChanges extends CoverageColumnType {
     @Override
     public Optional<CoveragePercentage> getCoverage(final CoverageBuildAction action, final CoverageMetric metric) {
         if (action.hasIndirectCoverageChanges(metric)) {
-            return Optional.of(action.getIndirectCoverageChanges(metric).getCoveredPercentage());
+            return Optional.of(action.getIndirectCoverageChangesPercentage(metric));
         }
         return Optional.empty();
     }
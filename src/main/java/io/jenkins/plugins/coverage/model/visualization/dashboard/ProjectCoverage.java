@@ -32,6 +32,11 @@ public class ProjectCoverage extends CoverageColumnType {
         return Optional.empty();
     }
 
+    @Override
+    public boolean isStoredInAction(final CoverageMetric metric) {
+        return CoverageMetric.LINE.equals(metric) || CoverageMetric.BRANCH.equals(metric);
+    }
+
     @Override
     public DisplayColors getDisplayColors(final CoveragePercentage coverage) {
         return CoverageLevel.getDisplayColorsOfCoverageLevel(coverage.getDoubleValue(), getColorProvider());
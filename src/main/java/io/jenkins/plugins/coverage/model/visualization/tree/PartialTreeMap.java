@@ -0,0 +1,34 @@
+package io.jenkins.plugins.coverage.model.visualization.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.hm.hafner.echarts.TreeMapNode;
+
+/**
+ * A tree map that contains only the first levels below a node of a coverage tree. The deeper levels of the nodes in
+ * {@link #getExpandable()} have been omitted and can be loaded on demand.
+ */
+public class PartialTreeMap {
+    private final TreeMapNode root;
+    private final List<List<String>> expandable;
+
+    PartialTreeMap(final TreeMapNode root, final List<List<String>> expandable) {
+        this.root = root;
+        this.expandable = new ArrayList<>(expandable);
+    }
+
+    public TreeMapNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the paths of the nodes whose children have been omitted. Each path consists of the names of the tree map
+     * nodes below the root of the whole coverage tree.
+     *
+     * @return the paths of the expandable nodes
+     */
+    public List<List<String>> getExpandable() {
+        return expandable;
+    }
+}
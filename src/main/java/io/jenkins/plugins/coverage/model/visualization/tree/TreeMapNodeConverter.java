@@ -1,13 +1,27 @@
 package io.jenkins.plugins.coverage.model.visualization.tree;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
 import edu.hm.hafner.echarts.ItemStyle;
 import edu.hm.hafner.echarts.Label;
 import edu.hm.hafner.echarts.TreeMapNode;
 
+import jenkins.util.SystemProperties;
+
 import io.jenkins.plugins.coverage.model.Coverage;
+import io.jenkins.plugins.coverage.model.Coverage.CoverageBuilder;
 import io.jenkins.plugins.coverage.model.CoverageMetric;
 import io.jenkins.plugins.coverage.model.CoverageNode;
 import io.jenkins.plugins.coverage.model.FileCoverageNode;
+import io.jenkins.plugins.coverage.model.Messages;
 import io.jenkins.plugins.coverage.model.visualization.colorization.ColorProvider;
 import io.jenkins.plugins.coverage.model.visualization.colorization.ColorProvider.DisplayColors;
 import io.jenkins.plugins.coverage.model.visualization.colorization.CoverageLevel;
@@ -19,6 +33,22 @@ import io.jenkins.plugins.coverage.model.visualization.colorization.CoverageLeve
  * @author Ullrich Hafner
  */
 public class TreeMapNodeConverter {
+    /** The largest children of a node that are converted, the remaining children are aggregated into a single node. */
+    static final int MAXIMUM_CHILDREN = SystemProperties.getInteger(
+            TreeMapNodeConverter.class.getName() + ".maximumChildren", 50);
+
+    private final int maximumChildren;
+
+    /**
+     * Creates a new converter.
+     */
+    public TreeMapNodeConverter() {
+        this(MAXIMUM_CHILDREN);
+    }
+
+    TreeMapNodeConverter(final int maximumChildren) {
+        this.maximumChildren = Math.max(maximumChildren, 1);
+    }
 
     /**
      * Converts a coverage tree of {@link CoverageNode} to a ECharts tree map of {@link TreeMapNode}.
@@ -34,7 +64,228 @@ public class TreeMapNodeConverter {
      */
     public TreeMapNode toTeeChartModel(final CoverageNode node, final CoverageMetric metric,
             final ColorProvider colorProvider) {
-        TreeMapNode root = toTreeMapNode(node, metric, colorProvider);
+        return toTeeChartModel(node, n -> n.getCoverage(metric), colorProvider);
+    }
+
+    /**
+     * Converts a change coverage tree of {@link CoverageNode} to a ECharts tree map of {@link TreeMapNode} that shows
+     * the method change coverage, see {@link FileCoverageNode#getMethodChangeCoverage()}.
+     *
+     * @param node
+     *         The root node of the change coverage tree to be converted
+     * @param colorProvider
+     *         Provides the colors to be used for highlighting the tree nodes
+     *
+     * @return the converted tree map representation
+     */
+    public TreeMapNode toChangedMethodsTreeChartModel(final CoverageNode node, final ColorProvider colorProvider) {
+        Map<CoverageNode, Coverage> methodCoverages = new IdentityHashMap<>();
+        computeMethodChangeCoverage(node, methodCoverages);
+        return toTeeChartModel(node, methodCoverages::get, colorProvider);
+    }
+
+    /**
+     * Converts the first levels below a node of a coverage tree of {@link CoverageNode} to a ECharts tree map of
+     * {@link TreeMapNode}. Nodes below the specified depth are omitted, their parents are reported as expandable.
+     * Only the {@link #MAXIMUM_CHILDREN largest children} of a node are converted, the remaining children are
+     * aggregated into a single node. So the size of the tree map is bounded, regardless of the size of the coverage
+     * tree.
+     *
+     * @param root
+     *         The root node of the tree to be converted
+     * @param path
+     *         The path of the node to start with, see {@link PartialTreeMap#getExpandable()}, an empty path selects the
+     *         root node
+     * @param metric
+     *         The coverage metric that should be represented (line and branch coverage are available)
+     * @param colorProvider
+     *         Provides the colors to be used for highlighting the tree nodes
+     * @param depth
+     *         The number of levels below the start node that should be converted
+     *
+     * @return the converted tree map representation
+     * @throws NoSuchElementException
+     *         if there is no node with the specified path
+     */
+    public PartialTreeMap toPartialTreeChartModel(final CoverageNode root, final List<String> path,
+            final CoverageMetric metric, final ColorProvider colorProvider, final int depth) {
+        return toPartialTreeChartModel(root, path, n -> n.getCoverage(metric), colorProvider, depth);
+    }
+
+    /**
+     * Converts the first levels below a node of a change coverage tree of {@link CoverageNode} to a ECharts tree map of
+     * {@link TreeMapNode} that shows the method change coverage, see
+     * {@link #toPartialTreeChartModel(CoverageNode, List, CoverageMetric, ColorProvider, int)}.
+     *
+     * @param root
+     *         The root node of the change coverage tree to be converted
+     * @param path
+     *         The path of the node to start with, an empty path selects the root node
+     * @param colorProvider
+     *         Provides the colors to be used for highlighting the tree nodes
+     * @param depth
+     *         The number of levels below the start node that should be converted
+     *
+     * @return the converted tree map representation
+     * @throws NoSuchElementException
+     *         if there is no node with the specified path
+     */
+    public PartialTreeMap toPartialChangedMethodsTreeChartModel(final CoverageNode root, final List<String> path,
+            final ColorProvider colorProvider, final int depth) {
+        Map<CoverageNode, Coverage> methodCoverages = new IdentityHashMap<>();
+        computeMethodChangeCoverage(root, methodCoverages);
+        return toPartialTreeChartModel(root, path, methodCoverages::get, colorProvider, depth);
+    }
+
+    PartialTreeMap toPartialTreeChartModel(final CoverageNode root, final List<String> path,
+            final Function<CoverageNode, Coverage> coverages, final ColorProvider colorProvider, final int depth) {
+        CoverageNode node = root;
+        String name = root.getName();
+        for (String segment : path) {
+            node = findChild(node, segment);
+            name = segment;
+        }
+
+        List<List<String>> expandable = new ArrayList<>();
+        TreeMapNode treeMapNode = toPartialTreeMapNode(node, coverages.apply(node), name, new ArrayList<>(path),
+                coverages, colorProvider, Math.max(depth, 1), expandable);
+        return new PartialTreeMap(treeMapNode, expandable);
+    }
+
+    private CoverageNode findChild(final CoverageNode parent, final String name) {
+        for (CoverageNode child : parent.getChildren()) {
+            CoverageNode collapsed = collapse(child);
+            if (getCollapsedName(child, collapsed).equals(name)) {
+                return collapsed;
+            }
+        }
+        throw new NoSuchElementException(String.format("No node '%s' below '%s'", name, parent.getName()));
+    }
+
+    /**
+     * Collapses packages that contain only a single package, similar to {@link TreeMapNode#collapseEmptyPackages()}.
+     *
+     * @param node
+     *         the node to collapse
+     *
+     * @return the last package of the chain of packages that have only one child
+     */
+    private CoverageNode collapse(final CoverageNode node) {
+        CoverageNode collapsed = node;
+        while (isPackage(collapsed) && collapsed.getChildren().size() == 1
+                && isPackage(collapsed.getChildren().get(0))) {
+            collapsed = collapsed.getChildren().get(0);
+        }
+        return collapsed;
+    }
+
+    private String getCollapsedName(final CoverageNode node, final CoverageNode collapsed) {
+        StringBuilder name = new StringBuilder(node.getName());
+        for (CoverageNode current = node; current != collapsed; current = current.getChildren().get(0)) {
+            name.append('.').append(current.getChildren().get(0).getName());
+        }
+        return name.toString();
+    }
+
+    private boolean isPackage(final CoverageNode node) {
+        return CoverageMetric.PACKAGE.equals(node.getMetric());
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private TreeMapNode toPartialTreeMapNode(final CoverageNode node, final Coverage coverage, final String name,
+            final List<String> path, final Function<CoverageNode, Coverage> coverages,
+            final ColorProvider colorProvider, final int depth, final List<List<String>> expandable) {
+        if (node instanceof FileCoverageNode) {
+            return createTreeMapNode(name, coverage, colorProvider, true);
+        }
+
+        TreeMapNode treeNode = createTreeMapNode(name, coverage, colorProvider, false);
+        if (node.getChildren().isEmpty()) {
+            return treeNode;
+        }
+        if (depth == 0) {
+            expandable.add(path);
+            return treeNode;
+        }
+
+        Map<CoverageNode, Coverage> childCoverages = new IdentityHashMap<>();
+        for (CoverageNode child : node.getChildren()) {
+            childCoverages.put(child, coverages.apply(child));
+        }
+        List<CoverageNode> others = findSmallestChildren(node.getChildren(), childCoverages);
+        Set<CoverageNode> aggregated = Collections.newSetFromMap(new IdentityHashMap<>());
+        aggregated.addAll(others);
+        Coverage otherCoverage = CoverageBuilder.NO_COVERAGE;
+        for (CoverageNode child : node.getChildren()) {
+            if (aggregated.contains(child)) {
+                otherCoverage = otherCoverage.add(childCoverages.get(child));
+            }
+            else {
+                treeNode.insertNode(toPartialChild(child, childCoverages.get(child), path, coverages, colorProvider,
+                        depth, expandable));
+            }
+        }
+        if (others.size() == 1) {
+            CoverageNode other = others.get(0);
+            treeNode.insertNode(toPartialChild(other, childCoverages.get(other), path, coverages, colorProvider,
+                    depth, expandable));
+        }
+        else if (others.size() > 1) {
+            treeNode.insertNode(createTreeMapNode(Messages.TreeMap_Other(others.size()), otherCoverage,
+                    colorProvider, true));
+        }
+        return treeNode;
+    }
+
+    /**
+     * Returns the children that are not among the {@link #maximumChildren} largest children. The children are sorted
+     * by the already computed coverages, so that the subtree of a child is not traversed again for each comparison.
+     */
+    private List<CoverageNode> findSmallestChildren(final List<CoverageNode> children,
+            final Map<CoverageNode, Coverage> childCoverages) {
+        if (children.size() <= maximumChildren) {
+            return Collections.emptyList();
+        }
+        List<CoverageNode> sorted = new ArrayList<>(children);
+        sorted.sort(Comparator.comparingInt((CoverageNode child) -> childCoverages.get(child).getTotal()).reversed());
+        return sorted.subList(maximumChildren, sorted.size());
+    }
+
+    /**
+     * Converts the specified child. A collapsed chain of packages has the same coverage as its first package, so the
+     * already computed coverage of the child is used.
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private TreeMapNode toPartialChild(final CoverageNode child, final Coverage coverage, final List<String> path,
+            final Function<CoverageNode, Coverage> coverages, final ColorProvider colorProvider,
+            final int depth, final List<List<String>> expandable) {
+        CoverageNode collapsed = collapse(child);
+        String name = getCollapsedName(child, collapsed);
+        List<String> childPath = new ArrayList<>(path);
+        childPath.add(name);
+        return toPartialTreeMapNode(collapsed, coverage, name, childPath, coverages, colorProvider, depth - 1,
+                expandable);
+    }
+
+    private Coverage computeMethodChangeCoverage(final CoverageNode node,
+            final Map<CoverageNode, Coverage> methodCoverages) {
+        Coverage coverage;
+        if (node instanceof FileCoverageNode) {
+            coverage = ((FileCoverageNode) node).getMethodChangeCoverage();
+        }
+        else {
+            coverage = CoverageBuilder.NO_COVERAGE;
+            for (CoverageNode child : node.getChildren()) {
+                coverage = coverage.add(computeMethodChangeCoverage(child, methodCoverages));
+            }
+        }
+        methodCoverages.put(node, coverage);
+        return coverage;
+    }
+
+    private TreeMapNode toTeeChartModel(final CoverageNode node, final Function<CoverageNode, Coverage> coverages,
+            final ColorProvider colorProvider) {
+        TreeMapNode root = toTreeMapNode(node, coverages, colorProvider);
         for (TreeMapNode child : root.getChildren()) {
             child.collapseEmptyPackages();
         }
@@ -42,10 +293,23 @@ public class TreeMapNodeConverter {
         return root;
     }
 
-    private TreeMapNode toTreeMapNode(final CoverageNode node, final CoverageMetric metric,
+    private TreeMapNode toTreeMapNode(final CoverageNode node, final Function<CoverageNode, Coverage> coverages,
             final ColorProvider colorProvider) {
-        Coverage coverage = node.getCoverage(metric);
+        Coverage coverage = coverages.apply(node);
 
+        if (node instanceof FileCoverageNode) {
+            return createTreeMapNode(node.getName(), coverage, colorProvider, true);
+        }
+
+        TreeMapNode treeNode = createTreeMapNode(node.getName(), coverage, colorProvider, false);
+        node.getChildren().stream()
+                .map(n -> toTreeMapNode(n, coverages, colorProvider))
+                .forEach(treeNode::insertNode);
+        return treeNode;
+    }
+
+    private TreeMapNode createTreeMapNode(final String name, final Coverage coverage,
+            final ColorProvider colorProvider, final boolean isLeaf) {
         double coveragePercentage = coverage.getCoveredPercentage().getDoubleValue();
 
         DisplayColors colors = CoverageLevel.getDisplayColorsOfCoverageLevel(coveragePercentage, colorProvider);
@@ -55,20 +319,12 @@ public class TreeMapNodeConverter {
         Label label = new Label(true, lineColor);
         Label upperLabel = new Label(true, lineColor);
 
-        if (node instanceof FileCoverageNode) {
+        if (isLeaf) {
             ItemStyle style = new ItemStyle(fillColor);
-            return new TreeMapNode(node.getName(), style, label, upperLabel, coverage.getTotal(),
-                    coverage.getCovered());
+            return new TreeMapNode(name, style, label, upperLabel, coverage.getTotal(), coverage.getCovered());
         }
 
         ItemStyle packageStyle = new ItemStyle(fillColor, fillColor, 4);
-        TreeMapNode treeNode =
-                new TreeMapNode(node.getName(), packageStyle, label, upperLabel, coverage.getTotal(),
-                        coverage.getCovered());
-
-        node.getChildren().stream()
-                .map(n -> toTreeMapNode(n, metric, colorProvider))
-                .forEach(treeNode::insertNode);
-        return treeNode;
+        return new TreeMapNode(name, packageStyle, label, upperLabel, coverage.getTotal(), coverage.getCovered());
     }
 }
@@ -1,6 +1,9 @@
-/* global jQuery3, viewProxy, echartsJenkinsApi, bootstrap5 */
+/* global jQuery3, viewProxy, treeMapUrl, coverageColors, echartsJenkinsApi, bootstrap5, SourceCodeWindows */
 
 const CoverageChartGenerator = function ($) {
+    /** The number of tree map levels that are loaded at once. */
+    const TREE_MAP_DEPTH = 3;
+
     function printPercentage(value) {
         return Number(value).toLocaleString(undefined, {style: 'percent', minimumFractionDigits: 2});
     }
@@ -173,7 +176,47 @@ const CoverageChartGenerator = function ($) {
         summaryChart.resize();
     }
 
-    function createFilesTreeMap(coverageTree, id, coverageMetric) {
+    /**
+     * Loads the first levels below a node of a tree map. The tree maps are cached by the browser and revalidated
+     * using their entity tags, so an unchanged tree map is not transferred again.
+     *
+     * @param {String} tree The ID of the coverage tree ('coverage', 'change', or 'indirect')
+     * @param {String} metric The coverage metric to show
+     * @param {String[]} path The path of the node to start with, an empty path selects the root
+     * @param {Function} callback The function that renders the loaded partial tree map
+     */
+    function loadTreeMap(tree, metric, path, callback) {
+        const parameters = new URLSearchParams({tree: tree, metric: metric, depth: TREE_MAP_DEPTH});
+        path.forEach(name => parameters.append('path', name));
+        if (coverageColors) {
+            parameters.append('colors', coverageColors);
+        }
+        fetch(treeMapUrl + '?' + parameters.toString())
+            .then(response => response.json())
+            .then(callback);
+    }
+
+    /**
+     * Renders a tree map that has been loaded partially: the children of the expandable nodes are loaded on demand
+     * when such a node is clicked.
+     *
+     * @param {Object} partialTree The partial tree map with the root node and the paths of the expandable nodes
+     * @param {String} id The ID of the chart element
+     * @param {String} coverageMetric The coverage metric to show
+     * @param {String} tree The ID of the coverage tree ('coverage', 'change', or 'indirect')
+     */
+    function createFilesTreeMap(partialTree, id, coverageMetric, tree) {
+        const coverageTree = partialTree.root;
+        const expandable = new Set(partialTree.expandable.map(path => JSON.stringify(path)));
+
+        function findNode(path) {
+            let node = coverageTree;
+            for (const name of path) {
+                node = node.children.find(child => child.name === name);
+            }
+            return node;
+        }
+
         function getLevelOption() {
             return [
                 {
@@ -299,6 +342,22 @@ const CoverageChartGenerator = function ($) {
         };
         treeChart.setOption(option);
         treeChart.resize();
+
+        treeChart.on('click', function (params) {
+            const path = params.treePathInfo.slice(2).map(node => node.name);
+            const key = JSON.stringify(path);
+            if (expandable.has(key)) {
+                expandable.delete(key);
+                loadTreeMap(tree, coverageMetric, path, function (subTree) {
+                    const node = findNode(path);
+                    node.id = key;
+                    node.children = subTree.root.children;
+                    subTree.expandable.forEach(expandablePath => expandable.add(JSON.stringify(expandablePath)));
+                    treeChart.setOption({series: [{data: [coverageTree]}]});
+                    treeChart.dispatchAction({type: 'treemapZoomToNode', seriesIndex: 0, targetNodeId: key});
+                });
+            }
+        });
     }
 
     this.populateDetailsCharts = function (jenkinsColors) {
@@ -364,12 +423,12 @@ const CoverageChartGenerator = function ($) {
                 createOverview(t.responseObject(), 'coverage-overview', jenkinsColors);
             });
 
-            viewProxy.getCoverageTree('Line', function (t) {
-                createFilesTreeMap(t.responseObject(), 'project-line-coverage', 'Line');
+            loadTreeMap('coverage', 'Line', [], function (coverageTree) {
+                createFilesTreeMap(coverageTree, 'project-line-coverage', 'Line', 'coverage');
             });
 
-            viewProxy.getCoverageTree('Branch', function (t) {
-                createFilesTreeMap(t.responseObject(), 'project-branch-coverage', 'Branch');
+            loadTreeMap('coverage', 'Branch', [], function (coverageTree) {
+                createFilesTreeMap(coverageTree, 'project-branch-coverage', 'Branch', 'coverage');
             });
         }
 
@@ -378,8 +437,9 @@ const CoverageChartGenerator = function ($) {
         }
 
         function renderTrendChart() {
-            const configuration = JSON.stringify(echartsJenkinsApi.readFromLocalStorage('jenkins-echarts-chart-configuration-coverage-history'));
-            viewProxy.getTrendChart(configuration, function (t) {
+            const configuration = echartsJenkinsApi.readFromLocalStorage('jenkins-echarts-chart-configuration-coverage-history') || {};
+            configuration.metrics = $('#coverage-trend-metrics').val();
+            viewProxy.getTrendChart(JSON.stringify(configuration), function (t) {
                 echartsJenkinsApi.renderConfigurableZoomableTrendChart('coverage-trend', t.responseJSON, 'chart-configuration-coverage-history', openBuild);
                 resizeChartOf('#coverage-trend');
             });
@@ -401,6 +461,9 @@ const CoverageChartGenerator = function ($) {
             $('#' + trendConfigurationDialogId).on('hidden.bs.modal', function () {
                 redrawCharts();
             });
+            $('#coverage-trend-metrics').on('change', function () {
+                renderTrendChart();
+            });
         }
 
         /**
@@ -411,16 +474,19 @@ const CoverageChartGenerator = function ($) {
         function initializeSourceCodeSelection(tableId) {
             const datatable = $('#' + tableId + '-table-inline').DataTable();
             const sourceView = $('#' + tableId + '-source-file');
+            const sourceWindows = new SourceCodeWindows(viewProxy, sourceView, $('#' + tableId + '-source-controls'));
             const noFileSelectedBanner = $('#' + tableId + '-no-selection');
             const noSourceAvailableBanner = $('#' + tableId + '-no-source');
 
             function showNoSelection() {
+                sourceWindows.hideControls();
                 sourceView.hide();
                 noSourceAvailableBanner.hide();
                 noFileSelectedBanner.show();
             }
 
             function showNoSourceCode() {
+                sourceWindows.hideControls();
                 sourceView.hide();
                 noFileSelectedBanner.hide();
                 noSourceAvailableBanner.show();
@@ -438,15 +504,25 @@ const CoverageChartGenerator = function ($) {
                     showSourceCode();
                     sourceView.html('Loading...');
                     const rowData = datatable.rows(indexes).data().toArray();
-                    viewProxy.getSourceCode(rowData[0].fileHash, tableId + '-table', function (t) {
-                        const sourceCode = t.responseObject();
-                        if (sourceCode === "n/a") {
-                            showNoSourceCode();
-                        }
-                        else {
-                            sourceView.html(sourceCode);
-                        }
-                    });
+                    if (tableId === 'absolute-coverage') {
+                        sourceWindows.open(rowData[0].fileHash, function (sourceWindow) {
+                            if (sourceWindow.html === "n/a") {
+                                showNoSourceCode();
+                            }
+                        });
+                    }
+                    else {
+                        sourceWindows.hideControls();
+                        viewProxy.getSourceCode(rowData[0].fileHash, tableId + '-table', function (t) {
+                            const sourceCode = t.responseObject();
+                            if (sourceCode === "n/a") {
+                                showNoSourceCode();
+                            }
+                            else {
+                                sourceView.html(sourceCode);
+                            }
+                        });
+                    }
                 }
                 else {
                     showNoSelection();
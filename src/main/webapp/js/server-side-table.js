@@ -0,0 +1,29 @@
+/* global jQuery3, coverageColors */
+
+/**
+ * Initializes all coverage tables that use the server-side processing mode of DataTables. These tables request only
+ * the rows of the visible page from the server, the paging, sorting, and filtering is done on the server as well.
+ */
+jQuery3(document).ready(function () {
+    jQuery3('table.coverage-server-side-table').each(function () {
+        const table = jQuery3(this);
+        const configuration = JSON.parse(table.attr('data-table-configuration'));
+        const columns = JSON.parse(table.attr('data-columns-definition'));
+
+        table.DataTable(Object.assign(configuration, {
+            serverSide: true,
+            processing: true,
+            searchDelay: 500,
+            pagingType: 'numbers',
+            ajax: {
+                url: table.attr('data-url'),
+                data: function (parameters) {
+                    if (typeof coverageColors !== 'undefined' && coverageColors) {
+                        parameters.colors = coverageColors; // users without a session send their colors
+                    }
+                }
+            },
+            columns: columns
+        }));
+    });
+});
@@ -0,0 +1,109 @@
+/* global jQuery3 */
+
+/**
+ * Shows the source code of a file in windows of lines. Only the first window is loaded initially, further windows
+ * are loaded on demand when the user requests more lines or jumps to the next uncovered line. So the size of the
+ * rendered table does not depend on the size of the source file.
+ *
+ * @param {Object} viewProxy The proxy of the view model that provides the windows of the source code
+ * @param {jQuery} table The table that shows the rows of the source code
+ * @param {jQuery} controls The element with the buttons '.source-more-lines' and '.source-next-uncovered'
+ */
+const SourceCodeWindows = function (viewProxy, table, controls) {
+    const moreButton = controls.find('.source-more-lines');
+    const nextButton = controls.find('.source-next-uncovered');
+
+    let fileHash = '';
+    let firstLine = 1;
+    let lastLine = 0;
+    let currentLine = 0;
+
+    function showWindow(sourceWindow, append) {
+        if (append) {
+            table.append(sourceWindow.html);
+        }
+        else {
+            table.html(sourceWindow.html);
+            firstLine = sourceWindow.firstLine;
+        }
+        lastLine = sourceWindow.lastLine;
+        controls.toggle(sourceWindow.lineCount > 0);
+        moreButton.toggle(sourceWindow.lastLine < sourceWindow.lineCount);
+    }
+
+    function loadWindow(line, append, callback) {
+        viewProxy.getSourceCodeWindow(fileHash, line, function (t) {
+            const sourceWindow = t.responseObject();
+            showWindow(sourceWindow, append);
+            if (callback) {
+                callback(sourceWindow);
+            }
+        });
+    }
+
+    function scrollToLine(line) {
+        const anchor = table.find("a[name='" + line + "']");
+        if (anchor.length > 0) {
+            anchor[0].scrollIntoView({block: 'center'});
+        }
+    }
+
+    moreButton.on('click', function () {
+        loadWindow(lastLine + 1, true);
+    });
+
+    nextButton.on('click', function () {
+        viewProxy.getNextUncoveredLine(fileHash, currentLine, function (t) {
+            const line = t.responseObject();
+            if (line < 0) {
+                nextButton.prop('disabled', true);
+                return;
+            }
+            currentLine = line;
+            if (line >= firstLine && line <= lastLine) {
+                scrollToLine(line);
+            }
+            else {
+                loadWindow(Math.max(line - 10, 1), false, function () {
+                    scrollToLine(line);
+                });
+            }
+        });
+    });
+
+    /**
+     * Shows the first window of the specified file.
+     *
+     * @param {String} hash The hash code of the file
+     * @param {Function} callback Called with the loaded window after it has been shown
+     */
+    this.open = function (hash, callback) {
+        fileHash = hash;
+        currentLine = 0;
+        nextButton.prop('disabled', false);
+        loadWindow(1, false, callback);
+    };
+
+    /**
+     * Initializes the state for a window of the specified file that has been rendered already.
+     *
+     * @param {String} hash The hash code of the file
+     * @param {Number} first The first line of the rendered window
+     * @param {Number} last The last line of the rendered window
+     * @param {Number} lineCount The number of lines of the file
+     */
+    this.show = function (hash, first, last, lineCount) {
+        fileHash = hash;
+        firstLine = first;
+        lastLine = last;
+        controls.toggle(lineCount > 0);
+        moreButton.toggle(last < lineCount);
+    };
+
+    /**
+     * Hides the buttons, used if the table shows another view of a source file.
+     */
+    this.hideControls = function () {
+        controls.hide();
+    };
+};
@@ -0,0 +1,160 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.jenkins.plugins.coverage.model.Coverage.CoverageBuilder;
+import io.jenkins.plugins.forensics.delta.Change;
+import io.jenkins.plugins.forensics.delta.ChangeEditType;
+import io.jenkins.plugins.forensics.delta.FileChanges;
+import io.jenkins.plugins.forensics.delta.FileEditType;
+
+/**
+ * Compares the {@link CoverageDeltaEngine} with the separate steps of {@link FileChangesProcessor},
+ * {@link CoverageTreeCreator}, and {@link CoverageNode#computeDeltaAsPercentage(CoverageNode)} that have been used
+ * before. Both benchmarks work on synthetic coverage trees where every tenth file has been changed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoverageDeltaEngineBenchmark {
+    private static final int PACKAGES = 20;
+    private static final int METHODS = 10;
+    private static final int LINES_PER_METHOD = 10;
+
+    @Param({"100", "1000"})
+    private int files;
+
+    private CoverageNode reference;
+    private ReferenceIndex referenceIndex;
+    private CoverageNode tree;
+    private final Map<String, FileChanges> codeChanges = new HashMap<>();
+    private final Map<String, String> oldPathMapping = new HashMap<>();
+
+    /**
+     * Creates the coverage trees and the code changes.
+     */
+    @Setup(Level.Trial)
+    public void createTrees() {
+        reference = createTree(0);
+        referenceIndex = new ReferenceIndex(reference);
+        for (int file = 0; file < files; file += 10) {
+            String path = getPath(file);
+            FileChanges fileChanges = new FileChanges(path, path, "", FileEditType.MODIFY, new HashMap<>());
+            fileChanges.addChange(new Change(ChangeEditType.REPLACE, 12, 14, 12, 14));
+            fileChanges.addChange(new Change(ChangeEditType.INSERT, 30, 30, 31, 32));
+            codeChanges.put(path, fileChanges);
+            oldPathMapping.put(path, path);
+        }
+    }
+
+    /**
+     * Creates a fresh coverage tree for each invocation since both alternatives attach the changes to the tree.
+     */
+    @Setup(Level.Invocation)
+    public void createTree() {
+        tree = createTree(1);
+    }
+
+    /**
+     * Computes all deltas with the {@link CoverageDeltaEngine}.
+     *
+     * @param blackhole
+     *         consumes the results
+     */
+    @Benchmark
+    public void singlePassEngine(final Blackhole blackhole) {
+        CoverageDeltaResult result = new CoverageDeltaEngine(new FileChangesProcessor())
+                .compute(tree, referenceIndex, codeChanges, oldPathMapping);
+
+        blackhole.consume(result.getCoverageDelta());
+        blackhole.consume(result.getChangeCoverage());
+        blackhole.consume(result.getChangeCoverageDelta());
+        blackhole.consume(result.getIndirectCoverageChanges());
+    }
+
+    /**
+     * Computes all deltas with the separate steps of the multi-pass pipeline.
+     *
+     * @param blackhole
+     *         consumes the results
+     */
+    @Benchmark
+    public void multiPassPipeline(final Blackhole blackhole) {
+        FileChangesProcessor fileChangesProcessor = new FileChangesProcessor();
+        fileChangesProcessor.attachChangedCodeLines(tree, codeChanges);
+        fileChangesProcessor.attachIndirectCoveragesChanges(tree, referenceIndex, codeChanges, oldPathMapping);
+        fileChangesProcessor.attachFileCoverageDeltas(tree, referenceIndex, oldPathMapping);
+
+        CoverageTreeCreator coverageTreeCreator = new CoverageTreeCreator();
+        CoverageNode changeCoverageRoot = coverageTreeCreator.createChangeCoverageTree(tree);
+        CoverageNode indirectCoverageChangesRoot = coverageTreeCreator.createIndirectCoverageChangesTree(tree);
+
+        SortedMap<CoverageMetric, CoveragePercentage> changeCoverageDelta = tree.hasChangeCoverage()
+                ? changeCoverageRoot.computeDeltaAsPercentage(tree) : new TreeMap<>();
+        blackhole.consume(tree.hasCodeChanges());
+        blackhole.consume(tree.computeDeltaAsPercentage(reference));
+        blackhole.consume(changeCoverageRoot.getMetricPercentages());
+        blackhole.consume(changeCoverageDelta);
+        blackhole.consume(indirectCoverageChangesRoot.getMetricPercentages());
+    }
+
+    private CoverageNode createTree(final int hitsOffset) {
+        CoverageNode root = new CoverageNode(CoverageMetric.MODULE, "module");
+        for (int p = 0; p < PACKAGES; p++) {
+            root.add(new PackageCoverageNode("package" + p));
+        }
+        for (int file = 0; file < files; file++) {
+            root.getChildren().get(file % PACKAGES).add(createFile(file, hitsOffset));
+        }
+        return root;
+    }
+
+    private FileCoverageNode createFile(final int file, final int hitsOffset) {
+        FileCoverageNode fileNode = new FileCoverageNode("File" + file + ".java", getPath(file));
+        CoverageNode classNode = new CoverageNode(CoverageMetric.CLASS, "Class" + file);
+        fileNode.add(classNode);
+
+        CoverageBuilder builder = new CoverageBuilder();
+        int line = 1;
+        for (int method = 0; method < METHODS; method++) {
+            MethodCoverageNode methodNode = new MethodCoverageNode("method" + method, line);
+            int covered = 0;
+            for (int i = 0; i < LINES_PER_METHOD; i++, line++) {
+                int hits = (line + file + hitsOffset) % 3 == 0 ? 0 : 1;
+                fileNode.putCoveragePerLine(line, builder.setCovered(hits).setMissed(1 - hits).build());
+                covered += hits;
+            }
+            methodNode.add(new CoverageLeaf(CoverageMetric.LINE,
+                    builder.setCovered(covered).setMissed(LINES_PER_METHOD - covered).build()));
+            methodNode.add(new CoverageLeaf(CoverageMetric.INSTRUCTION,
+                    builder.setCovered(covered * 4).setMissed((LINES_PER_METHOD - covered) * 4).build()));
+            classNode.add(methodNode);
+        }
+        return fileNode;
+    }
+
+    private String getPath(final int file) {
+        return "package" + file % PACKAGES + "/File" + file + ".java";
+    }
+}
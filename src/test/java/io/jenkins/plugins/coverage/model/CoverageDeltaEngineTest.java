@@ -0,0 +1,193 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.delta.Change;
+import io.jenkins.plugins.forensics.delta.ChangeEditType;
+import io.jenkins.plugins.forensics.delta.FileChanges;
+import io.jenkins.plugins.forensics.delta.FileEditType;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CoverageDeltaEngine}. Verifies that the engine produces the same results as the separate
+ * steps of {@link FileChangesProcessor}, {@link CoverageTreeCreator}, and
+ * {@link CoverageNode#computeDeltaAsPercentage(CoverageNode)}.
+ */
+class CoverageDeltaEngineTest extends AbstractCoverageTest {
+    private static final String TEST_FILE_1_PATH = "test/example/Test1.java";
+    private static final String TEST_FILE_1_PATH_OLD = "test/example/old/Test1.java";
+    private static final String TEST_FILE_2 = "Main.java";
+
+    private static final String TEST_REPORT_BEFORE = "file-changes-test-before.xml";
+    private static final String TEST_REPORT_AFTER = "file-changes-test-after.xml";
+
+    private static final Map<String, FileChanges> CODE_CHANGES = new HashMap<>();
+    private static final Map<String, String> OLD_PATH_MAPPING = new HashMap<>();
+
+    @BeforeAll
+    static void initFileChanges() {
+        FileChanges fileChanges = new FileChanges(TEST_FILE_1_PATH, TEST_FILE_1_PATH_OLD,
+                "test", FileEditType.RENAME, new HashMap<>());
+        fileChanges.addChange(new Change(ChangeEditType.INSERT, 4, 4, 5, 9));
+        fileChanges.addChange(new Change(ChangeEditType.INSERT, 8, 8, 14, 18));
+        fileChanges.addChange(new Change(ChangeEditType.INSERT, 25, 25, 33, 36));
+        fileChanges.addChange(new Change(ChangeEditType.REPLACE, 10, 11, 20, 22));
+        fileChanges.addChange(new Change(ChangeEditType.DELETE, 16, 19, 26, 26));
+        CODE_CHANGES.put(TEST_FILE_1_PATH, fileChanges);
+        CODE_CHANGES.put(TEST_FILE_2,
+                new FileChanges("empty", "empty", "", FileEditType.MODIFY, new HashMap<>()));
+        OLD_PATH_MAPPING.put(TEST_FILE_1_PATH, TEST_FILE_1_PATH_OLD);
+    }
+
+    @Test
+    void shouldProduceSameResultsAsSeparateSteps() {
+        CoverageNode reference = readCoverageTree(TEST_REPORT_BEFORE);
+        CoverageNode expectedTree = readCoverageTree(TEST_REPORT_AFTER);
+
+        FileChangesProcessor fileChangesProcessor = new FileChangesProcessor();
+        fileChangesProcessor.attachChangedCodeLines(expectedTree, CODE_CHANGES);
+        fileChangesProcessor.attachIndirectCoveragesChanges(expectedTree, reference, CODE_CHANGES, OLD_PATH_MAPPING);
+        fileChangesProcessor.attachFileCoverageDeltas(expectedTree, reference, OLD_PATH_MAPPING);
+        CoverageTreeCreator treeCreator = new CoverageTreeCreator();
+        CoverageNode changeCoverageTree = treeCreator.createChangeCoverageTree(expectedTree);
+        CoverageNode indirectCoverageChangesTree = treeCreator.createIndirectCoverageChangesTree(expectedTree);
+
+        CoverageNode tree = readCoverageTree(TEST_REPORT_AFTER);
+        CoverageDeltaResult result = new CoverageDeltaEngine(new FileChangesProcessor())
+                .compute(tree, new ReferenceIndex(reference), CODE_CHANGES, OLD_PATH_MAPPING);
+
+        assertThat(result.getReusedFilesCount()).isZero();
+        assertThat(tree.getAllFileCoverageNodes()).filteredOn(file -> file.getChangesFingerprint() != null)
+                .extracting(FileCoverageNode::getPath).containsExactlyInAnyOrder(TEST_FILE_1_PATH, TEST_FILE_2);
+        tree.getAllFileCoverageNodes().forEach(file -> file.setChangesFingerprint(null));
+        assertThat(tree).isEqualTo(expectedTree);
+        assertThat(tree.getAllFileCoverageNodes()).containsExactlyElementsOf(expectedTree.getAllFileCoverageNodes());
+
+        assertThat(result.getCoverageDelta()).isEqualTo(expectedTree.computeDeltaAsPercentage(reference));
+        assertThat(result.getChangeCoverage()).isEqualTo(changeCoverageTree.getMetricPercentages());
+        assertThat(result.getChangeCoverageDelta()).isEqualTo(changeCoverageTree.computeDeltaAsPercentage(expectedTree));
+        assertThat(result.getIndirectCoverageChanges())
+                .isEqualTo(indirectCoverageChangesTree.getMetricPercentages());
+
+        assertThat(result.hasCodeChanges()).isTrue();
+        assertThat(result.hasChangeCoverage()).isTrue();
+        assertThat(result.getChangedFilesCount()).isEqualTo(1);
+        assertThat(result.getChangedLinesCount()).isEqualTo(17);
+        assertThat(result.getIndirectCoverageChangesFilesCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReuseChangesOfPreviousBuild() {
+        ReferenceIndex referenceIndex = new ReferenceIndex(readCoverageTree(TEST_REPORT_BEFORE));
+        CoverageNode previous = readCoverageTree(TEST_REPORT_AFTER);
+        CoverageDeltaResult previousResult = new CoverageDeltaEngine(new FileChangesProcessor())
+                .compute(previous, referenceIndex, CODE_CHANGES, OLD_PATH_MAPPING);
+
+        CoverageNode tree = readCoverageTree(TEST_REPORT_AFTER);
+        CoverageDeltaResult result = new CoverageDeltaEngine(new FileChangesProcessor())
+                .compute(tree, referenceIndex, new ReferenceIndex(previous), CODE_CHANGES, OLD_PATH_MAPPING);
+
+        assertThat(result.getReusedFilesCount()).isEqualTo(tree.getAllFileCoverageNodes().size());
+        assertThat(tree).isEqualTo(previous);
+        assertThat(tree.getAllFileCoverageNodes()).containsExactlyElementsOf(previous.getAllFileCoverageNodes());
+        assertThat(result).usingRecursiveComparison().ignoringFields("reusedFilesCount").isEqualTo(previousResult);
+    }
+
+    @Test
+    void shouldRecomputeFilesWithDifferentChanges() {
+        ReferenceIndex referenceIndex = new ReferenceIndex(readCoverageTree(TEST_REPORT_BEFORE));
+        CoverageNode previous = readCoverageTree(TEST_REPORT_AFTER);
+        Map<String, FileChanges> previousChanges = new HashMap<>(CODE_CHANGES);
+        previousChanges.remove(TEST_FILE_1_PATH);
+        new CoverageDeltaEngine(new FileChangesProcessor())
+                .compute(previous, referenceIndex, previousChanges, OLD_PATH_MAPPING);
+
+        CoverageNode expected = readCoverageTree(TEST_REPORT_AFTER);
+        new CoverageDeltaEngine(new FileChangesProcessor())
+                .compute(expected, referenceIndex, CODE_CHANGES, OLD_PATH_MAPPING);
+
+        CoverageNode tree = readCoverageTree(TEST_REPORT_AFTER);
+        CoverageDeltaResult result = new CoverageDeltaEngine(new FileChangesProcessor())
+                .compute(tree, referenceIndex, new ReferenceIndex(previous), CODE_CHANGES, OLD_PATH_MAPPING);
+
+        assertThat(result.getReusedFilesCount()).isEqualTo(tree.getAllFileCoverageNodes().size() - 1);
+        assertThat(tree.getAllFileCoverageNodes()).containsExactlyElementsOf(expected.getAllFileCoverageNodes());
+    }
+
+    @Test
+    void shouldCreateFingerprintThatIgnoresOrderOfChanges() {
+        FileChanges changes = new FileChanges("file", "file", "", FileEditType.MODIFY, new HashMap<>());
+        changes.addChange(new Change(ChangeEditType.INSERT, 4, 4, 5, 9));
+        changes.addChange(new Change(ChangeEditType.INSERT, 8, 8, 14, 18));
+        FileChanges reordered = new FileChanges("file", "file", "", FileEditType.MODIFY, new HashMap<>());
+        reordered.addChange(new Change(ChangeEditType.INSERT, 8, 8, 14, 18));
+        reordered.addChange(new Change(ChangeEditType.INSERT, 4, 4, 5, 9));
+        FileChanges other = new FileChanges("file", "file", "", FileEditType.MODIFY, new HashMap<>());
+        other.addChange(new Change(ChangeEditType.REPLACE, 4, 4, 5, 9));
+
+        String fingerprint = CoverageDeltaEngine.createFingerprint(changes, "file");
+        assertThat(CoverageDeltaEngine.createFingerprint(reordered, "file")).isEqualTo(fingerprint);
+        assertThat(CoverageDeltaEngine.createFingerprint(changes, "old/file")).isNotEqualTo(fingerprint);
+        assertThat(CoverageDeltaEngine.createFingerprint(other, "file")).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    void shouldComputeCoverageDeltaWithoutCodeChanges() {
+        CoverageNode reference = readCoverageTree(TEST_REPORT_BEFORE);
+        CoverageNode tree = readCoverageTree(TEST_REPORT_AFTER);
+
+        CoverageDeltaResult result = new CoverageDeltaEngine(new FileChangesProcessor())
+                .compute(tree, new ReferenceIndex(reference), new HashMap<>(), new HashMap<>());
+
+        assertThat(result.getCoverageDelta()).isEqualTo(tree.computeDeltaAsPercentage(reference));
+        assertThat(result.getChangeCoverage()).isEmpty();
+        assertThat(result.getChangeCoverageDelta()).isEmpty();
+        assertThat(result.getIndirectCoverageChanges()).isEmpty();
+        assertThat(result.hasCodeChanges()).isFalse();
+        assertThat(result.hasChangeCoverage()).isFalse();
+        assertThat(result.getChangedLinesCount()).isZero();
+        assertThat(result.getIndirectCoverageChangesFilesCount()).isZero();
+        assertThat(tree).isEqualTo(readCoverageTree(TEST_REPORT_AFTER));
+    }
+
+    @Test
+    void shouldProduceSameResultsWithoutCodeDeltaAsFullComputation() {
+        ReferenceIndex referenceIndex = new ReferenceIndex(readCoverageTree(TEST_REPORT_BEFORE));
+        CoverageDeltaEngine engine = new CoverageDeltaEngine(new FileChangesProcessor());
+
+        CoverageNode tree = readCoverageTree(TEST_REPORT_AFTER);
+        CoverageDeltaResult shortCircuit = engine.computeWithoutCodeDelta(tree, referenceIndex);
+
+        CoverageNode expected = readCoverageTree(TEST_REPORT_AFTER);
+        Map<String, FileChanges> unrelatedChanges = new HashMap<>();
+        unrelatedChanges.put("does/not/Exist.java",
+                new FileChanges("does/not/Exist.java", "", "", FileEditType.ADD, new HashMap<>()));
+        CoverageDeltaResult full = engine.compute(expected, referenceIndex, unrelatedChanges, new HashMap<>());
+
+        assertThat(tree).isEqualTo(expected);
+        assertThat(shortCircuit).usingRecursiveComparison().isEqualTo(full);
+    }
+
+    @Test
+    void shouldAggregateCoverageOfAllMetricsInSinglePass() {
+        CoverageNode tree = readCoverageTree(TEST_REPORT_AFTER);
+
+        assertThat(CoverageDeltaEngine.toFractions(tree, CoverageDeltaEngine.aggregate(tree)))
+                .isEqualTo(tree.getMetricFractions());
+        for (FileCoverageNode file : tree.getAllFileCoverageNodes()) {
+            assertThat(CoverageDeltaEngine.toFractions(file, CoverageDeltaEngine.aggregate(file)))
+                    .isEqualTo(file.getMetricFractions());
+        }
+    }
+
+    private CoverageNode readCoverageTree(final String file) {
+        CoverageNode root = readNode(file);
+        root.splitPackages();
+        return root;
+    }
+}
@@ -2,6 +2,7 @@ package io.jenkins.plugins.coverage.model;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -93,6 +94,67 @@ class CoverageJobActionTest {
         });
     }
 
+    @Test
+    void shouldCreateTrendChartFromTrendRecords() {
+        FreeStyleBuild build = mock(FreeStyleBuild.class);
+        when(build.getNumber()).thenReturn(15);
+        CoverageBuildAction action = creataBuildAction(build);
+        Coverage lineCoverage = action.getLineCoverage();
+        Coverage branchCoverage = action.getBranchCoverage();
+        when(action.getCoverage(CoverageMetric.LINE)).thenReturn(lineCoverage);
+        when(action.getCoverage(CoverageMetric.BRANCH)).thenReturn(branchCoverage);
+
+        CoverageJobAction jobAction = new CoverageJobAction(mock(FreeStyleProject.class));
+        LinesChartModel chart = jobAction.createTrendChart(
+                Collections.singletonList(CoverageTrendRecord.fromSummary(action)), "{}");
+
+        assertThatJson(chart).node("buildNumbers").isArray().containsExactly(15);
+        assertThatJson(chart).node("domainAxisLabels").isArray().containsExactly("#15");
+        assertThatJson(chart).node("series").isArray().hasSize(2);
+        assertThatJson(chart.getSeries().get(0)).node("data").isArray().containsExactly("50");
+        assertThatJson(chart.getSeries().get(1)).node("data").isArray().containsExactly("90");
+    }
+
+    @Test
+    void shouldSkipTrendRecordsWithoutCoverageOfSelectedMetric() {
+        FreeStyleBuild previous = mock(FreeStyleBuild.class);
+        when(previous.getNumber()).thenReturn(14);
+        CoverageBuildAction previousAction = creataBuildAction(previous);
+        when(previousAction.getCoverage(CoverageMetric.LINE)).thenReturn(previousAction.getLineCoverage());
+        when(previousAction.getCoverage(CoverageMetric.BRANCH)).thenReturn(previousAction.getBranchCoverage());
+
+        FreeStyleBuild build = mock(FreeStyleBuild.class);
+        when(build.getNumber()).thenReturn(15);
+        CoverageBuildAction action = creataBuildAction(build);
+        when(action.getCoverage(any())).thenReturn(Coverage.NO_COVERAGE);
+        when(action.getCoverage(CoverageMetric.METHOD))
+                .thenReturn(new Coverage.CoverageBuilder().setCovered(3).setMissed(1).build());
+
+        List<CoverageTrendRecord> records = new ArrayList<>();
+        records.add(CoverageTrendRecord.fromAction(action));
+        records.add(CoverageTrendRecord.fromSummary(previousAction));
+
+        CoverageJobAction jobAction = new CoverageJobAction(mock(FreeStyleProject.class));
+        LinesChartModel chart = jobAction.createTrendChart(records, "{\"metrics\": \"method\"}");
+
+        assertThatJson(chart).node("buildNumbers").isArray().containsExactly(15);
+        assertThatJson(chart).node("series").isArray().hasSize(1);
+        assertThatJson(chart.getSeries().get(0)).node("name").isEqualTo("Method");
+        assertThatJson(chart.getSeries().get(0)).node("data").isArray().containsExactly("75");
+    }
+
+    @Test
+    void shouldParseMetricsOfChartConfiguration() {
+        assertThat(CoverageJobAction.parseMetrics("{\"metrics\": \"Method, class,METHOD\"}"))
+                .containsExactly(CoverageMetric.METHOD, CoverageMetric.CLASS);
+        assertThat(CoverageJobAction.parseMetrics("{\"metrics\": \"unknown\"}"))
+                .containsExactly(CoverageMetric.LINE, CoverageMetric.BRANCH);
+        assertThat(CoverageJobAction.parseMetrics("{}"))
+                .containsExactly(CoverageMetric.LINE, CoverageMetric.BRANCH);
+        assertThat(CoverageJobAction.parseMetrics("no json"))
+                .containsExactly(CoverageMetric.LINE, CoverageMetric.BRANCH);
+    }
+
     private CoverageBuildAction creataBuildAction(final FreeStyleBuild build) {
         CoverageBuildAction action = mock(CoverageBuildAction.class);
         when(action.getOwner()).thenAnswer(i -> build);
@@ -442,6 +442,36 @@ class CoverageNodeTest extends AbstractCoverageTest {
         assertThat(tree.getChildren().size()).isEqualTo(packageNodes);
     }
 
+    @Test
+    void shouldKeepEqualPackagesWhenFilteringPackageStructure() {
+        CoverageNode root = new CoverageNode(MODULE, "root");
+        for (int i = 0; i < 2; i++) {
+            CoverageNode packageNode = new PackageCoverageNode("package");
+            packageNode.add(new FileCoverageNode("File.java", "package/File.java"));
+            root.add(packageNode);
+        }
+
+        CoverageNode filteredTree = root.filterPackageStructure();
+
+        assertThat(filteredTree.getChildren()).hasSize(2).extracting(CoverageNode::getName)
+                .containsExactly("package", "package");
+        assertThat(filteredTree.getAllFileCoverageNodes()).hasSize(2);
+    }
+
+    @Test
+    void shouldRemoveNodeByIdentity() {
+        CoverageNode packageNode = new PackageCoverageNode("package");
+        FileCoverageNode first = new FileCoverageNode("File.java", "package/File.java");
+        FileCoverageNode second = new FileCoverageNode("File.java", "package/File.java");
+        packageNode.add(first);
+        packageNode.add(second);
+
+        second.remove();
+
+        assertThat(packageNode.getChildren()).hasSize(1);
+        assertThat(packageNode.getChildren().get(0)).isSameAs(first);
+    }
+
     @Test
     void shouldGetAllFileCoverageNodes() {
         CoverageNode tree = readNode("jacoco-analysis-model.xml");
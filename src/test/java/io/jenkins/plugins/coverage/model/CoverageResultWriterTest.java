@@ -0,0 +1,122 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.Run;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link CoverageResultWriter}.
+ */
+class CoverageResultWriterTest {
+    @Test
+    void shouldWriteResultsOfBuildInOrder() throws InterruptedException {
+        CoverageResultWriter writer = new CoverageResultWriter(4, 16);
+        Run<?, ?> build = mock(FreeStyleBuild.class);
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        List<Integer> writes = new CopyOnWriteArrayList<>();
+        writer.submit(build, () -> {
+            await(blocker);
+            writes.add(1);
+        });
+        writer.submit(build, () -> writes.add(2));
+        writer.submit(build, () -> writes.add(3));
+
+        assertThat(writer.getPendingBuildsCount()).isEqualTo(1);
+        assertThat(writes).isEmpty();
+
+        blocker.countDown();
+        writer.awaitPendingWrites(build);
+
+        assertThat(writes).containsExactly(1, 2, 3);
+        assertThat(writer.getWriteCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotBlockWritesOfOtherBuilds() {
+        CoverageResultWriter writer = new CoverageResultWriter(2, 16);
+        Run<?, ?> slow = mock(FreeStyleBuild.class);
+        Run<?, ?> fast = mock(FreeStyleBuild.class);
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        List<Integer> writes = new CopyOnWriteArrayList<>();
+        writer.submit(slow, () -> {
+            await(blocker);
+            writes.add(1);
+        });
+        writer.submit(slow, () -> writes.add(2));
+        writer.submit(fast, () -> writes.add(3));
+
+        writer.awaitPendingWrites(fast);
+        assertThat(writes).containsExactly(3);
+
+        blocker.countDown();
+        writer.awaitPendingWrites(slow);
+        assertThat(writes).containsExactly(3, 1, 2);
+    }
+
+    @Test
+    void shouldWriteInCallingThreadIfQueueIsFull() {
+        CoverageResultWriter writer = new CoverageResultWriter(1, 1);
+        Run<?, ?> first = mock(FreeStyleBuild.class);
+        Run<?, ?> second = mock(FreeStyleBuild.class);
+        Run<?, ?> third = mock(FreeStyleBuild.class);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        writer.submit(first, () -> {
+            started.countDown();
+            await(blocker);
+        });
+        await(started);
+        writer.submit(second, () -> { });
+        assertThat(writer.getQueueDepth()).isEqualTo(1);
+
+        Thread caller = Thread.currentThread();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        Future<?> write = writer.submit(third, () -> threads.add(Thread.currentThread()));
+
+        assertThat(write).isDone();
+        assertThat(threads).containsExactly(caller);
+
+        blocker.countDown();
+        writer.awaitPendingWrites(first);
+        writer.awaitPendingWrites(second);
+        assertThat(writer.getWriteCount()).isEqualTo(3);
+        assertThat(writer.getMaxWriteLatency()).isGreaterThanOrEqualTo(writer.getAverageWriteLatency());
+    }
+
+    @Test
+    void shouldContinueAfterFailedWrite() {
+        CoverageResultWriter writer = new CoverageResultWriter(1, 4);
+        Run<?, ?> build = mock(FreeStyleBuild.class);
+
+        List<Integer> writes = new CopyOnWriteArrayList<>();
+        writer.submit(build, () -> {
+            throw new IllegalStateException("Disk full");
+        });
+        writer.submit(build, () -> writes.add(2));
+        writer.awaitPendingWrites(build);
+
+        assertThat(writes).containsExactly(2);
+    }
+
+    private void await(final CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CoverageTreeDelta}.
+ */
+class CoverageTreeDeltaTest extends AbstractCoverageTest {
+    private static final String REFERENCE_ID = "job#1";
+    private static final String TEST_FILE_1_PATH = "test/example/old/Test1.java";
+    private static final String MAIN_PATH = "Main.java";
+
+    @Test
+    void shouldReferenceAllFilesOfIdenticalTree() {
+        CoverageNode reference = readCoverageTree("file-changes-test-before.xml");
+        CoverageNode tree = readCoverageTree("file-changes-test-before.xml");
+
+        CoverageTreeDelta delta = CoverageTreeDelta.create(REFERENCE_ID, 1, tree, reference);
+
+        assertThat(delta.getReferenceBuildId()).isEqualTo(REFERENCE_ID);
+        assertThat(delta.getDepth()).isEqualTo(1);
+        assertThat(delta.getReferencedFilesCount()).isEqualTo(tree.getAllFileCoverageNodes().size());
+        assertThat(delta.reconstruct(reference)).isEqualTo(tree);
+    }
+
+    @Test
+    void shouldStoreChangedFilesCompletely() {
+        CoverageNode reference = readCoverageTree("file-changes-test-before.xml");
+        CoverageNode tree = readCoverageTree("file-changes-test-after.xml");
+
+        CoverageTreeDelta delta = CoverageTreeDelta.create(REFERENCE_ID, 1, tree, reference);
+
+        assertThat(delta.getReferencedFilesCount()).isLessThan(tree.getAllFileCoverageNodes().size());
+        assertThat(delta.reconstruct(reference)).isEqualTo(tree);
+    }
+
+    @Test
+    void shouldIgnoreChangeInformationOfReference() {
+        CoverageNode reference = readCoverageTree("file-changes-test-before.xml");
+        FileCoverageNode referenceFile = getFile(reference, MAIN_PATH);
+        referenceFile.addChangedCodeLine(10);
+        referenceFile.putIndirectCoverageChange(12, 1);
+
+        CoverageNode tree = readCoverageTree("file-changes-test-before.xml");
+        CoverageTreeDelta delta = CoverageTreeDelta.create(REFERENCE_ID, 1, tree, reference);
+
+        CoverageNode reconstructed = delta.reconstruct(reference);
+        assertThat(reconstructed).isEqualTo(tree);
+        assertThat(getFile(reconstructed, MAIN_PATH).getChangedCodeLines()).isEmpty();
+        assertThat(getFile(reconstructed, MAIN_PATH).getIndirectCoverageChanges()).isEmpty();
+    }
+
+    @Test
+    void shouldIgnoreChangesFingerprintOfReference() {
+        CoverageNode reference = readCoverageTree("file-changes-test-before.xml");
+        getFile(reference, MAIN_PATH).setChangesFingerprint("fingerprint");
+
+        CoverageNode tree = readCoverageTree("file-changes-test-before.xml");
+        CoverageTreeDelta delta = CoverageTreeDelta.create(REFERENCE_ID, 1, tree, reference);
+
+        assertThat(delta.getReferencedFilesCount()).isEqualTo(tree.getAllFileCoverageNodes().size());
+        CoverageNode reconstructed = delta.reconstruct(reference);
+        assertThat(reconstructed).isEqualTo(tree);
+        assertThat(getFile(reconstructed, MAIN_PATH).getChangesFingerprint()).isNull();
+    }
+
+    @Test
+    void shouldStoreFilesWithCodeChangesCompletely() {
+        CoverageNode reference = readCoverageTree("file-changes-test-before.xml");
+        CoverageNode tree = readCoverageTree("file-changes-test-before.xml");
+        getFile(tree, MAIN_PATH).addChangedCodeLine(5);
+
+        CoverageTreeDelta delta = CoverageTreeDelta.create(REFERENCE_ID, 1, tree, reference);
+
+        assertThat(delta.getReferencedFilesCount()).isEqualTo(tree.getAllFileCoverageNodes().size() - 1);
+        CoverageNode reconstructed = delta.reconstruct(reference);
+        assertThat(reconstructed).isEqualTo(tree);
+        assertThat(getFile(reconstructed, MAIN_PATH).getChangedCodeLines()).containsExactly(5);
+    }
+
+    @Test
+    void shouldFailIfReferenceFileIsMissing() {
+        CoverageNode reference = readCoverageTree("file-changes-test-before.xml");
+        CoverageNode tree = readCoverageTree("file-changes-test-before.xml");
+
+        CoverageTreeDelta delta = CoverageTreeDelta.create(REFERENCE_ID, 1, tree, reference);
+        getFile(reference, TEST_FILE_1_PATH).remove();
+
+        assertThatIllegalStateException().isThrownBy(() -> delta.reconstruct(reference))
+                .withMessageContaining(REFERENCE_ID);
+    }
+
+    @Test
+    void shouldSaveAndRestoreDelta(@TempDir final Path folder) {
+        CoverageNode reference = readCoverageTree("file-changes-test-before.xml");
+        CoverageNode tree = readCoverageTree("file-changes-test-after.xml");
+
+        CoverageTreeDeltaXmlStream xmlStream = new CoverageTreeDeltaXmlStream();
+        Path saved = folder.resolve(CoverageTreeDelta.FILE_NAME);
+        xmlStream.write(saved, CoverageTreeDelta.create(REFERENCE_ID, 2, tree, reference));
+
+        CoverageTreeDelta restored = xmlStream.read(saved);
+        assertThat(restored.getReferenceBuildId()).isEqualTo(REFERENCE_ID);
+        assertThat(restored.getDepth()).isEqualTo(2);
+        assertThat(restored.reconstruct(reference)).isEqualTo(tree);
+    }
+
+    @Test
+    void shouldStoreKeyframes() {
+        assertThat(CoverageTreeDelta.isDeltaRequired(0)).isTrue();
+        assertThat(CoverageTreeDelta.isDeltaRequired(CoverageTreeDelta.KEYFRAME_INTERVAL - 2)).isTrue();
+        assertThat(CoverageTreeDelta.isDeltaRequired(CoverageTreeDelta.KEYFRAME_INTERVAL - 1)).isFalse();
+    }
+
+    private FileCoverageNode getFile(final CoverageNode root, final String path) {
+        return root.getAllFileCoverageNodes().stream()
+                .filter(file -> file.getPath().equals(path))
+                .findAny()
+                .orElseThrow(() -> new AssertionError("No such file: " + path));
+    }
+
+    private CoverageNode readCoverageTree(final String file) {
+        CoverageNode root = readNode(file);
+        root.splitPackages();
+        return root;
+    }
+}
@@ -0,0 +1,129 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import io.jenkins.plugins.coverage.model.CoverageTreeJsonWriter.TreeQuery;
+
+import static net.javacrumbs.jsonunit.assertj.JsonAssertions.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CoverageTreeJsonWriter}.
+ */
+class CoverageTreeJsonWriterTest extends AbstractCoverageTest {
+    private static final String PACKAGE_PATH = "edu/hm/hafner/util";
+    private static final String ENSURE_PATH = PACKAGE_PATH + "/Ensure.java";
+
+    @Test
+    void shouldWriteAllNodesWithAllMetrics() throws IOException {
+        CoverageNode root = readCodingStyle();
+
+        String json = write(root, new TreeQuery(-1, Collections.emptyList(), "", 0, -1));
+
+        assertThatJson(json).node("total").isEqualTo(count(root));
+        assertThatJson(json).node("nodes").isArray().hasSize(count(root));
+        assertThatJson(json).node("nodes[0].name").isEqualTo(root.getName());
+        assertThatJson(json).node("nodes[0].metric").isEqualTo("Module");
+        assertThatJson(json).node("nodes[0].depth").isEqualTo(0);
+        assertThatJson(json).node("nodes[0].coverage.Line.covered").isEqualTo(root.getCoverage(LINE).getCovered());
+        assertThatJson(json).node("nodes[0].coverage.Line.missed").isEqualTo(root.getCoverage(LINE).getMissed());
+        assertThatJson(json).node("nodes[0].coverage.Branch").isPresent();
+        assertThatJson(json).node("nodes[1].metric").isEqualTo("Package");
+        assertThatJson(json).node("nodes[1].path").isEqualTo(PACKAGE_PATH);
+        assertThatJson(json).node("nodes[1].depth").isEqualTo(1);
+    }
+
+    @Test
+    void shouldLimitDepthAndMetrics() throws IOException {
+        CoverageNode root = readCodingStyle();
+
+        String json = write(root, new TreeQuery(1, Arrays.asList(LINE, BRANCH), "", 0, -1));
+
+        assertThatJson(json).node("total").isEqualTo(2);
+        assertThatJson(json).node("nodes[0].coverage").isObject().containsOnlyKeys("Line", "Branch");
+        assertThatJson(json).node("nodes[1].coverage").isObject().containsOnlyKeys("Line", "Branch");
+        assertThatJson(json).node("nodes[1].metric").isEqualTo("Package");
+    }
+
+    @Test
+    void shouldFilterNodesByPathPrefix() throws IOException {
+        CoverageNode root = readCodingStyle();
+        CoverageNode file = root.find(FILE, ENSURE_PATH).orElseThrow(IllegalArgumentException::new);
+
+        String json = write(root, new TreeQuery(-1, Collections.singletonList(LINE), "/" + ENSURE_PATH, 0, -1));
+
+        assertThatJson(json).node("total").isEqualTo(count(file));
+        assertThatJson(json).node("nodes[0].name").isEqualTo("Ensure.java");
+        assertThatJson(json).node("nodes[0].depth").isEqualTo(2);
+        assertThatJson(json).node("nodes[1].metric").isEqualTo("Class");
+        assertThatJson(json).node("nodes[1].path").isEqualTo(ENSURE_PATH);
+
+        assertThatJson(write(root, new TreeQuery(-1, Collections.singletonList(LINE), "does/not/exist", 0, -1)))
+                .node("total").isEqualTo(0);
+    }
+
+    @Test
+    void shouldWriteRequestedPage() throws IOException {
+        CoverageNode root = readCodingStyle();
+
+        String json = write(root, new TreeQuery(-1, Collections.singletonList(LINE), "", 1, 3));
+
+        assertThatJson(json).node("total").isEqualTo(count(root));
+        assertThatJson(json).node("start").isEqualTo(1);
+        assertThatJson(json).node("nodes").isArray().hasSize(3);
+        assertThatJson(json).node("nodes[0].metric").isEqualTo("Package");
+    }
+
+    @Test
+    void shouldParseRequestParameters() {
+        Map<String, String[]> parameters = new HashMap<>();
+        parameters.put("depth", new String[] {"2"});
+        parameters.put("metric", new String[] {"line", "BRANCH"});
+        parameters.put("path", new String[] {"/edu/hm"});
+        parameters.put("start", new String[] {"10"});
+        parameters.put("limit", new String[] {"5"});
+
+        TreeQuery query = TreeQuery.fromParameters(parameters);
+
+        assertThat(query.getMaxDepth()).isEqualTo(2);
+        assertThat(query.getMetrics()).containsExactly(LINE, BRANCH);
+        assertThat(query.getPathPrefix()).isEqualTo("edu/hm");
+        assertThat(query.getStart()).isEqualTo(10);
+        assertThat(query.isInPage(9)).isFalse();
+        assertThat(query.isInPage(14)).isTrue();
+        assertThat(query.isInPage(15)).isFalse();
+
+        TreeQuery defaults = TreeQuery.fromParameters(Collections.emptyMap());
+
+        assertThat(defaults.getMaxDepth()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(defaults.getMetrics()).isEmpty();
+        assertThat(defaults.getPathPrefix()).isEmpty();
+        assertThat(defaults.isInPage(Integer.MAX_VALUE - 1)).isTrue();
+    }
+
+    private String write(final CoverageNode root, final TreeQuery query) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(writer)) {
+            new CoverageTreeJsonWriter().write(root, query, generator);
+        }
+        return writer.toString();
+    }
+
+    private int count(final CoverageNode node) {
+        return 1 + node.getChildren().stream().mapToInt(this::count).sum();
+    }
+
+    private CoverageNode readCodingStyle() {
+        return readNode("jacoco-codingstyle.xml");
+    }
+}
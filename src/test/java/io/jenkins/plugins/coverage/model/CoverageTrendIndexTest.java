@@ -0,0 +1,130 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import hudson.model.FreeStyleBuild;
+
+import io.jenkins.plugins.coverage.model.Coverage.CoverageBuilder;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the classes {@link CoverageTrendIndex} and {@link CoverageTrendRecord}.
+ */
+class CoverageTrendIndexTest {
+    private static final Supplier<List<CoverageTrendRecord>> NO_HISTORY = () -> {
+        throw new AssertionError("The history must not be read if the index exists");
+    };
+
+    @Test
+    void shouldCreateIndexFromHistoryIfMissing(@TempDir final Path job) throws IOException {
+        CoverageTrendIndex index = new CoverageTrendIndex(job.toFile());
+        assertThat(index.exists()).isFalse();
+        assertThat(index.read()).isEmpty();
+
+        index.append(new CoverageTrendRecord(3, 3000),
+                () -> Arrays.asList(new CoverageTrendRecord(1, 1000), new CoverageTrendRecord(2, 2000)));
+
+        assertThat(index.exists()).isTrue();
+        assertThat(index.read()).extracting(CoverageTrendRecord::getBuildNumber).containsExactly(3, 2, 1);
+
+        index.append(new CoverageTrendRecord(4, 4000), NO_HISTORY);
+
+        assertThat(index.read()).extracting(CoverageTrendRecord::getBuildNumber).containsExactly(4, 3, 2, 1);
+        assertThat(Files.size(job.resolve(CoverageTrendIndex.FILE_NAME)))
+                .isEqualTo(8 + 4 * CoverageTrendRecord.SIZE);
+    }
+
+    @Test
+    void shouldReadHistoryOnlyIfIndexIsMissing(@TempDir final Path job) throws IOException {
+        CoverageTrendIndex index = new CoverageTrendIndex(job.toFile());
+
+        assertThat(index.read(() -> Arrays.asList(new CoverageTrendRecord(1, 1000), new CoverageTrendRecord(2, 2000))))
+                .extracting(CoverageTrendRecord::getBuildNumber).containsExactly(2, 1);
+        assertThat(index.read(NO_HISTORY)).extracting(CoverageTrendRecord::getBuildNumber).containsExactly(2, 1);
+    }
+
+    @Test
+    void shouldUseLastRecordOfBuild(@TempDir final Path job) throws IOException {
+        CoverageTrendIndex index = new CoverageTrendIndex(job.toFile());
+        index.create(Arrays.asList(new CoverageTrendRecord(1, 1000), new CoverageTrendRecord(2, 2000)));
+
+        index.append(new CoverageTrendRecord(2, 5000), NO_HISTORY);
+
+        assertThat(index.read()).hasSize(2).first().satisfies(record -> {
+            assertThat(record.getBuildNumber()).isEqualTo(2);
+            assertThat(record.getBuildTime()).isEqualTo(5000);
+        });
+    }
+
+    @Test
+    void shouldRemoveRecordsOfDeletedBuild(@TempDir final Path job) throws IOException {
+        CoverageTrendIndex index = new CoverageTrendIndex(job.toFile());
+        index.create(Arrays.asList(new CoverageTrendRecord(1, 1000), new CoverageTrendRecord(2, 2000),
+                new CoverageTrendRecord(3, 3000)));
+
+        index.remove(2);
+        index.remove(4);
+
+        assertThat(index.read()).extracting(CoverageTrendRecord::getBuildNumber).containsExactly(3, 1);
+    }
+
+    @Test
+    void shouldIgnoreIndexWithUnknownFormat(@TempDir final Path job) throws IOException {
+        Files.write(job.resolve(CoverageTrendIndex.FILE_NAME), new byte[] {0, 0, 0, 9, 0, 0, 0, 1});
+        CoverageTrendIndex index = new CoverageTrendIndex(job.toFile());
+
+        assertThat(index.exists()).isFalse();
+        assertThat(index.read()).isEmpty();
+    }
+
+    @Test
+    void shouldStoreAllMetricsAndDeltas(@TempDir final Path job) throws IOException {
+        FreeStyleBuild build = mock(FreeStyleBuild.class);
+        when(build.getNumber()).thenReturn(7);
+        when(build.getTimeInMillis()).thenReturn(7000L);
+        TreeMap<CoverageMetric, CoveragePercentage> difference = new TreeMap<>();
+        difference.put(CoverageMetric.LINE, CoveragePercentage.valueOf(-2.5));
+
+        CoverageBuildAction action = mock(CoverageBuildAction.class);
+        when(action.getOwner()).thenAnswer(i -> build);
+        when(action.getCoverage(any())).thenReturn(Coverage.NO_COVERAGE);
+        when(action.getCoverage(CoverageMetric.LINE))
+                .thenReturn(new CoverageBuilder().setCovered(3).setMissed(1).build());
+        when(action.getCoverage(CoverageMetric.METHOD))
+                .thenReturn(new CoverageBuilder().setCovered(1).setMissed(1).build());
+        when(action.getDifference()).thenReturn(difference);
+        when(action.hasDelta(CoverageMetric.LINE)).thenReturn(true);
+
+        CoverageTrendIndex index = new CoverageTrendIndex(job.toFile());
+        index.create(Arrays.asList(CoverageTrendRecord.fromAction(action)));
+
+        assertThat(index.read()).hasSize(1).first().satisfies(record -> {
+            assertThat(record.getBuildNumber()).isEqualTo(7);
+            assertThat(record.getCoverage(CoverageMetric.LINE).getRoundedPercentage()).isEqualTo(75);
+            assertThat(record.getCoverage(CoverageMetric.METHOD).getRoundedPercentage()).isEqualTo(50);
+            assertThat(record.getCoverage(CoverageMetric.BRANCH).isSet()).isFalse();
+            assertThat(record.hasCoverage(CoverageMetric.METHOD)).isTrue();
+            assertThat(record.hasCoverage(CoverageMetric.BRANCH)).isFalse();
+            assertThat(record.hasDelta(CoverageMetric.LINE)).isTrue();
+            assertThat(record.getDelta(CoverageMetric.LINE)).isEqualTo(-2.5);
+            assertThat(record.hasDelta(CoverageMetric.BRANCH)).isFalse();
+        });
+
+        CoverageTrendRecord summary = CoverageTrendRecord.fromSummary(action);
+        assertThat(summary.getCoverage(CoverageMetric.LINE).getRoundedPercentage()).isEqualTo(75);
+        assertThat(summary.hasCoverage(CoverageMetric.LINE)).isTrue();
+        assertThat(summary.hasCoverage(CoverageMetric.METHOD)).isFalse();
+        assertThat(summary.getCoverage(CoverageMetric.METHOD).isSet()).isFalse();
+    }
+}
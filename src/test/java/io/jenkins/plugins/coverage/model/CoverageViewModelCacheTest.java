@@ -0,0 +1,68 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.HealthReport;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link CoverageViewModelCache}.
+ */
+class CoverageViewModelCacheTest extends AbstractCoverageTest {
+    private static final String BUILD_ID = "job#1";
+
+    @Test
+    void shouldShareViewModelOfBuild() {
+        CoverageViewModelCache cache = new CoverageViewModelCache(Long.MAX_VALUE);
+        CoverageBuildAction action = spy(createAction(createBuild()));
+
+        CoverageViewModel viewModel = cache.getViewModel(action);
+
+        assertThat(viewModel.getOwner()).isSameAs(action.getOwner());
+        assertThat(cache.getViewModel(action)).isSameAs(viewModel);
+        verify(action, times(1)).createViewModel();
+        assertThat(cache.getSize()).isEqualTo(1);
+
+        cache.invalidate(BUILD_ID);
+        assertThat(cache.getSize()).isZero();
+        assertThat(cache.getViewModel(action)).isNotSameAs(viewModel);
+    }
+
+    @Test
+    void shouldReplaceViewModelOfReloadedBuild() {
+        CoverageViewModelCache cache = new CoverageViewModelCache(Long.MAX_VALUE);
+        CoverageViewModel viewModel = cache.getViewModel(createAction(createBuild()));
+
+        CoverageBuildAction reloaded = createAction(createBuild());
+        CoverageViewModel replacement = cache.getViewModel(reloaded);
+
+        assertThat(replacement).isNotSameAs(viewModel);
+        assertThat(replacement.getOwner()).isSameAs(reloaded.getOwner());
+        assertThat(cache.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheViewModelsThatExceedMaximumSize() {
+        CoverageViewModelCache cache = new CoverageViewModelCache(1);
+        CoverageBuildAction action = createAction(createBuild());
+
+        assertThat(cache.getViewModel(action)).isNotSameAs(cache.getViewModel(action));
+        assertThat(cache.getSize()).isZero();
+    }
+
+    private FreeStyleBuild createBuild() {
+        FreeStyleBuild build = mock(FreeStyleBuild.class);
+        when(build.getExternalizableId()).thenReturn(BUILD_ID);
+        return build;
+    }
+
+    private CoverageBuildAction createAction(final FreeStyleBuild build) {
+        return new CoverageBuildAction(build, readNode("jacoco-codingstyle.xml"), new HealthReport(), "-",
+                new TreeMap<>(), new TreeMap<>(), new TreeMap<>(), new TreeMap<>(), false);
+    }
+}
@@ -1,5 +1,6 @@
 package io.jenkins.plugins.coverage.model;
 
+import java.util.Collections;
 import java.util.NoSuchElementException;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import hudson.model.Run;
 
 import io.jenkins.plugins.coverage.model.Coverage.CoverageBuilder;
+import io.jenkins.plugins.coverage.model.visualization.colorization.ColorProvider;
 
 import static io.jenkins.plugins.coverage.metrics.Assertions.*;
 import static io.jenkins.plugins.coverage.model.CoverageViewModel.*;
@@ -57,6 +59,8 @@ class CoverageViewModelTest extends AbstractCoverageTest {
     @Test
     void shouldProvideChangeCoverage() {
         CoverageNode node = createChangeCoverageNode(Fraction.ZERO, LINE, 1, 1);
+        Coverage changeCoverage = node.getCoverage(LINE);
+        when(changeCoverage.getTotal()).thenReturn(1);
         CoverageViewModel model = createModelFromMock(node);
         assertThat(model.hasChangeCoverage()).isTrue();
 
@@ -75,6 +79,8 @@ class CoverageViewModelTest extends AbstractCoverageTest {
     @Test
     void shouldProvideIndirectCoverageChanges() {
         CoverageNode node = createIndirectCoverageChangesNode(Fraction.ZERO, LINE, 1, 1);
+        Coverage indirectCoverage = node.getCoverage(LINE);
+        when(indirectCoverage.getTotal()).thenReturn(1);
         CoverageViewModel model = createModelFromMock(node);
         assertThat(model.hasIndirectCoverageChanges()).isTrue();
     }
@@ -90,6 +96,75 @@ class CoverageViewModelTest extends AbstractCoverageTest {
                 .isThrownBy(() -> model.getTableModel("wrong-id"));
     }
 
+    @Test
+    void shouldSendSmallTablesCompletelyToBrowser() {
+        CoverageViewModel model = createModel();
+
+        assertThat(model.isServerSideTable(ABSOLUTE_COVERAGE_TABLE_ID)).isFalse();
+        assertThat(model.isServerSideTable(CHANGE_COVERAGE_TABLE_ID)).isFalse();
+        assertThat(model.isServerSideTable(INDIRECT_COVERAGE_TABLE_ID + "-inline")).isFalse();
+        assertThatExceptionOfType(NoSuchElementException.class)
+                .isThrownBy(() -> model.isServerSideTable("wrong-id"));
+    }
+
+    @Test
+    void shouldShareColorProvidersOfSameColors() {
+        String colors = "{\"--green\": \"#1ea64b\", \"--light-green\": \"#b1e4c2\", "
+                + "\"--yellow\": \"#ff9d00\", \"--light-yellow\": \"#ffedcc\", "
+                + "\"--orange\": \"#ff7400\", \"--light-orange\": \"#ffdbbe\", "
+                + "\"--red\": \"#e6001f\", \"--light-red\": \"#ffc2ca\"}";
+
+        ColorProvider colorProvider = getColorProvider(parseColors(colors));
+
+        assertThat(getColorProvider(parseColors(colors))).isSameAs(colorProvider);
+        assertThat(colorProvider).isNotSameAs(createModel().getColorProvider());
+        assertThat(parseColors("no json")).isEmpty();
+        assertThat(getColorProvider(parseColors("no json"))).isSameAs(createModel().getColorProvider());
+    }
+
+    @Test
+    void shouldCacheSerializedTreeMaps() {
+        CoverageViewModel model = createModel();
+
+        SerializedTreeMap lineCoverage = model.getTreeMap(COVERAGE_TREE, "Line", new TreeMap<>());
+
+        assertThatJson(lineCoverage.getJson()).node("name").isEqualTo("Java coding style: jacoco-codingstyle.xml");
+        assertThat(lineCoverage.getEntityTag()).startsWith("\"").endsWith("\"").hasSize(66);
+        assertThat(model.getTreeMap(COVERAGE_TREE, "Line", new TreeMap<>())).isSameAs(lineCoverage);
+
+        SerializedTreeMap branchCoverage = model.getTreeMap(COVERAGE_TREE, "Branch", new TreeMap<>());
+        assertThat(branchCoverage).isNotSameAs(lineCoverage);
+        assertThat(branchCoverage.getEntityTag()).isNotEqualTo(lineCoverage.getEntityTag());
+
+        TreeMap<String, String> colors = parseColors("{\"--green\": \"#000000\"}");
+        assertThat(model.getTreeMap(COVERAGE_TREE, "Line", colors)).isNotSameAs(lineCoverage);
+
+        assertThat(model.getTreeMap(CHANGE_COVERAGE_TREE, "Method", new TreeMap<>()).getJson()).isNotEmpty();
+        assertThat(model.getTreeMap(INDIRECT_COVERAGE_TREE, "Line", new TreeMap<>()).getJson()).isNotEmpty();
+        assertThatExceptionOfType(NoSuchElementException.class)
+                .isThrownBy(() -> model.getTreeMap("wrong-id", "Line", new TreeMap<>()));
+    }
+
+    @Test
+    void shouldProvidePartialTreeMaps() {
+        CoverageViewModel model = createModel();
+
+        SerializedTreeMap partial = model.getPartialTreeMap(COVERAGE_TREE, "Line", Collections.emptyList(), 1,
+                new TreeMap<>());
+
+        assertThatJson(partial.getJson()).node("root.name").isEqualTo("Java coding style: jacoco-codingstyle.xml");
+        assertThatJson(partial.getJson()).node("expandable").isEqualTo("[[\"edu.hm.hafner.util\"]]");
+        assertThat(model.getPartialTreeMap(COVERAGE_TREE, "Line", Collections.emptyList(), 1, new TreeMap<>()))
+                .isSameAs(partial);
+
+        SerializedTreeMap expanded = model.getPartialTreeMap(COVERAGE_TREE, "Line",
+                Collections.singletonList("edu.hm.hafner.util"), 100, new TreeMap<>());
+        assertThatJson(expanded.getJson()).node("expandable").isArray().isEmpty();
+        assertThatExceptionOfType(NoSuchElementException.class).isThrownBy(
+                () -> model.getPartialTreeMap(COVERAGE_TREE, "Line", Collections.singletonList("wrong"), 1,
+                        new TreeMap<>()));
+    }
+
     private CoverageViewModel createModel() {
         return new CoverageViewModel(mock(Run.class), readNode("jacoco-codingstyle.xml"));
     }
@@ -111,6 +186,12 @@ class CoverageViewModelTest extends AbstractCoverageTest {
         changeMetricsDistribution.put(FILE, CoverageBuilder.NO_COVERAGE);
         changeMetricsDistribution.put(PACKAGE, CoverageBuilder.NO_COVERAGE);
         when(mock.getMetricsDistribution()).thenReturn(changeMetricsDistribution);
+        if (mock.getChangeCoverageTree() == null) {
+            when(mock.getChangeCoverageTree()).thenReturn(new CoverageNode(MODULE, "empty"));
+        }
+        if (mock.getIndirectCoverageChangesTree() == null) {
+            when(mock.getIndirectCoverageChangesTree()).thenReturn(new CoverageNode(MODULE, "empty"));
+        }
 
         return new CoverageViewModel(mock(Run.class), mock);
     }
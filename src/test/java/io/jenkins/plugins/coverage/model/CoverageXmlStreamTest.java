@@ -17,6 +17,7 @@ import io.jenkins.plugins.coverage.model.Coverage.CoverageBuilder;
 import io.jenkins.plugins.coverage.model.CoverageXmlStream.HitsMapConverter;
 import io.jenkins.plugins.coverage.model.CoverageXmlStream.IntegerSetConverter;
 import io.jenkins.plugins.coverage.model.CoverageXmlStream.LineMapConverter;
+import io.jenkins.plugins.coverage.model.CoverageXmlStream.MethodLineIndexConverter;
 import io.jenkins.plugins.coverage.model.CoverageXmlStream.MetricPercentageMapConverter;
 import io.jenkins.plugins.coverage.targets.CoverageElementRegister;
 import io.jenkins.plugins.coverage.targets.CoverageResult;
@@ -161,4 +162,16 @@ class CoverageXmlStreamTest extends SerializableTest<CoverageNode> {
         assertThat(converter.unmarshal("[15]")).containsExactly(15);
         assertThat(converter.unmarshal("[15, 20]")).containsExactly(15, 20);
     }
+
+    @Test
+    void shouldConvertMethodLineIndex() {
+        MethodLineIndexConverter converter = new MethodLineIndexConverter();
+
+        assertThat(converter.unmarshal(MethodLineIndex.EMPTY.toString())).isEqualTo(MethodLineIndex.EMPTY);
+
+        MethodLineIndex index = new MethodLineIndex(new int[] {5, 12}, new int[] {10, 20});
+        assertThat(index.toString()).isEqualTo("[5-10, 12-20]");
+        assertThat(converter.unmarshal("[5-10, 12-20]")).isEqualTo(index);
+        assertThat(converter.unmarshal("[5-x]")).isEqualTo(MethodLineIndex.EMPTY);
+    }
 }
@@ -3,6 +3,7 @@ package io.jenkins.plugins.coverage.model;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.lang3.math.Fraction;
 import org.junit.jupiter.api.BeforeAll;
@@ -174,6 +175,32 @@ class FileChangesProcessorTest extends AbstractCoverageTest {
                 });
     }
 
+    @Test
+    void shouldProduceSameResultsWhenProcessingFilesInParallel() {
+        CoverageNode sequentialTree = attachAllChanges(new FileChangesProcessor(null, 0));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CoverageNode parallelTree = attachAllChanges(new FileChangesProcessor(pool, 0));
+
+            assertThat(parallelTree).isEqualTo(sequentialTree);
+            assertThat(parallelTree.getAllFileCoverageNodes())
+                    .containsExactlyElementsOf(sequentialTree.getAllFileCoverageNodes());
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private CoverageNode attachAllChanges(final FileChangesProcessor fileChangesProcessor) {
+        CoverageNode reference = readCoverageTree(TEST_REPORT_BEFORE);
+        CoverageNode tree = readCoverageTree(TEST_REPORT_AFTER);
+        fileChangesProcessor.attachChangedCodeLines(tree, CODE_CHANGES);
+        fileChangesProcessor.attachIndirectCoveragesChanges(tree, reference, CODE_CHANGES, OLD_PATH_MAPPING);
+        fileChangesProcessor.attachFileCoverageDeltas(tree, reference, OLD_PATH_MAPPING);
+        return tree;
+    }
+
     /**
      * Reads the coverage tree from a report.
      *
@@ -46,6 +46,38 @@ class FilePathValidatorTest extends AbstractCoverageTest {
         );
     }
 
+    @Test
+    void shouldRemoveAllDuplicatesInSinglePass() {
+        CoverageNode root = new CoverageNode(CoverageMetric.MODULE, "root");
+        CoverageNode generated = new PackageCoverageNode("generated");
+        CoverageNode mixed = new PackageCoverageNode("mixed");
+        root.add(generated);
+        root.add(mixed);
+        for (int i = 0; i < 100; i++) {
+            generated.add(new FileCoverageNode("Generated.java", "generated/Generated" + i % 10 + ".java"));
+        }
+        mixed.add(new FileCoverageNode("Unique.java", "mixed/Unique.java"));
+        mixed.add(new FileCoverageNode("Generated.java", "generated/Generated3.java"));
+        FilteredLog log = createLog();
+
+        verifyPathUniqueness(root, log);
+
+        assertThat(root.getAll(CoverageMetric.PACKAGE)).containsExactly(mixed);
+        assertThat(root.getAllFileCoverageNodes())
+                .extracting(FileCoverageNode::getPath).containsExactly("mixed/Unique.java");
+        assertThat(log.getErrorMessages()).contains(AMBIGUOUS_FILES_MESSAGE + System.lineSeparator()
+                + "generated/Generated0.java," + System.lineSeparator()
+                + "generated/Generated1.java," + System.lineSeparator()
+                + "generated/Generated2.java," + System.lineSeparator()
+                + "generated/Generated3.java," + System.lineSeparator()
+                + "generated/Generated4.java," + System.lineSeparator()
+                + "generated/Generated5.java," + System.lineSeparator()
+                + "generated/Generated6.java," + System.lineSeparator()
+                + "generated/Generated7.java," + System.lineSeparator()
+                + "generated/Generated8.java," + System.lineSeparator()
+                + "generated/Generated9.java");
+    }
+
     /**
      * Creates a {@link FilteredLog log}.
      *
@@ -0,0 +1,86 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.HashMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.delta.Change;
+import io.jenkins.plugins.forensics.delta.ChangeEditType;
+import io.jenkins.plugins.forensics.delta.FileChanges;
+import io.jenkins.plugins.forensics.delta.FileEditType;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link LineMapping}.
+ */
+class LineMappingTest {
+    @Test
+    void shouldMapOldLinesToNewLines() {
+        LineMapping mapping = LineMapping.fromChanges(createChanges());
+
+        assertThat(mapping.getNewLine(1)).isEqualTo(1);
+        assertThat(mapping.getNewLine(4)).isEqualTo(4);
+        assertThat(mapping.getNewLine(5)).isEqualTo(10);
+        assertThat(mapping.getNewLine(8)).isEqualTo(13);
+        assertThat(mapping.getNewLine(9)).isEqualTo(19);
+        assertThat(mapping.getNewLine(10)).isEqualTo(LineMapping.REMOVED);
+        assertThat(mapping.getNewLine(11)).isEqualTo(LineMapping.REMOVED);
+        assertThat(mapping.getNewLine(12)).isEqualTo(23);
+        assertThat(mapping.getNewLine(15)).isEqualTo(26);
+        assertThat(mapping.getNewLine(16)).isEqualTo(LineMapping.REMOVED);
+        assertThat(mapping.getNewLine(19)).isEqualTo(LineMapping.REMOVED);
+        assertThat(mapping.getNewLine(20)).isEqualTo(27);
+        assertThat(mapping.getNewLine(25)).isEqualTo(32);
+        assertThat(mapping.getNewLine(26)).isEqualTo(37);
+    }
+
+    @Test
+    void shouldRemapLineBasedValues() {
+        LineMapping mapping = LineMapping.fromChanges(createChanges());
+
+        SortedMap<Integer, String> valuesPerOldLine = new TreeMap<>();
+        for (int line = 1; line <= 26; line++) {
+            valuesPerOldLine.put(line, "old-" + line);
+        }
+
+        SortedMap<Integer, String> valuesPerNewLine = mapping.remap(valuesPerOldLine);
+
+        assertThat(valuesPerNewLine).hasSize(26 - 2 - 4)
+                .containsEntry(4, "old-4")
+                .containsEntry(10, "old-5")
+                .containsEntry(19, "old-9")
+                .containsEntry(23, "old-12")
+                .containsEntry(27, "old-20")
+                .containsEntry(37, "old-26")
+                .doesNotContainValue("old-10")
+                .doesNotContainValue("old-16");
+        valuesPerNewLine.forEach((line, value) -> assertThat(mapping.getNewLine(
+                Integer.parseInt(value.substring(4)))).isEqualTo(line));
+    }
+
+    @Test
+    void shouldNotChangeLinesWithoutChanges() {
+        LineMapping mapping = LineMapping.fromChanges(
+                new FileChanges("file", "file", "", FileEditType.MODIFY, new HashMap<>()));
+
+        SortedMap<Integer, String> values = new TreeMap<>();
+        values.put(1, "a");
+        values.put(5, "b");
+
+        assertThat(mapping.remap(values)).isEqualTo(values);
+        assertThat(mapping.getNewLine(5)).isEqualTo(5);
+    }
+
+    private FileChanges createChanges() {
+        FileChanges fileChanges = new FileChanges("file", "file", "", FileEditType.MODIFY, new HashMap<>());
+        fileChanges.addChange(new Change(ChangeEditType.INSERT, 4, 4, 5, 9));
+        fileChanges.addChange(new Change(ChangeEditType.INSERT, 8, 8, 14, 18));
+        fileChanges.addChange(new Change(ChangeEditType.INSERT, 25, 25, 33, 36));
+        fileChanges.addChange(new Change(ChangeEditType.REPLACE, 10, 11, 20, 22));
+        fileChanges.addChange(new Change(ChangeEditType.DELETE, 16, 19, 26, 26));
+        return fileChanges;
+    }
+}
@@ -0,0 +1,105 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link LruCache}.
+ */
+class LruCacheTest {
+    @Test
+    void shouldEvictLeastRecentlyUsedValues() {
+        LruCache<String, String> cache = new LruCache<>(10, String::length);
+
+        assertThat(cache.get("a", key -> "aaaa")).isEqualTo("aaaa");
+        assertThat(cache.get("b", key -> "bbbb")).isEqualTo("bbbb");
+        assertThat(cache.get("a", key -> "loaded again")).isEqualTo("aaaa");
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(2);
+        assertThat(cache.getWeight()).isEqualTo(8);
+
+        assertThat(cache.get("c", key -> "cccc")).isEqualTo("cccc");
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.get("a", key -> "loaded again")).isEqualTo("aaaa");
+        assertThat(cache.get("b", key -> "bbbb")).isEqualTo("bbbb");
+        assertThat(cache.getEvictions()).isEqualTo(2);
+
+        cache.invalidate("a");
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getWeight()).isEqualTo(4);
+        assertThat(cache.get("b", key -> "loaded again")).isEqualTo("bbbb");
+    }
+
+    @Test
+    void shouldNotCacheValuesThatExceedMaximumWeight() {
+        LruCache<String, String> cache = new LruCache<>(4, String::length);
+
+        cache.get("a", key -> "aaaa");
+        assertThat(cache.get("b", key -> "too large")).isEqualTo("too large");
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("a", key -> "loaded again")).isEqualTo("aaaa");
+    }
+
+    @Test
+    void shouldLoadValueOnlyOnceForConcurrentRequests() throws Exception {
+        LruCache<String, String> cache = new LruCache<>(100, String::length);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> cache.get("key", key -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(blocker);
+                return "value";
+            }));
+            assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<String> second = executor.submit(() -> cache.get("key", key -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+
+            blocker.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThat(loads).hasValue(1);
+            assertThat(cache.getMisses()).isEqualTo(1);
+            assertThat(cache.getHits()).isEqualTo(1);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldPropagateFailedLoad() {
+        LruCache<String, String> cache = new LruCache<>(100, String::length);
+
+        assertThatIllegalStateException().isThrownBy(() -> cache.get("key", key -> {
+            throw new IllegalStateException("Failed");
+        }));
+        assertThat(cache.get("key", key -> "value")).isEqualTo("value");
+    }
+
+    private void await(final CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
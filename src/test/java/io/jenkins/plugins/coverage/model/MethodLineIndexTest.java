@@ -0,0 +1,100 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.coverage.model.Coverage.CoverageBuilder;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link MethodLineIndex}.
+ */
+class MethodLineIndexTest {
+    private static final Coverage COVERED = new CoverageBuilder().setCovered(1).setMissed(0).build();
+    private static final Coverage MISSED = new CoverageBuilder().setCovered(0).setMissed(1).build();
+
+    @Test
+    void shouldCreateRangesUpToLastLineWithCoverage() {
+        MethodLineIndex index = MethodLineIndex.create(Arrays.asList(
+                new MethodCoverageNode("second", 20),
+                new MethodCoverageNode("first", 5),
+                new MethodCoverageNode("invalid", 0),
+                new MethodCoverageNode("third", 40)), createCoveragePerLine(5, 6, 8, 20, 21, 22, 40));
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index).hasToString("[5-8, 20-22, 40-40]");
+    }
+
+    @Test
+    void shouldFindMethodOfLine() {
+        MethodLineIndex index = new MethodLineIndex(new int[] {5, 20, 40}, new int[] {8, 22, 45});
+
+        assertThat(index.findMethod(4)).isEmpty();
+        assertThat(index.findMethod(5)).hasValue(0);
+        assertThat(index.findMethod(8)).hasValue(0);
+        assertThat(index.findMethod(9)).isEmpty();
+        assertThat(index.findMethod(21)).hasValue(1);
+        assertThat(index.findMethod(40)).hasValue(2);
+        assertThat(index.findMethod(45)).hasValue(2);
+        assertThat(index.findMethod(46)).isEmpty();
+        assertThat(MethodLineIndex.EMPTY.findMethod(1)).isEmpty();
+    }
+
+    @Test
+    void shouldComputeMethodChangeCoverage() {
+        FileCoverageNode file = new FileCoverageNode("File.java", "path/File.java");
+        SortedMap<Integer, Coverage> coveragePerLine = new TreeMap<>();
+        coveragePerLine.put(5, COVERED);
+        coveragePerLine.put(6, MISSED);
+        coveragePerLine.put(20, MISSED);
+        coveragePerLine.put(21, MISSED);
+        coveragePerLine.put(40, COVERED);
+        file.setCoveragePerLine(coveragePerLine);
+        file.setMethodLineIndex(new MethodLineIndex(new int[] {5, 20, 40}, new int[] {6, 21, 40}));
+        file.setChangedCodeLines(new TreeSet<>(Arrays.asList(3, 6, 20, 21, 30)));
+
+        assertThat(file.getChangedMethods()).containsExactly(5, 20);
+        assertThat(file.getUncoveredChangedMethods()).containsExactly(5, 20);
+        assertThat(file.getMethodChangeCoverage()).isEqualTo(
+                new CoverageBuilder().setCovered(0).setMissed(2).build());
+
+        file.addChangedCodeLine(5);
+        file.addChangedCodeLine(40);
+
+        assertThat(file.getChangedMethods()).containsExactly(5, 20, 40);
+        assertThat(file.getUncoveredChangedMethods()).containsExactly(20);
+        assertThat(file.getMethodChangeCoverage()).isEqualTo(
+                new CoverageBuilder().setCovered(2).setMissed(1).build());
+    }
+
+    @Test
+    void shouldAttributeIndirectCoverageChangesToMethods() {
+        FileCoverageNode file = new FileCoverageNode("File.java", "path/File.java");
+        SortedMap<Integer, Integer> indirectCoverageChanges = new TreeMap<>();
+        indirectCoverageChanges.put(3, 1);
+        indirectCoverageChanges.put(5, 1);
+        indirectCoverageChanges.put(6, -2);
+        indirectCoverageChanges.put(21, 1);
+        indirectCoverageChanges.put(30, 4);
+        file.setIndirectCoverageChanges(indirectCoverageChanges);
+
+        assertThat(file.getMethodIndirectCoverageChanges()).isEmpty();
+
+        file.setMethodLineIndex(new MethodLineIndex(new int[] {5, 20, 40}, new int[] {6, 21, 40}));
+
+        assertThat(file.getMethodIndirectCoverageChanges()).containsExactly(entry(5, -1), entry(20, 1));
+    }
+
+    private SortedMap<Integer, Coverage> createCoveragePerLine(final int... lines) {
+        SortedMap<Integer, Coverage> coveragePerLine = new TreeMap<>();
+        for (int line : lines) {
+            coveragePerLine.put(line, COVERED);
+        }
+        return coveragePerLine;
+    }
+}
@@ -0,0 +1,64 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link PathSuffixIndex}.
+ */
+class PathSuffixIndexTest {
+    private static final List<String> REPORT_PATHS = Arrays.asList(
+            "example/Test.java",
+            "test/Test.java",
+            "example/test/Test.java",
+            "a/Util.java",
+            "Main.java",
+            "/root/Absolute.java",
+            "windows\\path\\Test.java");
+
+    private static final List<String> SCM_PATHS = Arrays.asList(
+            "src/main/java/example/Test.java",
+            "src/main/java/example/test/Test.java",
+            "src/main/java/other/test/Test.java",
+            "src/main/java/other/Test.java",
+            "src/ba/Util.java",
+            "src/a/Util.java",
+            "src/MyMain.java",
+            "Main.java",
+            "ain.java",
+            "x/root/Absolute.java",
+            "root/Absolute.java",
+            "c:\\windows\\path\\Test.java",
+            "c:/windows/path/Test.java",
+            "");
+
+    @Test
+    void shouldFindLongestSuffix() {
+        PathSuffixIndex index = new PathSuffixIndex(REPORT_PATHS);
+
+        assertThat(index.findLongestSuffix("src/main/java/example/test/Test.java")).contains("example/test/Test.java");
+        assertThat(index.findLongestSuffix("src/main/java/other/test/Test.java")).contains("test/Test.java");
+        assertThat(index.findLongestSuffix("src/main/java/other/Test.java")).isEmpty();
+        assertThat(index.findLongestSuffix("src/ba/Util.java")).contains("a/Util.java");
+        assertThat(index.findLongestSuffix("c:/windows/path/Test.java")).isEmpty();
+    }
+
+    @Test
+    void shouldUseSameSemanticsAsEndsWith() {
+        PathSuffixIndex index = new PathSuffixIndex(REPORT_PATHS);
+
+        for (String scmPath : SCM_PATHS) {
+            Optional<String> expected = REPORT_PATHS.stream()
+                    .filter(scmPath::endsWith)
+                    .max(Comparator.comparingInt(String::length));
+
+            assertThat(index.findLongestSuffix(scmPath)).as(scmPath).isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import static io.jenkins.plugins.coverage.model.FilePathValidator.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link ReferenceIndexCache}.
+ */
+class ReferenceIndexCacheTest {
+    private static final String REFERENCE_ID = "job#1";
+
+    @Test
+    void shouldReportValidationErrorsOfCachedIndexInEachLog() {
+        ReferenceIndexCache cache = new ReferenceIndexCache(1024L * 1024L);
+        AtomicInteger loads = new AtomicInteger();
+
+        FilteredLog first = new FilteredLog("Errors");
+        ReferenceIndex index = cache.getIndex(REFERENCE_ID, () -> {
+            loads.incrementAndGet();
+            return createTreeWithDuplicates();
+        }, first);
+
+        FilteredLog second = new FilteredLog("Errors");
+        assertThat(cache.getIndex(REFERENCE_ID, () -> {
+            loads.incrementAndGet();
+            return createTreeWithDuplicates();
+        }, second)).isSameAs(index);
+
+        assertThat(loads).hasValue(1);
+        String[] errors = {AMBIGUOUS_FILES_MESSAGE + System.lineSeparator() + "package/File.java",
+                REMOVED_MESSAGE, PACKAGE_INFO_MESSAGE};
+        assertThat(index.getValidationErrors()).contains(errors);
+        assertThat(first.getErrorMessages()).contains(errors);
+        assertThat(second.getErrorMessages()).contains(errors);
+        assertThat(second.getInfoMessages()).contains("-> Using cached index of reference build 'job#1'");
+    }
+
+    @Test
+    void shouldProvideStatistics() {
+        ReferenceIndexCache cache = new ReferenceIndexCache(1024L * 1024L);
+        FilteredLog log = new FilteredLog("Errors");
+
+        ReferenceIndex index = cache.getIndex(REFERENCE_ID, this::createTreeWithDuplicates, log);
+        cache.getIndex(REFERENCE_ID, this::createTreeWithDuplicates, log);
+
+        assertThat(cache.getSize()).isEqualTo(1);
+        assertThat(cache.getEstimatedSize()).isEqualTo(index.getEstimatedSize()).isPositive();
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getEvictionCount()).isZero();
+
+        cache.invalidate(REFERENCE_ID);
+
+        assertThat(cache.getSize()).isZero();
+        assertThat(cache.getEstimatedSize()).isZero();
+    }
+
+    private CoverageNode createTreeWithDuplicates() {
+        CoverageNode root = new CoverageNode(CoverageMetric.MODULE, "root");
+        CoverageNode first = new PackageCoverageNode("package");
+        CoverageNode second = new PackageCoverageNode("package");
+        root.add(first);
+        root.add(second);
+        first.add(new FileCoverageNode("File.java", "package/File.java"));
+        second.add(new FileCoverageNode("File.java", "package/File.java"));
+        second.add(new FileCoverageNode("Other.java", "package/Other.java"));
+        return root;
+    }
+}
@@ -0,0 +1,178 @@
+package io.jenkins.plugins.coverage.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.coverage.model.ServerSideTable.PageRequest;
+import io.jenkins.plugins.datatables.DetailedCell;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link ServerSideTable}.
+ */
+class ServerSideTableTest {
+    private static final Map<String, Function<Object, Object>> COLUMNS = new HashMap<>();
+
+    static {
+        CoverageTableModel.addColumnAccessor(COLUMNS, "fileName", Row.class, Row::getFileName);
+        CoverageTableModel.addColumnAccessor(COLUMNS, "packageName", Row.class, Row::getPackageName);
+        CoverageTableModel.addColumnAccessor(COLUMNS, "lineCoverage", Row.class, Row::getLineCoverage);
+    }
+
+    @Test
+    void shouldReturnRequestedPage() {
+        List<Object> rows = createRows(25);
+
+        Map<String, Object> page = new ServerSideTable(COLUMNS).getPage(rows,
+                new PageRequest(3, 10, 10, "", "", true));
+
+        assertThat(page).containsEntry("draw", 3)
+                .containsEntry("recordsTotal", 25)
+                .containsEntry("recordsFiltered", 25);
+        assertThat(getFileNames(page)).containsExactly("File10.java", "File11.java", "File12.java",
+                "File13.java", "File14.java", "File15.java", "File16.java", "File17.java", "File18.java",
+                "File19.java");
+
+        assertThat(getFileNames(new ServerSideTable(COLUMNS).getPage(rows, new PageRequest(1, 20, 10, "", "", true))))
+                .hasSize(5);
+        assertThat(getFileNames(new ServerSideTable(COLUMNS).getPage(rows, new PageRequest(1, 30, 10, "", "", true))))
+                .isEmpty();
+        assertThat(getFileNames(new ServerSideTable(COLUMNS).getPage(rows, new PageRequest(1, 0, -1, "", "", true))))
+                .hasSize(25);
+    }
+
+    @Test
+    void shouldSortByDetailedCellsAndTexts() {
+        List<Object> rows = new ArrayList<>();
+        rows.add(new Row("B.java", "b", 50));
+        rows.add(new Row("A.java", "a", 75));
+        rows.add(new Row("C.java", "c", -1000));
+        ServerSideTable table = new ServerSideTable(COLUMNS);
+
+        assertThat(getFileNames(table.getPage(rows, new PageRequest(1, 0, 10, "", "lineCoverage", true))))
+                .containsExactly("C.java", "B.java", "A.java");
+        assertThat(getFileNames(table.getPage(rows, new PageRequest(1, 0, 10, "", "lineCoverage", false))))
+                .containsExactly("A.java", "B.java", "C.java");
+        assertThat(getFileNames(table.getPage(rows, new PageRequest(1, 0, 10, "", "fileName", true))))
+                .containsExactly("A.java", "B.java", "C.java");
+        assertThat(getFileNames(table.getPage(rows, new PageRequest(1, 0, 2, "", "packageName", false))))
+                .containsExactly("C.java", "B.java");
+    }
+
+    @Test
+    void shouldFilterByFileAndPackageName() {
+        List<Object> rows = new ArrayList<>();
+        rows.add(new Row("Coverage.java", "model", 50));
+        rows.add(new Row("Chart.java", "visualization", 75));
+        rows.add(new Row("Tree.java", "model.tree", 0));
+        ServerSideTable table = new ServerSideTable(COLUMNS);
+
+        Map<String, Object> page = table.getPage(rows, new PageRequest(1, 0, 10, " MODEL ", "", true));
+        assertThat(page).containsEntry("recordsTotal", 3).containsEntry("recordsFiltered", 2);
+        assertThat(getFileNames(page)).containsExactly("Coverage.java", "Tree.java");
+
+        assertThat(getFileNames(table.getPage(rows, new PageRequest(1, 0, 10, "chart", "", true))))
+                .containsExactly("Chart.java");
+        assertThat(getFileNames(table.getPage(rows, new PageRequest(1, 0, 10, "href", "", true))))
+                .as("Should not match the HTML markup of the file name").isEmpty();
+    }
+
+    @Test
+    void shouldRejectOrderingByUnknownColumn() {
+        List<Object> rows = createRows(3);
+        ServerSideTable table = new ServerSideTable(COLUMNS);
+
+        assertThat(table.hasColumn("lineCoverage")).isTrue();
+        assertThat(table.hasColumn("class")).isFalse();
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> table.getPage(rows, new PageRequest(1, 0, 10, "", "class", true)))
+                .withMessageContaining("class");
+    }
+
+    @Test
+    void shouldProvideAccessorsForAllColumnsOfCoverageTables() {
+        assertThat(CoverageTableModel.createColumnAccessors()).containsOnlyKeys("fileHash", "fileName",
+                "packageName", "lineCoverage", "lineCoverageDelta", "branchCoverage", "branchCoverageDelta", "loc");
+    }
+
+    @Test
+    void shouldParseRequestParameters() {
+        Map<String, String[]> parameters = new HashMap<>();
+        parameters.put("draw", new String[] {"7"});
+        parameters.put("start", new String[] {"20"});
+        parameters.put("length", new String[] {"10"});
+        parameters.put("search[value]", new String[] {"model"});
+        parameters.put("order[0][column]", new String[] {"3"});
+        parameters.put("order[0][dir]", new String[] {"desc"});
+        parameters.put("columns[3][data]", new String[] {"lineCoverage"});
+
+        PageRequest request = PageRequest.fromParameters(parameters);
+
+        assertThat(request.getDraw()).isEqualTo(7);
+        assertThat(request.getStart()).isEqualTo(20);
+        assertThat(request.getLength()).isEqualTo(10);
+        assertThat(request.getSearch()).isEqualTo("model");
+        assertThat(request.getOrderProperty()).isEqualTo("lineCoverage");
+        assertThat(request.isAscending()).isFalse();
+
+        parameters.remove("columns[3][data]");
+        parameters.put("columns[3][data][sort]", new String[] {"branchCoverage.sort"});
+        assertThat(PageRequest.fromParameters(parameters).getOrderProperty()).isEqualTo("branchCoverage");
+
+        PageRequest defaults = PageRequest.fromParameters(new HashMap<>());
+        assertThat(defaults.getStart()).isZero();
+        assertThat(defaults.getLength()).isEqualTo(-1);
+        assertThat(defaults.getOrderProperty()).isEmpty();
+        assertThat(defaults.isAscending()).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> getFileNames(final Map<String, Object> page) {
+        List<String> names = new ArrayList<>();
+        for (Object row : (List<Object>) page.get("data")) {
+            names.add(((Row) row).name);
+        }
+        return names;
+    }
+
+    private List<Object> createRows(final int size) {
+        List<Object> rows = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            rows.add(new Row("File" + i + ".java", "package", i));
+        }
+        return rows;
+    }
+
+    /**
+     * A row with the same kind of properties as the rows of the coverage tables.
+     */
+    static class Row {
+        private final String name;
+        private final String packageName;
+        private final int coverage;
+
+        Row(final String name, final String packageName, final int coverage) {
+            this.name = name;
+            this.packageName = packageName;
+            this.coverage = coverage;
+        }
+
+        public String getFileName() {
+            return "<a href=\"" + name.hashCode() + "\">" + name + "</a>";
+        }
+
+        public String getPackageName() {
+            return packageName;
+        }
+
+        public DetailedCell<Integer> getLineCoverage() {
+            return new DetailedCell<>("<div>" + coverage + "%</div>", coverage);
+        }
+    }
+}
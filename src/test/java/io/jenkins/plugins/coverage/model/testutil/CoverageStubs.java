@@ -85,10 +85,12 @@ public final class CoverageStubs {
         when(action.hasChangeCoverage()).thenReturn(true);
         when(action.hasChangeCoverage(coverageMetric)).thenReturn(true);
         when(action.getChangeCoverage(coverageMetric)).thenReturn(coverage);
+        when(action.getChangeCoveragePercentage(coverageMetric)).thenReturn(percentage);
 
         when(action.hasIndirectCoverageChanges()).thenReturn(true);
         when(action.hasIndirectCoverageChanges(coverageMetric)).thenReturn(true);
         when(action.getIndirectCoverageChanges(coverageMetric)).thenReturn(coverage);
+        when(action.getIndirectCoverageChangesPercentage(coverageMetric)).thenReturn(percentage);
 
         when(action.hasChangeCoverageDifference(coverageMetric)).thenReturn(true);
         when(action.getChangeCoverageDifference(coverageMetric)).thenReturn(percentage);
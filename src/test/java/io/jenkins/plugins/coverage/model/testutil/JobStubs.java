@@ -46,6 +46,7 @@ public final class JobStubs {
         Job job = createJob();
         Run<?, ?> build = createBuildWithActions(actions);
         when(job.getLastCompletedBuild()).thenReturn(build);
+        when(job.getBuildByNumber(anyInt())).thenReturn(build);
         return job;
     }
 
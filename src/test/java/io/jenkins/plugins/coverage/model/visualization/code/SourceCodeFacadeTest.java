@@ -1,23 +1,35 @@
 package io.jenkins.plugins.coverage.model.visualization.code;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
 import org.jsoup.parser.Parser;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import edu.hm.hafner.util.ResourceTest;
 
 import io.jenkins.plugins.coverage.model.Coverage;
 import io.jenkins.plugins.coverage.model.Coverage.CoverageBuilder;
 import io.jenkins.plugins.coverage.model.FileCoverageNode;
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoveragePaint;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -90,6 +102,113 @@ class SourceCodeFacadeTest extends ResourceTest {
         assertThat(changeCoverageHtml).isEqualTo(requiredHtml);
     }
 
+    @Test
+    void shouldRenderSourcecodeWithoutParsingHtml() throws IOException {
+        SourceCodeRenderer renderer = new SourceCodeRenderer();
+        List<String> lines = new ArrayList<>();
+        CoveragePaint paint = new CoveragePaint(CoverageElement.FILE);
+        for (Element row : Jsoup.parse(readHtml(SOURCECODE), Parser.xmlParser()).select("tr")) {
+            lines.add(row.select("td.code").text().replace('\u00a0', ' '));
+            if (!row.hasClass("noCover")) {
+                paint.paint(lines.size(), Integer.parseInt(row.select("td.hits").text()));
+            }
+        }
+        LineCoverageVector coverage = LineCoverageVector.fromPaint(paint);
+        FileCoverageNode node = createFileCoverageNode();
+
+        assertThat(normalize(renderer.render(lines, coverage)))
+                .isEqualTo(normalize(readHtml(SOURCECODE)));
+        assertThat(normalize(renderer.renderChangeCoverage(lines, coverage, node)))
+                .isEqualTo(normalize(readHtml(SOURCECODE_CC)));
+        assertThat(normalize(renderer.renderIndirectCoverageChanges(lines, node)))
+                .isEqualTo(normalize(readHtml(SOURCECODE_ICC)));
+    }
+
+    private String normalize(final String html) {
+        return Jsoup.parse(html, Parser.xmlParser()).html();
+    }
+
+    @Test
+    void shouldReadSourceFilesFromArchive(@TempDir final Path buildFolder) throws IOException {
+        SourceCodeFacade sourceCodeFacade = createSourceCodeFacade();
+        File archive = sourceCodeFacade.createArchiveInBuildFolder(buildFolder.toFile(), "coverage");
+        assertThat(archive.getParentFile().mkdirs()).isTrue();
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive.toPath()))) {
+            addEntry(zip, sourceCodeFacade.getStoredFileName("src/main/java/Main.java"), "main");
+            addEntry(zip, sourceCodeFacade.getStoredFileName("src/main/java/Util.java"), "util");
+        }
+
+        assertThat(sourceCodeFacade.read(buildFolder.toFile(), buildFolder.toFile(), "coverage", "src/main/java/Main.java"))
+                .isEqualTo("main");
+        assertThat(sourceCodeFacade.read(buildFolder.toFile(), buildFolder.toFile(), "coverage", "src/main/java/Util.java"))
+                .isEqualTo("util");
+        assertThat(sourceCodeFacade.canRead(buildFolder.toFile(), "coverage", "src/main/java/Main.java")).isTrue();
+        assertThat(sourceCodeFacade.canRead(buildFolder.toFile(), "coverage", "Other.java")).isFalse();
+        assertThat(sourceCodeFacade.getStoredSourceFiles(buildFolder.toFile(), "coverage")).hasSize(2);
+        assertThatExceptionOfType(NoSuchFileException.class).isThrownBy(
+                () -> sourceCodeFacade.read(buildFolder.toFile(), buildFolder.toFile(), "coverage", "Other.java"));
+    }
+
+    @Test
+    void shouldRenderPlainSourceFilesFromArchive(@TempDir final Path buildFolder) throws IOException {
+        SourceCodeFacade sourceCodeFacade = createSourceCodeFacade();
+        File archive = sourceCodeFacade.createArchiveInBuildFolder(buildFolder.toFile(), "coverage");
+        assertThat(archive.getParentFile().mkdirs()).isTrue();
+        String fileName = sourceCodeFacade.getStoredFileName("src/main/java/Main.java");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive.toPath()))) {
+            addEntry(zip, fileName, "int a = 1;\n");
+        }
+        CoveragePaint paint = new CoveragePaint(CoverageElement.FILE);
+        paint.paint(1, 1);
+        SourceCodeManifest manifest = new SourceCodeManifest();
+        manifest.add(fileName, "", LineCoverageVector.fromPaint(paint));
+        manifest.write(sourceCodeFacade.createManifestInBuildFolder(buildFolder.toFile(), "coverage").toPath());
+
+        assertThat(sourceCodeFacade.read(buildFolder.toFile(), buildFolder.toFile(), "coverage",
+                "src/main/java/Main.java"))
+                .contains("<tr class=\"coverFull\">", "<td class=\"hits\">1</td>", "int&nbsp;a&nbsp;=&nbsp;1;");
+        assertThat(manifest.getHashes()).isEmpty();
+    }
+
+    @Test
+    void shouldCheckAvailabilityUsingIndexOfStoredSourceFiles(@TempDir final Path buildFolder) throws IOException {
+        SourceCodeFacade sourceCodeFacade = createSourceCodeFacade();
+        File archive = sourceCodeFacade.createArchiveInBuildFolder(buildFolder.toFile(), "coverage");
+        assertThat(archive.getParentFile().mkdirs()).isTrue();
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive.toPath()))) {
+            addEntry(zip, sourceCodeFacade.getStoredFileName("src/main/java/Main.java"), "main");
+            addEntry(zip, sourceCodeFacade.getStoredFileName("src/main/java/Util.java"), "util");
+        }
+
+        sourceCodeFacade.writeSourceIndex(buildFolder.toFile(), "coverage");
+
+        File index = sourceCodeFacade.createIndexInBuildFolder(buildFolder.toFile(), "coverage");
+        assertThat(Files.readAllLines(index.toPath(), StandardCharsets.UTF_8)).containsExactly(
+                sourceCodeFacade.getStoredFileName("src/main/java/Main.java"),
+                sourceCodeFacade.getStoredFileName("src/main/java/Util.java"));
+
+        Files.delete(archive.toPath()); // the availability checks must not access the archive anymore
+        assertThat(sourceCodeFacade.canRead(buildFolder.toFile(), "coverage", "src/main/java/Main.java")).isTrue();
+        assertThat(sourceCodeFacade.canRead(buildFolder.toFile(), "coverage", "Other.java")).isFalse();
+        assertThat(sourceCodeFacade.getStoredSourceFiles(buildFolder.toFile(), "coverage")).hasSize(2);
+    }
+
+    @Test
+    void shouldNotWriteIndexWithoutStoredSourceFiles(@TempDir final Path buildFolder) throws IOException {
+        SourceCodeFacade sourceCodeFacade = createSourceCodeFacade();
+
+        sourceCodeFacade.writeSourceIndex(buildFolder.toFile(), "coverage");
+
+        assertThat(sourceCodeFacade.createIndexInBuildFolder(buildFolder.toFile(), "coverage")).doesNotExist();
+        assertThat(sourceCodeFacade.getStoredSourceFiles(buildFolder.toFile(), "coverage")).isEmpty();
+    }
+
+    private void addEntry(final ZipOutputStream zip, final String name, final String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
     /**
      * Creates an instance of {@link SourceCodeFacade}.
      *
@@ -0,0 +1,233 @@
+package io.jenkins.plugins.coverage.model.visualization.code;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import hudson.FilePath;
+import hudson.model.FreeStyleBuild;
+
+import io.jenkins.plugins.coverage.model.CoverageNode;
+import io.jenkins.plugins.coverage.model.FileCoverageNode;
+import io.jenkins.plugins.coverage.targets.CoverageElement;
+import io.jenkins.plugins.coverage.targets.CoveragePaint;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the classes {@link SourceCodeStore} and {@link SourceCodeManifest}.
+ */
+class SourceCodeStoreTest {
+    private static final String MAIN = "Main.java";
+    private static final String COPY = "Copy.java";
+    private static final String UTIL = "Util.java";
+    private static final String ID = "coverage";
+
+    @Test
+    void shouldStoreIdenticalContentOnlyOnce(@TempDir final Path job) throws IOException {
+        SourceCodeStore store = new SourceCodeStore(job.toFile());
+
+        Map<String, String> first = storeAll(store, job.resolve("first.zip"), "main", "main", "util");
+        Map<String, String> second = storeAll(store, job.resolve("second.zip"), "main", "main", "changed");
+
+        assertThat(first.get(MAIN)).isEqualTo(first.get(COPY)).isEqualTo(second.get(MAIN));
+        assertThat(first.get(UTIL)).isNotEqualTo(second.get(UTIL));
+        assertThat(store.getReferenceCount(first.get(MAIN))).isEqualTo(4);
+        assertThat(store.read(first.get(MAIN))).isEqualTo("main");
+        assertThat(job.resolve(SourceCodeStore.STORE_DIRECTORY).toFile().list((dir, name) -> name.endsWith(".gz")))
+                .hasSize(3);
+
+        store.release(first.values());
+        assertThat(store.getReferenceCount(first.get(MAIN))).isEqualTo(2);
+        assertThat(store.getReferenceCount(first.get(UTIL))).isZero();
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> store.read(first.get(UTIL)));
+        assertThat(store.read(second.get(UTIL))).isEqualTo("changed");
+
+        store.release(second.values());
+        assertThat(job.resolve(SourceCodeStore.STORE_DIRECTORY).toFile().list((dir, name) -> name.endsWith(".gz")))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldRenderSourcesOfManifest(@TempDir final Path job) throws IOException {
+        SourceCodeStore store = new SourceCodeStore(job.toFile());
+        Map<String, String> hashes = storeAll(store, job.resolve("sources.zip"),
+                "int a = 1;\nint b = 2;\n", "", "");
+
+        CoveragePaint paint = new CoveragePaint(CoverageElement.FILE);
+        paint.paint(1, 5);
+        paint.paint(2, 0);
+        LineCoverageVector coverage = LineCoverageVector.fromPaint(paint);
+        assertThat(LineCoverageVector.decode(coverage.encode())).isEqualTo(coverage);
+
+        File build = job.resolve("builds").resolve("1").toFile();
+        SourceCodeFacade facade = new SourceCodeFacade();
+        File manifestFile = facade.createManifestInBuildFolder(build, ID);
+        assertThat(manifestFile.getParentFile().mkdirs()).isTrue();
+        SourceCodeManifest manifest = new SourceCodeManifest();
+        manifest.add(MAIN, hashes.get(MAIN), coverage);
+        manifest.write(manifestFile.toPath());
+
+        assertThat(facade.canRead(build, ID, MAIN)).isTrue();
+        assertThat(facade.canRead(build, ID, UTIL)).isFalse();
+        assertThat(facade.getStoredSourceFiles(build, ID)).containsExactly(MAIN);
+        assertThat(facade.read(build, job.toFile(), ID, MAIN))
+                .isEqualTo(new SourceCodeRenderer().render(Arrays.asList("int a = 1;", "int b = 2;"), coverage))
+                .contains("<tr class=\"coverFull\">", "<tr class=\"coverNone\">", "int&nbsp;a&nbsp;=&nbsp;1;");
+
+        facade.writeSourceIndex(build, ID);
+        assertThat(facade.getStoredSourceFiles(build, ID)).containsExactly(MAIN);
+
+        facade.releaseSourcesInJobStore(build, job.toFile());
+        assertThat(manifestFile).doesNotExist();
+        assertThat(facade.createIndexInBuildFolder(build, ID)).doesNotExist();
+        assertThat(store.getReferenceCount(hashes.get(MAIN))).isZero();
+    }
+
+    @Test
+    void shouldReadRangesOfLinesWithoutReadingWholeBlob(@TempDir final Path job) throws IOException {
+        SourceCodeStore store = new SourceCodeStore(job.toFile());
+        StringBuilder content = new StringBuilder();
+        for (int line = 1; line <= 2500; line++) {
+            content.append("int line").append(line).append(";\n");
+        }
+        Map<String, String> hashes = storeAll(store, job.resolve("sources.zip"), content.toString(), "", "a\nb");
+
+        String main = hashes.get(MAIN);
+        assertThat(store.read(main)).isEqualTo(content.toString());
+        assertThat(store.getLineCount(main)).isEqualTo(2500);
+        assertThat(store.readLines(main, 999, 1002))
+                .containsExactly("int line999;", "int line1000;", "int line1001;", "int line1002;");
+        assertThat(store.readLines(main, 2499, 3000)).containsExactly("int line2499;", "int line2500;");
+        assertThat(store.readLines(main, 2501, 3000)).isEmpty();
+
+        assertThat(store.getLineCount(hashes.get(COPY))).isZero();
+        assertThat(store.readLines(hashes.get(COPY), 1, 10)).isEmpty();
+        assertThat(store.getLineCount(hashes.get(UTIL))).isEqualTo(2);
+        assertThat(store.readLines(hashes.get(UTIL), 1, 10)).containsExactly("a", "b");
+
+        store.release(hashes.values());
+        assertThat(job.resolve(SourceCodeStore.STORE_DIRECTORY).toFile().list(
+                (dir, name) -> name.endsWith(".gz") || name.endsWith(".idx"))).isEmpty();
+    }
+
+    @Test
+    void shouldRenderWindowsOfSourceFiles(@TempDir final Path job) throws IOException {
+        SourceCodeStore store = new SourceCodeStore(job.toFile());
+        StringBuilder content = new StringBuilder();
+        for (int line = 1; line <= 1500; line++) {
+            content.append("int line").append(line).append(";\n");
+        }
+        Map<String, String> hashes = storeAll(store, job.resolve("sources.zip"), content.toString(), "", "");
+
+        CoveragePaint paint = new CoveragePaint(CoverageElement.FILE);
+        paint.paint(10, 1);
+        paint.paint(20, 0);
+        paint.paint(1200, 1, 1, 2);
+        LineCoverageVector coverage = LineCoverageVector.fromPaint(paint);
+
+        File build = job.resolve("builds").resolve("1").toFile();
+        SourceCodeFacade facade = new SourceCodeFacade();
+        File manifestFile = facade.createManifestInBuildFolder(build, ID);
+        assertThat(manifestFile.getParentFile().mkdirs()).isTrue();
+        SourceCodeManifest manifest = new SourceCodeManifest();
+        manifest.add(MAIN, hashes.get(MAIN), coverage);
+        manifest.write(manifestFile.toPath());
+
+        SourceCodeWindow window = facade.readWindow(build, job.toFile(), ID, MAIN, 1195, 10);
+        assertThat(window.getFirstLine()).isEqualTo(1195);
+        assertThat(window.getLastLine()).isEqualTo(1204);
+        assertThat(window.getLineCount()).isEqualTo(1500);
+        assertThat(window.getHtml()).contains("<a name='1195'>", "int&nbsp;line1204;", "coverPart")
+                .doesNotContain("<a name='1194'>", "<a name='1205'>");
+
+        SourceCodeWindow last = facade.readWindow(build, job.toFile(), ID, MAIN, 1495, 10);
+        assertThat(last.getLastLine()).isEqualTo(1500);
+
+        assertThat(facade.findNextUncoveredLine(build, ID, MAIN, 0)).isEqualTo(20);
+        assertThat(facade.findNextUncoveredLine(build, ID, MAIN, 20)).isEqualTo(1200);
+        assertThat(facade.findNextUncoveredLine(build, ID, MAIN, 1200)).isEqualTo(-1);
+
+        Optional<SourceCodeManifest> readManifest = facade.readManifest(build, ID);
+        assertThat(readManifest).isPresent();
+        Files.delete(manifestFile.toPath());
+
+        assertThat(facade.readWindow(build, job.toFile(), readManifest, ID, MAIN, 1195, 10).getHtml())
+                .isEqualTo(window.getHtml());
+        assertThat(facade.findNextUncoveredLine(build, readManifest, ID, MAIN, 20)).isEqualTo(1200);
+        assertThat(facade.readManifest(build, ID)).isEmpty();
+    }
+
+    @Test
+    void shouldStoreSourcesOfBuildFolderInChunks(@TempDir final Path job) throws IOException, InterruptedException {
+        StringBuilder content = new StringBuilder();
+        for (int line = 1; line <= 2500; line++) {
+            content.append("int line").append(line).append(";\n");
+        }
+        Path workspace = Files.createDirectories(job.resolve("workspace"));
+        try (ZipOutputStream zip = new ZipOutputStream(
+                Files.newOutputStream(workspace.resolve(SourceCodeFacade.COVERAGE_SOURCES_ZIP)))) {
+            addEntry(zip, MAIN, content.toString());
+        }
+        CoveragePaint paint = new CoveragePaint(CoverageElement.FILE);
+        paint.paint(1200, 0);
+        Map<CoverageNode, CoveragePaint> paintedFiles = new HashMap<>();
+        paintedFiles.put(new FileCoverageNode(MAIN, MAIN), paint);
+
+        File build = job.resolve("builds").resolve("1").toFile();
+        FreeStyleBuild run = mock(FreeStyleBuild.class);
+        when(run.getRootDir()).thenReturn(build);
+
+        SourceCodeFacade facade = new SourceCodeFacade();
+        facade.copySourcesToBuildFolder(run, new FilePath(workspace.toFile()), ID, paintedFiles.entrySet(),
+                new FilteredLog("Errors"));
+
+        File sourcesFolder = facade.createManifestInBuildFolder(build, ID).getParentFile();
+        assertThat(facade.createArchiveInBuildFolder(build, ID)).doesNotExist();
+        assertThat(new File(sourcesFolder, SourceCodeStore.STORE_DIRECTORY)).isDirectory();
+        assertThat(job.resolve(SourceCodeStore.STORE_DIRECTORY)).doesNotExist();
+        assertThat(facade.getStoredSourceFiles(build, ID)).containsExactly(MAIN);
+
+        SourceCodeWindow window = facade.readWindow(build, job.toFile(), ID, MAIN, 1195, 10);
+        assertThat(window.getLineCount()).isEqualTo(2500);
+        assertThat(window.getHtml()).contains("<a name='1195'>", "int&nbsp;line1204;", "coverNone")
+                .doesNotContain("<a name='1194'>", "<a name='1205'>");
+        assertThat(facade.read(build, job.toFile(), ID, MAIN)).contains("int&nbsp;line1;", "int&nbsp;line2500;");
+
+        facade.releaseSourcesInJobStore(build, job.toFile());
+        assertThat(facade.readWindow(build, job.toFile(), ID, MAIN, 1, 10).getLastLine()).isEqualTo(10);
+    }
+
+    private Map<String, String> storeAll(final SourceCodeStore store, final Path archive,
+            final String main, final String copy, final String util) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            addEntry(zip, MAIN, main);
+            addEntry(zip, COPY, copy);
+            addEntry(zip, UTIL, util);
+        }
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            return store.storeAll(zipFile);
+        }
+    }
+
+    private void addEntry(final ZipOutputStream zip, final String name, final String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
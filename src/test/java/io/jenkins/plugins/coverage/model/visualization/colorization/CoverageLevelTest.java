@@ -40,4 +40,20 @@ class CoverageLevelTest {
         assertThat(CoverageLevel.getDisplayColorsOfCoverageLevel(-2.0, COLOR_PROVIDER))
                 .isEqualTo(COLOR_PROVIDER.getDisplayColorsOf(ColorId.WHITE));
     }
+
+    @Test
+    void shouldGetDisplayColorsFromLookupTable() {
+        for (int step = 0; step < ColorProvider.COVERAGE_LEVEL_STEPS; step += 7) {
+            double percentage = (double) step / ColorProvider.COVERAGE_LEVEL_SCALE;
+            assertThat(CoverageLevel.getDisplayColorsOfCoverageLevel(percentage, COLOR_PROVIDER))
+                    .isEqualTo(CoverageLevel.getBlendedColors(percentage, COLOR_PROVIDER));
+        }
+
+        assertThat(CoverageLevel.getDisplayColorsOfCoverageLevel(65.004, COLOR_PROVIDER))
+                .isSameAs(CoverageLevel.getDisplayColorsOfCoverageLevel(65.0, COLOR_PROVIDER));
+        assertThat(CoverageLevel.getDisplayColorsOfCoverageLevel(120.0, COLOR_PROVIDER))
+                .isEqualTo(COLOR_PROVIDER.getDisplayColorsOf(ColorId.EXCELLENT));
+        assertThat(CoverageLevel.getDisplayColorsOfCoverageLevel(Double.NaN, COLOR_PROVIDER))
+                .isEqualTo(COLOR_PROVIDER.getDisplayColorsOf(ColorId.WHITE));
+    }
 }
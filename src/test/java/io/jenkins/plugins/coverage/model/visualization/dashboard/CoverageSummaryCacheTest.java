@@ -0,0 +1,115 @@
+package io.jenkins.plugins.coverage.model.visualization.dashboard;
+
+import org.apache.commons.lang3.math.Fraction;
+import org.junit.jupiter.api.Test;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+import io.jenkins.plugins.coverage.model.CoverageBuildAction;
+import io.jenkins.plugins.coverage.model.CoverageMetric;
+import io.jenkins.plugins.coverage.model.CoveragePercentage;
+
+import static io.jenkins.plugins.coverage.model.testutil.CoverageStubs.*;
+import static io.jenkins.plugins.coverage.model.testutil.JobStubs.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the classes {@link CoverageSummaryCache} and {@link CoverageSummary}.
+ */
+class CoverageSummaryCacheTest {
+    private static final CoverageMetric METRIC = CoverageMetric.LINE;
+    private static final ProjectCoverage PROJECT_COVERAGE = new ProjectCoverage();
+
+    @Test
+    void shouldLoadLastCompletedBuildOnlyOnce() {
+        CoverageSummaryCache cache = new CoverageSummaryCache();
+        Job<?, ?> job = createJobWithActions(createCoverageBuildAction(METRIC, Fraction.ONE_HALF));
+
+        CoverageSummary summary = cache.getSummary(job);
+
+        assertThat(summary.hasCoverage()).isTrue();
+        assertThat(summary.getUrlName()).isEqualTo(CoverageBuildAction.DETAILS_URL);
+        assertThat(summary.getCoverage(PROJECT_COVERAGE, METRIC, job))
+                .contains(CoveragePercentage.valueOf(Fraction.ONE_HALF));
+        assertThat(summary.getCoverage(PROJECT_COVERAGE, CoverageMetric.BRANCH, job)).isEmpty();
+        assertThat(summary.getCoverage(new ChangeCoverage(), METRIC, job))
+                .contains(CoveragePercentage.valueOf(Fraction.ONE_HALF));
+
+        assertThat(cache.getSummary(job)).isSameAs(summary);
+        verify(job, times(1)).getLastCompletedBuild();
+
+        cache.invalidate(job);
+        assertThat(cache.getSummary(job)).isNotSameAs(summary);
+        verify(job, times(2)).getLastCompletedBuild();
+    }
+
+    @Test
+    void shouldComputeMetricsThatAreNotStoredInActionOnDemand() {
+        CoverageSummaryCache cache = new CoverageSummaryCache();
+        CoverageBuildAction action = createCoverageBuildAction(CoverageMetric.CLASS, Fraction.ONE_HALF);
+        Job<?, ?> job = createJobWithActions(action);
+
+        CoverageSummary summary = cache.getSummary(job);
+        verify(action, never()).hasCoverage(CoverageMetric.CLASS);
+        verify(action, never()).getChangeCoverage(CoverageMetric.CLASS);
+        verify(action, never()).getIndirectCoverageChanges(CoverageMetric.CLASS);
+
+        assertThat(summary.getCoverage(PROJECT_COVERAGE, CoverageMetric.CLASS, job))
+                .contains(CoveragePercentage.valueOf(Fraction.ONE_HALF));
+        assertThat(summary.getCoverage(PROJECT_COVERAGE, CoverageMetric.CLASS, job))
+                .contains(CoveragePercentage.valueOf(Fraction.ONE_HALF));
+        verify(action, times(1)).getCoverage(CoverageMetric.CLASS);
+    }
+
+    @Test
+    void shouldProvideEmptySummaryWithoutCoverage() {
+        CoverageSummaryCache cache = new CoverageSummaryCache();
+
+        assertThat(cache.getSummary(createJob()).hasCoverage()).isFalse();
+        assertThat(cache.getSummary(createJobWithActions()).hasCoverage()).isFalse();
+        assertThat(cache.getSummary(createJobWithActions()).getUrlName()).isEmpty();
+    }
+
+    @Test
+    void shouldReplaceSummaryWithNewerBuildsOnly() {
+        CoverageSummaryCache cache = new CoverageSummaryCache();
+        Job<?, ?> job = createJob();
+        Run<?, ?> newer = createCompletedBuild(job, 2, Fraction.ONE_HALF);
+        Run<?, ?> older = createCompletedBuild(job, 1, Fraction.ONE_QUARTER);
+
+        cache.update(newer);
+        cache.update(older);
+
+        assertThat(cache.getSummary(job).getBuildNumber()).isEqualTo(2);
+        assertThat(cache.getSummary(job).getCoverage(PROJECT_COVERAGE, METRIC, job))
+                .contains(CoveragePercentage.valueOf(Fraction.ONE_HALF));
+        verify(job, never()).getLastCompletedBuild();
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void shouldKeepSummaryOfBuildThatCompletedWhileLoadingTheLastBuild() {
+        CoverageSummaryCache cache = new CoverageSummaryCache();
+        Job job = createJob();
+        Run<?, ?> newer = createCompletedBuild(job, 2, Fraction.ONE_HALF);
+        Run<?, ?> older = createCompletedBuild(job, 1, Fraction.ONE_QUARTER);
+        when(job.getLastCompletedBuild()).thenAnswer(invocation -> {
+            cache.update(newer);
+            return older;
+        });
+
+        assertThat(cache.getSummary(job).getBuildNumber()).isEqualTo(2);
+        assertThat(cache.getSummary(job).getBuildNumber()).isEqualTo(2);
+        verify(job, times(1)).getLastCompletedBuild();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Run<?, ?> createCompletedBuild(final Job<?, ?> job, final int number, final Fraction coverage) {
+        Run build = createBuildWithActions(createCoverageBuildAction(METRIC, coverage));
+        when(build.getNumber()).thenReturn(number);
+        when(build.getParent()).thenReturn(job);
+        return build;
+    }
+}
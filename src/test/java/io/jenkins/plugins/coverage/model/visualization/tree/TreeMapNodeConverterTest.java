@@ -1,14 +1,23 @@
 package io.jenkins.plugins.coverage.model.visualization.tree;
 
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.junit.jupiter.api.Test;
 
 import edu.hm.hafner.echarts.TreeMapNode;
 
 import io.jenkins.plugins.coverage.model.AbstractCoverageTest;
+import io.jenkins.plugins.coverage.model.Coverage.CoverageBuilder;
+import io.jenkins.plugins.coverage.model.CoverageLeaf;
 import io.jenkins.plugins.coverage.model.CoverageMetric;
 import io.jenkins.plugins.coverage.model.CoverageNode;
+import io.jenkins.plugins.coverage.model.FileCoverageNode;
+import io.jenkins.plugins.coverage.model.PackageCoverageNode;
 import io.jenkins.plugins.coverage.model.visualization.colorization.ColorProvider;
 import io.jenkins.plugins.coverage.model.visualization.colorization.ColorProviderFactory;
 import io.jenkins.plugins.coverage.model.visualization.colorization.CoverageLevel;
@@ -70,6 +79,118 @@ class TreeMapNodeConverterTest extends AbstractCoverageTest {
         );
     }
 
+    @Test
+    void shouldConvertFirstLevelsOfAnalysisModel() {
+        CoverageNode tree = readNode(Paths.get("..", "..", "jacoco-analysis-model.xml").toString());
+        tree.splitPackages();
+        TreeMapNodeConverter converter = new TreeMapNodeConverter();
+
+        PartialTreeMap partial = converter.toPartialTreeChartModel(tree, Collections.emptyList(),
+                CoverageMetric.LINE, COLOR_PROVIDER, 1);
+
+        TreeMapNode root = partial.getRoot();
+        assertThat(root.getName()).isEqualTo("Static Analysis Model and Parsers: jacoco-analysis-model.xml");
+        assertThat(root.getValue()).containsExactly(6368.0, 6083.0);
+        assertThat(root.getChildren()).hasSize(1).element(0).satisfies(
+                node -> {
+                    assertThat(node.getName()).isEqualTo("edu.hm.hafner");
+                    assertThat(node.getValue()).containsExactly(6368.0, 6083.0);
+                    assertThat(node.getChildren()).isEmpty();
+                }
+        );
+        assertThat(partial.getExpandable()).containsExactly(Collections.singletonList("edu.hm.hafner"));
+
+        PartialTreeMap expanded = converter.toPartialTreeChartModel(tree, Collections.singletonList("edu.hm.hafner"),
+                CoverageMetric.LINE, COLOR_PROVIDER, 1);
+        assertThat(expanded.getRoot().getName()).isEqualTo("edu.hm.hafner");
+        assertThat(expanded.getRoot().getChildren()).isNotEmpty();
+        assertThat(expanded.getRoot().getChildren().stream().mapToDouble(node -> node.getValue().get(0)).sum())
+                .isEqualTo(6368.0);
+        assertThat(expanded.getExpandable()).isNotEmpty().allSatisfy(
+                path -> assertThat(path).hasSize(2).first().isEqualTo("edu.hm.hafner"));
+
+        assertThatExceptionOfType(NoSuchElementException.class).isThrownBy(
+                () -> converter.toPartialTreeChartModel(tree, Collections.singletonList("edu"),
+                        CoverageMetric.LINE, COLOR_PROVIDER, 1));
+    }
+
+    @Test
+    void shouldAggregateSmallestChildren() {
+        CoverageNode root = new CoverageNode(CoverageMetric.MODULE, "root");
+        PackageCoverageNode packageNode = new PackageCoverageNode("package");
+        root.add(packageNode);
+        packageNode.add(createFile("Large.java", 1000, 500));
+        packageNode.add(createFile("Small.java", 5, 5));
+        packageNode.add(createFile("Tiny.java", 2, 0));
+
+        PartialTreeMap partial = new TreeMapNodeConverter(1).toPartialTreeChartModel(root,
+                Collections.emptyList(), CoverageMetric.LINE, COLOR_PROVIDER, 2);
+
+        assertThat(partial.getExpandable()).isEmpty();
+        assertThat(partial.getRoot().getChildren()).hasSize(1).element(0).satisfies(
+                node -> assertThat(node.getChildren()).hasSize(2)
+                        .anySatisfy(large -> assertThat(large.getName()).isEqualTo("Large.java"))
+                        .anySatisfy(other -> {
+                            assertThat(other.getName()).isEqualTo("Other (2 items)");
+                            assertThat(other.getValue()).containsExactly(7.0, 5.0);
+                        }));
+
+        packageNode.add(createFile("Medium.java", 100, 50));
+        PartialTreeMap expanded = new TreeMapNodeConverter(2).toPartialTreeChartModel(root,
+                Arrays.asList("package"), CoverageMetric.LINE, COLOR_PROVIDER, 1);
+        assertThat(expanded.getRoot().getName()).isEqualTo("package");
+        assertThat(expanded.getRoot().getChildren()).extracting(TreeMapNode::getName)
+                .containsExactlyInAnyOrder("Large.java", "Medium.java", "Other (2 items)");
+    }
+
+    @Test
+    void shouldNotAggregateSmallChildrenIfThereAreOnlyFewChildren() {
+        CoverageNode root = new CoverageNode(CoverageMetric.MODULE, "root");
+        PackageCoverageNode packageNode = new PackageCoverageNode("package");
+        root.add(packageNode);
+        packageNode.add(createFile("Large.java", 1000, 500));
+        packageNode.add(createFile("Small.java", 5, 5));
+        PackageCoverageNode small = new PackageCoverageNode("small");
+        small.add(createFile("Tiny.java", 2, 0));
+        packageNode.add(small);
+
+        PartialTreeMap partial = new TreeMapNodeConverter().toPartialTreeChartModel(root,
+                Arrays.asList("package"), CoverageMetric.LINE, COLOR_PROVIDER, 1);
+
+        assertThat(partial.getRoot().getChildren()).extracting(TreeMapNode::getName)
+                .containsExactlyInAnyOrder("Large.java", "Small.java", "small");
+        assertThat(partial.getExpandable()).containsExactly(Arrays.asList("package", "small"));
+    }
+
+    @Test
+    void shouldComputeCoverageOfEachNodeOnlyOnce() {
+        CoverageNode root = new CoverageNode(CoverageMetric.MODULE, "root");
+        PackageCoverageNode packageNode = new PackageCoverageNode("package");
+        root.add(packageNode);
+        for (int i = 0; i < 20; i++) {
+            packageNode.add(createFile("File" + i + ".java", 10 + i, i));
+        }
+
+        Map<CoverageNode, Integer> calls = new IdentityHashMap<>();
+        PartialTreeMap partial = new TreeMapNodeConverter(5).toPartialTreeChartModel(root, Collections.emptyList(),
+                node -> {
+                    calls.merge(node, 1, Integer::sum);
+                    return node.getCoverage(CoverageMetric.LINE);
+                }, COLOR_PROVIDER, 2);
+
+        assertThat(partial.getRoot().getChildren()).hasSize(1).element(0).satisfies(
+                node -> assertThat(node.getChildren()).hasSize(6)
+                        .anySatisfy(other -> assertThat(other.getName()).isEqualTo("Other (15 items)")));
+        assertThat(calls).hasSize(22).allSatisfy((node, count) -> assertThat(count).isOne());
+    }
+
+    private FileCoverageNode createFile(final String name, final int total, final int covered) {
+        FileCoverageNode file = new FileCoverageNode(name, "package/" + name);
+        file.add(new CoverageLeaf(CoverageMetric.LINE,
+                new CoverageBuilder().setCovered(covered).setMissed(total - covered).build()));
+        return file;
+    }
+
     /**
      * Gets the matching fill color for the coverage percentage.
      *